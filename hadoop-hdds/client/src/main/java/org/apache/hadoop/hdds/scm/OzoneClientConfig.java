@@ -161,6 +161,16 @@ public enum ChecksumCombineMode {
       tags = ConfigTag.CLIENT)
   private int readRetryInterval = 1;
 
+  @Config(key = "read.readahead.max.chunks",
+      defaultValue = "0",
+      description = "Maximum number of chunks of a block which are read "
+          + "asynchronously ahead of a sequential reader. The readahead "
+          + "window starts at one chunk, doubles on each sequentially read "
+          + "chunk up to this limit, and is dropped when the stream is "
+          + "seeked. 0 disables readahead.",
+      tags = ConfigTag.CLIENT)
+  private int readaheadMaxChunks = 0;
+
   @Config(key = "checksum.type",
       defaultValue = "CRC32",
       description = "The checksum type [NONE/ CRC32/ CRC32C/ SHA256/ MD5] "
@@ -355,6 +365,14 @@ public int getReadRetryInterval() {
     return readRetryInterval;
   }
 
+  public int getReadaheadMaxChunks() {
+    return readaheadMaxChunks;
+  }
+
+  public void setReadaheadMaxChunks(int readaheadMaxChunks) {
+    this.readaheadMaxChunks = readaheadMaxChunks;
+  }
+
   public void setReadRetryInterval(int readRetryInterval) {
     this.readRetryInterval = readRetryInterval;
   }
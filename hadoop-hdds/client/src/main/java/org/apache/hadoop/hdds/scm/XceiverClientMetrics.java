@@ -41,6 +41,9 @@ public class XceiverClientMetrics {
   private @Metric MutableCounterLong totalOps;
   private @Metric MutableCounterLong ecReconstructionTotal;
   private @Metric MutableCounterLong ecReconstructionFailsTotal;
+  private @Metric MutableCounterLong readaheadChunks;
+  private @Metric MutableCounterLong readaheadChunksHit;
+  private @Metric MutableCounterLong readaheadChunksWasted;
   private MutableCounterLong[] pendingOpsArray;
   private MutableCounterLong[] opsArray;
   private MutableRate[] containerOpsLatency;
@@ -110,6 +113,45 @@ public void incECReconstructionFailsTotal() {
     ecReconstructionFailsTotal.incr();
   }
 
+  public void incReadaheadChunks() {
+    readaheadChunks.incr();
+  }
+
+  public void incReadaheadChunksHit() {
+    readaheadChunksHit.incr();
+  }
+
+  public void incReadaheadChunksWasted() {
+    readaheadChunksWasted.incr();
+  }
+
+  @Metric("Fraction of the chunks read ahead which were used by the reader")
+  public double getReadaheadHitRatio() {
+    long total = readaheadChunks.value();
+    return total == 0 ? 0 : (double) readaheadChunksHit.value() / total;
+  }
+
+  @Metric("Fraction of the chunks read ahead which were discarded")
+  public double getReadaheadWasteRatio() {
+    long total = readaheadChunks.value();
+    return total == 0 ? 0 : (double) readaheadChunksWasted.value() / total;
+  }
+
+  @VisibleForTesting
+  public long getReadaheadChunks() {
+    return readaheadChunks.value();
+  }
+
+  @VisibleForTesting
+  public long getReadaheadChunksHit() {
+    return readaheadChunksHit.value();
+  }
+
+  @VisibleForTesting
+  public long getReadaheadChunksWasted() {
+    return readaheadChunksWasted.value();
+  }
+
   @VisibleForTesting
   public long getTotalOpCount() {
     return totalOps.value();
@@ -21,12 +21,15 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.google.common.base.Preconditions;
 import org.apache.hadoop.hdds.client.BlockID;
@@ -112,11 +115,33 @@ public class BlockInputStream extends BlockExtendedInputStream {
 
   private final Function<BlockID, BlockLocationInfo> refreshFunction;
 
+  // Chunks following the current one are read asynchronously while the block
+  // is read sequentially. The window starts at one chunk, doubles on every
+  // chunk which is read to its end, up to readaheadMaxChunks, and is reset
+  // when the stream is seeked, unless forward within the chunks being read
+  // ahead.
+  private final int readaheadMaxChunks;
+  private final Supplier<ExecutorService> readaheadExecutor;
+  private int readaheadWindow;
+  // Index of the last chunk for which readahead has been started.
+  private int readaheadChunkIndex = -1;
+
   public BlockInputStream(BlockID blockId, long blockLen, Pipeline pipeline,
       Token<OzoneBlockTokenIdentifier> token,
       XceiverClientFactory xceiverClientFactory,
       Function<BlockID, BlockLocationInfo> refreshFunction,
       OzoneClientConfig config) throws IOException {
+    this(blockId, blockLen, pipeline, token, xceiverClientFactory,
+        refreshFunction, config, null);
+  }
+
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  public BlockInputStream(BlockID blockId, long blockLen, Pipeline pipeline,
+      Token<OzoneBlockTokenIdentifier> token,
+      XceiverClientFactory xceiverClientFactory,
+      Function<BlockID, BlockLocationInfo> refreshFunction,
+      OzoneClientConfig config,
+      Supplier<ExecutorService> readaheadExecutor) throws IOException {
     this.blockID = blockId;
     this.length = blockLen;
     setPipeline(pipeline);
@@ -127,6 +152,8 @@ public BlockInputStream(BlockID blockId, long blockLen, Pipeline pipeline,
     this.retryPolicy =
         HddsClientUtils.createRetryPolicy(config.getMaxReadRetryCount(),
             TimeUnit.SECONDS.toMillis(config.getReadRetryInterval()));
+    this.readaheadMaxChunks = config.getReadaheadMaxChunks();
+    this.readaheadExecutor = readaheadExecutor;
   }
 
   public BlockInputStream(BlockID blockId, long blockLen, Pipeline pipeline,
@@ -401,11 +428,124 @@ protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
       if (current.getRemaining() <= 0 &&
           ((chunkIndex + 1) < chunkStreams.size())) {
         chunkIndex += 1;
+        readahead();
       }
     }
     return totalReadLen;
   }
 
+  /**
+   * Reads from the chunks at the given position directly, so that the
+   * position of this stream and the chunks being read ahead are kept.
+   */
+  @Override
+  public synchronized int read(long position, ByteBuffer buffer, int len)
+      throws IOException {
+    if (!initialized) {
+      initialize();
+    }
+
+    checkOpen();
+    if (chunkStreams == null || chunkStreams.isEmpty()) {
+      return EOF;
+    }
+    int index = Arrays.binarySearch(chunkOffsets, position);
+    if (index < 0) {
+      // See seek() for the adjustment of the insertion point.
+      index = -index - 2;
+    }
+    int totalReadLen = 0;
+    while (len > 0 && index < chunkStreams.size()) {
+      ChunkInputStream current = chunkStreams.get(index);
+      long chunkPosition = position - chunkOffsets[index];
+      int numBytesToRead = (int) Math.min(len,
+          current.getLength() - chunkPosition);
+      if (numBytesToRead <= 0) {
+        index++;
+        continue;
+      }
+      int numBytesRead;
+      try {
+        numBytesRead = current.read(chunkPosition, buffer, numBytesToRead);
+        retries = 0;
+      } catch (SCMSecurityException ex) {
+        throw ex;
+      } catch (StorageContainerException e) {
+        if (shouldRetryRead(e)) {
+          handleReadError(e);
+          continue;
+        } else {
+          throw e;
+        }
+      } catch (IOException ex) {
+        if (shouldRetryRead(ex)) {
+          if (isConnectivityIssue(ex)) {
+            handleReadError(ex);
+          } else {
+            current.releaseClient();
+          }
+          continue;
+        } else {
+          throw ex;
+        }
+      }
+
+      if (numBytesRead != numBytesToRead) {
+        throw new IOException(String.format(
+            "Inconsistent read for chunkName=%s length=%d numBytesToRead= %d " +
+                "numBytesRead=%d", current.getChunkName(), current.getLength(),
+            numBytesToRead, numBytesRead));
+      }
+      totalReadLen += numBytesRead;
+      position += numBytesRead;
+      len -= numBytesRead;
+      index++;
+    }
+    return totalReadLen == 0 ? EOF : totalReadLen;
+  }
+
+  /**
+   * Called when the reader moves to the next chunk after reading the
+   * previous one to its end. Grows the readahead window and starts reading
+   * the chunks within the window which are not being read yet.
+   */
+  private void readahead() {
+    if (readaheadMaxChunks <= 0 || readaheadExecutor == null) {
+      return;
+    }
+    readaheadWindow = Math.min(readaheadMaxChunks,
+        Math.max(1, readaheadWindow * 2));
+    int last = Math.min(chunkIndex + readaheadWindow,
+        chunkStreams.size() - 1);
+    for (int i = Math.max(chunkIndex + 1, readaheadChunkIndex + 1);
+         i <= last; i++) {
+      chunkStreams.get(i).prefetch(readaheadExecutor.get());
+    }
+    readaheadChunkIndex = Math.max(readaheadChunkIndex, last);
+  }
+
+  /**
+   * @return the position after the last chunk being read ahead, or -1 if
+   * there is no readahead
+   */
+  private long getReadaheadEnd() {
+    if (readaheadChunkIndex < 0) {
+      return -1;
+    }
+    return chunkOffsets[readaheadChunkIndex] +
+        chunkStreams.get(readaheadChunkIndex).getLength();
+  }
+
+  private void cancelReadahead() {
+    if (readaheadChunkIndex >= 0) {
+      for (ChunkInputStream chunkStream : chunkStreams) {
+        chunkStream.cancelPrefetch();
+      }
+    }
+    readaheadWindow = 0;
+    readaheadChunkIndex = -1;
+  }
+
   /**
    * Seeks the BlockInputStream to the specified position. If the stream is
    * not initialized, save the seeked position via blockPosition. Otherwise,
@@ -442,6 +582,12 @@ public synchronized void seek(long pos) throws IOException {
           "EOF encountered at pos: " + pos + " for block: " + blockID);
     }
 
+    final long prevPos = getPos();
+    final boolean keepReadahead = pos > prevPos && pos < getReadaheadEnd();
+    if (pos != prevPos && !keepReadahead) {
+      cancelReadahead();
+    }
+
     if (chunkIndex >= chunkStreams.size()) {
       chunkIndex = Arrays.binarySearch(chunkOffsets, pos);
     } else if (pos < chunkOffsets[chunkIndex]) {
@@ -468,6 +614,12 @@ public synchronized void seek(long pos) throws IOException {
     for (int index =  chunkIndex + 1; index < chunkStreams.size(); index++) {
       chunkStreams.get(index).seek(0);
     }
+    if (keepReadahead) {
+      // Drop the data read ahead for the chunks skipped by the seek
+      for (int index = 0; index < chunkIndex; index++) {
+        chunkStreams.get(index).cancelPrefetch();
+      }
+    }
     // seek to the proper offset in the ChunkInputStream
     chunkStreams.get(chunkIndex).seek(pos - chunkOffsets[chunkIndex]);
     chunkIndexOfPrevPosition = chunkIndex;
@@ -547,6 +699,8 @@ synchronized long getBlockPosition() {
   public synchronized void unbuffer() {
     storePosition();
     releaseClient();
+    readaheadWindow = 0;
+    readaheadChunkIndex = -1;
 
     final List<ChunkInputStream> inputStreams = this.chunkStreams;
     if (inputStreams != null) {
@@ -33,6 +33,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ReadChunkResponseProto;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
+import org.apache.hadoop.hdds.scm.XceiverClientManager;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi.Validator;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
@@ -42,13 +43,20 @@
 import org.apache.hadoop.ozone.common.utils.BufferUtils;
 import org.apache.hadoop.security.token.Token;
 import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 /**
@@ -59,12 +67,16 @@
 public class ChunkInputStream extends InputStream
     implements Seekable, CanUnbuffer, ByteBufferReadable {
 
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ChunkInputStream.class);
+
   private final ChunkInfo chunkInfo;
   private final long length;
   private final BlockID blockID;
-  private ContainerProtos.DatanodeBlockID datanodeBlockID;
+  // Volatile as it is also used by the readahead task, see prefetch().
+  private volatile ContainerProtos.DatanodeBlockID datanodeBlockID;
   private final XceiverClientFactory xceiverClientFactory;
-  private XceiverClientSpi xceiverClient;
+  private volatile XceiverClientSpi xceiverClient;
   private final Supplier<Pipeline> pipelineSupplier;
   private final boolean verifyChecksum;
   private boolean allocated = false;
@@ -103,6 +115,9 @@ public class ChunkInputStream extends InputStream
   private static final int EOF = -1;
   private final List<Validator> validators;
 
+  // Data of the whole chunk being read ahead of the reader, see prefetch().
+  private CompletableFuture<ByteBuffer[]> prefetchedData;
+
   ChunkInputStream(ChunkInfo chunkInfo, BlockID blockId,
       XceiverClientFactory xceiverClientFactory,
       Supplier<Pipeline> pipelineSupplier,
@@ -275,6 +290,60 @@ public synchronized long getPos() {
     return 0;
   }
 
+  /**
+   * Reads up to {@code len} bytes of the chunk starting at the given position
+   * into the buffer. The data is read from the Datanode directly, so the
+   * position, the buffers and the readahead of this stream are not changed.
+   *
+   * @return the number of bytes read, or -1 if the position is at or beyond
+   *         the end of the chunk.
+   */
+  synchronized int read(long pos, ByteBuffer buffer, int len)
+      throws IOException {
+    if (pos >= length) {
+      return EOF;
+    }
+    len = (int) Math.min(len, length - pos);
+    if (len <= 0) {
+      return 0;
+    }
+    acquireClient();
+
+    long readOffset = pos;
+    long readLen = len;
+    if (verifyChecksum) {
+      Pair<Long, Long> adjustedOffsetAndLength =
+          computeChecksumBoundaries(pos, len);
+      readOffset = adjustedOffsetAndLength.getLeft();
+      readLen = adjustedOffsetAndLength.getRight();
+    }
+    final ChunkInfo readChunkInfo = ChunkInfo.newBuilder(chunkInfo)
+        .setOffset(chunkInfo.getOffset() + readOffset)
+        .setLen(readLen)
+        .build();
+
+    // Skip the bytes read only for the checksum boundaries
+    long skip = pos - readOffset;
+    int remaining = len;
+    for (ByteBuffer data : readChunk(readChunkInfo)) {
+      ByteBuffer src = data.duplicate();
+      if (skip >= src.remaining()) {
+        skip -= src.remaining();
+        continue;
+      }
+      src.position(src.position() + (int) skip);
+      skip = 0;
+      int n = Math.min(remaining, src.remaining());
+      src.limit(src.position() + n);
+      buffer.put(src);
+      remaining -= n;
+      if (remaining == 0) {
+        break;
+      }
+    }
+    return len - remaining;
+  }
+
   @Override
   public boolean seekToNewSource(long targetPos) {
     return false;
@@ -282,10 +351,116 @@ public boolean seekToNewSource(long targetPos) {
 
   @Override
   public synchronized void close() {
+    cancelPrefetch();
     releaseBuffers();
     releaseClient();
   }
 
+  /**
+   * Starts reading the whole chunk asynchronously, unless the data at the
+   * current position is already buffered or being read. The data is used by
+   * the next read of the chunk which needs to fetch data from the Datanode.
+   * <p>
+   * The readahead task uses the client and block ID current when it is
+   * started, and holds a reference to the client until it completes, so that
+   * the stream may be unbuffered or closed meanwhile.
+   */
+  synchronized void prefetch(Executor executor) {
+    if (prefetchedData != null || buffersHavePosition(getPos())) {
+      return;
+    }
+    final XceiverClientSpi client;
+    try {
+      acquireClient();
+      client = acquirePrefetchClient();
+    } catch (IOException e) {
+      LOG.debug("Failed to start readahead of chunk {} of block {}",
+          getChunkName(), blockID, e);
+      return;
+    }
+    final ContainerProtos.DatanodeBlockID blockId = datanodeBlockID;
+    final CompletableFuture<ByteBuffer[]> future = new CompletableFuture<>();
+    try {
+      executor.execute(() -> {
+        try {
+          // Nothing to read if the readahead was cancelled while queued
+          if (!future.isDone()) {
+            future.complete(readChunk(client, blockId, chunkInfo));
+          }
+        } catch (IOException | RuntimeException e) {
+          future.completeExceptionally(e);
+        } finally {
+          releasePrefetchClient(client);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      LOG.debug("Failed to start readahead of chunk {} of block {}",
+          getChunkName(), blockID, e);
+      releasePrefetchClient(client);
+      return;
+    }
+    prefetchedData = future;
+    XceiverClientManager.getXceiverClientMetrics().incReadaheadChunks();
+  }
+
+  /**
+   * @return another reference to the current client, for a readahead task
+   */
+  private XceiverClientSpi acquirePrefetchClient() throws IOException {
+    if (xceiverClientFactory == null || xceiverClient == null) {
+      return xceiverClient;
+    }
+    return xceiverClientFactory.acquireClientForReadData(
+        xceiverClient.getPipeline());
+  }
+
+  private void releasePrefetchClient(XceiverClientSpi client) {
+    if (xceiverClientFactory != null && client != null) {
+      xceiverClientFactory.releaseClientForReadData(client, false);
+    }
+  }
+
+  /**
+   * Drops the data being read ahead, if any.
+   */
+  synchronized void cancelPrefetch() {
+    if (prefetchedData != null) {
+      prefetchedData.cancel(false);
+      prefetchedData = null;
+      XceiverClientManager.getXceiverClientMetrics()
+          .incReadaheadChunksWasted();
+    }
+  }
+
+  @VisibleForTesting
+  synchronized boolean isPrefetched() {
+    return prefetchedData != null;
+  }
+
+  /**
+   * Waits for the data being read ahead.
+   * @return the data of the whole chunk, or null if the readahead failed.
+   */
+  private ByteBuffer[] takePrefetchedData() throws IOException {
+    CompletableFuture<ByteBuffer[]> future = prefetchedData;
+    prefetchedData = null;
+    try {
+      ByteBuffer[] data = future.get();
+      XceiverClientManager.getXceiverClientMetrics().incReadaheadChunksHit();
+      return data;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for " +
+          "readahead of chunk " + getChunkName());
+    } catch (ExecutionException e) {
+      LOG.debug("Readahead of chunk {} of block {} failed, reading it again",
+          getChunkName(), blockID, e.getCause());
+      XceiverClientManager.getXceiverClientMetrics()
+          .incReadaheadChunksWasted();
+      return null;
+    }
+  }
+
   protected synchronized void releaseClient() {
     if (xceiverClientFactory != null && xceiverClient != null) {
       xceiverClientFactory.releaseClientForReadData(xceiverClient, false);
@@ -380,6 +555,16 @@ private synchronized void readChunkFromContainer(int len) throws IOException {
     // successful read in adjustBufferPosition()
     storePosition();
 
+    if (prefetchedData != null) {
+      ByteBuffer[] data = takePrefetchedData();
+      if (data != null) {
+        setBuffers(data, length);
+        bufferOffsetWrtChunkData = 0;
+        adjustBufferPosition(startByteIndex);
+        return;
+      }
+    }
+
     long adjustedBuffersOffset, adjustedBuffersLen;
     if (verifyChecksum) {
       // Adjust the chunk offset and length to include required checksum
@@ -416,8 +601,12 @@ private synchronized void readChunkFromContainer(int len) throws IOException {
 
   private void readChunkDataIntoBuffers(ChunkInfo readChunkInfo)
       throws IOException {
-    buffers = readChunk(readChunkInfo);
-    buffersSize = readChunkInfo.getLen();
+    setBuffers(readChunk(readChunkInfo), readChunkInfo.getLen());
+  }
+
+  private void setBuffers(ByteBuffer[] data, long dataLen) {
+    buffers = data;
+    buffersSize = dataLen;
 
     bufferOffsets = new long[buffers.length];
     int tempOffset = 0;
@@ -431,16 +620,24 @@ private void readChunkDataIntoBuffers(ChunkInfo readChunkInfo)
     allocated = true;
   }
 
+  private ByteBuffer[] readChunk(ChunkInfo readChunkInfo) throws IOException {
+    return readChunk(xceiverClient, datanodeBlockID, readChunkInfo);
+  }
+
   /**
    * Send RPC call to get the chunk from the container.
+   * @param client the client connected to the Datanode
+   * @param blockId ID of the block on the Datanode
+   * @param readChunkInfo part of the chunk to read
    */
   @VisibleForTesting
-  protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo)
+  protected ByteBuffer[] readChunk(XceiverClientSpi client,
+      ContainerProtos.DatanodeBlockID blockId, ChunkInfo readChunkInfo)
       throws IOException {
 
     ReadChunkResponseProto readChunkResponse =
-        ContainerProtocolCalls.readChunk(xceiverClient, readChunkInfo, datanodeBlockID, validators,
-            tokenSupplier.get());
+        ContainerProtocolCalls.readChunk(client, readChunkInfo, blockId,
+            validators, tokenSupplier.get());
 
     if (readChunkResponse.hasData()) {
       return readChunkResponse.getData().asReadOnlyByteBufferList()
@@ -740,6 +937,7 @@ protected long getChunkPosition() {
 
   @Override
   public synchronized void unbuffer() {
+    cancelPrefetch();
     storePosition();
     releaseBuffers();
     releaseClient();
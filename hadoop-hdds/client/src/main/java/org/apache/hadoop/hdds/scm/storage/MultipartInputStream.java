@@ -25,6 +25,7 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -105,6 +106,70 @@ protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
     return totalReadLen;
   }
 
+  /**
+   * Reads up to {@code buffer.remaining()} bytes starting at the given
+   * position of the key, without changing the position of this stream.
+   * <p>
+   * Only the part being read is locked, so positioned reads of different
+   * parts (blocks) can run in parallel with each other and with sequential
+   * reads of this stream.
+   *
+   * @return the number of bytes read, or -1 if the position is at or beyond
+   *         the end of the stream.
+   */
+  public int read(long position, ByteBuffer buffer) throws IOException {
+    checkOpen();
+    if (position < 0) {
+      throw new EOFException(FSExceptionMessages.NEGATIVE_SEEK);
+    }
+    if (!buffer.hasRemaining()) {
+      return 0;
+    }
+    if (position >= length) {
+      return EOF;
+    }
+
+    int totalReadLen = 0;
+    int index = getPartIndex(position);
+    while (buffer.hasRemaining() && index < partStreams.size()) {
+      PartInputStream part = partStreams.get(index);
+      long partPosition = position - partOffsets[index];
+      int numBytesToRead = (int) Math.min(buffer.remaining(),
+          part.getLength() - partPosition);
+      if (numBytesToRead > 0) {
+        int numBytesRead = readPart(part, partPosition, buffer,
+            numBytesToRead);
+        if (numBytesRead <= 0) {
+          break;
+        }
+        totalReadLen += numBytesRead;
+        position += numBytesRead;
+        if (numBytesRead < numBytesToRead) {
+          continue;
+        }
+      }
+      index++;
+    }
+    return totalReadLen == 0 ? EOF : totalReadLen;
+  }
+
+  /**
+   * Reads from the given part at the given offset, without changing the
+   * position of the part.
+   */
+  private static int readPart(PartInputStream part, long partPosition,
+      ByteBuffer buffer, int numBytesToRead) throws IOException {
+    synchronized (part) {
+      return part.read(partPosition, buffer, numBytesToRead);
+    }
+  }
+
+  private int getPartIndex(long pos) {
+    int index = Arrays.binarySearch(partOffsets, pos);
+    // See seek() for the adjustment of the insertion point.
+    return index < 0 ? -index - 2 : index;
+  }
+
   protected int getNumBytesToRead(ByteReaderStrategy strategy,
                                   PartInputStream current) throws IOException {
     return strategy.getTargetLength();
@@ -21,6 +21,8 @@
 import org.apache.hadoop.fs.Seekable;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -34,5 +36,28 @@ default long getRemaining() throws IOException {
     return getLength() - getPos();
   }
 
+  /**
+   * Reads up to {@code len} bytes starting at the given position of this
+   * part into the buffer, without changing the position of the stream.
+   * <p>
+   * The default implementation seeks to the position and back, so the caller
+   * must hold the lock of the stream. Streams which can read at a position
+   * without seeking should override it.
+   *
+   * @return the number of bytes read, or -1 if the position is at or beyond
+   *         the end of the part.
+   */
+  default int read(long position, ByteBuffer buffer, int len)
+      throws IOException {
+    long savedPosition = getPos();
+    try {
+      seek(position);
+      return new ByteBufferReader(buffer)
+          .readFromBlock((InputStream) this, len);
+    } finally {
+      seek(savedPosition);
+    }
+  }
+
   void close() throws IOException;
 }
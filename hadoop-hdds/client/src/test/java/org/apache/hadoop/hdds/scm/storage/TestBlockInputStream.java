@@ -19,6 +19,7 @@
 package org.apache.hadoop.hdds.scm.storage;
 
 import com.google.common.primitives.Bytes;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.client.ContainerBlockID;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
@@ -27,6 +28,8 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
 import org.apache.hadoop.hdds.scm.OzoneClientConfig;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
+import org.apache.hadoop.hdds.scm.XceiverClientManager;
+import org.apache.hadoop.hdds.scm.XceiverClientMetrics;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
@@ -166,6 +169,125 @@ private void matchWithInputData(byte[] readData, int inputDataStartIndex,
     }
   }
 
+  @Test
+  public void testReadahead() throws Exception {
+    OzoneClientConfig clientConfig = conf.getObject(OzoneClientConfig.class);
+    clientConfig.setChecksumVerify(false);
+    clientConfig.setReadaheadMaxChunks(2);
+    // Chunks are read ahead synchronously to keep the test deterministic.
+    blockStream = new DummyBlockInputStream(
+        new BlockID(new ContainerBlockID(1, 1)), blockSize,
+        MockPipeline.createSingleNodePipeline(), null, null, refreshFunction,
+        chunks, chunkDataMap, clientConfig,
+        MoreExecutors::newDirectExecutorService);
+    XceiverClientMetrics metrics =
+        XceiverClientManager.getXceiverClientMetrics();
+    long readaheadChunks = metrics.getReadaheadChunks();
+    long readaheadChunksHit = metrics.getReadaheadChunksHit();
+    long readaheadChunksWasted = metrics.getReadaheadChunksWasted();
+
+    // Moving to chunk 1 starts the readahead of chunk 2.
+    byte[] b = new byte[150];
+    assertEquals(150, blockStream.read(b, 0, 150));
+    matchWithInputData(b, 0, 150);
+    List<ChunkInputStream> chunkStreams = blockStream.getChunkStreams();
+    assertTrue(chunkStreams.get(2).isPrefetched());
+    assertFalse(chunkStreams.get(3).isPrefetched());
+
+    // Moving to chunk 2 uses the data read ahead and doubles the window.
+    b = new byte[100];
+    assertEquals(100, blockStream.read(b, 0, 100));
+    matchWithInputData(b, 150, 100);
+    assertFalse(chunkStreams.get(2).isPrefetched());
+    assertTrue(chunkStreams.get(3).isPrefetched());
+    assertTrue(chunkStreams.get(4).isPrefetched());
+
+    // Seek drops the data read ahead.
+    seekAndVerify(10);
+    assertFalse(chunkStreams.get(3).isPrefetched());
+    assertFalse(chunkStreams.get(4).isPrefetched());
+
+    b = new byte[blockSize - 10];
+    assertEquals(b.length, blockStream.read(b, 0, b.length));
+    matchWithInputData(b, 10, b.length);
+
+    assertEquals(3 + 2, metrics.getReadaheadChunks() - readaheadChunks);
+    assertEquals(1 + 2,
+        metrics.getReadaheadChunksHit() - readaheadChunksHit);
+    assertEquals(2,
+        metrics.getReadaheadChunksWasted() - readaheadChunksWasted);
+  }
+
+  @Test
+  public void testForwardSeekKeepsReadahead() throws Exception {
+    OzoneClientConfig clientConfig = conf.getObject(OzoneClientConfig.class);
+    clientConfig.setChecksumVerify(false);
+    clientConfig.setReadaheadMaxChunks(2);
+    blockStream = new DummyBlockInputStream(
+        new BlockID(new ContainerBlockID(1, 1)), blockSize,
+        MockPipeline.createSingleNodePipeline(), null, null, refreshFunction,
+        chunks, chunkDataMap, clientConfig,
+        MoreExecutors::newDirectExecutorService);
+    XceiverClientMetrics metrics =
+        XceiverClientManager.getXceiverClientMetrics();
+    long readaheadChunksHit = metrics.getReadaheadChunksHit();
+    long readaheadChunksWasted = metrics.getReadaheadChunksWasted();
+
+    // Chunks 3 and 4 are read ahead while reading chunk 2.
+    byte[] b = new byte[250];
+    assertEquals(250, blockStream.read(b, 0, 250));
+    List<ChunkInputStream> chunkStreams = blockStream.getChunkStreams();
+    assertTrue(chunkStreams.get(3).isPrefetched());
+    assertTrue(chunkStreams.get(4).isPrefetched());
+
+    // Seek within chunk 4 only drops the data of the skipped chunk 3.
+    seekAndVerify(410);
+    assertFalse(chunkStreams.get(3).isPrefetched());
+    assertTrue(chunkStreams.get(4).isPrefetched());
+
+    b = new byte[blockSize - 410];
+    assertEquals(b.length, blockStream.read(b, 0, b.length));
+    matchWithInputData(b, 410, b.length);
+    assertEquals(2,
+        metrics.getReadaheadChunksHit() - readaheadChunksHit);
+    assertEquals(1,
+        metrics.getReadaheadChunksWasted() - readaheadChunksWasted);
+  }
+
+  @Test
+  public void testPositionedReadKeepsReadahead() throws Exception {
+    OzoneClientConfig clientConfig = conf.getObject(OzoneClientConfig.class);
+    clientConfig.setChecksumVerify(false);
+    clientConfig.setReadaheadMaxChunks(2);
+    blockStream = new DummyBlockInputStream(
+        new BlockID(new ContainerBlockID(1, 1)), blockSize,
+        MockPipeline.createSingleNodePipeline(), null, null, refreshFunction,
+        chunks, chunkDataMap, clientConfig,
+        MoreExecutors::newDirectExecutorService);
+
+    // Chunks 3 and 4 are read ahead while reading chunk 2.
+    byte[] b = new byte[250];
+    assertEquals(250, blockStream.read(b, 0, 250));
+    List<ChunkInputStream> chunkStreams = blockStream.getChunkStreams();
+    assertTrue(chunkStreams.get(3).isPrefetched());
+    assertTrue(chunkStreams.get(4).isPrefetched());
+
+    // Positioned read across chunks 0 and 1 keeps the position and readahead.
+    ByteBuffer buffer = ByteBuffer.allocate(120);
+    assertEquals(120, blockStream.read(30, buffer, 120));
+    matchWithInputData(buffer.array(), 30, 120);
+    assertEquals(250, blockStream.getPos());
+    assertTrue(chunkStreams.get(3).isPrefetched());
+    assertTrue(chunkStreams.get(4).isPrefetched());
+
+    // Positioned read beyond the end of the block.
+    assertEquals(-1, blockStream.read(blockSize, ByteBuffer.allocate(1), 1));
+
+    b = new byte[blockSize - 250];
+    assertEquals(b.length, blockStream.read(b, 0, b.length));
+    matchWithInputData(b, 250, b.length);
+  }
+
   @Test
   public void testSeek() throws Exception {
     // Seek to position 0
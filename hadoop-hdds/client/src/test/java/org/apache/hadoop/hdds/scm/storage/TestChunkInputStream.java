@@ -20,6 +20,7 @@
 
 import java.io.EOFException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -47,10 +48,13 @@
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getReadChunkResponse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -284,4 +288,38 @@ public void connectsToNewPipeline() throws Exception {
       verify(newToken).encodeToUrlString();
     }
   }
+
+  @Test
+  public void testPrefetchHoldsClientUntilCompleted() throws Exception {
+    Pipeline pipeline = MockPipeline.createSingleNodePipeline();
+    XceiverClientFactory clientFactory = mock(XceiverClientFactory.class);
+    XceiverClientSpi client = mock(XceiverClientSpi.class);
+    when(clientFactory.acquireClientForReadData(any()))
+        .thenReturn(client);
+    ArgumentCaptor<ContainerCommandRequestProto> requestCaptor =
+        ArgumentCaptor.forClass(ContainerCommandRequestProto.class);
+    when(client.getPipeline()).thenReturn(pipeline);
+    when(client.sendCommand(requestCaptor.capture(), any()))
+        .thenAnswer(invocation ->
+            getReadChunkResponse(
+                requestCaptor.getValue(),
+                ChunkBuffer.wrap(ByteBuffer.wrap(chunkData)),
+                ByteStringConversion::safeWrap));
+    List<Runnable> tasks = new ArrayList<>();
+
+    ChunkInputStream subject = new ChunkInputStream(chunkInfo, blockID,
+        clientFactory, () -> pipeline, false, () -> null);
+    subject.prefetch(tasks::add);
+    assertTrue(subject.isPrefetched());
+    verify(clientFactory, times(2)).acquireClientForReadData(pipeline);
+
+    // The queued readahead keeps its reference after the stream is closed.
+    subject.close();
+    verify(clientFactory).releaseClientForReadData(client, false);
+
+    // Cancelled readahead does not read, but releases the client.
+    tasks.get(0).run();
+    verify(client, never()).sendCommand(any(), any());
+    verify(clientFactory, times(2)).releaseClientForReadData(client, false);
+  }
 }
@@ -24,7 +24,6 @@
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -76,9 +75,8 @@ private CheckedFunction<OutputStream, Integer, IOException> writeTo(
   @Override
   public M fromCodecBuffer(@Nonnull CodecBuffer buffer)
       throws IOException {
-    try (InputStream in = buffer.getInputStream()) {
-      return parser.parseFrom(in);
-    }
+    // Parse directly from the (direct) buffer without copying it to heap.
+    return parser.parseFrom(buffer.asReadOnlyByteBuffer());
   }
 
   @Override
@@ -154,6 +154,12 @@ public final class OzoneConfigKeys {
   public static final String
       OZONE_METADATA_STORE_ROCKSDB_CF_WRITE_BUFFER_SIZE_DEFAULT = "128MB";
 
+  public static final String
+      OZONE_METADATA_STORE_TABLE_CACHE_WATERMARK_EVICTION =
+      "ozone.metastore.table.cache.watermark.eviction.enabled";
+  public static final boolean
+      OZONE_METADATA_STORE_TABLE_CACHE_WATERMARK_EVICTION_DEFAULT = false;
+
   public static final String OZONE_UNSAFEBYTEOPERATIONS_ENABLED =
       "ozone.UnsafeByteOperations.enabled";
   public static final boolean OZONE_UNSAFEBYTEOPERATIONS_ENABLED_DEFAULT
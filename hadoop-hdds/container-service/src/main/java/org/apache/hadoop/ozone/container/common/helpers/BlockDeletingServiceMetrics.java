@@ -78,6 +78,18 @@ public final class BlockDeletingServiceMetrics {
       " to container lock wait timeout.")
   private MutableGaugeLong totalLockTimeoutTransactionCount;
 
+  @Metric(about = "The number of blocks to be deleted in the last " +
+      "interval, after adapting the limit to the load of the volumes.")
+  private MutableGaugeLong blockLimitPerInterval;
+
+  @Metric(about = "The number of volumes whose block deletion was slowed " +
+      "down in the last interval due to their foreground load.")
+  private MutableGaugeLong throttledVolumeCount;
+
+  @Metric(about = "The number of range deletes written for contiguous " +
+      "deleted block keys.")
+  private MutableCounterLong rangeDeleteCount;
+
   private BlockDeletingServiceMetrics() {
   }
 
@@ -148,6 +160,18 @@ public void incrTotalLockTimeoutTransactionCount() {
     totalLockTimeoutTransactionCount.incr();
   }
 
+  public void setBlockLimitPerInterval(long limit) {
+    this.blockLimitPerInterval.set(limit);
+  }
+
+  public void setThrottledVolumeCount(long count) {
+    this.throttledVolumeCount.set(count);
+  }
+
+  public void incrRangeDeleteCount() {
+    this.rangeDeleteCount.incr();
+  }
+
   public long getSuccessCount() {
     return successCount.value();
   }
@@ -184,6 +208,18 @@ public long getTotalLockTimeoutTransactionCount() {
     return totalLockTimeoutTransactionCount.value();
   }
 
+  public long getBlockLimitPerInterval() {
+    return blockLimitPerInterval.value();
+  }
+
+  public long getThrottledVolumeCount() {
+    return throttledVolumeCount.value();
+  }
+
+  public long getRangeDeleteCount() {
+    return rangeDeleteCount.value();
+  }
+
   @Override
   public String toString() {
     StringBuffer buffer = new StringBuffer();
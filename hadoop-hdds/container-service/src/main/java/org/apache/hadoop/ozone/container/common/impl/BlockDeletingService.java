@@ -31,13 +31,17 @@
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerDeletionChoosingPolicy;
 import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.XceiverServerRatis;
+import org.apache.hadoop.ozone.container.common.utils.StorageVolumeUtil;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.keyvalue.statemachine.background.BlockDeletingTask;
 import org.apache.hadoop.ozone.container.ozoneimpl.OzoneContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -59,6 +63,8 @@ public class BlockDeletingService extends BackgroundService {
   private final ConfigurationSource conf;
   private final DatanodeConfiguration dnConf;
   private final BlockDeletingServiceMetrics metrics;
+  // Adapts the block limit of each volume to its load, if enabled
+  private final BlockDeletionThrottle throttle;
 
   // Task priority is useful when a to-delete block has weight.
   private static final int TASK_PRIORITY_DEFAULT = 1;
@@ -99,6 +105,8 @@ public BlockDeletingService(
     this.blockDeletingMaxLockHoldingTime =
         dnConf.getBlockDeletingMaxLockHoldingTime();
     metrics = BlockDeletingServiceMetrics.create();
+    throttle = dnConf.isBlockDeletingIOAwareEnabled()
+        ? new BlockDeletionThrottle(dnConf, Clock.systemUTC()) : null;
   }
 
   /**
@@ -133,9 +141,22 @@ public BackgroundTaskQueue getTasks() {
       // We must ensure there is no empty container in this result.
       // The chosen result depends on what container deletion policy is
       // configured.
-      List<ContainerBlockInfo> containers =
-          chooseContainerForBlockDeletion(getBlockLimitPerInterval(),
-              containerDeletionPolicy);
+      List<ContainerBlockInfo> containers;
+      if (throttle == null) {
+        metrics.setBlockLimitPerInterval(getBlockLimitPerInterval());
+        containers = chooseContainerForBlockDeletion(
+            getBlockLimitPerInterval(), containerDeletionPolicy);
+      } else {
+        Map<HddsVolume, Integer> volumeLimits = throttle.getVolumeLimits(
+            StorageVolumeUtil.getHddsVolumesList(
+                ozoneContainer.getVolumeSet().getVolumesList()),
+            getBlockLimitPerInterval());
+        metrics.setBlockLimitPerInterval(volumeLimits.values().stream()
+            .mapToLong(Integer::longValue).sum());
+        metrics.setThrottledVolumeCount(throttle.getThrottledVolumeCount());
+        containers = chooseContainerForBlockDeletion(volumeLimits,
+            containerDeletionPolicy);
+      }
 
       BackgroundTask
           containerBlockInfos = null;
@@ -170,7 +191,35 @@ public BackgroundTaskQueue getTasks() {
   public List<ContainerBlockInfo> chooseContainerForBlockDeletion(
       int blockLimit, ContainerDeletionChoosingPolicy deletionPolicy)
       throws StorageContainerException {
+    return deletionPolicy.chooseContainerForBlockDeletion(blockLimit,
+        getContainersForBlockDeletion(deletionPolicy));
+  }
 
+  /**
+   * Choose the containers to delete blocks from separately for each volume,
+   * up to the block limit of the volume.
+   */
+  @VisibleForTesting
+  List<ContainerBlockInfo> chooseContainerForBlockDeletion(
+      Map<HddsVolume, Integer> volumeLimits,
+      ContainerDeletionChoosingPolicy deletionPolicy)
+      throws StorageContainerException {
+    Map<HddsVolume, Map<Long, ContainerData>> containersByVolume =
+        getContainersForBlockDeletion(deletionPolicy).entrySet().stream()
+            .filter(e -> volumeLimits.containsKey(e.getValue().getVolume()))
+            .collect(Collectors.groupingBy(e -> e.getValue().getVolume(),
+                Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+    List<ContainerBlockInfo> result = new ArrayList<>();
+    for (Map.Entry<HddsVolume, Map<Long, ContainerData>> e
+        : containersByVolume.entrySet()) {
+      result.addAll(deletionPolicy.chooseContainerForBlockDeletion(
+          volumeLimits.get(e.getKey()), e.getValue()));
+    }
+    return result;
+  }
+
+  private Map<Long, ContainerData> getContainersForBlockDeletion(
+      ContainerDeletionChoosingPolicy deletionPolicy) {
     AtomicLong totalPendingBlockCount = new AtomicLong(0L);
     Map<Long, ContainerData> containerDataMap =
         ozoneContainer.getContainerSet().getContainerMap().entrySet().stream()
@@ -188,8 +237,7 @@ public List<ContainerBlockInfo> chooseContainerForBlockDeletion(
             }));
 
     metrics.setTotalPendingBlockCount(totalPendingBlockCount.get());
-    return deletionPolicy
-        .chooseContainerForBlockDeletion(blockLimit, containerDataMap);
+    return containerDataMap;
   }
 
   private boolean checkPendingDeletionBlocks(ContainerData containerData) {
@@ -275,6 +323,10 @@ public int getBlockLimitPerInterval() {
     return dnConf.getBlockDeletionLimit();
   }
 
+  public int getRangeDeleteThreshold() {
+    return dnConf.getBlockDeletingRangeDeleteThreshold();
+  }
+
   private static class BlockDeletingTaskBuilder {
     private BlockDeletingService blockDeletingService;
     private BlockDeletingService.ContainerBlockInfo containerBlockInfo;
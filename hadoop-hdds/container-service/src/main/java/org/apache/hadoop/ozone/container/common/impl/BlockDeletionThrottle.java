@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.impl;
+
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adapts the number of blocks the {@link BlockDeletingService} deletes from
+ * each volume per interval to the foreground I/O of the volume, as seen in
+ * its {@link VolumeIOStats}.
+ * <p>
+ * The block limit per interval is divided evenly among the volumes. The
+ * share of a volume is halved for each interval in which its average chunk
+ * I/O latency was above the threshold, or chunk requests were waiting in its
+ * queue. It is doubled for each interval in which the volume was idle, up to
+ * the configured multiple of the even share, and otherwise grows back to the
+ * even share.
+ */
+final class BlockDeletionThrottle {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(BlockDeletionThrottle.class);
+
+  // A busy volume still deletes some blocks each interval
+  private static final double MIN_FACTOR = 1.0 / 64;
+  private static final double RECOVERY_STEP = 0.25;
+
+  private final DatanodeConfiguration dnConf;
+  private final Clock clock;
+  private final Map<HddsVolume, VolumeState> states = new HashMap<>();
+
+  BlockDeletionThrottle(DatanodeConfiguration dnConf, Clock clock) {
+    this.dnConf = dnConf;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the number of blocks to delete from each volume in this
+   * interval, out of the total block limit.
+   */
+  synchronized Map<HddsVolume, Integer> getVolumeLimits(
+      Collection<HddsVolume> volumes, int blockLimit) {
+    states.keySet().retainAll(volumes);
+    final Map<HddsVolume, Integer> limits = new HashMap<>();
+    if (volumes.isEmpty()) {
+      return limits;
+    }
+    final int share = Math.max(1, (blockLimit + volumes.size() - 1)
+        / volumes.size());
+    final long now = clock.millis();
+    for (HddsVolume volume : volumes) {
+      final VolumeState state =
+          states.computeIfAbsent(volume, v -> new VolumeState());
+      state.update(volume.getVolumeIOStats(), now);
+      limits.put(volume,
+          (int) Math.max(1, Math.min(Integer.MAX_VALUE,
+              Math.round(share * state.factor))));
+    }
+    return limits;
+  }
+
+  /**
+   * Returns the number of volumes whose share is below the even share.
+   */
+  synchronized int getThrottledVolumeCount() {
+    return (int) states.values().stream()
+        .filter(state -> state.factor < 1)
+        .count();
+  }
+
+  /**
+   * The counters of a volume at the previous interval, and its current
+   * share as a multiple of the even share.
+   */
+  private final class VolumeState {
+    private long lastTime = -1;
+    private long lastOps;
+    private long lastIOTime;
+    private double factor = 1;
+
+    void update(VolumeIOStats stats, long now) {
+      if (stats == null) {
+        return;
+      }
+      final long ops = stats.getReadOpCount() + stats.getWriteOpCount();
+      final long ioTime = stats.getReadTime() + stats.getWriteTime();
+      final long elapsed = now - lastTime;
+      if (lastTime >= 0 && elapsed > 0) {
+        final long deltaOps = ops - lastOps;
+        final long deltaIOTime = ioTime - lastIOTime;
+        final int chunkIOThreads = dnConf.getChunkIOThreadsPerVolume();
+        final boolean slow = deltaOps > 0 && deltaIOTime / deltaOps
+            > dnConf.getBlockDeletingLatencyThreshold().toMillis();
+        final boolean queued = chunkIOThreads > 0
+            && stats.getChunkIOQueueDepth() > chunkIOThreads;
+        final boolean idle = deltaOps * 1000 / elapsed
+            < dnConf.getBlockDeletingIdleIops();
+
+        final double previous = factor;
+        if (slow || queued) {
+          factor = Math.max(MIN_FACTOR, factor / 2);
+        } else if (idle) {
+          factor = Math.min(dnConf.getBlockDeletingIdleLimitMultiplier(),
+              Math.max(1, factor * 2));
+        } else if (factor > 1) {
+          factor = 1;
+        } else {
+          factor = Math.min(1, factor + RECOVERY_STEP);
+        }
+        if (factor != previous) {
+          LOG.debug("Block deletion share of volume {} changed from {} to " +
+                  "{}, slow: {}, queued: {}, idle: {}",
+              stats.getMetricsSourceName(), previous, factor, slow, queued,
+              idle);
+        }
+      }
+      lastTime = now;
+      lastOps = ops;
+      lastIOTime = ioTime;
+    }
+  }
+}
@@ -111,6 +111,9 @@ public abstract class ContainerData {
   private Long dataScanTimestamp; // for serialization
   private transient Optional<Instant> lastDataScanTime = Optional.empty();
 
+  // Number of I/O errors of requests since the last data scan
+  private final transient AtomicLong ioErrorCount = new AtomicLong();
+
   public static final Charset CHARSET_ENCODING = StandardCharsets.UTF_8;
   private static final String DUMMY_CHECKSUM = new String(new byte[64],
       CHARSET_ENCODING);
@@ -594,6 +597,7 @@ public Optional<Instant> lastDataScanTime() {
   public void updateDataScanTime(@Nullable Instant time) {
     lastDataScanTime = Optional.ofNullable(time);
     dataScanTimestamp = time != null ? time.toEpochMilli() : null;
+    ioErrorCount.set(0);
   }
 
   // for deserialization
@@ -608,6 +612,22 @@ public Long getDataScanTimestamp() {
     return dataScanTimestamp;
   }
 
+  /**
+   * Records an I/O error of a request on this container, which makes it a
+   * candidate to be scanned early by the background data scanner.
+   */
+  public void incrIOErrorCount() {
+    ioErrorCount.incrementAndGet();
+  }
+
+  /**
+   * @return the number of I/O errors of requests on this container since
+   * its last data scan.
+   */
+  public long getIOErrorCount() {
+    return ioErrorCount.get();
+  }
+
   /**
    * Returns the origin pipeline Id of this container.
    * @return origin node Id
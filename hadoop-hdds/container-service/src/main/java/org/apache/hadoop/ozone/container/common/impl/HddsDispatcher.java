@@ -75,6 +75,8 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.malformedRequest;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.unsupportedRequest;
@@ -164,6 +166,21 @@ private boolean canIgnoreException(Result result) {
     }
   }
 
+  /**
+   * Returns true for errors which may be caused by damaged data on disk.
+   */
+  private static boolean isIOError(Result result) {
+    switch (result) {
+    case IO_EXCEPTION:
+    case CHECKSUM_MISMATCH:
+    case UNABLE_TO_FIND_CHUNK:
+    case UNABLE_TO_READ_METADATA_DB:
+      return true;
+    default:
+      return false;
+    }
+  }
+
   @Override
   public void buildMissingContainerSetAndValidate(
       Map<Long, Long> container2BCSIDMap) {
@@ -336,83 +353,23 @@ private ContainerCommandResponseProto dispatchRequest(
       return ContainerUtils.logAndReturnError(LOG, ex, msg);
     }
     responseProto = handler.handle(msg, container, dispatcherContext);
-    if (responseProto != null) {
-      metrics.incContainerOpsLatencies(cmdType,
-              Time.monotonicNow() - startTime);
-
-      // If the request is of Write Type and the container operation
-      // is unsuccessful, it implies the applyTransaction on the container
-      // failed. All subsequent transactions on the container should fail and
-      // hence replica will be marked unhealthy here. In this case, a close
-      // container action will be sent to SCM to close the container.
-
-      // ApplyTransaction called on closed Container will fail with Closed
-      // container exception. In such cases, ignore the exception here
-      // If the container is already marked unhealthy, no need to change the
-      // state here.
-
-      Result result = responseProto.getResult();
-      if (!HddsUtils.isReadOnly(msg) && !canIgnoreException(result)) {
-        // If the container is open/closing and the container operation
-        // has failed, it should be first marked unhealthy and the initiate the
-        // close container action. This also implies this is the first
-        // transaction which has failed, so the container is marked unhealthy
-        // right here.
-        // Once container is marked unhealthy, all the subsequent write
-        // transactions will fail with UNHEALTHY_CONTAINER exception.
-
-        if (container == null) {
-          throw new NullPointerException(
-              "Error on creating containers " + result + " " + responseProto
-                  .getMessage());
-        }
-        // For container to be moved to unhealthy state here, the container can
-        // only be in open or closing state.
-        State containerState = container.getContainerData().getState();
-        Preconditions.checkState(
-            containerState == State.OPEN
-                || containerState == State.CLOSING
-                || containerState == State.RECOVERING);
-        // mark and persist the container state to be unhealthy
-        try {
-          // TODO HDDS-7096 + HDDS-8781: Use on demand scanning for the open
-          //  container instead.
-          handler.markContainerUnhealthy(container,
-              ScanResult.unhealthy(ScanResult.FailureType.WRITE_FAILURE,
-                  new File(container.getContainerData().getContainerPath()),
-                  new StorageContainerException(result)));
-          LOG.info("Marked Container UNHEALTHY, ContainerID: {}", containerID);
-        } catch (IOException ioe) {
-          // just log the error here in case marking the container fails,
-          // Return the actual failure response to the client
-          LOG.error("Failed to mark container " + containerID + " UNHEALTHY. ",
-              ioe);
-        }
-        // in any case, the in memory state of the container should be unhealthy
-        Preconditions.checkArgument(
-            container.getContainerData().getState() == State.UNHEALTHY);
-        sendCloseContainerActionIfNeeded(container);
-      }
-      if (cmdType == Type.CreateContainer
-          && result == Result.SUCCESS && dispatcherContext != null) {
-        Preconditions.checkNotNull(dispatcherContext.getContainer2BCSIDMap());
-        container2BCSIDMap.putIfAbsent(containerID, Long.valueOf(0));
-      }
-      if (result == Result.SUCCESS) {
-        updateBCSID(container, dispatcherContext, cmdType);
-        audit(action, eventType, params, AuditEventStatus.SUCCESS, null);
-      } else {
-        //TODO HDDS-7096:
-        // This is a too general place for on demand scanning.
-        // Create a specific exception that signals for on demand scanning
-        // and move this general scan to where it is more appropriate.
-        // Add integration tests to test the full functionality.
-        OnDemandContainerDataScanner.scanContainer(container);
-        audit(action, eventType, params, AuditEventStatus.FAILURE,
-            new Exception(responseProto.getMessage()));
-      }
-
-      return responseProto;
+    final CompletableFuture<Void> chunkIO = dispatcherContext != null
+        ? dispatcherContext.getChunkIOFuture() : null;
+    if (responseProto != null && chunkIO != null) {
+      // The chunk I/O of the request completes asynchronously, so the
+      // response is processed once it does.
+      final ContainerCommandResponseProto pending = responseProto;
+      final Container target = container;
+      dispatcherContext.setResponseFuture(chunkIO
+          .handle((v, e) -> e == null ? pending
+              : ContainerUtils.logAndReturnError(LOG,
+                  toStorageContainerException(e), msg))
+          .thenApply(r -> processResponse(msg, dispatcherContext, target,
+              handler, r, startTime, action, eventType, params)));
+      return pending;
+    } else if (responseProto != null) {
+      return processResponse(msg, dispatcherContext, container, handler,
+          responseProto, startTime, action, eventType, params);
     } else {
       // log failure
       audit(action, eventType, params, AuditEventStatus.FAILURE,
@@ -421,6 +378,110 @@ private ContainerCommandResponseProto dispatchRequest(
     }
   }
 
+  /**
+   * Record the metrics and the audit of the response to a request, and mark
+   * the container unhealthy if a write failed.
+   */
+  private ContainerCommandResponseProto processResponse(
+      ContainerCommandRequestProto msg, DispatcherContext dispatcherContext,
+      Container container, Handler handler,
+      ContainerCommandResponseProto responseProto, long startTime,
+      AuditAction action, EventType eventType, Map<String, String> params) {
+    final Type cmdType = msg.getCmdType();
+    final long containerID = msg.getContainerID();
+    metrics.incContainerOpsLatencies(cmdType,
+            Time.monotonicNow() - startTime);
+
+    // If the request is of Write Type and the container operation
+    // is unsuccessful, it implies the applyTransaction on the container
+    // failed. All subsequent transactions on the container should fail and
+    // hence replica will be marked unhealthy here. In this case, a close
+    // container action will be sent to SCM to close the container.
+
+    // ApplyTransaction called on closed Container will fail with Closed
+    // container exception. In such cases, ignore the exception here
+    // If the container is already marked unhealthy, no need to change the
+    // state here.
+
+    Result result = responseProto.getResult();
+    if (!HddsUtils.isReadOnly(msg) && !canIgnoreException(result)) {
+      // If the container is open/closing and the container operation
+      // has failed, it should be first marked unhealthy and the initiate the
+      // close container action. This also implies this is the first
+      // transaction which has failed, so the container is marked unhealthy
+      // right here.
+      // Once container is marked unhealthy, all the subsequent write
+      // transactions will fail with UNHEALTHY_CONTAINER exception.
+
+      if (container == null) {
+        throw new NullPointerException(
+            "Error on creating containers " + result + " " + responseProto
+                .getMessage());
+      }
+      // For container to be moved to unhealthy state here, the container can
+      // only be in open or closing state.
+      State containerState = container.getContainerData().getState();
+      Preconditions.checkState(
+          containerState == State.OPEN
+              || containerState == State.CLOSING
+              || containerState == State.RECOVERING);
+      // mark and persist the container state to be unhealthy
+      try {
+        // TODO HDDS-7096 + HDDS-8781: Use on demand scanning for the open
+        //  container instead.
+        handler.markContainerUnhealthy(container,
+            ScanResult.unhealthy(ScanResult.FailureType.WRITE_FAILURE,
+                new File(container.getContainerData().getContainerPath()),
+                new StorageContainerException(result)));
+        LOG.info("Marked Container UNHEALTHY, ContainerID: {}", containerID);
+      } catch (IOException ioe) {
+        // just log the error here in case marking the container fails,
+        // Return the actual failure response to the client
+        LOG.error("Failed to mark container " + containerID + " UNHEALTHY. ",
+            ioe);
+      }
+      // in any case, the in memory state of the container should be unhealthy
+      Preconditions.checkArgument(
+          container.getContainerData().getState() == State.UNHEALTHY);
+      sendCloseContainerActionIfNeeded(container);
+    }
+    if (cmdType == Type.CreateContainer
+        && result == Result.SUCCESS && dispatcherContext != null) {
+      Preconditions.checkNotNull(dispatcherContext.getContainer2BCSIDMap());
+      dispatcherContext.getContainer2BCSIDMap()
+          .putIfAbsent(containerID, Long.valueOf(0));
+    }
+    if (result == Result.SUCCESS) {
+      updateBCSID(container, dispatcherContext, cmdType);
+      audit(action, eventType, params, AuditEventStatus.SUCCESS, null);
+    } else {
+      //TODO HDDS-7096:
+      // This is a too general place for on demand scanning.
+      // Create a specific exception that signals for on demand scanning
+      // and move this general scan to where it is more appropriate.
+      // Add integration tests to test the full functionality.
+      if (container != null && isIOError(result)) {
+        container.getContainerData().incrIOErrorCount();
+      }
+      OnDemandContainerDataScanner.scanContainer(container);
+      audit(action, eventType, params, AuditEventStatus.FAILURE,
+          new Exception(responseProto.getMessage()));
+    }
+
+    return responseProto;
+  }
+
+  private static StorageContainerException toStorageContainerException(
+      Throwable e) {
+    if (e instanceof CompletionException && e.getCause() != null) {
+      e = e.getCause();
+    }
+    return e instanceof StorageContainerException
+        ? (StorageContainerException) e
+        : new StorageContainerException("Chunk I/O failed", e,
+            ContainerProtos.Result.IO_EXCEPTION);
+  }
+
   private void updateBCSID(Container container,
       DispatcherContext dispatcherContext, Type cmdType) {
     if (dispatcherContext != null && (cmdType == Type.PutBlock
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.container.common.report;
+
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerRangeDigestProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
+import org.apache.hadoop.ozone.protocol.ContainerRangeDigests;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduces full container reports to the ranges of container IDs whose
+ * replicas changed since the previous report, adding the digests of all
+ * ranges, see {@link ContainerRangeDigests}.
+ * <p>
+ * A report includes the replicas of all ranges if it is the first one, or
+ * the previous report which did so is older than the complete interval.
+ */
+public class ContainerReportDigester {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ContainerReportDigester.class);
+
+  private final long rangeSize;
+  private final long completeInterval;
+  private final Clock clock;
+  // Digests of the previous report, null before the first one
+  private Map<Long, Long> previousDigests;
+  private long lastComplete;
+
+  public ContainerReportDigester(long rangeSize, Duration completeInterval,
+      Clock clock) {
+    this.rangeSize = rangeSize;
+    this.completeInterval = completeInterval.toMillis();
+    this.clock = clock;
+  }
+
+  /**
+   * @param report report of all replicas of the datanode
+   * @param requestedRanges ranges to include even if they did not change
+   * @return the report with digests and the replicas of the changed and
+   * requested ranges
+   */
+  public synchronized ContainerReportsProto getDelta(
+      ContainerReportsProto report, Collection<Long> requestedRanges) {
+    final Map<Long, Long> digests =
+        ContainerRangeDigests.compute(report.getReportsList(), rangeSize);
+    final long now = clock.millis();
+    final boolean complete = previousDigests == null
+        || now - lastComplete >= completeInterval;
+    final Set<Long> reported = new HashSet<>();
+    for (Map.Entry<Long, Long> e : digests.entrySet()) {
+      if (complete || requestedRanges.contains(e.getKey())
+          || !e.getValue().equals(previousDigests.get(e.getKey()))) {
+        reported.add(e.getKey());
+      }
+    }
+    previousDigests = digests;
+    if (complete) {
+      lastComplete = now;
+    }
+    LOG.debug("Container report includes {} of {} ranges",
+        reported.size(), digests.size());
+    return build(report, digests, reported);
+  }
+
+  /**
+   * @return the report with digests, including the replicas of all ranges
+   */
+  public ContainerReportsProto getComplete(ContainerReportsProto report) {
+    final Map<Long, Long> digests =
+        ContainerRangeDigests.compute(report.getReportsList(), rangeSize);
+    return build(report, digests, digests.keySet());
+  }
+
+  private ContainerReportsProto build(ContainerReportsProto report,
+      Map<Long, Long> digests, Set<Long> reported) {
+    final ContainerReportsProto.Builder builder =
+        ContainerReportsProto.newBuilder()
+            .setDigestRangeSize(rangeSize);
+    for (ContainerReplicaProto replica : report.getReportsList()) {
+      if (reported.contains(ContainerRangeDigests.getRange(
+          replica.getContainerID(), rangeSize))) {
+        builder.addReports(replica);
+      }
+    }
+    for (Map.Entry<Long, Long> e : digests.entrySet()) {
+      builder.addRangeDigests(ContainerRangeDigestProto.newBuilder()
+          .setRange(e.getKey())
+          .setDigest(e.getValue())
+          .setReported(reported.contains(e.getKey())));
+    }
+    return builder.build();
+  }
+}
@@ -51,6 +51,30 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
       "hdds.datanode.container.delete.threads.max";
   static final String CONTAINER_CLOSE_THREADS_MAX_KEY =
       "hdds.datanode.container.close.threads.max";
+  static final String CONTAINER_LOAD_THREADS_PER_VOLUME_KEY =
+      "hdds.datanode.container.load.threads.per.volume";
+  static final String CHUNK_IO_THREADS_PER_VOLUME_KEY =
+      "hdds.datanode.chunk.io.threads.per.volume";
+  static final String CHUNK_IO_QUEUE_LIMIT_PER_VOLUME_KEY =
+      "hdds.datanode.chunk.io.queue.limit.per.volume";
+  static final String CHUNK_READ_CACHE_SIZE_KEY =
+      "hdds.datanode.chunk.read.cache.size";
+  static final String CHUNK_READ_CACHE_MAX_CHUNK_SIZE_KEY =
+      "hdds.datanode.chunk.read.cache.max.chunk.size";
+  static final String CHUNK_WRITE_GROUP_COMMIT_WINDOW_KEY =
+      "hdds.datanode.chunk.write.group.commit.window";
+  static final String BLOCK_DELETING_LATENCY_THRESHOLD_KEY =
+      "hdds.datanode.block.deleting.latency.threshold";
+  static final String BLOCK_DELETING_IDLE_IOPS_KEY =
+      "hdds.datanode.block.deleting.idle.iops";
+  static final String BLOCK_DELETING_IDLE_LIMIT_MULTIPLIER_KEY =
+      "hdds.datanode.block.deleting.idle.limit.multiplier";
+  static final String BLOCK_DELETING_RANGE_DELETE_THRESHOLD_KEY =
+      "hdds.datanode.block.deleting.range.delete.threshold";
+  static final String CONTAINER_REPORT_DIGEST_RANGE_SIZE_KEY =
+      "hdds.datanode.container.report.digest.range.size";
+  static final String CONTAINER_REPORT_COMPLETE_INTERVAL_KEY =
+      "hdds.datanode.container.report.complete.interval";
   static final String PERIODIC_DISK_CHECK_INTERVAL_MINUTES_KEY =
       "hdds.datanode.periodic.disk.check.interval.minutes";
   public static final String DISK_CHECK_FILE_SIZE_KEY =
@@ -124,7 +148,24 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
 
   static final int CONTAINER_DELETE_THREADS_DEFAULT = 2;
   static final int CONTAINER_CLOSE_THREADS_DEFAULT = 3;
+  static final int CONTAINER_LOAD_THREADS_PER_VOLUME_DEFAULT = 4;
+  static final String CONTAINER_SNAPSHOT_INTERVAL_KEY =
+      "hdds.datanode.container.snapshot.interval";
+  static final Duration CONTAINER_SNAPSHOT_INTERVAL_DEFAULT =
+      Duration.ofHours(1);
+  static final int CHUNK_IO_QUEUE_LIMIT_PER_VOLUME_DEFAULT = 256;
+  static final Duration CHUNK_WRITE_GROUP_COMMIT_WINDOW_DEFAULT =
+      Duration.ZERO;
+  static final long CHUNK_READ_CACHE_MAX_CHUNK_SIZE_DEFAULT = 1024 * 1024;
   static final int BLOCK_DELETE_THREADS_DEFAULT = 5;
+  static final Duration BLOCK_DELETING_LATENCY_THRESHOLD_DEFAULT =
+      Duration.ofMillis(20);
+  static final int BLOCK_DELETING_IDLE_IOPS_DEFAULT = 10;
+  static final int BLOCK_DELETING_IDLE_LIMIT_MULTIPLIER_DEFAULT = 4;
+  static final int BLOCK_DELETING_RANGE_DELETE_THRESHOLD_DEFAULT = 16;
+  static final long CONTAINER_REPORT_DIGEST_RANGE_SIZE_DEFAULT = 1000;
+  static final Duration CONTAINER_REPORT_COMPLETE_INTERVAL_DEFAULT =
+      Duration.ofHours(1);
 
   public static final String BLOCK_DELETE_COMMAND_WORKER_INTERVAL =
       "hdds.datanode.block.delete.command.worker.interval";
@@ -157,6 +198,122 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
   )
   private int containerCloseThreads = CONTAINER_CLOSE_THREADS_DEFAULT;
 
+  /**
+   * The number of threads per volume used to load containers at datanode
+   * startup. Containers of a volume are loaded in parallel, independent
+   * of the other volumes.
+   */
+  @Config(key = "container.load.threads.per.volume",
+      type = ConfigType.INT,
+      defaultValue = "4",
+      tags = {DATANODE},
+      description = "The number of threads per volume used to load " +
+          "containers at datanode startup."
+  )
+  private int containerLoadThreadsPerVolume =
+      CONTAINER_LOAD_THREADS_PER_VOLUME_DEFAULT;
+
+  /**
+   * The number of threads per volume doing chunk reads and writes. Chunk
+   * I/O of each volume is queued to its own threads, so that a slow disk
+   * only holds up the requests to that disk.
+   */
+  @Config(key = "chunk.io.threads.per.volume",
+      type = ConfigType.INT,
+      defaultValue = "0",
+      tags = {DATANODE},
+      description = "The number of threads per volume doing chunk reads " +
+          "and writes. If greater than zero, chunk I/O requests are queued " +
+          "to the threads of their volume, and a slow volume does not hold " +
+          "up the requests to other volumes. If zero, chunk I/O is done by " +
+          "the request handler threads."
+  )
+  private int chunkIOThreadsPerVolume = 0;
+
+  @Config(key = "chunk.io.queue.limit.per.volume",
+      type = ConfigType.INT,
+      defaultValue = "256",
+      tags = {DATANODE},
+      description = "The maximum number of chunk I/O requests queued or " +
+          "running for a volume, if hdds.datanode.chunk.io.threads.per.volume " +
+          "is greater than zero. Reads beyond the limit are rejected, writes " +
+          "wait for the queue to drain."
+  )
+  private int chunkIOQueueLimitPerVolume =
+      CHUNK_IO_QUEUE_LIMIT_PER_VOLUME_DEFAULT;
+
+  /**
+   * Whether synced chunk writes to the same volume are forced to disk
+   * together, instead of each write separately.
+   */
+  @Config(key = "chunk.write.group.commit.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "true",
+      tags = {DATANODE},
+      description = "If hdds.container.chunk.write.sync is true, whether " +
+          "chunk writes to the same volume are forced to disk in batches " +
+          "(group commit), forcing each file of a batch once, instead of " +
+          "each write separately. Writes still return only after their " +
+          "data is on disk. Applies to the FILE_PER_BLOCK layout."
+  )
+  private boolean chunkWriteGroupCommitEnabled = true;
+
+  @Config(key = "chunk.write.group.commit.window",
+      type = ConfigType.TIME,
+      defaultValue = "0ms",
+      tags = {DATANODE},
+      description = "Time the first write of a group commit batch waits " +
+          "for more writes to join, in addition to the writes gathered " +
+          "while the previous batch is forced to disk. Unit could be " +
+          "defined with postfix (ns,ms,s,m,h,d)."
+  )
+  private Duration chunkWriteGroupCommitWindow =
+      CHUNK_WRITE_GROUP_COMMIT_WINDOW_DEFAULT;
+
+  @Config(key = "chunk.read.cache.size",
+      type = ConfigType.SIZE,
+      defaultValue = "0",
+      tags = {DATANODE},
+      description = "The maximum size of the off-heap cache of recently " +
+          "read chunks of closed containers. Only whole chunks which " +
+          "match their checksums are cached, and cache hits are served " +
+          "without reading the disk. 0 disables the cache."
+  )
+  private long chunkReadCacheSize = 0;
+
+  @Config(key = "chunk.read.cache.max.chunk.size",
+      type = ConfigType.SIZE,
+      defaultValue = "1MB",
+      tags = {DATANODE},
+      description = "The size of the largest chunk cached by the chunk " +
+          "read cache, if hdds.datanode.chunk.read.cache.size is not 0."
+  )
+  private long chunkReadCacheMaxChunkSize =
+      CHUNK_READ_CACHE_MAX_CHUNK_SIZE_DEFAULT;
+
+  @Config(key = "container.snapshot.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "false",
+      tags = {DATANODE},
+      description = "Whether the datanode writes a snapshot of its closed " +
+          "containers to each volume, periodically and on shutdown, and " +
+          "loads closed containers from it at startup instead of reading " +
+          "their DB. Containers loaded from the snapshot are verified " +
+          "against their DB in the background."
+  )
+  private boolean containerSnapshotEnabled = false;
+
+  @Config(key = "container.snapshot.interval",
+      type = ConfigType.TIME,
+      defaultValue = "1h",
+      tags = {DATANODE},
+      description = "Time interval of writing the container snapshot, if " +
+          "hdds.datanode.container.snapshot.enabled is true. Unit could be " +
+          "defined with postfix (ns,ms,s,m,h,d)."
+  )
+  private Duration containerSnapshotInterval =
+      CONTAINER_SNAPSHOT_INTERVAL_DEFAULT;
+
   /**
    * The maximum number of threads used to handle delete block commands.
    * It takes about 200ms to open a RocksDB with HDD media, so basically DN
@@ -315,6 +472,173 @@ public void setBlockDeletionLimit(int limit) {
     this.blockLimitPerInterval = limit;
   }
 
+  /**
+   * Whether the number of blocks deleted from each volume per interval
+   * adapts to the foreground I/O load of the volume.
+   */
+  @Config(key = "block.deleting.io.aware.enabled",
+      defaultValue = "false",
+      type = ConfigType.BOOLEAN,
+      tags = { DATANODE, ConfigTag.DELETION },
+      description = "If true, the block deleting service divides " +
+          "hdds.datanode.block.deleting.limit.per.interval among the " +
+          "volumes, and adapts the share of each volume to its foreground " +
+          "I/O: the share is halved while the chunk I/O latency of the " +
+          "volume is above hdds.datanode.block.deleting.latency.threshold " +
+          "or requests are waiting in its chunk I/O queue, and grows up to " +
+          "hdds.datanode.block.deleting.idle.limit.multiplier times the " +
+          "share while the volume is idle."
+  )
+  private boolean blockDeletingIOAwareEnabled = false;
+
+  @Config(key = "block.deleting.latency.threshold",
+      defaultValue = "20ms",
+      type = ConfigType.TIME,
+      tags = { DATANODE, ConfigTag.DELETION },
+      description = "Average chunk read and write latency of a volume " +
+          "above which block deletion on the volume is slowed down, if " +
+          "hdds.datanode.block.deleting.io.aware.enabled is true. Unit " +
+          "could be defined with postfix (ns,ms,s,m,h,d)."
+  )
+  private Duration blockDeletingLatencyThreshold =
+      BLOCK_DELETING_LATENCY_THRESHOLD_DEFAULT;
+
+  @Config(key = "block.deleting.idle.iops",
+      defaultValue = "10",
+      type = ConfigType.INT,
+      tags = { DATANODE, ConfigTag.DELETION },
+      description = "Chunk reads and writes per second below which a " +
+          "volume is considered idle, and block deletion on the volume is " +
+          "sped up, if hdds.datanode.block.deleting.io.aware.enabled is true."
+  )
+  private int blockDeletingIdleIops = BLOCK_DELETING_IDLE_IOPS_DEFAULT;
+
+  @Config(key = "block.deleting.idle.limit.multiplier",
+      defaultValue = "4",
+      type = ConfigType.INT,
+      tags = { DATANODE, ConfigTag.DELETION },
+      description = "The maximum multiple of its share of " +
+          "hdds.datanode.block.deleting.limit.per.interval deleted from an " +
+          "idle volume per interval, if " +
+          "hdds.datanode.block.deleting.io.aware.enabled is true."
+  )
+  private int blockDeletingIdleLimitMultiplier =
+      BLOCK_DELETING_IDLE_LIMIT_MULTIPLIER_DEFAULT;
+
+  @Config(key = "block.deleting.range.delete.threshold",
+      defaultValue = "16",
+      type = ConfigType.INT,
+      tags = { DATANODE, ConfigTag.DELETION },
+      description = "The minimum number of deleted blocks of a container " +
+          "with adjacent keys in the container DB that are removed with a " +
+          "single range delete, instead of a delete of each key. 0 " +
+          "disables range deletes."
+  )
+  private int blockDeletingRangeDeleteThreshold =
+      BLOCK_DELETING_RANGE_DELETE_THRESHOLD_DEFAULT;
+
+  public boolean isBlockDeletingIOAwareEnabled() {
+    return blockDeletingIOAwareEnabled;
+  }
+
+  public void setBlockDeletingIOAwareEnabled(boolean enabled) {
+    this.blockDeletingIOAwareEnabled = enabled;
+  }
+
+  public Duration getBlockDeletingLatencyThreshold() {
+    return blockDeletingLatencyThreshold;
+  }
+
+  public void setBlockDeletingLatencyThreshold(Duration threshold) {
+    this.blockDeletingLatencyThreshold = threshold;
+  }
+
+  public int getBlockDeletingIdleIops() {
+    return blockDeletingIdleIops;
+  }
+
+  public void setBlockDeletingIdleIops(int iops) {
+    this.blockDeletingIdleIops = iops;
+  }
+
+  public int getBlockDeletingIdleLimitMultiplier() {
+    return blockDeletingIdleLimitMultiplier;
+  }
+
+  public void setBlockDeletingIdleLimitMultiplier(int multiplier) {
+    this.blockDeletingIdleLimitMultiplier = multiplier;
+  }
+
+  public int getBlockDeletingRangeDeleteThreshold() {
+    return blockDeletingRangeDeleteThreshold;
+  }
+
+  public void setBlockDeletingRangeDeleteThreshold(int threshold) {
+    this.blockDeletingRangeDeleteThreshold = threshold;
+  }
+
+  @Config(key = "container.report.delta.enabled",
+      defaultValue = "false",
+      type = ConfigType.BOOLEAN,
+      tags = { DATANODE, ConfigTag.SCM },
+      description = "If true, full container reports carry a digest of " +
+          "the replicas in each range of container IDs, and only the " +
+          "replicas of the ranges whose digest changed since the previous " +
+          "report. SCM asks for the replicas of the other ranges if their " +
+          "digest differs from the one it has. Enable only after all SCMs " +
+          "are upgraded to a version which supports digests."
+  )
+  private boolean containerReportDeltaEnabled = false;
+
+  @Config(key = "container.report.digest.range.size",
+      defaultValue = "1000",
+      type = ConfigType.LONG,
+      tags = { DATANODE, ConfigTag.SCM },
+      description = "The number of container IDs in each range of a " +
+          "container report with digests, if " +
+          "hdds.datanode.container.report.delta.enabled is true."
+  )
+  private long containerReportDigestRangeSize =
+      CONTAINER_REPORT_DIGEST_RANGE_SIZE_DEFAULT;
+
+  @Config(key = "container.report.complete.interval",
+      defaultValue = "1h",
+      type = ConfigType.TIME,
+      tags = { DATANODE, ConfigTag.SCM },
+      description = "The interval at which a container report includes " +
+          "the replicas of all ranges, even if their digest did not change, " +
+          "if hdds.datanode.container.report.delta.enabled is true. This " +
+          "lets SCMs which missed a report, and cannot ask for the ranges " +
+          "they need as a follower, catch up. Unit could be defined with " +
+          "postfix (ns,ms,s,m,h,d)."
+  )
+  private Duration containerReportCompleteInterval =
+      CONTAINER_REPORT_COMPLETE_INTERVAL_DEFAULT;
+
+  public boolean isContainerReportDeltaEnabled() {
+    return containerReportDeltaEnabled;
+  }
+
+  public void setContainerReportDeltaEnabled(boolean enabled) {
+    this.containerReportDeltaEnabled = enabled;
+  }
+
+  public long getContainerReportDigestRangeSize() {
+    return containerReportDigestRangeSize;
+  }
+
+  public void setContainerReportDigestRangeSize(long rangeSize) {
+    this.containerReportDigestRangeSize = rangeSize;
+  }
+
+  public Duration getContainerReportCompleteInterval() {
+    return containerReportCompleteInterval;
+  }
+
+  public void setContainerReportCompleteInterval(Duration interval) {
+    this.containerReportCompleteInterval = interval;
+  }
+
   @Config(key = "periodic.disk.check.interval.minutes",
       defaultValue = "60",
       type = ConfigType.LONG,
@@ -566,6 +890,108 @@ public void validate() {
       containerCloseThreads = CONTAINER_CLOSE_THREADS_DEFAULT;
     }
 
+    if (containerLoadThreadsPerVolume < 1) {
+      LOG.warn(CONTAINER_LOAD_THREADS_PER_VOLUME_KEY + " must be greater " +
+              "than zero and was set to {}. Defaulting to {}",
+          containerLoadThreadsPerVolume,
+          CONTAINER_LOAD_THREADS_PER_VOLUME_DEFAULT);
+      containerLoadThreadsPerVolume = CONTAINER_LOAD_THREADS_PER_VOLUME_DEFAULT;
+    }
+
+    if (chunkIOThreadsPerVolume < 0) {
+      LOG.warn(CHUNK_IO_THREADS_PER_VOLUME_KEY + " must not be negative " +
+          "and was set to {}. Defaulting to 0", chunkIOThreadsPerVolume);
+      chunkIOThreadsPerVolume = 0;
+    }
+
+    if (chunkIOQueueLimitPerVolume < 1) {
+      LOG.warn(CHUNK_IO_QUEUE_LIMIT_PER_VOLUME_KEY + " must be greater " +
+              "than zero and was set to {}. Defaulting to {}",
+          chunkIOQueueLimitPerVolume, CHUNK_IO_QUEUE_LIMIT_PER_VOLUME_DEFAULT);
+      chunkIOQueueLimitPerVolume = CHUNK_IO_QUEUE_LIMIT_PER_VOLUME_DEFAULT;
+    }
+
+    if (chunkReadCacheSize < 0) {
+      LOG.warn(CHUNK_READ_CACHE_SIZE_KEY + " must not be negative " +
+          "and was set to {}. Defaulting to 0", chunkReadCacheSize);
+      chunkReadCacheSize = 0;
+    }
+
+    if (chunkReadCacheMaxChunkSize < 1) {
+      LOG.warn(CHUNK_READ_CACHE_MAX_CHUNK_SIZE_KEY + " must be " +
+              "greater than zero and was set to {}. Defaulting to {}",
+          chunkReadCacheMaxChunkSize, CHUNK_READ_CACHE_MAX_CHUNK_SIZE_DEFAULT);
+      chunkReadCacheMaxChunkSize = CHUNK_READ_CACHE_MAX_CHUNK_SIZE_DEFAULT;
+    }
+
+    if (chunkWriteGroupCommitWindow.isNegative()) {
+      LOG.warn(CHUNK_WRITE_GROUP_COMMIT_WINDOW_KEY +
+              " must not be negative and was set to {}. Defaulting to {}",
+          chunkWriteGroupCommitWindow, CHUNK_WRITE_GROUP_COMMIT_WINDOW_DEFAULT);
+      chunkWriteGroupCommitWindow = CHUNK_WRITE_GROUP_COMMIT_WINDOW_DEFAULT;
+    }
+
+    if (blockDeletingLatencyThreshold.isNegative()
+        || blockDeletingLatencyThreshold.isZero()) {
+      LOG.warn(BLOCK_DELETING_LATENCY_THRESHOLD_KEY +
+              " must be greater than zero and was set to {}. Defaulting to {}",
+          blockDeletingLatencyThreshold,
+          BLOCK_DELETING_LATENCY_THRESHOLD_DEFAULT);
+      blockDeletingLatencyThreshold = BLOCK_DELETING_LATENCY_THRESHOLD_DEFAULT;
+    }
+
+    if (blockDeletingIdleIops < 0) {
+      LOG.warn(BLOCK_DELETING_IDLE_IOPS_KEY + " must not be negative " +
+              "and was set to {}. Defaulting to {}",
+          blockDeletingIdleIops, BLOCK_DELETING_IDLE_IOPS_DEFAULT);
+      blockDeletingIdleIops = BLOCK_DELETING_IDLE_IOPS_DEFAULT;
+    }
+
+    if (blockDeletingIdleLimitMultiplier < 1) {
+      LOG.warn(BLOCK_DELETING_IDLE_LIMIT_MULTIPLIER_KEY + " must be greater " +
+              "than zero and was set to {}. Defaulting to {}",
+          blockDeletingIdleLimitMultiplier,
+          BLOCK_DELETING_IDLE_LIMIT_MULTIPLIER_DEFAULT);
+      blockDeletingIdleLimitMultiplier =
+          BLOCK_DELETING_IDLE_LIMIT_MULTIPLIER_DEFAULT;
+    }
+
+    if (blockDeletingRangeDeleteThreshold < 0
+        || blockDeletingRangeDeleteThreshold == 1) {
+      LOG.warn(BLOCK_DELETING_RANGE_DELETE_THRESHOLD_KEY + " must be 0 or " +
+              "greater than one and was set to {}. Defaulting to {}",
+          blockDeletingRangeDeleteThreshold,
+          BLOCK_DELETING_RANGE_DELETE_THRESHOLD_DEFAULT);
+      blockDeletingRangeDeleteThreshold =
+          BLOCK_DELETING_RANGE_DELETE_THRESHOLD_DEFAULT;
+    }
+
+    if (containerReportDigestRangeSize < 1) {
+      LOG.warn(CONTAINER_REPORT_DIGEST_RANGE_SIZE_KEY + " must be greater " +
+              "than zero and was set to {}. Defaulting to {}",
+          containerReportDigestRangeSize,
+          CONTAINER_REPORT_DIGEST_RANGE_SIZE_DEFAULT);
+      containerReportDigestRangeSize =
+          CONTAINER_REPORT_DIGEST_RANGE_SIZE_DEFAULT;
+    }
+
+    if (containerReportCompleteInterval.isNegative()) {
+      LOG.warn(CONTAINER_REPORT_COMPLETE_INTERVAL_KEY +
+              " must not be negative and was set to {}. Defaulting to {}",
+          containerReportCompleteInterval,
+          CONTAINER_REPORT_COMPLETE_INTERVAL_DEFAULT);
+      containerReportCompleteInterval =
+          CONTAINER_REPORT_COMPLETE_INTERVAL_DEFAULT;
+    }
+
+    if (containerSnapshotInterval.isNegative()
+        || containerSnapshotInterval.isZero()) {
+      LOG.warn(CONTAINER_SNAPSHOT_INTERVAL_KEY +
+              " must be greater than zero and was set to {}. Defaulting to {}",
+          containerSnapshotInterval, CONTAINER_SNAPSHOT_INTERVAL_DEFAULT);
+      containerSnapshotInterval = CONTAINER_SNAPSHOT_INTERVAL_DEFAULT;
+    }
+
     if (periodicDiskCheckIntervalMinutes < 1) {
       LOG.warn(PERIODIC_DISK_CHECK_INTERVAL_MINUTES_KEY +
               " must be greater than zero and was set to {}. Defaulting to {}",
@@ -697,6 +1123,78 @@ public void setContainerCloseThreads(int containerCloseThreads) {
     this.containerCloseThreads = containerCloseThreads;
   }
 
+  public void setContainerLoadThreadsPerVolume(int threads) {
+    this.containerLoadThreadsPerVolume = threads;
+  }
+
+  public int getContainerLoadThreadsPerVolume() {
+    return containerLoadThreadsPerVolume;
+  }
+
+  public int getChunkIOThreadsPerVolume() {
+    return chunkIOThreadsPerVolume;
+  }
+
+  public void setChunkIOThreadsPerVolume(int threads) {
+    this.chunkIOThreadsPerVolume = threads;
+  }
+
+  public int getChunkIOQueueLimitPerVolume() {
+    return chunkIOQueueLimitPerVolume;
+  }
+
+  public void setChunkIOQueueLimitPerVolume(int limit) {
+    this.chunkIOQueueLimitPerVolume = limit;
+  }
+
+  public boolean isChunkWriteGroupCommitEnabled() {
+    return chunkWriteGroupCommitEnabled;
+  }
+
+  public void setChunkWriteGroupCommitEnabled(boolean enabled) {
+    this.chunkWriteGroupCommitEnabled = enabled;
+  }
+
+  public Duration getChunkWriteGroupCommitWindow() {
+    return chunkWriteGroupCommitWindow;
+  }
+
+  public void setChunkWriteGroupCommitWindow(Duration window) {
+    this.chunkWriteGroupCommitWindow = window;
+  }
+
+  public long getChunkReadCacheSize() {
+    return chunkReadCacheSize;
+  }
+
+  public void setChunkReadCacheSize(long size) {
+    this.chunkReadCacheSize = size;
+  }
+
+  public long getChunkReadCacheMaxChunkSize() {
+    return chunkReadCacheMaxChunkSize;
+  }
+
+  public void setChunkReadCacheMaxChunkSize(long size) {
+    this.chunkReadCacheMaxChunkSize = size;
+  }
+
+  public boolean isContainerSnapshotEnabled() {
+    return containerSnapshotEnabled;
+  }
+
+  public void setContainerSnapshotEnabled(boolean enabled) {
+    this.containerSnapshotEnabled = enabled;
+  }
+
+  public Duration getContainerSnapshotInterval() {
+    return containerSnapshotInterval;
+  }
+
+  public void setContainerSnapshotInterval(Duration interval) {
+    this.containerSnapshotInterval = interval;
+  }
+
   public int getContainerCloseThreads() {
     return containerCloseThreads;
   }
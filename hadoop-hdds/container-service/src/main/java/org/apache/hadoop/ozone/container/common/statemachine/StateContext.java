@@ -18,7 +18,9 @@
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -61,6 +63,7 @@
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.PipelineReportsProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.PipelineReport;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SCMCommandProto;
+import org.apache.hadoop.ozone.container.common.report.ContainerReportDigester;
 import org.apache.hadoop.ozone.container.common.states.DatanodeState;
 import org.apache.hadoop.ozone.container.common.states.datanode.InitDatanodeState;
 import org.apache.hadoop.ozone.container.common.states.datanode.RunningDatanodeState;
@@ -117,6 +120,8 @@ public class StateContext {
   private final Set<InetSocketAddress> endpoints;
   // Only the latest full report of each type is kept
   private final AtomicReference<Message> containerReports;
+  // null unless container reports carry digests of container ID ranges
+  private final ContainerReportDigester containerReportDigester;
   private final AtomicReference<Message> nodeReport;
   private final AtomicReference<Message> pipelineReports;
   private final AtomicReference<Message> crlStatusReport;
@@ -178,6 +183,11 @@ public StateContext(ConfigurationSource conf,
     DatanodeConfiguration dnConf =
         conf.getObject(DatanodeConfiguration.class);
     maxCommandQueueLimit = dnConf.getCommandQueueLimit();
+    containerReportDigester = dnConf.isContainerReportDeltaEnabled()
+        ? new ContainerReportDigester(
+            dnConf.getContainerReportDigestRangeSize(),
+            dnConf.getContainerReportCompleteInterval(), Clock.systemUTC())
+        : null;
     this.state = state;
     this.parentDatanodeStateMachine = parent;
     commandQueue = new LinkedList<>();
@@ -397,6 +407,19 @@ public List<Message> getAllAvailableReports(
    */
   public ContainerReportsProto getFullContainerReportDiscardPendingICR()
       throws IOException {
+    return getFullContainerReportDiscardPendingICR(Collections.emptySet());
+  }
+
+  /**
+   * Same as {@link #getFullContainerReportDiscardPendingICR()}. If container
+   * reports carry digests, the report only includes the replicas of the
+   * ranges of container IDs which changed since the previous report, and of
+   * the requested ranges.
+   * @param requestedRanges ranges of container IDs to include
+   * @return Full Container Report
+   */
+  public ContainerReportsProto getFullContainerReportDiscardPendingICR(
+      Collection<Long> requestedRanges) throws IOException {
 
     // Block ICRs from being generated
     synchronized (parentDatanodeStateMachine
@@ -412,13 +435,26 @@ public ContainerReportsProto getFullContainerReportDiscardPendingICR()
           }
         }
       }
-      return parentDatanodeStateMachine
+      final ContainerReportsProto report = parentDatanodeStateMachine
           .getContainer()
           .getContainerSet()
           .getContainerReport();
+      return containerReportDigester == null ? report
+          : containerReportDigester.getDelta(report, requestedRanges);
     }
   }
 
+  /**
+   * Adds the digests of all container ID ranges to a report of all
+   * replicas, such as the one sent on registration, if container reports
+   * carry digests.
+   */
+  public ContainerReportsProto addContainerReportDigests(
+      ContainerReportsProto report) {
+    return containerReportDigester == null ? report
+        : containerReportDigester.getComplete(report);
+  }
+
   @VisibleForTesting
   List<Message> getAllAvailableReportsUpToLimit(
       InetSocketAddress endpoint,
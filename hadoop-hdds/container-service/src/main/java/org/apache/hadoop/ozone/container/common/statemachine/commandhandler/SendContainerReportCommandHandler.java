@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.container.common.statemachine.commandhandler;
+
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SCMCommandProto.Type;
+import org.apache.hadoop.ozone.container.common.statemachine.SCMConnectionManager;
+import org.apache.hadoop.ozone.container.common.statemachine.StateContext;
+import org.apache.hadoop.ozone.container.ozoneimpl.OzoneContainer;
+import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
+import org.apache.hadoop.ozone.protocol.commands.SendContainerReportCommand;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Command handler to send a container report including the replicas of the
+ * ranges of container IDs requested by SCM.
+ */
+public class SendContainerReportCommandHandler implements CommandHandler {
+
+  static final Logger LOG =
+      LoggerFactory.getLogger(SendContainerReportCommandHandler.class);
+
+  private final AtomicInteger invocationCount = new AtomicInteger(0);
+  private final AtomicLong totalTime = new AtomicLong(0);
+
+  @Override
+  public void handle(SCMCommand command, OzoneContainer container,
+      StateContext context, SCMConnectionManager connectionManager) {
+    final SendContainerReportCommand sendCommand =
+        (SendContainerReportCommand) command;
+    LOG.info("Received command to send container report with {} ranges",
+        sendCommand.getRanges().size());
+    invocationCount.incrementAndGet();
+    final long startTime = Time.monotonicNow();
+    try {
+      context.refreshFullReport(context.getFullContainerReportDiscardPendingICR(
+          new HashSet<>(sendCommand.getRanges())));
+      context.getParent().triggerHeartbeat();
+    } catch (IOException e) {
+      LOG.error("Failed to send container report for command {}",
+          command.getId(), e);
+    } finally {
+      totalTime.getAndAdd(Time.monotonicNow() - startTime);
+    }
+  }
+
+  @Override
+  public Type getCommandType() {
+    return Type.sendContainerReportCommand;
+  }
+
+  @Override
+  public int getInvocationCount() {
+    return invocationCount.get();
+  }
+
+  @Override
+  public long getAverageRunTime() {
+    final int invocations = invocationCount.get();
+    return invocations == 0 ?
+        0 : totalTime.get() / invocations;
+  }
+
+  @Override
+  public long getTotalRunTime() {
+    return totalTime.get();
+  }
+
+  @Override
+  public int getQueuedCount() {
+    return 0;
+  }
+}
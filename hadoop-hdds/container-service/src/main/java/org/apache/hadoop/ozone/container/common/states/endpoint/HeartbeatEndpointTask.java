@@ -60,6 +60,7 @@
 import org.apache.hadoop.ozone.protocol.commands.ReplicateContainerCommand;
 
 import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
+import org.apache.hadoop.ozone.protocol.commands.SendContainerReportCommand;
 import org.apache.hadoop.ozone.protocol.commands.SetNodeOperationalStateCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -416,6 +417,12 @@ private void processResponse(SCMHeartbeatResponseProto response,
             commandResponseProto.getRefreshVolumeUsageCommandProto());
         processCommonCommand(commandResponseProto, refreshVolumeUsageCommand);
         break;
+      case sendContainerReportCommand:
+        SendContainerReportCommand sendContainerReportCommand =
+            SendContainerReportCommand.getFromProtobuf(
+                commandResponseProto.getSendContainerReportCommandProto());
+        processCommonCommand(commandResponseProto, sendContainerReportCommand);
+        break;
       default:
         throw new IllegalArgumentException("Unknown response : "
             + commandResponseProto.getCommandType().name());
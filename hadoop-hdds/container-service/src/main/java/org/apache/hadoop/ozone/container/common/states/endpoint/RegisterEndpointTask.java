@@ -149,7 +149,8 @@ public EndpointStateMachine.EndPointStates call() throws Exception {
                 layoutVersionManager.getSoftwareLayoutVersion())
             .build();
         ContainerReportsProto containerReport =
-            datanodeContainerManager.getController().getContainerReport();
+            stateContext.addContainerReportDigests(
+                datanodeContainerManager.getController().getContainerReport());
         NodeReportProto nodeReport = datanodeContainerManager.getNodeReport();
         PipelineReportsProto pipelineReportsProto =
             datanodeContainerManager.getPipelineReport();
@@ -58,7 +58,9 @@ public GrpcXceiverService(ContainerDispatcher dispatcher,
 
   /**
    * Bind service with zerocopy marshaller equipped for the `send` API if
-   * zerocopy is enabled.
+   * zerocopy is enabled. Requests are then parsed without copying their
+   * data, and the data of ReadChunk responses is written to the transport
+   * directly from the buffers it was read into.
    * @return  service definition.
    */
   public ServerServiceDefinition bindServiceWithZeroCopy() {
@@ -72,7 +74,8 @@ public ServerServiceDefinition bindServiceWithZeroCopy() {
         ServerServiceDefinition.builder(orig.getServiceDescriptor().getName());
     // Add `send` method with zerocopy marshaller.
     addZeroCopyMethod(orig, builder, getSendMethod(),
-        zeroCopyMessageMarshaller);
+        zeroCopyMessageMarshaller, new ReadChunkResponseMarshaller(
+            getSendMethod().getResponseMarshaller()));
     // Add other methods as is.
     orig.getMethods().stream().filter(
         x -> !x.getMethodDescriptor().getFullMethodName().equals(
@@ -88,9 +91,11 @@ private static <Req extends MessageLite, Resp> void addZeroCopyMethod(
       ServerServiceDefinition orig,
       ServerServiceDefinition.Builder newServiceBuilder,
       MethodDescriptor<Req, Resp> origMethod,
-      ZeroCopyMessageMarshaller<Req> zeroCopyMarshaller) {
+      ZeroCopyMessageMarshaller<Req> zeroCopyMarshaller,
+      MethodDescriptor.Marshaller<Resp> responseMarshaller) {
     MethodDescriptor<Req, Resp> newMethod = origMethod.toBuilder()
         .setRequestMarshaller(zeroCopyMarshaller)
+        .setResponseMarshaller(responseMarshaller)
         .build();
     @SuppressWarnings("unchecked")
     ServerCallHandler<Req, Resp> serverCallHandler =
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.transport.server;
+
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.DataBuffers;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ReadChunkResponseProto;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteOutput;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.com.google.protobuf.CodedOutputStream;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
+import org.apache.ratis.thirdparty.com.google.protobuf.WireFormat;
+import org.apache.ratis.thirdparty.io.grpc.Drainable;
+import org.apache.ratis.thirdparty.io.grpc.KnownLength;
+import org.apache.ratis.thirdparty.io.grpc.MethodDescriptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Marshaller of {@link ContainerCommandResponseProto} that writes the chunk
+ * data of ReadChunk responses straight from the buffers it was read into,
+ * usually memory mapped regions of the chunk file, to the output stream of
+ * the transport.
+ * <p>
+ * Only the small fields around the data are encoded by protobuf; the data
+ * buffers are written to the transport as they are, in large pieces, instead
+ * of going through the buffer of a {@link CodedOutputStream}. The bytes on
+ * the wire are a valid encoding of the same message, so clients are not
+ * affected. Other responses are passed to the default marshaller.
+ */
+final class ReadChunkResponseMarshaller
+    implements MethodDescriptor.Marshaller<ContainerCommandResponseProto> {
+
+  // Size of the pieces data in direct buffers is copied to the transport in
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+  private static final ThreadLocal<byte[]> COPY_BUFFER =
+      ThreadLocal.withInitial(() -> new byte[COPY_BUFFER_SIZE]);
+
+  private final MethodDescriptor.Marshaller<ContainerCommandResponseProto>
+      delegate;
+
+  ReadChunkResponseMarshaller(
+      MethodDescriptor.Marshaller<ContainerCommandResponseProto> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public InputStream stream(ContainerCommandResponseProto response) {
+    if (!response.hasReadChunk()) {
+      return delegate.stream(response);
+    }
+    final ReadChunkResponseProto readChunk = response.getReadChunk();
+    if (readChunk.getData().isEmpty()
+        && readChunk.getDataBuffers().getBuffersCount() == 0) {
+      return delegate.stream(response);
+    }
+    return new ResponseStream(response);
+  }
+
+  @Override
+  public ContainerCommandResponseProto parse(InputStream stream) {
+    return delegate.parse(stream);
+  }
+
+  /**
+   * Encoded ReadChunk response: the protobuf encoding of all the fields
+   * except the chunk data, followed by the data buffers.
+   */
+  private final class ResponseStream extends InputStream
+      implements Drainable, KnownLength {
+
+    private final ContainerCommandResponseProto response;
+    private final byte[] header;
+    private final List<ByteString> buffers;
+    private final int length;
+    // Used instead of drainTo if the stream is read
+    private InputStream fallback;
+    private boolean drained;
+
+    ResponseStream(ContainerCommandResponseProto response) {
+      this.response = response;
+      final ReadChunkResponseProto readChunk = response.getReadChunk();
+      final ReadChunkResponseProto readChunkWithoutData = readChunk.toBuilder()
+          .clearData()
+          .clearDataBuffers()
+          .build();
+      final ContainerCommandResponseProto withoutReadChunk =
+          response.toBuilder().clearReadChunk().build();
+
+      // Tags and lengths of the data, the order of the fields does not matter
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(
+          withoutReadChunk.getSerializedSize()
+              + readChunkWithoutData.getSerializedSize() + 64);
+      final CodedOutputStream coded = CodedOutputStream.newInstance(out);
+      try {
+        final int dataSize;
+        if (readChunk.hasDataBuffers()) {
+          buffers = readChunk.getDataBuffers().getBuffersList();
+          final int dataBuffersSize = readChunk.getDataBuffers()
+              .getSerializedSize();
+          dataSize = CodedOutputStream.computeTagSize(
+              ReadChunkResponseProto.DATABUFFERS_FIELD_NUMBER)
+              + CodedOutputStream.computeUInt32SizeNoTag(dataBuffersSize)
+              + dataBuffersSize;
+        } else {
+          buffers = Collections.singletonList(readChunk.getData());
+          dataSize = CodedOutputStream.computeBytesSize(
+              ReadChunkResponseProto.DATA_FIELD_NUMBER, readChunk.getData());
+        }
+        final int readChunkSize =
+            readChunkWithoutData.getSerializedSize() + dataSize;
+
+        withoutReadChunk.writeTo(coded);
+        coded.writeTag(ContainerCommandResponseProto.READCHUNK_FIELD_NUMBER,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        coded.writeUInt32NoTag(readChunkSize);
+        readChunkWithoutData.writeTo(coded);
+        if (readChunk.hasDataBuffers()) {
+          coded.writeTag(ReadChunkResponseProto.DATABUFFERS_FIELD_NUMBER,
+              WireFormat.WIRETYPE_LENGTH_DELIMITED);
+          coded.writeUInt32NoTag(
+              readChunk.getDataBuffers().getSerializedSize());
+        }
+        coded.flush();
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to encode response", e);
+      }
+      this.header = out.toByteArray();
+      this.length = response.getSerializedSize();
+    }
+
+    @Override
+    public int drainTo(OutputStream target) throws IOException {
+      if (fallback != null || drained) {
+        throw new IllegalStateException("Response stream already consumed");
+      }
+      drained = true;
+      target.write(header);
+      final TransportOutput output = new TransportOutput(target);
+      final boolean multiple = response.getReadChunk().hasDataBuffers();
+      final int field = multiple ? DataBuffers.BUFFERS_FIELD_NUMBER
+          : ReadChunkResponseProto.DATA_FIELD_NUMBER;
+      for (ByteString buffer : buffers) {
+        writeTagAndLength(target, field, buffer.size());
+        UnsafeByteOperations.unsafeWriteTo(buffer, output);
+      }
+      return length;
+    }
+
+    private void writeTagAndLength(OutputStream target, int field, int size)
+        throws IOException {
+      final byte[] bytes = new byte[CodedOutputStream.computeTagSize(field)
+          + CodedOutputStream.computeUInt32SizeNoTag(size)];
+      final CodedOutputStream coded = CodedOutputStream.newInstance(bytes);
+      coded.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      coded.writeUInt32NoTag(size);
+      coded.checkNoSpaceLeft();
+      target.write(bytes);
+    }
+
+    @Override
+    public int read() throws IOException {
+      return getFallback().read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return getFallback().read(b, off, len);
+    }
+
+    @Override
+    public int available() throws IOException {
+      if (drained) {
+        return 0;
+      }
+      return fallback != null ? fallback.available() : length;
+    }
+
+    private InputStream getFallback() {
+      if (drained) {
+        throw new IllegalStateException("Response stream already drained");
+      }
+      if (fallback == null) {
+        fallback = delegate.stream(response);
+      }
+      return fallback;
+    }
+  }
+
+  /**
+   * Writes the data of a {@link ByteString} to the transport without
+   * copying heap buffers, and direct buffers in large pieces.
+   */
+  private static final class TransportOutput extends ByteOutput {
+    private final OutputStream target;
+
+    TransportOutput(OutputStream target) {
+      this.target = target;
+    }
+
+    @Override
+    public void write(byte value) throws IOException {
+      target.write(value);
+    }
+
+    @Override
+    public void write(byte[] value, int offset, int length)
+        throws IOException {
+      target.write(value, offset, length);
+    }
+
+    @Override
+    public void writeLazy(byte[] value, int offset, int length)
+        throws IOException {
+      target.write(value, offset, length);
+    }
+
+    @Override
+    public void write(ByteBuffer value) throws IOException {
+      if (value.hasArray()) {
+        target.write(value.array(), value.arrayOffset() + value.position(),
+            value.remaining());
+        return;
+      }
+      final ByteBuffer source = value.duplicate();
+      final byte[] copy = COPY_BUFFER.get();
+      while (source.hasRemaining()) {
+        final int n = Math.min(source.remaining(), copy.length);
+        source.get(copy, 0, n);
+        target.write(copy, 0, n);
+      }
+    }
+
+    @Override
+    public void writeLazy(ByteBuffer value) throws IOException {
+      write(value);
+    }
+  }
+}
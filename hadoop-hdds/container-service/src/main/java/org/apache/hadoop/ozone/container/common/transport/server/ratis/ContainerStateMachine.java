@@ -527,6 +527,7 @@ private CompletableFuture<Message> writeStateMachineData(
             .setLogIndex(entryIndex)
             .setStage(DispatcherContext.WriteChunkStage.WRITE_DATA)
             .setContainer2BCSIDMap(container2BCSIDMap)
+            .setAsyncChunkIO(true)
             .build();
     CompletableFuture<Message> raftFuture = new CompletableFuture<>();
     // ensure the write chunk happens asynchronously in writeChunkExecutor pool
@@ -546,7 +547,9 @@ private CompletableFuture<Message> writeStateMachineData(
             raftFuture.completeExceptionally(e);
             throw e;
           }
-        }, getChunkExecutor(requestProto.getWriteChunk()));
+        }, getChunkExecutor(requestProto.getWriteChunk()))
+        // the chunk may still be written on the threads of its volume
+        .thenCompose(r -> awaitChunkIO(r, context, raftFuture));
 
     writeChunkFutureMap.put(entryIndex, writeChunkFuture);
     if (LOG.isDebugEnabled()) {
@@ -592,6 +595,29 @@ private CompletableFuture<Message> writeStateMachineData(
     return raftFuture;
   }
 
+  /**
+   * @return the response of a write chunk once its chunk I/O completes,
+   * if the dispatcher returned before.
+   */
+  private CompletableFuture<ContainerCommandResponseProto> awaitChunkIO(
+      ContainerCommandResponseProto response, DispatcherContext context,
+      CompletableFuture<Message> raftFuture) {
+    final CompletableFuture<ContainerCommandResponseProto> pending =
+        context.getResponseFuture();
+    if (pending == null) {
+      return CompletableFuture.completedFuture(response);
+    }
+    return pending.whenComplete((r, e) -> {
+      if (e != null) {
+        LOG.error("{}: writeChunk writeStateMachineData failed: logIndex {}",
+            gid, context.getLogIndex(), e);
+        metrics.incNumWriteDataFails();
+        stateMachineHealthy.set(false);
+        raftFuture.completeExceptionally(e);
+      }
+    });
+  }
+
   private StateMachine.DataChannel getStreamDataChannel(
           ContainerCommandRequestProto requestProto,
           DispatcherContext context) throws StorageContainerException {
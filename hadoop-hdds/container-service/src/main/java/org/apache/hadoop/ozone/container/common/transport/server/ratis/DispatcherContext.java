@@ -17,12 +17,16 @@
  */
 package org.apache.hadoop.ozone.container.common.transport.server.ratis;
 
+import com.google.common.base.Preconditions;
 import org.apache.hadoop.hdds.annotation.InterfaceAudience;
 import org.apache.hadoop.hdds.annotation.InterfaceStability;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
 import org.apache.ratis.server.protocol.TermIndex;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * DispatcherContext class holds transport protocol specific context info
@@ -118,12 +122,20 @@ public static Op op(DispatcherContext context) {
 
   private final Map<Long, Long> container2BCSIDMap;
 
+  // chunk I/O left running by the chunk manager, and the response of the
+  // dispatcher once it completes, if async chunk I/O is enabled
+  private final AtomicReference<CompletableFuture<Void>> chunkIO;
+  private final AtomicReference<
+      CompletableFuture<ContainerCommandResponseProto>> response;
+
   private DispatcherContext(Builder b) {
     this.op = Objects.requireNonNull(b.op, "op == null");
     this.term = b.term;
     this.logIndex = b.logIndex;
     this.stage = b.stage;
     this.container2BCSIDMap = b.container2BCSIDMap;
+    this.chunkIO = b.asyncChunkIO ? new AtomicReference<>() : null;
+    this.response = b.asyncChunkIO ? new AtomicReference<>() : null;
   }
 
   /** Use {@link DispatcherContext#op(DispatcherContext)} for handling null. */
@@ -147,6 +159,48 @@ public Map<Long, Long> getContainer2BCSIDMap() {
     return container2BCSIDMap;
   }
 
+  /**
+   * @return whether the chunk manager may return before the chunk I/O of
+   * the request completes, see {@link #setChunkIOFuture}.
+   */
+  public boolean isAsyncChunkIO() {
+    return chunkIO != null;
+  }
+
+  /**
+   * Set by the chunk manager when it returns before the chunk I/O of the
+   * request completes.
+   */
+  public void setChunkIOFuture(CompletableFuture<Void> future) {
+    Preconditions.checkState(isAsyncChunkIO(), "Async chunk I/O is disabled");
+    chunkIO.set(future);
+  }
+
+  /**
+   * @return the chunk I/O still running for the request, or null.
+   */
+  public CompletableFuture<Void> getChunkIOFuture() {
+    return chunkIO != null ? chunkIO.get() : null;
+  }
+
+  /**
+   * Set by the dispatcher to the final response of a request whose chunk
+   * I/O is still running when it returns.
+   */
+  public void setResponseFuture(
+      CompletableFuture<ContainerCommandResponseProto> future) {
+    Preconditions.checkState(isAsyncChunkIO(), "Async chunk I/O is disabled");
+    response.set(future);
+  }
+
+  /**
+   * @return the final response of the request if its chunk I/O was still
+   * running when the dispatcher returned, or null.
+   */
+  public CompletableFuture<ContainerCommandResponseProto> getResponseFuture() {
+    return response != null ? response.get() : null;
+  }
+
   @Override
   public String toString() {
     return op + "-" + stage + TermIndex.valueOf(term, logIndex);
@@ -165,6 +219,7 @@ public static final class Builder {
     private long term;
     private long logIndex;
     private Map<Long, Long> container2BCSIDMap;
+    private boolean asyncChunkIO;
 
     private Builder(Op op) {
       this.op = op;
@@ -213,6 +268,17 @@ public Builder setContainer2BCSIDMap(Map<Long, Long> map) {
       this.container2BCSIDMap = map;
       return this;
     }
+
+    /**
+     * Allows the chunk manager to complete the chunk I/O of the request
+     * asynchronously.
+     * @param async whether async chunk I/O is allowed
+     * @return Builder
+     */
+    public Builder setAsyncChunkIO(boolean async) {
+      this.asyncChunkIO = async;
+      return this;
+    }
     /**
      * Builds and returns DispatcherContext instance.
      *
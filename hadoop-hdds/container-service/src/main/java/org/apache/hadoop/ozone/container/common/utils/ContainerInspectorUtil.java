@@ -49,14 +49,18 @@ public final class ContainerInspectorUtil {
         .add(new KeyValueContainerMetadataInspector());
   }
 
+  private static volatile boolean loaded;
+
   private ContainerInspectorUtil() { }
 
   public static void load() {
+    boolean anyLoaded = false;
     for (List<ContainerInspector> inspectors: INSPECTORS.values()) {
       for (ContainerInspector inspector: inspectors) {
-        inspector.load();
+        anyLoaded |= inspector.load();
       }
     }
+    loaded = anyLoaded;
   }
 
   public static void unload() {
@@ -65,6 +69,14 @@ public static void unload() {
         inspector.unload();
       }
     }
+    loaded = false;
+  }
+
+  /**
+   * @return true if any inspector was loaded and will process containers.
+   */
+  public static boolean isLoaded() {
+    return loaded;
   }
 
   public static boolean isReadOnly(ContainerProtos.ContainerType type) {
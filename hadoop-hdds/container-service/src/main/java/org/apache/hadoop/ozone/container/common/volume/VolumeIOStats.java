@@ -22,6 +22,7 @@
 import org.apache.hadoop.metrics2.annotation.Metric;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
 
 /**
  * This class is used to track Volume IO stats for each HDDS Volume.
@@ -35,6 +36,13 @@ public class VolumeIOStats {
   private @Metric MutableCounterLong writeOpCount;
   private @Metric MutableCounterLong readTime;
   private @Metric MutableCounterLong writeTime;
+  private @Metric MutableGaugeLong chunkIOQueueDepth;
+  private @Metric MutableCounterLong chunkIOQueueTime;
+  private @Metric MutableCounterLong chunkIORejected;
+  private @Metric MutableCounterLong syncBatchCount;
+  private @Metric MutableCounterLong syncFileCount;
+  private @Metric MutableCounterLong syncWriteCount;
+  private @Metric MutableCounterLong syncTime;
 
   @Deprecated
   public VolumeIOStats() {
@@ -110,6 +118,57 @@ public void incWriteTime(long time) {
     writeTime.incr(time);
   }
 
+  /**
+   * Increment the number of chunk I/O requests queued or running on the
+   * volume.
+   */
+  public void incChunkIOQueueDepth() {
+    chunkIOQueueDepth.incr();
+  }
+
+  /**
+   * Decrement the number of chunk I/O requests queued or running on the
+   * volume.
+   */
+  public void decChunkIOQueueDepth() {
+    chunkIOQueueDepth.decr();
+  }
+
+  /**
+   * Increment the time chunk I/O requests waited in the queue of the volume.
+   * @param time
+   */
+  public void incChunkIOQueueTime(long time) {
+    chunkIOQueueTime.incr(time);
+  }
+
+  /**
+   * Increment the number of chunk I/O requests rejected because the queue
+   * of the volume was full.
+   */
+  public void incChunkIORejected() {
+    chunkIORejected.incr();
+  }
+
+  /**
+   * Increment the group commit stats of the volume by a batch of writes.
+   * @param files number of files forced to disk by the batch
+   * @param writes number of writes made durable by the batch
+   */
+  public void incSyncBatch(long files, long writes) {
+    syncBatchCount.incr();
+    syncFileCount.incr(files);
+    syncWriteCount.incr(writes);
+  }
+
+  /**
+   * Increment the time taken by group commit syncs on the volume.
+   * @param time
+   */
+  public void incSyncTime(long time) {
+    syncTime.incr(time);
+  }
+
   /**
    * Returns total number of bytes read from the volume.
    * @return long
@@ -158,6 +217,63 @@ public long getWriteTime() {
     return writeTime.value();
   }
 
+  /**
+   * Returns the number of chunk I/O requests queued or running on the volume.
+   * @return long
+   */
+  public long getChunkIOQueueDepth() {
+    return chunkIOQueueDepth.value();
+  }
+
+  /**
+   * Returns total time chunk I/O requests waited in the queue of the volume.
+   * @return long
+   */
+  public long getChunkIOQueueTime() {
+    return chunkIOQueueTime.value();
+  }
+
+  /**
+   * Returns total number of chunk I/O requests rejected by the volume.
+   * @return long
+   */
+  public long getChunkIORejected() {
+    return chunkIORejected.value();
+  }
+
+  /**
+   * Returns total number of group commit batches synced on the volume.
+   * @return long
+   */
+  public long getSyncBatchCount() {
+    return syncBatchCount.value();
+  }
+
+  /**
+   * Returns total number of files forced to disk by group commit.
+   * @return long
+   */
+  public long getSyncFileCount() {
+    return syncFileCount.value();
+  }
+
+  /**
+   * Returns total number of writes made durable by group commit. Divided by
+   * the number of batches, this is the achieved batching.
+   * @return long
+   */
+  public long getSyncWriteCount() {
+    return syncWriteCount.value();
+  }
+
+  /**
+   * Returns total group commit sync time on the volume.
+   * @return long
+   */
+  public long getSyncTime() {
+    return syncTime.value();
+  }
+
   @Metric
   public String getStorageDirectory() {
     return storageDirectory;
@@ -84,6 +84,7 @@
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
 import org.apache.hadoop.ozone.container.keyvalue.impl.BlockManagerImpl;
 import org.apache.hadoop.ozone.container.keyvalue.impl.ChunkManagerFactory;
+import org.apache.hadoop.ozone.container.keyvalue.impl.ChunkReadCache;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.upgrade.VersionedDatanodeFeatures;
@@ -138,6 +139,8 @@ public class KeyValueHandler extends Handler {
   private final boolean validateChunkChecksumData;
   // A striped lock that is held during container creation.
   private final Striped<Lock> containerCreationLocks;
+  // Cache of chunks read from closed containers, null if disabled
+  private final ChunkReadCache chunkReadCache;
 
   public KeyValueHandler(ConfigurationSource config,
                          String datanodeId,
@@ -147,8 +150,12 @@ public KeyValueHandler(ConfigurationSource config,
                          IncrementalReportSender<Container> icrSender) {
     super(config, datanodeId, contSet, volSet, metrics, icrSender);
     blockManager = new BlockManagerImpl(config);
-    validateChunkChecksumData = conf.getObject(
-        DatanodeConfiguration.class).isChunkDataValidationCheck();
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    validateChunkChecksumData = dnConf.isChunkDataValidationCheck();
+    chunkReadCache = dnConf.getChunkReadCacheSize() > 0
+        ? new ChunkReadCache(dnConf.getChunkReadCacheSize(),
+            dnConf.getChunkReadCacheMaxChunkSize())
+        : null;
     chunkManager = ChunkManagerFactory.createChunkManager(config, blockManager,
         volSet);
     try {
@@ -714,12 +721,26 @@ ContainerCommandResponseProto handleReadChunk(
         chunkInfo.setReadDataIntoSingleBuffer(true);
       }
 
-      data = chunkManager.readChunk(kvContainer, blockID, chunkInfo,
-          dispatcherContext);
+      final boolean readFromTmpFile =
+          DispatcherContext.op(dispatcherContext).readFromTmpFile();
+      final boolean useCache = chunkReadCache != null && !readFromTmpFile
+          && isImmutable(kvContainer);
+      // Got before reading, so that data read before an invalidation of the
+      // block is not cached
+      final long cacheGeneration =
+          useCache ? chunkReadCache.getGeneration(blockID) : 0;
+      data = useCache ? getCachedChunk(kvContainer, blockID, chunkInfo) : null;
+      if (data == null) {
+        data = chunkManager.readChunk(kvContainer, blockID, chunkInfo,
+            dispatcherContext);
+        if (useCache) {
+          chunkReadCache.put(blockID, chunkInfo, data, cacheGeneration);
+        }
+      }
       // Validate data only if the read chunk is issued by Ratis for its
       // internal logic.
       //  For client reads, the client is expected to validate.
-      if (DispatcherContext.op(dispatcherContext).readFromTmpFile()) {
+      if (readFromTmpFile) {
         validateChunkChecksumData(data, chunkInfo);
       }
       metrics.incContainerBytesStats(Type.ReadChunk, chunkInfo.getLen());
@@ -736,6 +757,35 @@ ContainerCommandResponseProto handleReadChunk(
     return getReadChunkResponse(request, data, byteBufferToByteString);
   }
 
+  private static boolean isImmutable(KeyValueContainer kvContainer) {
+    final State state = kvContainer.getContainerState();
+    return state == State.CLOSED || state == State.QUASI_CLOSED;
+  }
+
+  private ChunkBuffer getCachedChunk(KeyValueContainer kvContainer,
+      BlockID blockID, ChunkInfo chunkInfo) {
+    final int bufferCapacity = ChunkManager.getBufferCapacityForChunkRead(
+        chunkInfo, blockManager.getDefaultReadBufferCapacity());
+    final ChunkBuffer data =
+        chunkReadCache.get(blockID, chunkInfo, bufferCapacity);
+    if (data != null) {
+      kvContainer.getContainerData().updateReadStats(data.remaining());
+    }
+    return data;
+  }
+
+  private void invalidateChunkReadCache(Container container) {
+    if (chunkReadCache != null) {
+      chunkReadCache.invalidateContainer(
+          container.getContainerData().getContainerID());
+    }
+  }
+
+  @VisibleForTesting
+  ChunkReadCache getChunkReadCache() {
+    return chunkReadCache;
+  }
+
   /**
    * Handle Delete Chunk operation. Calls ChunkManager to process the request.
    */
@@ -1005,6 +1055,7 @@ public Container importContainer(ContainerData originalContainerData,
     HddsVolume targetVolume = originalContainerData.getVolume();
     populateContainerPathFields(container, targetVolume);
     container.importContainerData(rawContainerStream, packer);
+    invalidateChunkReadCache(container);
     ContainerLogger.logImported(containerData);
     sendICR(container);
     return container;
@@ -1065,6 +1116,7 @@ public void markContainerUnhealthy(Container container, ScanResult reason)
         return;
       }
 
+      invalidateChunkReadCache(container);
       try {
         container.markContainerUnhealthy();
       } catch (StorageContainerException ex) {
@@ -1102,6 +1154,7 @@ public void quasiCloseContainer(Container container, String reason)
                 .getContainerID() + " while in " + state + " state.", error);
       }
       container.quasiClose();
+      invalidateChunkReadCache(container);
       ContainerLogger.logQuasiClosed(container.getContainerData(), reason);
       sendICR(container);
     } finally {
@@ -1135,6 +1188,7 @@ public void closeContainer(Container container)
                 .getContainerID() + " while in " + state + " state.", error);
       }
       container.close();
+      invalidateChunkReadCache(container);
       ContainerLogger.logClosed(container.getContainerData());
       sendICR(container);
     } finally {
@@ -1155,6 +1209,10 @@ public void deleteContainer(Container container, boolean force)
   @Override
   public void deleteBlock(Container container, BlockData blockData)
       throws IOException {
+    if (chunkReadCache != null) {
+      chunkReadCache.invalidateBlock(blockData.getContainerID(),
+          blockData.getLocalID());
+    }
     chunkManager.deleteChunks(container, blockData);
     if (LOG.isDebugEnabled()) {
       for (ContainerProtos.ChunkInfo chunkInfo : blockData.getChunks()) {
@@ -1197,6 +1255,9 @@ public void deleteUnreferenced(Container container, long localID)
           containerID, localID);
       return;
     }
+    if (chunkReadCache != null) {
+      chunkReadCache.invalidateBlock(containerID, localID);
+    }
     for (String name: chunkNames) {
       File file = new File(chunkDir, name);
       if (!file.isFile()) {
@@ -1324,6 +1385,7 @@ private void deleteInternal(Container container, boolean force)
         // 5. container content deleted from tmp folder
         try {
           container.markContainerForDelete();
+          invalidateChunkReadCache(container);
           long containerId = container.getContainerData().getContainerID();
           containerSet.removeContainer(containerId);
           ContainerLogger.logDeleted(container.getContainerData(), force);
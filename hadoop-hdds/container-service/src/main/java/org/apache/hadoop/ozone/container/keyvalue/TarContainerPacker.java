@@ -22,14 +22,25 @@
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 
 import org.apache.hadoop.hdds.HddsUtils;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
@@ -48,6 +59,8 @@
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerLocationUtil;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaThreeImpl;
 import org.apache.hadoop.ozone.container.replication.CopyContainerCompression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static java.util.stream.Collectors.toList;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.CONTAINER_ALREADY_EXISTS;
@@ -55,20 +68,82 @@
 
 /**
  * Compress/uncompress KeyValueContainer data to a tar archive.
+ * <p>
+ * To download a container from multiple replicas in parallel, the archive
+ * can be split into partitions. The chunk files are assigned to partitions
+ * by the hash of their name, so that replicas with the same files split
+ * them the same way. Only partition 0 has the descriptor and the metadata
+ * of the container. Each partition ends with the CRC32 of its chunk files,
+ * verified as they are extracted, since they are reassembled from different
+ * sources.
+ * <p>
+ * Replicas may differ in their chunk files, for example if blocks were
+ * deleted on one of them but not yet on another. So partition 0 also lists
+ * the name and size of all the chunk files of its source, taken under the
+ * same lock as its DB. The chunk files of the other partitions are checked
+ * against this list when they are merged: files missing from it are
+ * dropped, and missing or different files fail the import with
+ * {@link PartitionMismatchException}.
  */
 public class TarContainerPacker
     implements ContainerPacker<KeyValueContainerData> {
 
+  private static final Logger LOG =
+      LoggerFactory.getLogger(TarContainerPacker.class);
+
   static final String CHUNKS_DIR_NAME = OzoneConsts.STORAGE_DIR_CHUNKS;
 
   static final String DB_DIR_NAME = "db";
 
   static final String CONTAINER_FILE_NAME = "container.yaml";
 
+  static final String CHECKSUMS_FILE_NAME = "chunks.crc32";
+
+  static final String CHUNKS_LIST_FILE_NAME = "chunks.list";
+
   private final CopyContainerCompression compression;
 
+  private final int partitionIndex;
+
+  private final int partitionCount;
+
+  // Directories of the chunk files of the other partitions, when unpacking
+  // partition 0 of a container downloaded from multiple sources.
+  private final List<CompletableFuture<Path>> otherPartitions;
+
   public TarContainerPacker(CopyContainerCompression compression) {
+    this(compression, 0, 1, Collections.emptyList());
+  }
+
+  /**
+   * Packer of one of the partitions of a container.
+   */
+  public TarContainerPacker(CopyContainerCompression compression,
+      int partitionIndex, int partitionCount) {
+    this(compression, partitionIndex, partitionCount,
+        Collections.emptyList());
+  }
+
+  /**
+   * Packer to unpack partition 0 of a container, and move the chunk files of
+   * the other partitions into the container when they are extracted by
+   * {@link #unpackPartition(InputStream, Path)}.
+   */
+  public TarContainerPacker(CopyContainerCompression compression,
+      List<CompletableFuture<Path>> otherPartitions) {
+    this(compression, 0, otherPartitions.size() + 1, otherPartitions);
+  }
+
+  private TarContainerPacker(CopyContainerCompression compression,
+      int partitionIndex, int partitionCount,
+      List<CompletableFuture<Path>> otherPartitions) {
+    Preconditions.checkArgument(partitionCount > 0
+            && partitionIndex >= 0 && partitionIndex < partitionCount,
+        "Invalid partition %s of %s", partitionIndex, partitionCount);
     this.compression = compression;
+    this.partitionIndex = partitionIndex;
+    this.partitionCount = partitionCount;
+    this.otherPartitions = otherPartitions;
   }
 
   /**
@@ -92,7 +167,13 @@ public byte[] unpackContainerData(Container<KeyValueContainerData> container,
 
     Path dbRoot = getDbPath(containerUntarDir, containerData);
     Path chunksRoot = getChunkPath(containerUntarDir, containerData);
-    byte[] descriptorFileContent = innerUnpack(input, dbRoot, chunksRoot);
+    final Map<String, Long> chunkFiles =
+        otherPartitions.isEmpty() ? null : new HashMap<>();
+    byte[] descriptorFileContent =
+        innerUnpack(input, dbRoot, chunksRoot, chunkFiles);
+    if (!otherPartitions.isEmpty()) {
+      mergePartitions(containerId, chunksRoot, chunkFiles);
+    }
 
     if (!Files.exists(destContainerDir)) {
       Files.createDirectories(destContainerDir);
@@ -111,6 +192,92 @@ public byte[] unpackContainerData(Container<KeyValueContainerData> container,
     return descriptorFileContent;
   }
 
+  /**
+   * Extract the chunk files of a partition other than 0 to the directory,
+   * verifying their checksums.
+   */
+  public void unpackPartition(InputStream input, Path chunksRoot)
+      throws IOException {
+    innerUnpack(input, null, chunksRoot, null);
+  }
+
+  /**
+   * Wait for the other partitions to be extracted, verify their chunk files
+   * against the list of partition 0, and move them into the chunks
+   * directory of the container.
+   *
+   * @param chunkFiles size of each chunk file of the source of partition 0
+   */
+  private void mergePartitions(long containerId, Path chunksRoot,
+      Map<String, Long> chunkFiles) throws IOException {
+    Files.createDirectories(chunksRoot);
+    for (int i = 0; i < otherPartitions.size(); i++) {
+      final int partition = i + 1;
+      final Path dir;
+      try {
+        dir = otherPartitions.get(i).get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for " +
+            "partitions of container " + containerId);
+      } catch (ExecutionException e) {
+        throw new IOException("Failed to download partition of container " +
+            containerId, e.getCause());
+      }
+      verifyPartition(containerId, partition, dir, chunkFiles);
+      // Files of different partitions never have the same name
+      try (Stream<Path> files = Files.list(dir)) {
+        for (Path file : files.collect(toList())) {
+          Files.move(file, chunksRoot.resolve(file.getFileName()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Check that a partition from another source has the same chunk files as
+   * the source of partition 0. Files which are not in its list belong to
+   * blocks that are not in its DB, and are deleted.
+   */
+  private void verifyPartition(long containerId, int partition, Path dir,
+      Map<String, Long> chunkFiles) throws IOException {
+    final Map<String, Long> extracted = new HashMap<>();
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : files.collect(toList())) {
+        String fileName = file.getFileName().toString();
+        if (chunkFiles.containsKey(fileName)) {
+          extracted.put(fileName, Files.size(file));
+        } else {
+          LOG.info("Deleting chunk file {} of container {}, which is not in " +
+              "partition 0", fileName, containerId);
+          Files.delete(file);
+        }
+      }
+    }
+    for (Map.Entry<String, Long> e : chunkFiles.entrySet()) {
+      if (getPartition(e.getKey(), partitionCount) != partition) {
+        continue;
+      }
+      Long size = extracted.get(e.getKey());
+      if (size == null) {
+        throw new PartitionMismatchException("Chunk file " + e.getKey() +
+            " of container " + containerId + " is missing from partition " +
+            partition);
+      }
+      if (!size.equals(e.getValue())) {
+        throw new PartitionMismatchException("Chunk file " + e.getKey() +
+            " of container " + containerId + " has size " + size +
+            " in partition " + partition + ", expected " + e.getValue());
+      }
+    }
+  }
+
+  static int getPartition(String fileName, int partitionCount) {
+    final CRC32 crc = new CRC32();
+    crc.update(fileName.getBytes(StandardCharsets.UTF_8));
+    return (int) (crc.getValue() % partitionCount);
+  }
+
   private void extractEntry(ArchiveEntry entry, InputStream input, long size,
       Path ancestor, Path path) throws IOException {
     HddsUtils.validatePath(path, ancestor);
@@ -157,14 +324,26 @@ public void pack(Container<KeyValueContainerData> container,
     KeyValueContainerData containerData = container.getContainerData();
 
     try (ArchiveOutputStream<TarArchiveEntry> archiveOutput = tar(compress(output))) {
-      includeFile(container.getContainerFile(), CONTAINER_FILE_NAME,
-          archiveOutput);
+      if (partitionIndex == 0) {
+        includeFile(container.getContainerFile(), CONTAINER_FILE_NAME,
+            archiveOutput);
 
-      includePath(getDbPath(containerData), DB_DIR_NAME,
-          archiveOutput);
+        includePath(getDbPath(containerData), DB_DIR_NAME,
+            archiveOutput);
+
+        if (partitionCount > 1) {
+          includeChunkList(Paths.get(containerData.getChunksPath()),
+              archiveOutput);
+        }
+      }
 
-      includePath(Paths.get(containerData.getChunksPath()), CHUNKS_DIR_NAME,
-          archiveOutput);
+      if (partitionCount == 1) {
+        includePath(Paths.get(containerData.getChunksPath()),
+            CHUNKS_DIR_NAME, archiveOutput);
+      } else {
+        includePartition(Paths.get(containerData.getChunksPath()),
+            archiveOutput);
+      }
     }
   }
 
@@ -254,6 +433,67 @@ private void includePath(Path dir, String subdir,
     }
   }
 
+  /**
+   * Include the chunk files of this partition, followed by their checksums.
+   */
+  private void includePartition(Path dir,
+      ArchiveOutputStream<TarArchiveEntry> archiveOutput) throws IOException {
+    TarArchiveEntry entry =
+        archiveOutput.createArchiveEntry(dir.toFile(), CHUNKS_DIR_NAME);
+    archiveOutput.putArchiveEntry(entry);
+    archiveOutput.closeArchiveEntry();
+
+    final StringBuilder checksums = new StringBuilder();
+    try (Stream<Path> dirEntries = Files.list(dir)) {
+      for (Path path : dirEntries.collect(toList())) {
+        String fileName = path.getFileName().toString();
+        if (getPartition(fileName, partitionCount) != partitionIndex) {
+          continue;
+        }
+        CRC32 crc = new CRC32();
+        TarArchiveEntry fileEntry = archiveOutput.createArchiveEntry(
+            path.toFile(), CHUNKS_DIR_NAME + "/" + fileName);
+        archiveOutput.putArchiveEntry(fileEntry);
+        try (InputStream input = new CheckedInputStream(
+            Files.newInputStream(path), crc)) {
+          IOUtils.copy(input, archiveOutput);
+        }
+        archiveOutput.closeArchiveEntry();
+        checksums.append(fileName).append(' ')
+            .append(Long.toHexString(crc.getValue())).append('\n');
+      }
+    }
+
+    byte[] content = checksums.toString().getBytes(StandardCharsets.UTF_8);
+    TarArchiveEntry checksumsEntry = new TarArchiveEntry(CHECKSUMS_FILE_NAME);
+    checksumsEntry.setSize(content.length);
+    archiveOutput.putArchiveEntry(checksumsEntry);
+    archiveOutput.write(content);
+    archiveOutput.closeArchiveEntry();
+  }
+
+  /**
+   * Include the name and size of all chunk files, to verify the partitions
+   * downloaded from other sources.
+   */
+  private static void includeChunkList(Path dir,
+      ArchiveOutputStream<TarArchiveEntry> archiveOutput) throws IOException {
+    final StringBuilder list = new StringBuilder();
+    try (Stream<Path> dirEntries = Files.list(dir)) {
+      for (Path path : dirEntries.collect(toList())) {
+        list.append(path.getFileName()).append(' ')
+            .append(Files.size(path)).append('\n');
+      }
+    }
+
+    byte[] content = list.toString().getBytes(StandardCharsets.UTF_8);
+    TarArchiveEntry entry = new TarArchiveEntry(CHUNKS_LIST_FILE_NAME);
+    entry.setSize(content.length);
+    archiveOutput.putArchiveEntry(entry);
+    archiveOutput.write(content);
+    archiveOutput.closeArchiveEntry();
+  }
+
   static void includeFile(File file, String entryName,
       ArchiveOutputStream<TarArchiveEntry> archiveOutput) throws IOException {
     TarArchiveEntry entry = archiveOutput.createArchiveEntry(file, entryName);
@@ -284,35 +524,128 @@ OutputStream compress(OutputStream output) throws IOException {
     return compression.wrap(output);
   }
 
-  private byte[] innerUnpack(InputStream input, Path dbRoot, Path chunksRoot)
-      throws IOException {
+  /**
+   * Extract the archive. Without dbRoot, only chunk files are accepted, as
+   * in partitions other than 0.
+   *
+   * @param chunkFiles receives the chunk list of partition 0, if not null
+   */
+  private byte[] innerUnpack(InputStream input, Path dbRoot, Path chunksRoot,
+      Map<String, Long> chunkFiles) throws IOException {
     byte[] descriptorFileContent = null;
+    // Checksums of the extracted chunk files of a partition
+    final Map<String, Long> checksums =
+        dbRoot == null || partitionCount > 1 ? new HashMap<>() : null;
+    boolean verified = false;
+    boolean listed = false;
     try (ArchiveInputStream<TarArchiveEntry> archiveInput = untar(decompress(input))) {
       ArchiveEntry entry = archiveInput.getNextEntry();
       while (entry != null) {
         String name = entry.getName();
         long size = entry.getSize();
+        if (dbRoot == null && !name.startsWith(CHUNKS_DIR_NAME + "/")
+            && !CHECKSUMS_FILE_NAME.equals(name)) {
+          throw new IOException("Unexpected entry in container partition: " +
+              name);
+        }
         if (name.startsWith(DB_DIR_NAME + "/")) {
           Path destinationPath = dbRoot
               .resolve(name.substring(DB_DIR_NAME.length() + 1));
           extractEntry(entry, archiveInput, size, dbRoot,
               destinationPath);
         } else if (name.startsWith(CHUNKS_DIR_NAME + "/")) {
-          Path destinationPath = chunksRoot
-              .resolve(name.substring(CHUNKS_DIR_NAME.length() + 1));
-          extractEntry(entry, archiveInput, size, chunksRoot,
-              destinationPath);
+          String fileName = name.substring(CHUNKS_DIR_NAME.length() + 1);
+          Path destinationPath = chunksRoot.resolve(fileName);
+          if (checksums == null || entry.isDirectory()) {
+            extractEntry(entry, archiveInput, size, chunksRoot,
+                destinationPath);
+          } else {
+            CRC32 crc = new CRC32();
+            extractEntry(entry, new CheckedInputStream(archiveInput, crc),
+                size, chunksRoot, destinationPath);
+            checksums.put(fileName, crc.getValue());
+          }
         } else if (CONTAINER_FILE_NAME.equals(name)) {
           //Don't do anything. Container file should be unpacked in a
           //separated step by unpackContainerDescriptor call.
           descriptorFileContent = readEntry(archiveInput, size);
+        } else if (CHECKSUMS_FILE_NAME.equals(name) && checksums != null) {
+          verifyChecksums(checksums, readEntry(archiveInput, size));
+          verified = true;
+        } else if (CHUNKS_LIST_FILE_NAME.equals(name) && chunkFiles != null) {
+          chunkFiles.putAll(parseEntries(readEntry(archiveInput, size), 10));
+          listed = true;
         } else {
           throw new IllegalArgumentException(
               "Unknown entry in the tar file: " + "" + name);
         }
         entry = archiveInput.getNextEntry();
       }
+      if (checksums != null && !verified) {
+        throw new IOException(
+            "Checksums are missing from the container partition");
+      }
+      if (chunkFiles != null && !listed) {
+        throw new IOException(
+            "Chunk list is missing from the container partition");
+      }
       return descriptorFileContent;
     }
   }
+
+  private static void verifyChecksums(Map<String, Long> extracted,
+      byte[] content) throws IOException {
+    final Map<String, Long> expected = parseEntries(content, 16);
+    for (Map.Entry<String, Long> e : expected.entrySet()) {
+      Long actual = extracted.get(e.getKey());
+      if (actual == null) {
+        throw new IOException("Chunk file " + e.getKey() +
+            " is missing from the container partition");
+      }
+      if (!actual.equals(e.getValue())) {
+        throw new IOException("Checksum mismatch for chunk file " +
+            e.getKey() + ": expected " + Long.toHexString(e.getValue()) +
+            ", received " + Long.toHexString(actual));
+      }
+    }
+    if (extracted.size() != expected.size()) {
+      throw new IOException("Container partition has chunk files " +
+          "without checksum");
+    }
+  }
+
+  /**
+   * Parse the "name value" lines of the checksums or the chunk list.
+   */
+  private static Map<String, Long> parseEntries(byte[] content, int radix)
+      throws IOException {
+    final Map<String, Long> entries = new HashMap<>();
+    for (String line : new String(content, StandardCharsets.UTF_8)
+        .split("\n")) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      int separator = line.lastIndexOf(' ');
+      if (separator < 0) {
+        throw new IOException("Invalid chunk file entry: " + line);
+      }
+      try {
+        entries.put(line.substring(0, separator),
+            Long.parseLong(line.substring(separator + 1), radix));
+      } catch (NumberFormatException e) {
+        throw new IOException("Invalid chunk file entry: " + line, e);
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * The chunk files of a partition downloaded from another source do not
+   * match the ones of the source of partition 0.
+   */
+  public static class PartitionMismatchException extends IOException {
+    public PartitionMismatchException(String message) {
+      super(message);
+    }
+  }
 }
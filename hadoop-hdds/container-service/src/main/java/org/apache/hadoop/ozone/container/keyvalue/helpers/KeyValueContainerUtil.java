@@ -214,27 +214,20 @@ public static boolean noBlocksInContainer(DatanodeStore store,
    */
   public static void parseKVContainerData(KeyValueContainerData kvContainerData,
       ConfigurationSource config) throws IOException {
+    parseKVContainerData(kvContainerData, config, true);
+  }
 
-    long containerID = kvContainerData.getContainerID();
-
-    // Verify Checksum
-    ContainerUtils.verifyChecksum(kvContainerData, config);
-
-    if (kvContainerData.getSchemaVersion() == null) {
-      // If this container has not specified a schema version, it is in the old
-      // format with one default column family.
-      kvContainerData.setSchemaVersion(OzoneConsts.SCHEMA_V1);
-    }
-
-    File dbFile = KeyValueContainerLocationUtil.getContainerDBFile(
-        kvContainerData);
-    if (!dbFile.exists()) {
-      LOG.error("Container DB file is missing for ContainerID {}. " +
-          "Skipping loading of this container.", containerID);
+  /**
+   * Same as {@link #parseKVContainerData(KeyValueContainerData,
+   * ConfigurationSource)}, optionally skipping the checksum verification.
+   * @param verifyChecksum whether to verify the .container file checksum
+   */
+  public static void parseKVContainerData(KeyValueContainerData kvContainerData,
+      ConfigurationSource config, boolean verifyChecksum) throws IOException {
+    if (!prepareKVContainerData(kvContainerData, config, verifyChecksum)) {
       // Don't further process this container, as it is missing db file.
       return;
     }
-    kvContainerData.setDbFile(dbFile);
 
     DatanodeConfiguration dnConf =
         config.getObject(DatanodeConfiguration.class);
@@ -287,6 +280,58 @@ public static void parseKVContainerData(KeyValueContainerData kvContainerData,
     }
   }
 
+  /**
+   * Verify the checksum of KeyValueContainerData and set the DB file,
+   * without reading the DB.
+   * @return false if the container DB file is missing.
+   */
+  public static boolean prepareKVContainerData(
+      KeyValueContainerData kvContainerData, ConfigurationSource config,
+      boolean verifyChecksum) throws IOException {
+    long containerID = kvContainerData.getContainerID();
+
+    // Verify Checksum
+    if (verifyChecksum) {
+      ContainerUtils.verifyChecksum(kvContainerData, config);
+    }
+
+    if (kvContainerData.getSchemaVersion() == null) {
+      // If this container has not specified a schema version, it is in the old
+      // format with one default column family.
+      kvContainerData.setSchemaVersion(OzoneConsts.SCHEMA_V1);
+    }
+
+    File dbFile = KeyValueContainerLocationUtil.getContainerDBFile(
+        kvContainerData);
+    if (!dbFile.exists()) {
+      LOG.error("Container DB file is missing for ContainerID {}. " +
+          "Skipping loading of this container.", containerID);
+      return false;
+    }
+    kvContainerData.setDbFile(dbFile);
+    return true;
+  }
+
+  /**
+   * Re-read the block related metadata of a loaded container from its DB
+   * and update the in-memory values, e.g. for a container loaded from
+   * a {@link org.apache.hadoop.ozone.container.ozoneimpl.ContainerIndexSnapshot}.
+   * The caller should hold the container write lock.
+   */
+  public static void reloadContainerMetadata(
+      KeyValueContainerData kvContainerData, ConfigurationSource config)
+      throws IOException {
+    boolean bCheckChunksFilePath = config.getObject(
+        DatanodeConfiguration.class).getCheckEmptyContainerDir();
+    try (DBHandle db = BlockUtils.getDB(kvContainerData, config)) {
+      // Pending deletion blocks are incremented by populateContainerMetadata
+      kvContainerData.decrPendingDeletionBlocks(
+          kvContainerData.getNumPendingDeletionBlocks());
+      populateContainerMetadata(kvContainerData, db.getStore(),
+          bCheckChunksFilePath);
+    }
+  }
+
   private static void populateContainerMetadata(
       KeyValueContainerData kvContainerData, DatanodeStore store,
       boolean bCheckChunksFilePath)
@@ -0,0 +1,423 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.container.common.helpers.BlockData;
+import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
+import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
+import org.apache.hadoop.util.Time;
+import org.apache.ratis.statemachine.StateMachine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.IO_EXCEPTION;
+
+/**
+ * Runs the chunk reads and writes of a {@link ChunkManager} on a bounded
+ * pool of threads dedicated to the volume of the container, so that a slow
+ * disk only holds up the requests to that disk, instead of all the request
+ * handler threads.
+ * <p>
+ * Each thread of a volume is a lane with its own queue, picked by the block
+ * of the request, so that the chunks of a block are written and deleted one
+ * at a time, in the order they are submitted.
+ * <p>
+ * Each volume admits a limited number of requests, queued or running.
+ * Writes beyond the limit wait for a slot, without holding the thread of
+ * the caller; reads beyond the limit are rejected, so that the client can
+ * read from another replica. The queue depth, time spent in the queue and
+ * rejected requests are tracked in the {@link VolumeIOStats} of the volume.
+ * <p>
+ * Writes of the Ratis state machine, whose {@link DispatcherContext} allows
+ * async chunk I/O, return as soon as they are queued, and the state machine
+ * completes the write once the future set in the context does, which still
+ * pushes back on the pipeline. Other requests wait for their chunk I/O.
+ * <p>
+ * The queue of a volume is removed once the volume fails.
+ */
+public class ChunkIOEngine implements ChunkManager {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ChunkIOEngine.class);
+
+  private final ChunkManager delegate;
+  private final int threadsPerVolume;
+  private final int queueLimit;
+  private final Map<HddsVolume, VolumeQueue> queues =
+      new ConcurrentHashMap<>();
+
+  ChunkIOEngine(ChunkManager delegate, int threadsPerVolume, int queueLimit) {
+    Preconditions.checkArgument(threadsPerVolume > 0,
+        "threadsPerVolume must be positive, but was %s", threadsPerVolume);
+    Preconditions.checkArgument(queueLimit > 0,
+        "queueLimit must be positive, but was %s", queueLimit);
+    this.delegate = delegate;
+    this.threadsPerVolume = threadsPerVolume;
+    this.queueLimit = queueLimit;
+  }
+
+  @Override
+  public void writeChunk(Container container, BlockID blockID, ChunkInfo info,
+      ChunkBuffer data, DispatcherContext dispatcherContext)
+      throws StorageContainerException {
+    final CompletableFuture<Void> future = submit(container, blockID, true,
+        () -> {
+          delegate.writeChunk(container, blockID, info, data,
+              dispatcherContext);
+          return null;
+        });
+    if (dispatcherContext != null && dispatcherContext.isAsyncChunkIO()) {
+      dispatcherContext.setChunkIOFuture(future);
+    } else {
+      await(future);
+    }
+  }
+
+  @Override
+  public ChunkBuffer readChunk(Container container, BlockID blockID,
+      ChunkInfo info, DispatcherContext dispatcherContext)
+      throws StorageContainerException {
+    return await(submit(container, blockID, false,
+        () -> delegate.readChunk(container, blockID, info, dispatcherContext)));
+  }
+
+  @Override
+  public void finishWriteChunks(KeyValueContainer kvContainer,
+      BlockData blockData) throws IOException {
+    await(submit(kvContainer, blockData.getBlockID(), true, () -> {
+      delegate.finishWriteChunks(kvContainer, blockData);
+      return null;
+    }));
+  }
+
+  @Override
+  public void deleteChunk(Container container, BlockID blockID, ChunkInfo info)
+      throws StorageContainerException {
+    // Queued as a write, after the writes of the block already queued
+    await(submit(container, blockID, true, () -> {
+      delegate.deleteChunk(container, blockID, info);
+      return null;
+    }));
+  }
+
+  @Override
+  public void deleteChunks(Container container, BlockData blockData)
+      throws StorageContainerException {
+    await(submit(container, blockData.getBlockID(), true, () -> {
+      delegate.deleteChunks(container, blockData);
+      return null;
+    }));
+  }
+
+  @Override
+  public String streamInit(Container container, BlockID blockID)
+      throws StorageContainerException {
+    return delegate.streamInit(container, blockID);
+  }
+
+  @Override
+  public StateMachine.DataChannel getStreamDataChannel(
+      Container container, BlockID blockID, ContainerMetrics metrics)
+      throws StorageContainerException {
+    return delegate.getStreamDataChannel(container, blockID, metrics);
+  }
+
+  @Override
+  public void shutdown() {
+    queues.values().forEach(q -> q.close(true));
+    queues.clear();
+    delegate.shutdown();
+  }
+
+  @VisibleForTesting
+  int getQueueCount() {
+    return queues.size();
+  }
+
+  private <T> CompletableFuture<T> submit(Container container,
+      BlockID blockID, boolean isWrite, ChunkIO<T> io) {
+    final HddsVolume volume = container.getContainerData().getVolume();
+    if (volume == null || volume.getVolumeIOStats() == null) {
+      return callNow(io);
+    }
+    if (volume.isFailed()) {
+      removeQueue(volume);
+      return callNow(io);
+    }
+    return queues.computeIfAbsent(volume, VolumeQueue::new)
+        .submit(io, blockID, isWrite);
+  }
+
+  private static <T> CompletableFuture<T> callNow(ChunkIO<T> io) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      future.complete(io.call());
+    } catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  private void removeQueue(HddsVolume volume) {
+    final VolumeQueue queue = queues.remove(volume);
+    if (queue != null) {
+      LOG.info("Stopping chunk I/O threads of failed volume {}", volume);
+      queue.close(false);
+    }
+  }
+
+  /**
+   * Wait for the chunk I/O of a request which needs its result.
+   */
+  private static <T> T await(CompletableFuture<T> future)
+      throws StorageContainerException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw wrap(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StorageContainerException(
+          "Interrupted waiting for chunk I/O", IO_EXCEPTION);
+    }
+  }
+
+  /**
+   * A chunk operation to run on the threads of a volume.
+   */
+  @FunctionalInterface
+  private interface ChunkIO<T> {
+    T call() throws IOException;
+  }
+
+  private static StorageContainerException wrap(Throwable e) {
+    return e instanceof StorageContainerException
+        ? (StorageContainerException) e
+        : new StorageContainerException(e, IO_EXCEPTION);
+  }
+
+  /**
+   * The threads and admission control of a single volume.
+   */
+  private final class VolumeQueue {
+    private final HddsVolume volume;
+    private final VolumeIOStats stats;
+    // Single threaded, so that the requests of a block run in order
+    private final ExecutorService[] lanes;
+    // Writes waiting for a slot, started as running requests complete
+    private final Deque<Task<?>> waiting = new ArrayDeque<>();
+    // Requests queued in the lanes or running
+    private int admitted;
+    private boolean closed;
+
+    VolumeQueue(HddsVolume volume) {
+      this.volume = volume;
+      this.stats = volume.getVolumeIOStats();
+      final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+          .setDaemon(true)
+          .setNameFormat("ChunkIO-" + volume.getStorageID() + "-%d")
+          .build();
+      this.lanes = new ExecutorService[threadsPerVolume];
+      for (int i = 0; i < lanes.length; i++) {
+        lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+      }
+    }
+
+    <T> CompletableFuture<T> submit(ChunkIO<T> io, BlockID blockID,
+        boolean isWrite) {
+      final Task<T> task = new Task<>(io, lane(blockID));
+      synchronized (this) {
+        if (!closed && admitted < queueLimit) {
+          admitted++;
+          stats.incChunkIOQueueDepth();
+          // Started under the lock, so that requests of a block submitted
+          // one after the other reach their lane in the same order
+          if (start(task)) {
+            return task.future;
+          }
+        } else if (!closed && isWrite) {
+          stats.incChunkIOQueueDepth();
+          waiting.addLast(task);
+          return task.future;
+        } else if (!closed) {
+          stats.incChunkIORejected();
+          task.fail(new StorageContainerException("Too many chunk I/O " +
+              "requests queued for volume " + volume, IO_EXCEPTION));
+          return task.future;
+        }
+      }
+      task.fail(shutDown());
+      return task.future;
+    }
+
+    private ExecutorService lane(BlockID blockID) {
+      return lanes[Math.floorMod(Objects.hash(blockID.getContainerID(),
+          blockID.getLocalID()), lanes.length)];
+    }
+
+    /**
+     * Hands the task to its lane, or releases its slot if the lane is shut
+     * down. Called with the lock held.
+     */
+    private boolean start(Task<?> task) {
+      try {
+        task.lane.execute(task);
+        return true;
+      } catch (RejectedExecutionException e) {
+        admitted--;
+        stats.decChunkIOQueueDepth();
+        return false;
+      }
+    }
+
+    /**
+     * Release the slot of a completed request to the next waiting write.
+     */
+    private void completed() {
+      stats.decChunkIOQueueDepth();
+      Task<?> rejected = null;
+      synchronized (this) {
+        final Task<?> next = closed ? null : waiting.pollFirst();
+        if (next == null) {
+          admitted--;
+        } else if (!start(next)) {
+          rejected = next;
+        }
+      }
+      if (rejected != null) {
+        rejected.fail(shutDown());
+      }
+      if (volume.isFailed()) {
+        removeQueue(volume);
+      }
+    }
+
+    private StorageContainerException shutDown() {
+      return new StorageContainerException(
+          "Chunk I/O of volume " + volume + " is shut down", IO_EXCEPTION);
+    }
+
+    /**
+     * Fail the waiting writes and stop the threads, after the running
+     * requests complete if wait is set.
+     */
+    void close(boolean wait) {
+      final List<Task<?>> failed;
+      synchronized (this) {
+        closed = true;
+        failed = new ArrayList<>(waiting);
+        waiting.clear();
+      }
+      for (Task<?> task : failed) {
+        stats.decChunkIOQueueDepth();
+        task.fail(shutDown());
+      }
+      for (ExecutorService lane : lanes) {
+        lane.shutdown();
+      }
+      if (!wait) {
+        return;
+      }
+      try {
+        for (ExecutorService lane : lanes) {
+          if (!lane.awaitTermination(1, TimeUnit.MINUTES)) {
+            LOG.warn("Chunk I/O threads of volume {} did not terminate",
+                volume);
+            lane.shutdownNow();
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        for (ExecutorService lane : lanes) {
+          lane.shutdownNow();
+        }
+      }
+    }
+
+    /**
+     * A request admitted or waiting for a slot.
+     */
+    private final class Task<T> implements Runnable {
+      private final ChunkIO<T> io;
+      private final ExecutorService lane;
+      private final CompletableFuture<T> future = new CompletableFuture<>();
+      private final long queuedTime = Time.monotonicNow();
+
+      Task(ChunkIO<T> io, ExecutorService lane) {
+        this.io = io;
+        this.lane = lane;
+      }
+
+      @Override
+      public void run() {
+        stats.incChunkIOQueueTime(Time.monotonicNow() - queuedTime);
+        T result = null;
+        Throwable failure = null;
+        try {
+          result = io.call();
+        } catch (Throwable e) {
+          failure = e;
+        }
+        // release the slot first, the caller may check the queue depth
+        completed();
+        if (failure == null) {
+          future.complete(result);
+        } else {
+          future.completeExceptionally(failure);
+        }
+      }
+
+      void fail(Throwable e) {
+        future.completeExceptionally(e);
+      }
+    }
+  }
+}
@@ -40,6 +40,7 @@
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.EnumMap;
 import java.util.Map;
 
@@ -60,10 +61,15 @@ public class ChunkManagerDispatcher implements ChunkManager {
 
   ChunkManagerDispatcher(boolean sync, BlockManager manager,
                          VolumeSet volSet) {
+    this(sync, manager, volSet, null);
+  }
+
+  ChunkManagerDispatcher(boolean sync, BlockManager manager,
+      VolumeSet volSet, Duration groupCommitWindow) {
     handlers.put(FILE_PER_CHUNK,
         new FilePerChunkStrategy(sync, manager, volSet));
     handlers.put(FILE_PER_BLOCK,
-        new FilePerBlockStrategy(sync, manager, volSet));
+        new FilePerBlockStrategy(sync, manager, volSet, groupCommitWindow));
   }
 
   @Override
@@ -20,6 +20,7 @@
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
@@ -76,6 +77,14 @@ public static ChunkManager createChunkManager(ConfigurationSource conf,
       return new ChunkManagerDummyImpl();
     }
 
-    return new ChunkManagerDispatcher(sync, manager, volSet);
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    ChunkManager dispatcher = new ChunkManagerDispatcher(sync, manager, volSet,
+        dnConf.isChunkWriteGroupCommitEnabled()
+            ? dnConf.getChunkWriteGroupCommitWindow() : null);
+    if (dnConf.getChunkIOThreadsPerVolume() > 0) {
+      return new ChunkIOEngine(dispatcher, dnConf.getChunkIOThreadsPerVolume(),
+          dnConf.getChunkIOQueueLimitPerVolume());
+    }
+    return dispatcher;
   }
 }
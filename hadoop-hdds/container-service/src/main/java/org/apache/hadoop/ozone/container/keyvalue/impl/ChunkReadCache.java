@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
+import org.apache.hadoop.ozone.common.Checksum;
+import org.apache.hadoop.ozone.common.ChecksumData;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.common.OzoneChecksumException;
+import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bounded cache of the data of recently read chunks, held in direct
+ * buffers outside the heap.
+ * <p>
+ * Entries are keyed by the block ID, block commit sequence ID, offset and
+ * length of the read, and only hold whole chunks whose data matched the
+ * checksums of the chunk when it was read from disk, so a hit is served
+ * without reading or verifying the chunk file again. Eviction is least
+ * recently used by total size in bytes. Entries are invalidated when their
+ * block is deleted and when their container is closed, imported, marked
+ * unhealthy or deleted.
+ * <p>
+ * Data read from disk before an invalidation must not be cached after it,
+ * so readers get the {@link #getGeneration generation} of the block before
+ * reading the chunk, and {@link #put} drops the data if the block was
+ * invalidated since. Block generations are striped to bound their memory,
+ * while each invalidated container has its own generation, so that closing
+ * a container does not drop the puts of the other containers.
+ */
+public class ChunkReadCache {
+
+  private static final int GENERATION_STRIPES = 1024;
+
+  private final long maxChunkSize;
+  private final Cache<Key, ByteBuffer> cache;
+  // Cached keys by container ID, for invalidating blocks and containers
+  private final Map<Long, Set<Key>> keysByContainer =
+      new ConcurrentHashMap<>();
+  // Incremented on each invalidation of the blocks of the stripe
+  private final AtomicLongArray generations =
+      new AtomicLongArray(GENERATION_STRIPES);
+  // Set to the next value of containerGeneration on each invalidation of
+  // the container, so that the sum with a block generation only increases.
+  // One entry per invalidated container, which is small next to its data.
+  private final Map<Long, Long> containerGenerations =
+      new ConcurrentHashMap<>();
+  private final AtomicLong containerGeneration = new AtomicLong();
+  // Puts check the generation under the read lock, invalidations increment
+  // it under the write lock
+  private final ReadWriteLock invalidationLock = new ReentrantReadWriteLock();
+
+  public ChunkReadCache(long maxSize, long maxChunkSize) {
+    Preconditions.checkArgument(maxSize > 0,
+        "maxSize must be positive, but was %s", maxSize);
+    this.maxChunkSize = Math.min(maxChunkSize, maxSize);
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxSize)
+        .<Key, ByteBuffer>weigher((key, data) -> data.capacity())
+        .removalListener(this::onRemoval)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the cached data of the chunk, or null if not cached.
+   *
+   * @param bufferCapacity size of the buffers the data is split into, as
+   *                       when read from disk
+   */
+  public ChunkBuffer get(BlockID blockID, ChunkInfo info, int bufferCapacity) {
+    final ByteBuffer data = cache.getIfPresent(new Key(blockID, info));
+    if (data == null) {
+      return null;
+    }
+    final ByteBuffer whole = data.asReadOnlyBuffer();
+    if (bufferCapacity <= 0 || bufferCapacity >= whole.remaining()) {
+      return ChunkBuffer.wrap(whole);
+    }
+    final List<ByteBuffer> buffers = new ArrayList<>();
+    for (int pos = 0; pos < whole.limit(); pos += bufferCapacity) {
+      final ByteBuffer slice = whole.duplicate();
+      slice.position(pos).limit(Math.min(pos + bufferCapacity, whole.limit()));
+      buffers.add(slice.slice());
+    }
+    return ChunkBuffer.wrap(buffers);
+  }
+
+  /**
+   * Returns the generation of the block, to be passed to {@link #put} for
+   * the data read after this call.
+   */
+  public long getGeneration(BlockID blockID) {
+    final long containerID = blockID.getContainerID();
+    return generations.get(stripe(containerID, blockID.getLocalID()))
+        + containerGenerations.getOrDefault(containerID, 0L);
+  }
+
+  /**
+   * Caches a copy of the data read for the chunk, if it is the whole chunk,
+   * it matches the checksums of the chunk and the block has not been
+   * invalidated since the generation was got.
+   *
+   * @param generation generation of the block got before reading the data
+   * @return true if the data is cached
+   */
+  public boolean put(BlockID blockID, ChunkInfo info, ChunkBuffer data,
+      long generation) {
+    final long len = info.getLen();
+    if (len <= 0 || len > maxChunkSize || data.remaining() != len
+        || !isVerified(info, data)) {
+      return false;
+    }
+    final ByteBuffer copy = ByteBuffer.allocateDirect((int) len);
+    for (ByteBuffer b : data.duplicate(data.position(), data.limit())
+        .asByteBufferList()) {
+      copy.put(b.duplicate());
+    }
+    copy.flip();
+
+    final Key key = new Key(blockID, info);
+    invalidationLock.readLock().lock();
+    try {
+      if (getGeneration(blockID) != generation) {
+        return false;
+      }
+      keysByContainer.computeIfAbsent(key.containerID,
+          id -> ConcurrentHashMap.newKeySet()).add(key);
+      cache.put(key, copy);
+    } finally {
+      invalidationLock.readLock().unlock();
+    }
+    return true;
+  }
+
+  private static boolean isVerified(ChunkInfo info, ChunkBuffer data) {
+    final ChecksumData checksumData = info.getChecksumData();
+    if (checksumData == null
+        || checksumData.getChecksumType() == ChecksumType.NONE) {
+      return false;
+    }
+    final int bytesPerChecksum = checksumData.getBytesPerChecksum();
+    final long expected = (info.getLen() + bytesPerChecksum - 1)
+        / bytesPerChecksum;
+    if (expected != checksumData.getChecksums().size()) {
+      // Partial read of the chunk
+      return false;
+    }
+    try {
+      return Checksum.verifyChecksum(
+          data.duplicate(data.position(), data.limit()), checksumData, 0);
+    } catch (OzoneChecksumException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Invalidates the cached chunks of a block.
+   */
+  public void invalidateBlock(long containerID, long localID) {
+    invalidationLock.writeLock().lock();
+    try {
+      generations.incrementAndGet(stripe(containerID, localID));
+      final Set<Key> keys = keysByContainer.get(containerID);
+      if (keys != null) {
+        keys.stream()
+            .filter(key -> key.localID == localID)
+            .forEach(cache::invalidate);
+      }
+    } finally {
+      invalidationLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Invalidates the cached chunks of a container.
+   */
+  public void invalidateContainer(long containerID) {
+    invalidationLock.writeLock().lock();
+    try {
+      containerGenerations.put(containerID,
+          containerGeneration.incrementAndGet());
+      final Set<Key> keys = keysByContainer.get(containerID);
+      if (keys != null) {
+        cache.invalidateAll(new ArrayList<>(keys));
+      }
+    } finally {
+      invalidationLock.writeLock().unlock();
+    }
+  }
+
+  private static int stripe(long containerID, long localID) {
+    return Math.floorMod(Objects.hash(containerID, localID),
+        GENERATION_STRIPES);
+  }
+
+  private void onRemoval(RemovalNotification<Key, ByteBuffer> notification) {
+    if (notification.getCause() == RemovalCause.REPLACED) {
+      return;
+    }
+    final Key key = notification.getKey();
+    keysByContainer.computeIfPresent(key.containerID, (id, keys) -> {
+      // The key may have been cached again after it was removed
+      if (!cache.asMap().containsKey(key)) {
+        keys.remove(key);
+      }
+      return keys.isEmpty() ? null : keys;
+    });
+  }
+
+  @VisibleForTesting
+  public long size() {
+    return cache.size();
+  }
+
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  /**
+   * Cache key of a chunk read.
+   */
+  private static final class Key {
+    private final long containerID;
+    private final long localID;
+    private final long blockCommitSequenceId;
+    private final long offset;
+    private final long len;
+
+    Key(BlockID blockID, ChunkInfo info) {
+      this.containerID = blockID.getContainerID();
+      this.localID = blockID.getLocalID();
+      this.blockCommitSequenceId = blockID.getBlockCommitSequenceId();
+      this.offset = info.getOffset();
+      this.len = info.getLen();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return containerID == that.containerID
+          && localID == that.localID
+          && blockCommitSequenceId == that.blockCommitSequenceId
+          && offset == that.offset
+          && len == that.len;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(containerID, localID, blockCommitSequenceId,
+          offset, len);
+    }
+  }
+}
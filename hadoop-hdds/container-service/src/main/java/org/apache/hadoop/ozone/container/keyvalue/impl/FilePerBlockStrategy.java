@@ -48,11 +48,14 @@
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.UNSUPPORTED_REQUEST;
@@ -76,10 +79,28 @@ public class FilePerBlockStrategy implements ChunkManager {
   private final int defaultReadBufferCapacity;
   private final int readMappedBufferThreshold;
   private final VolumeSet volumeSet;
+  // Group commit of synced writes by volume, null if writes sync separately
+  private final Map<HddsVolume, GroupCommitSync> groupCommits;
+  private final long groupCommitWindowNanos;
 
   public FilePerBlockStrategy(boolean sync, BlockManager manager,
                               VolumeSet volSet) {
+    this(sync, manager, volSet, null);
+  }
+
+  /**
+   * @param groupCommitWindow if not null and {@code sync} is true, synced
+   *                          writes to the same volume are batched, waiting
+   *                          for this window to gather more writes before
+   *                          forcing them to disk together.
+   */
+  public FilePerBlockStrategy(boolean sync, BlockManager manager,
+      VolumeSet volSet, Duration groupCommitWindow) {
     doSyncWrite = sync;
+    groupCommits = sync && groupCommitWindow != null
+        ? new ConcurrentHashMap<>() : null;
+    groupCommitWindowNanos =
+        groupCommitWindow == null ? 0 : groupCommitWindow.toNanos();
     this.defaultReadBufferCapacity = manager == null ? 0 :
         manager.getDefaultReadBufferCapacity();
     this.readMappedBufferThreshold = manager == null ? 0
@@ -142,11 +163,13 @@ public void writeChunk(Container container, BlockID blockID, ChunkInfo info,
     long offset = info.getOffset();
 
     HddsVolume volume = containerData.getVolume();
+    // With group commit the file is forced after the write, not by it
+    boolean groupCommit = groupCommits != null && volume != null;
 
     FileChannel channel = null;
     boolean overwrite;
     try {
-      channel = files.getChannel(chunkFile, doSyncWrite);
+      channel = files.getChannel(chunkFile, doSyncWrite && !groupCommit);
       overwrite = validateChunkForOverwrite(channel, info);
     } catch (IOException e) {
       onFailure(volume);
@@ -166,6 +189,18 @@ public void writeChunk(Container container, BlockID blockID, ChunkInfo info,
     ChunkUtils
         .writeData(channel, chunkFile.getName(), data, offset, len, volume);
 
+    if (groupCommit) {
+      try {
+        groupCommits.computeIfAbsent(volume, v -> new GroupCommitSync(
+            groupCommitWindowNanos, v.getVolumeIOStats())).sync(channel);
+      } catch (IOException e) {
+        if (!(e instanceof InterruptedIOException)) {
+          onFailure(volume);
+        }
+        throw ChunkUtils.wrapInStorageContainerException(e);
+      }
+    }
+
     containerData.updateWriteStats(len, overwrite);
   }
 
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.util.Time;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group commit of chunk writes to a single volume.
+ * <p>
+ * Instead of forcing each write to disk separately, writers add the channel
+ * they wrote to the current batch and wait for it. The first writer of a
+ * batch becomes its leader: it waits for the sync of the previous batch to
+ * finish, during which more writers join, optionally waits for the
+ * configured window, then closes the batch and forces each of its files
+ * once. All writers of the batch return after their data is on disk, or
+ * fail together if any of the files could not be forced.
+ */
+final class GroupCommitSync {
+
+  private final long windowNanos;
+  private final VolumeIOStats stats;
+  // Held by the leader while syncing, so that only one batch syncs at a time
+  private final Lock syncLock = new ReentrantLock();
+  private Batch pending = new Batch();
+
+  GroupCommitSync(long windowNanos, VolumeIOStats stats) {
+    this.windowNanos = windowNanos;
+    this.stats = stats;
+  }
+
+  /**
+   * Force the data written to the channel to disk, together with the writes
+   * of the other callers in the same batch.
+   */
+  void sync(FileChannel channel) throws IOException {
+    final Batch batch;
+    final boolean leader;
+    synchronized (this) {
+      batch = pending;
+      batch.add(channel);
+      leader = batch.becomeLeader();
+    }
+    if (leader) {
+      syncLock.lock();
+      try {
+        if (windowNanos > 0) {
+          TimeUnit.NANOSECONDS.sleep(windowNanos);
+        }
+        synchronized (this) {
+          pending = new Batch();
+        }
+        batch.sync(stats);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        synchronized (this) {
+          if (pending == batch) {
+            pending = new Batch();
+          }
+        }
+        batch.fail(new InterruptedIOException("Interrupted group commit"));
+      } finally {
+        syncLock.unlock();
+      }
+    }
+    batch.await();
+  }
+
+  /**
+   * The writes waiting for the same sync.
+   */
+  private static final class Batch {
+    private final Set<FileChannel> channels =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private int writes;
+    private boolean hasLeader;
+
+    void add(FileChannel channel) {
+      channels.add(channel);
+      writes++;
+    }
+
+    boolean becomeLeader() {
+      final boolean first = !hasLeader;
+      hasLeader = true;
+      return first;
+    }
+
+    /** Called after the batch is closed, no more writers are added. */
+    void sync(VolumeIOStats stats) {
+      final long start = Time.monotonicNow();
+      try {
+        for (FileChannel channel : channels) {
+          channel.force(true);
+        }
+        done.complete(null);
+      } catch (IOException e) {
+        done.completeExceptionally(e);
+      }
+      if (stats != null) {
+        stats.incSyncTime(Time.monotonicNow() - start);
+        stats.incSyncBatch(channels.size(), writes);
+      }
+    }
+
+    void fail(IOException e) {
+      done.completeExceptionally(e);
+    }
+
+    void await() throws IOException {
+      try {
+        done.get();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new IOException(e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted waiting for sync");
+      }
+    }
+  }
+}
@@ -22,10 +22,13 @@
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Objects;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
@@ -73,6 +76,7 @@ public class BlockDeletingTask implements BackgroundTask {
   private final OzoneContainer ozoneContainer;
   private final ConfigurationSource conf;
   private Duration blockDeletingMaxLockHoldingTime;
+  private final int rangeDeleteThreshold;
 
   public BlockDeletingTask(
       BlockDeletingService blockDeletingService,
@@ -83,6 +87,7 @@ public BlockDeletingTask(
     this.conf = blockDeletingService.getConf();
     this.blockDeletingMaxLockHoldingTime =
         blockDeletingService.getBlockDeletingMaxLockHoldingTime();
+    this.rangeDeleteThreshold = blockDeletingService.getRangeDeleteThreshold();
     this.priority = priority;
     this.containerData =
         (KeyValueContainerData) containerBlockInfo.getContainerData();
@@ -371,13 +376,18 @@ private ContainerBackgroundTaskResult deleteViaTransactionStore(
       // and also remove the transactions from txnTable.
       try (BatchOperation batch = meta.getStore().getBatchHandler()
           .initBatchOperation()) {
+        Set<String> existingBlockKeys =
+            deleteBlocksResult.getExistingBlockKeys();
         for (DeletedBlocksTransaction delTx : deletedBlocksTxs) {
           deleter.apply(deleteTxns, batch, delTx.getTxID());
           for (Long blk : delTx.getLocalIDList()) {
-            blockDataTable.deleteWithBatch(batch,
-                containerData.getBlockKey(blk));
+            String blockKey = containerData.getBlockKey(blk);
+            if (!existingBlockKeys.contains(blockKey)) {
+              blockDataTable.deleteWithBatch(batch, blockKey);
+            }
           }
         }
+        deleteBlockKeys(blockDataTable, batch, existingBlockKeys);
 
         // Handler.deleteBlock calls deleteChunk to delete all the chunks
         // in the block. The ContainerData stats (DB and in-memory) are not
@@ -416,6 +426,75 @@ private ContainerBackgroundTaskResult deleteViaTransactionStore(
     }
   }
 
+  /**
+   * Delete the given keys from the block data table, replacing each run of
+   * at least {@link #rangeDeleteThreshold} keys that are adjacent in the
+   * table, that is without any other block between them, by a range delete.
+   * Must be called with the container lock held, so that no block is added
+   * to a run before the batch is committed.
+   */
+  private void deleteBlockKeys(Table<String, BlockData> blockDataTable,
+      BatchOperation batch, Set<String> blockKeys) throws IOException {
+    if (rangeDeleteThreshold <= 0 || blockKeys.size() < rangeDeleteThreshold) {
+      for (String blockKey : blockKeys) {
+        blockDataTable.deleteWithBatch(batch, blockKey);
+      }
+      return;
+    }
+
+    // Block keys are decimal strings after the container prefix, so their
+    // String order is the byte order of the table.
+    final List<String> sorted = new ArrayList<>(new TreeSet<>(blockKeys));
+    final String prefix = containerData.hasSchema(SCHEMA_V3)
+        ? containerData.containerPrefix() : null;
+    final List<String> run = new ArrayList<>();
+    int next = 0;
+    int count = rangeDeleteThreshold;
+    while (next < sorted.size()) {
+      // Continue the run from its last key, or start one at the next key
+      final boolean extending = !run.isEmpty();
+      final String startKey = extending ? run.get(run.size() - 1)
+          : sorted.get(next);
+      final int expected = Math.min(sorted.size() - next, count);
+      final List<? extends Table.KeyValue<String, BlockData>> kvs =
+          blockDataTable.getSequentialRangeKVs(startKey,
+              expected + (extending ? 1 : 0), prefix);
+      int matched = 0;
+      for (int i = extending ? 1 : 0; i < kvs.size()
+          && kvs.get(i).getKey().equals(sorted.get(next)); i++) {
+        run.add(sorted.get(next++));
+        matched++;
+      }
+      if (run.isEmpty()) {
+        // Not found, e.g. deleted since it was read
+        blockDataTable.deleteWithBatch(batch, sorted.get(next++));
+      } else if (matched < expected) {
+        // Another key, or the end of the table, follows the run
+        deleteRun(blockDataTable, batch, run);
+        run.clear();
+        count = rangeDeleteThreshold;
+      } else {
+        count *= 2;
+      }
+    }
+    deleteRun(blockDataTable, batch, run);
+  }
+
+  private void deleteRun(Table<String, BlockData> blockDataTable,
+      BatchOperation batch, List<String> run) throws IOException {
+    if (run.size() < rangeDeleteThreshold) {
+      for (String blockKey : run) {
+        blockDataTable.deleteWithBatch(batch, blockKey);
+      }
+      return;
+    }
+    // The end of a range is exclusive, delete the last key separately
+    final String last = run.get(run.size() - 1);
+    blockDataTable.deleteRangeWithBatch(batch, run.get(0), last);
+    blockDataTable.deleteWithBatch(batch, last);
+    metrics.incrRangeDeleteCount();
+  }
+
   /**
    * Delete the chunks for the given blocks.
    * Return the deletedBlocks count and number of bytes released.
@@ -428,6 +507,7 @@ private DeleteTransactionStats deleteTransactions(
     int blocksDeleted = 0;
     long bytesReleased = 0;
     List<DeletedBlocksTransaction> deletedBlocksTxs = new ArrayList<>();
+    Set<String> existingBlockKeys = new HashSet<>();
     Instant startTime = Instant.now();
 
     for (DeletedBlocksTransaction entry : delBlocks) {
@@ -447,6 +527,7 @@ private DeleteTransactionStats deleteTransactions(
           }
           continue;
         }
+        existingBlockKeys.add(blk);
 
         boolean deleted = false;
         try {
@@ -488,7 +569,7 @@ private DeleteTransactionStats deleteTransactions(
       }
     }
     return new DeleteTransactionStats(blocksProcessed,
-        blocksDeleted, bytesReleased, deletedBlocksTxs);
+        blocksDeleted, bytesReleased, deletedBlocksTxs, existingBlockKeys);
   }
 
   @Override
@@ -514,13 +595,15 @@ private static class DeleteTransactionStats {
     private final int blocksDeleted;
     private final long bytesReleased;
     private final List<DeletedBlocksTransaction> delBlockTxs;
+    private final Set<String> existingBlockKeys;
 
     DeleteTransactionStats(int proceeded, int deleted, long released,
-        List<DeletedBlocksTransaction> delBlocks) {
+        List<DeletedBlocksTransaction> delBlocks, Set<String> existing) {
       blocksProcessed = proceeded;
       blocksDeleted = deleted;
       bytesReleased = released;
       delBlockTxs = delBlocks;
+      existingBlockKeys = existing;
     }
 
     public int getBlocksProcessed() {
@@ -538,5 +621,10 @@ public long getBytesReleased() {
     public List<DeletedBlocksTransaction> deletedBlocksTxs() {
       return delBlockTxs;
     }
+
+    /** Keys of the blocks found in the block data table. */
+    public Set<String> getExistingBlockKeys() {
+      return existingBlockKeys;
+    }
   }
 }
@@ -76,6 +76,12 @@ public void deleteWithBatch(BatchOperation batch, KEY key)
     table.deleteWithBatch(batch, key);
   }
 
+  @Override
+  public void deleteRangeWithBatch(BatchOperation batch, KEY beginKey,
+      KEY endKey) throws IOException {
+    table.deleteRangeWithBatch(batch, beginKey, endKey);
+  }
+
   @Override
   public final TableIterator<KEY, ? extends KeyValue<KEY, VALUE>> iterator() {
     throw new UnsupportedOperationException("Iterating tables directly is not" +
@@ -80,6 +80,12 @@ public void deleteRange(String beginKey, String endKey) throws IOException {
     super.deleteRange(prefix(beginKey), prefix(endKey));
   }
 
+  @Override
+  public void deleteRangeWithBatch(BatchOperation batch, String beginKey,
+      String endKey) throws IOException {
+    super.deleteRangeWithBatch(batch, prefix(beginKey), prefix(endKey));
+  }
+
   @Override
   public boolean isExist(String key) throws IOException {
     return super.isExist(prefix(key));
@@ -75,6 +75,7 @@ public final void runIteration() {
     if (stopping.get()) {
       return;
     }
+    iterationCompleted();
     AbstractContainerScannerMetrics metrics = getMetrics();
     metrics.incNumScanIterations();
     LOG.info("Completed an iteration in {} minutes." +
@@ -107,6 +108,13 @@ public final void scanContainers() {
 
   public abstract Iterator<Container<?>> getContainerIterator();
 
+  /**
+   * Called when all the containers of an iteration have been scanned,
+   * unless the scanner was stopped.
+   */
+  protected void iterationCompleted() {
+  }
+
   public abstract void scanContainer(Container<?> c)
       throws IOException, InterruptedException;
 
@@ -24,18 +24,31 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.apache.hadoop.ozone.container.common.interfaces.Container.ScanResult;
 
 /**
  * Data scanner that full checks a volume. Each volume gets a separate thread.
+ * <p>
+ * Each iteration scans the containers with I/O errors since their last scan
+ * first, then the ones never scanned, then the others from the least
+ * recently scanned. Containers unchanged since their last healthy scan are
+ * skipped until it is older than the configured maximum age, unless the
+ * volume has been slow since the previous iteration. Progress is kept in a
+ * {@link ContainerDataScanCheckpoint}, so an iteration interrupted by a
+ * restart resumes where it stopped.
  */
 public class BackgroundContainerDataScanner extends
     AbstractBackgroundContainerScanner {
@@ -52,6 +65,13 @@ public class BackgroundContainerDataScanner extends
   private static final String NAME_FORMAT = "ContainerDataScanner(%s)";
   private final ContainerDataScannerMetrics metrics;
   private final long minScanGap;
+  private final long unchangedMaxAge;
+  private final long volumeLatencyThreshold;
+  private final ContainerDataScanCheckpoint checkpoint;
+  // Whether unchanged containers are scanned in the current iteration
+  private boolean scanUnchanged;
+  private long lastIOOps;
+  private long lastIOTime;
 
   public BackgroundContainerDataScanner(ContainerScannerConfiguration conf,
                                         ContainerController controller,
@@ -63,11 +83,32 @@ public BackgroundContainerDataScanner(ContainerScannerConfiguration conf,
     canceler = new Canceler();
     this.metrics = ContainerDataScannerMetrics.create(volume.toString());
     this.minScanGap = conf.getContainerScanMinGap();
+    this.unchangedMaxAge = conf.getDataScanUnchangedMaxAge();
+    this.volumeLatencyThreshold = conf.getDataScanVolumeLatencyThreshold();
+    this.checkpoint = ContainerDataScanCheckpoint.load(volume,
+        conf.getDataScanCheckpointInterval());
   }
 
   private boolean shouldScan(Container<?> container) {
-    return container.shouldScanData() &&
-        !ContainerUtils.recentlyScanned(container, minScanGap, LOG);
+    if (!container.shouldScanData() ||
+        ContainerUtils.recentlyScanned(container, minScanGap, LOG)) {
+      return false;
+    }
+    ContainerData containerData = container.getContainerData();
+    if (checkpoint.isScannedInIteration(containerData)) {
+      LOG.debug("Skipping container {} already scanned in this iteration",
+          containerData.getContainerID());
+      return false;
+    }
+    if (!scanUnchanged && containerData.getIOErrorCount() == 0 &&
+        checkpoint.isUnchanged(containerData, System.currentTimeMillis(),
+            unchangedMaxAge)) {
+      LOG.debug("Skipping container {} unchanged since its last scan",
+          containerData.getContainerID());
+      metrics.incNumUnchangedContainersSkipped();
+      return false;
+    }
+    return true;
   }
 
   @Override
@@ -98,11 +139,61 @@ public void scanContainer(Container<?> c)
     Instant now = Instant.now();
     logScanCompleted(containerData, now);
     controller.updateDataScanTimestamp(containerId, now);
+    checkpoint.scanned(containerData, now, result.isHealthy());
   }
 
+  /**
+   * Returns the containers of the volume in the order they should be
+   * scanned, and starts a new iteration in the checkpoint, unless one was
+   * interrupted.
+   */
   @Override
   public Iterator<Container<?>> getContainerIterator() {
-    return controller.getContainers(volume);
+    List<Candidate> candidates = new ArrayList<>();
+    controller.getContainers(volume).forEachRemaining(
+        c -> candidates.add(new Candidate(c)));
+    candidates.sort(Candidate.SCAN_ORDER);
+    checkpoint.startIteration(System.currentTimeMillis(), candidates.stream()
+        .map(c -> c.container.getContainerData().getContainerID())
+        .collect(Collectors.toSet()));
+    scanUnchanged = unchangedMaxAge == 0 || isVolumeSlow();
+    if (scanUnchanged && unchangedMaxAge > 0) {
+      metrics.incNumSlowVolumeIterations();
+    }
+    return candidates.stream()
+        .<Container<?>>map(c -> c.container)
+        .iterator();
+  }
+
+  @Override
+  protected void iterationCompleted() {
+    checkpoint.completeIteration();
+  }
+
+  /**
+   * @return true if the average latency of chunk I/O on the volume since the
+   * previous call is above the threshold, which may be a sign of a failing
+   * disk.
+   */
+  private boolean isVolumeSlow() {
+    VolumeIOStats stats = volume.getVolumeIOStats();
+    if (stats == null || volumeLatencyThreshold == 0) {
+      return false;
+    }
+    long ops = stats.getReadOpCount() + stats.getWriteOpCount();
+    long time = stats.getReadTime() + stats.getWriteTime();
+    long deltaOps = ops - lastIOOps;
+    long deltaTime = time - lastIOTime;
+    lastIOOps = ops;
+    lastIOTime = time;
+    boolean slow = deltaOps > 0 &&
+        deltaTime / deltaOps > volumeLatencyThreshold;
+    if (slow) {
+      LOG.info("Average chunk I/O latency of volume {} is {} ms, scanning " +
+          "unchanged containers in this iteration", volume,
+          deltaTime / deltaOps);
+    }
+    return slow;
   }
 
   private static void logScanStart(ContainerData containerData) {
@@ -125,6 +216,7 @@ private static void logScanCompleted(
   @Override
   public synchronized void shutdown() {
     shutdown("");
+    checkpoint.flush();
   }
 
   private synchronized void shutdown(String reason) {
@@ -146,6 +238,30 @@ public String toString() {
     return String.format(NAME_FORMAT, volume + ", " + volume.getStorageID());
   }
 
+  /**
+   * A container with the values it is ranked by, which may change while the
+   * containers are sorted.
+   */
+  private static final class Candidate {
+    // Containers with I/O errors first, then never scanned, then least
+    // recently scanned
+    private static final Comparator<Candidate> SCAN_ORDER =
+        Comparator.comparingLong((Candidate c) -> -c.ioErrorCount)
+            .thenComparingLong(c -> c.lastScanTime);
+
+    private final Container<?> container;
+    private final long ioErrorCount;
+    private final long lastScanTime;
+
+    Candidate(Container<?> container) {
+      ContainerData data = container.getContainerData();
+      this.container = container;
+      this.ioErrorCount = data.getIOErrorCount();
+      this.lastScanTime = data.lastDataScanTime()
+          .map(Instant::toEpochMilli).orElse(Long.MIN_VALUE);
+    }
+  }
+
   private class HddsDataTransferThrottler extends DataTransferThrottler {
     HddsDataTransferThrottler(long bandwidthPerSec) {
       super(bandwidthPerSec);
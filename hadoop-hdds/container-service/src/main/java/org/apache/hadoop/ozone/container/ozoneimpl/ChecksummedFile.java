@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import org.apache.hadoop.ozone.container.common.utils.StorageVolumeUtil;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file kept by the datanode in the tmp directory of a volume, with
+ * a magic number, a version and a trailing CRC32 of the content.
+ * <p>
+ * The files are not kept in the hdds root directory of the volume, as the
+ * number of files there tells the layout of the volume when it is checked
+ * at startup, see {@link StorageVolumeUtil#checkVolume}.
+ * <p>
+ * The file is written to a temporary file first, then moved over the
+ * previous one, so that readers never see a partially written file.
+ */
+final class ChecksummedFile {
+
+  private ChecksummedFile() {
+  }
+
+  /**
+   * Writes the content of a file.
+   */
+  @FunctionalInterface
+  interface Writer {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  /**
+   * Reads the content of a file.
+   */
+  @FunctionalInterface
+  interface Reader<T> {
+    T read(DataInputStream in) throws IOException;
+  }
+
+  /**
+   * @return the file of the given name in the tmp directory, under the
+   * working directory of the volume, or null if the volume has not been
+   * checked yet and has no tmp directory
+   */
+  static File getVolumeFile(HddsVolume volume, String name) {
+    final File tmpDir = volume.getTmpDir();
+    return tmpDir == null ? null : new File(tmpDir, name);
+  }
+
+  static void write(File file, int magic, int version, Writer writer)
+      throws IOException {
+    final File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+    final CRC32 crc = new CRC32();
+    try (OutputStream os = Files.newOutputStream(tmp.toPath());
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+             new CheckedOutputStream(os, crc)))) {
+      out.writeInt(magic);
+      out.writeInt(version);
+      writer.write(out);
+      out.flush();
+      // The checksum itself is not part of the checksum.
+      new DataOutputStream(os).writeLong(crc.getValue());
+    }
+    Files.move(tmp.toPath(), file.toPath(),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * @return the content of the file
+   * @throws IOException if the file cannot be read, is of another format
+   * or version, or its checksum does not match
+   */
+  static <T> T read(File file, int magic, int version, Reader<T> reader)
+      throws IOException {
+    final CRC32 crc = new CRC32();
+    try (InputStream is = new BufferedInputStream(
+        Files.newInputStream(file.toPath()))) {
+      final DataInputStream in =
+          new DataInputStream(new CheckedInputStream(is, crc));
+      if (in.readInt() != magic || in.readInt() != version) {
+        throw new IOException("Unknown format of " + file);
+      }
+      final T content = reader.read(in);
+      final long computed = crc.getValue();
+      if (new DataInputStream(is).readLong() != computed) {
+        throw new IOException("Checksum mismatch in " + file);
+      }
+      return content;
+    }
+  }
+}
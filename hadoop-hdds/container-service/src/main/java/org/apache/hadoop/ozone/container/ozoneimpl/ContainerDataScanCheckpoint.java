@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.hadoop.ozone.container.common.impl.ContainerData;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Progress of the {@link BackgroundContainerDataScanner} of a volume, kept in
+ * the root directory of the volume so that it survives datanode restarts.
+ * <p>
+ * The checkpoint holds the start time of the iteration in progress, and for
+ * each container the time of its last healthy data scan with the block
+ * commit sequence ID, bytes used and block count of the container at that
+ * time. After a restart the scanner resumes the iteration by skipping the
+ * containers scanned since it started, and containers whose values are the
+ * same as at their last healthy scan are known to be unchanged.
+ * <p>
+ * The checkpoint is saved when an iteration starts or completes, and after
+ * a scanned container only if the save interval has passed since it was
+ * last saved, so that a restart rescans at most the containers scanned in
+ * that interval.
+ */
+final class ContainerDataScanCheckpoint {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ContainerDataScanCheckpoint.class);
+
+  static final String FILE_NAME = "container.scan.checkpoint";
+  // "OCSC": Ozone Container Scan Checkpoint
+  private static final int MAGIC = 0x4f435343;
+  private static final int VERSION = 1;
+
+  // null if the volume has no directory to keep the checkpoint in
+  private final File file;
+  private final long saveInterval;
+  private final Map<Long, Entry> entries;
+  private long iterationStart;
+  private long lastSaved = Time.monotonicNow();
+  private boolean dirty;
+
+  private ContainerDataScanCheckpoint(File file, long saveInterval,
+      long iterationStart, Map<Long, Entry> entries) {
+    this.file = file;
+    this.saveInterval = saveInterval;
+    this.iterationStart = iterationStart;
+    this.entries = entries;
+  }
+
+  /**
+   * Values of a container at its last healthy data scan.
+   */
+  private static final class Entry {
+    private final long scanTime;
+    private final long blockCommitSequenceId;
+    private final long bytesUsed;
+    private final long blockCount;
+
+    private Entry(long scanTime, long blockCommitSequenceId, long bytesUsed,
+        long blockCount) {
+      this.scanTime = scanTime;
+      this.blockCommitSequenceId = blockCommitSequenceId;
+      this.bytesUsed = bytesUsed;
+      this.blockCount = blockCount;
+    }
+
+    private static Entry of(ContainerData data, long scanTime) {
+      return new Entry(scanTime, getBlockCommitSequenceId(data),
+          data.getBytesUsed(), data.getBlockCount());
+    }
+
+    private boolean matches(ContainerData data) {
+      return blockCommitSequenceId == getBlockCommitSequenceId(data)
+          && bytesUsed == data.getBytesUsed()
+          && blockCount == data.getBlockCount();
+    }
+
+    private static long getBlockCommitSequenceId(ContainerData data) {
+      return data instanceof KeyValueContainerData
+          ? ((KeyValueContainerData) data).getBlockCommitSequenceId() : 0;
+    }
+  }
+
+  /**
+   * Read the checkpoint of a volume. A missing or unreadable checkpoint
+   * results in an empty one, so that all containers are scanned.
+   *
+   * @param saveInterval minimum time in milliseconds between saves of the
+   * checkpoint after scanned containers
+   */
+  static ContainerDataScanCheckpoint load(HddsVolume volume,
+      long saveInterval) {
+    final File file = ChecksummedFile.getVolumeFile(volume, FILE_NAME);
+    if (file == null || !file.exists()) {
+      return new ContainerDataScanCheckpoint(file, saveInterval, -1,
+          new HashMap<>());
+    }
+    try {
+      return ChecksummedFile.read(file, MAGIC, VERSION, in -> {
+        final long iterationStart = in.readLong();
+        final int count = in.readInt();
+        final Map<Long, Entry> entries = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+          entries.put(in.readLong(), new Entry(in.readLong(), in.readLong(),
+              in.readLong(), in.readLong()));
+        }
+        LOG.info("Read container scan checkpoint {} with {} entries, " +
+            "iteration started at {}", file, count, iterationStart);
+        return new ContainerDataScanCheckpoint(file, saveInterval,
+            iterationStart, entries);
+      });
+    } catch (IOException e) {
+      LOG.warn("Ignoring container scan checkpoint {}", file, e);
+      return new ContainerDataScanCheckpoint(file, saveInterval, -1,
+          new HashMap<>());
+    }
+  }
+
+  /**
+   * @return the start time of the iteration in progress in milliseconds, or
+   * -1 if no iteration is in progress.
+   */
+  synchronized long getIterationStart() {
+    return iterationStart;
+  }
+
+  /**
+   * Start a new iteration, unless one was in progress before the restart.
+   * Entries of containers which no longer exist are dropped.
+   */
+  synchronized void startIteration(long now,
+      Collection<Long> containerIDs) {
+    entries.keySet().retainAll(containerIDs);
+    if (iterationStart < 0) {
+      iterationStart = now;
+    }
+    save();
+  }
+
+  synchronized void completeIteration() {
+    iterationStart = -1;
+    save();
+  }
+
+  /**
+   * @return true if the container was scanned after the iteration in
+   * progress started.
+   */
+  synchronized boolean isScannedInIteration(ContainerData data) {
+    final Optional<Instant> lastScan = data.lastDataScanTime();
+    return iterationStart >= 0 && lastScan.isPresent()
+        && lastScan.get().toEpochMilli() > iterationStart;
+  }
+
+  /**
+   * @return true if the last data scan of the container was healthy and
+   * not more than maxAge milliseconds ago, and the container has not
+   * changed since.
+   */
+  synchronized boolean isUnchanged(ContainerData data, long now,
+      long maxAge) {
+    final Entry entry = entries.get(data.getContainerID());
+    final Optional<Instant> lastScan = data.lastDataScanTime();
+    // The scan time of the container would differ if it was scanned
+    // without updating the checkpoint, or replaced by a new replica
+    return entry != null && lastScan.isPresent()
+        && lastScan.get().toEpochMilli() == entry.scanTime
+        && now - entry.scanTime < maxAge
+        && entry.matches(data);
+  }
+
+  synchronized void scanned(ContainerData data, Instant scanTime,
+      boolean healthy) {
+    if (healthy) {
+      entries.put(data.getContainerID(),
+          Entry.of(data, scanTime.toEpochMilli()));
+    } else {
+      entries.remove(data.getContainerID());
+    }
+    dirty = true;
+    if (Time.monotonicNow() - lastSaved >= saveInterval) {
+      save();
+    }
+  }
+
+  /**
+   * Save the containers scanned since the checkpoint was last saved.
+   */
+  synchronized void flush() {
+    if (dirty) {
+      save();
+    }
+  }
+
+  /**
+   * Write the checkpoint. Failures are logged, since the checkpoint only
+   * saves rescanning containers.
+   */
+  private void save() {
+    if (file == null) {
+      return;
+    }
+    try {
+      ChecksummedFile.write(file, MAGIC, VERSION, out -> {
+        out.writeLong(iterationStart);
+        out.writeInt(entries.size());
+        for (Map.Entry<Long, Entry> e : entries.entrySet()) {
+          final Entry entry = e.getValue();
+          out.writeLong(e.getKey());
+          out.writeLong(entry.scanTime);
+          out.writeLong(entry.blockCommitSequenceId);
+          out.writeLong(entry.bytesUsed);
+          out.writeLong(entry.blockCount);
+        }
+      });
+      dirty = false;
+    } catch (IOException e) {
+      LOG.warn("Failed to write container scan checkpoint {}", file, e);
+    }
+    lastSaved = Time.monotonicNow();
+  }
+}
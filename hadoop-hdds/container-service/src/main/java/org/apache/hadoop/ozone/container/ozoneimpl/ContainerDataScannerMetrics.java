@@ -22,6 +22,8 @@
 import org.apache.hadoop.metrics2.annotation.Metric;
 import org.apache.hadoop.metrics2.annotation.Metrics;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterInt;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
 import org.apache.hadoop.metrics2.lib.MutableRate;
 
 import java.util.concurrent.ThreadLocalRandom;
@@ -37,6 +39,13 @@
   @Metric("disk bandwidth used by the container data scanner per volume")
   private MutableRate numBytesScanned;
 
+  @Metric("number of containers skipped as unchanged since their last scan")
+  private MutableCounterLong numUnchangedContainersSkipped;
+
+  @Metric("number of iterations which scanned unchanged containers because" +
+      " the volume was slow")
+  private MutableCounterInt numSlowVolumeIterations;
+
   public double getNumBytesScannedMean() {
     return numBytesScanned.lastStat().mean();
   }
@@ -53,6 +62,22 @@ public void incNumBytesScanned(long bytes) {
     numBytesScanned.add(bytes);
   }
 
+  public long getNumUnchangedContainersSkipped() {
+    return numUnchangedContainersSkipped.value();
+  }
+
+  public void incNumUnchangedContainersSkipped() {
+    numUnchangedContainersSkipped.incr();
+  }
+
+  public int getNumSlowVolumeIterations() {
+    return numSlowVolumeIterations.value();
+  }
+
+  public void incNumSlowVolumeIterations() {
+    numSlowVolumeIterations.incr();
+  }
+
   private ContainerDataScannerMetrics(String name, MetricsSystem ms) {
     super(name, ms);
   }
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State;
+import org.apache.hadoop.ozone.container.common.impl.ContainerData;
+import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
+import org.apache.hadoop.ozone.container.common.volume.StorageVolume;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary snapshot of the closed containers of a volume, holding the
+ * values otherwise read from the container DB at startup: block commit
+ * sequence ID, bytes used, block count, pending deletion blocks, delete
+ * transaction ID and whether the container is empty.
+ * <p>
+ * The snapshot is written to the tmp directory of the volume periodically
+ * and when the datanode stops. At startup {@link ContainerReader} uses an
+ * entry instead of reading the container DB if the state in the .container
+ * file is the same as in the snapshot. Since closed containers can still
+ * change by block deletion, containers loaded from a snapshot are verified
+ * against their DB in the background after startup.
+ */
+public final class ContainerIndexSnapshot {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ContainerIndexSnapshot.class);
+
+  static final String FILE_NAME = "container.snapshot";
+  // "OCIS": Ozone Container Index Snapshot
+  private static final int MAGIC = 0x4f434953;
+  private static final int VERSION = 1;
+
+  private ContainerIndexSnapshot() {
+  }
+
+  /**
+   * @return true if containers in the given state can be loaded from
+   * a snapshot.
+   */
+  static boolean isSnapshotState(State state) {
+    return state == State.CLOSED || state == State.QUASI_CLOSED;
+  }
+
+  /**
+   * @return the snapshot file in the tmp dir of the volume, or null if the
+   * volume has not been checked yet
+   */
+  static File getSnapshotFile(HddsVolume volume) {
+    return ChecksummedFile.getVolumeFile(volume, FILE_NAME);
+  }
+
+  /**
+   * Snapshot of a single container.
+   */
+  public static final class Entry {
+    private final long containerID;
+    private final State state;
+    private final long blockCommitSequenceId;
+    private final long bytesUsed;
+    private final long blockCount;
+    private final long pendingDeletionBlocks;
+    private final long deleteTransactionId;
+    private final boolean empty;
+
+    @SuppressWarnings("parameternumber")
+    private Entry(long containerID, State state, long blockCommitSequenceId,
+        long bytesUsed, long blockCount, long pendingDeletionBlocks,
+        long deleteTransactionId, boolean empty) {
+      this.containerID = containerID;
+      this.state = state;
+      this.blockCommitSequenceId = blockCommitSequenceId;
+      this.bytesUsed = bytesUsed;
+      this.blockCount = blockCount;
+      this.pendingDeletionBlocks = pendingDeletionBlocks;
+      this.deleteTransactionId = deleteTransactionId;
+      this.empty = empty;
+    }
+
+    public static Entry of(KeyValueContainerData data) {
+      return new Entry(data.getContainerID(), data.getState(),
+          data.getBlockCommitSequenceId(), data.getBytesUsed(),
+          data.getBlockCount(), data.getNumPendingDeletionBlocks(),
+          data.getDeleteTransactionId(), data.isEmpty());
+    }
+
+    public long getContainerID() {
+      return containerID;
+    }
+
+    public State getState() {
+      return state;
+    }
+
+    /**
+     * @return true if this entry can be used for the container loaded from
+     * the given .container file data.
+     */
+    boolean matches(KeyValueContainerData data) {
+      return containerID == data.getContainerID()
+          && state == data.getState()
+          && isSnapshotState(state);
+    }
+
+    /**
+     * Set the values otherwise read from the container DB.
+     */
+    void applyTo(KeyValueContainerData data) {
+      data.updateBlockCommitSequenceId(blockCommitSequenceId);
+      data.setBytesUsed(bytesUsed);
+      data.setBlockCount(blockCount);
+      data.incrPendingDeletionBlocks(pendingDeletionBlocks);
+      data.updateDeleteTransactionId(deleteTransactionId);
+      if (empty) {
+        data.markAsEmpty();
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry that = (Entry) o;
+      return containerID == that.containerID
+          && state == that.state
+          && blockCommitSequenceId == that.blockCommitSequenceId
+          && bytesUsed == that.bytesUsed
+          && blockCount == that.blockCount
+          && pendingDeletionBlocks == that.pendingDeletionBlocks
+          && deleteTransactionId == that.deleteTransactionId
+          && empty == that.empty;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(containerID, state, blockCommitSequenceId,
+          bytesUsed, blockCount, pendingDeletionBlocks, deleteTransactionId,
+          empty);
+    }
+
+    @Override
+    public String toString() {
+      return "Entry{containerID=" + containerID +
+          ", state=" + state +
+          ", bcsId=" + blockCommitSequenceId +
+          ", bytesUsed=" + bytesUsed +
+          ", blockCount=" + blockCount +
+          ", pendingDeletionBlocks=" + pendingDeletionBlocks +
+          ", deleteTransactionId=" + deleteTransactionId +
+          ", empty=" + empty +
+          '}';
+    }
+  }
+
+  /**
+   * Write the snapshots of the closed containers on all the healthy
+   * volumes.
+   */
+  public static void writeAll(ContainerSet containerSet,
+      MutableVolumeSet volumeSet) {
+    final Map<HddsVolume, List<Entry>> entries = new HashMap<>();
+    for (StorageVolume volume : volumeSet.getVolumesList()) {
+      if (!volume.isFailed()) {
+        entries.put((HddsVolume) volume, new ArrayList<>());
+      }
+    }
+    for (Container<?> container : containerSet) {
+      final ContainerData data = container.getContainerData();
+      if (data instanceof KeyValueContainerData
+          && isSnapshotState(data.getState())) {
+        final List<Entry> list = entries.get(data.getVolume());
+        if (list != null) {
+          list.add(Entry.of((KeyValueContainerData) data));
+        }
+      }
+    }
+    entries.forEach((volume, list) -> {
+      try {
+        write(volume, list);
+      } catch (IOException e) {
+        LOG.warn("Failed to write container snapshot of volume {}",
+            volume, e);
+      }
+    });
+  }
+
+  /**
+   * Verify the containers loaded from snapshots against their DB, correcting
+   * the in-memory values which changed after the snapshot was taken.
+   */
+  public static void verify(ContainerSet containerSet,
+      List<Long> containerIDs, ConfigurationSource conf,
+      ContainerLoadMetrics metrics) {
+    LOG.info("Verifying {} containers loaded from snapshots",
+        containerIDs.size());
+    for (long containerID : containerIDs) {
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+      final Container<?> container = containerSet.getContainer(containerID);
+      if (container == null
+          || !(container.getContainerData() instanceof KeyValueContainerData)) {
+        continue;
+      }
+      final KeyValueContainerData data =
+          (KeyValueContainerData) container.getContainerData();
+      container.writeLock();
+      try {
+        final Entry before = Entry.of(data);
+        KeyValueContainerUtil.reloadContainerMetadata(data, conf);
+        final Entry after = Entry.of(data);
+        metrics.incrContainersSnapshotVerified();
+        if (!before.equals(after)) {
+          metrics.incrContainersSnapshotMismatched();
+          LOG.info("Container {} changed since snapshot: {} -> {}",
+              containerID, before, after);
+        }
+      } catch (IOException e) {
+        LOG.warn("Failed to verify container {} loaded from snapshot",
+            containerID, e);
+      } finally {
+        container.writeUnlock();
+      }
+    }
+    LOG.info("Verified containers loaded from snapshots");
+  }
+
+  /**
+   * Write the snapshot of the given containers of a volume.
+   */
+  public static void write(HddsVolume volume, List<Entry> entries)
+      throws IOException {
+    final File file = getSnapshotFile(volume);
+    if (file == null) {
+      throw new IOException("Volume " + volume + " has no tmp directory");
+    }
+    ChecksummedFile.write(file, MAGIC, VERSION, out -> {
+      out.writeInt(entries.size());
+      for (Entry e : entries) {
+        out.writeLong(e.containerID);
+        out.writeInt(e.state.getNumber());
+        out.writeLong(e.blockCommitSequenceId);
+        out.writeLong(e.bytesUsed);
+        out.writeLong(e.blockCount);
+        out.writeLong(e.pendingDeletionBlocks);
+        out.writeLong(e.deleteTransactionId);
+        out.writeBoolean(e.empty);
+      }
+    });
+  }
+
+  /**
+   * Read the snapshot of a volume.
+   *
+   * @return the entries by container ID, or an empty map if the volume has
+   * no snapshot or the snapshot cannot be read.
+   */
+  public static Map<Long, Entry> read(HddsVolume volume) {
+    final File file = getSnapshotFile(volume);
+    if (file == null || !file.exists()) {
+      return Collections.emptyMap();
+    }
+    try {
+      final Map<Long, Entry> entries =
+          ChecksummedFile.read(file, MAGIC, VERSION, in -> {
+            final int count = in.readInt();
+            final Map<Long, Entry> map = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+              final Entry e = new Entry(in.readLong(),
+                  State.forNumber(in.readInt()), in.readLong(), in.readLong(),
+                  in.readLong(), in.readLong(), in.readLong(),
+                  in.readBoolean());
+              map.put(e.containerID, e);
+            }
+            return map;
+          });
+      LOG.info("Read {} entries from container snapshot {}", entries.size(),
+          file);
+      return entries;
+    } catch (IOException e) {
+      LOG.warn("Ignoring container snapshot {}", file, e);
+      return Collections.emptyMap();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
+
+/**
+ * Metrics about loading containers from the volumes at datanode startup.
+ * The progress of the load is containersLoaded + containersFailed out of
+ * containersDiscovered.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Datanode container load metrics", context = "dfs")
+public final class ContainerLoadMetrics {
+
+  public static final String SOURCE_NAME =
+      ContainerLoadMetrics.class.getSimpleName();
+
+  private static ContainerLoadMetrics instance;
+
+  @Metric(about = "The number of container directories found on the volumes.")
+  private MutableCounterLong containersDiscovered;
+
+  @Metric(about = "The number of containers loaded.")
+  private MutableCounterLong containersLoaded;
+
+  @Metric(about = "The number of containers failed to load.")
+  private MutableCounterLong containersFailed;
+
+  @Metric(about = "The number of closed containers loaded without verifying " +
+      "the .container file checksum, left to the metadata scanner.")
+  private MutableCounterLong containersChecksumDeferred;
+
+  @Metric(about = "The number of closed containers loaded from the volume " +
+      "snapshot without reading their DB.")
+  private MutableCounterLong containersLoadedFromSnapshot;
+
+  @Metric(about = "The number of containers loaded from the volume " +
+      "snapshot and verified against their DB.")
+  private MutableCounterLong containersSnapshotVerified;
+
+  @Metric(about = "The number of containers loaded from the volume " +
+      "snapshot, whose values were corrected by the verification.")
+  private MutableCounterLong containersSnapshotMismatched;
+
+  @Metric(about = "The number of volumes whose containers are loaded.")
+  private MutableCounterLong volumesLoaded;
+
+  @Metric(about = "Time taken to load the containers of all volumes in ms.")
+  private MutableGaugeLong loadTimeMs;
+
+  private ContainerLoadMetrics() {
+  }
+
+  public static synchronized ContainerLoadMetrics create() {
+    if (instance == null) {
+      MetricsSystem ms = DefaultMetricsSystem.instance();
+      instance = ms.register(SOURCE_NAME, "Datanode container load",
+          new ContainerLoadMetrics());
+    }
+    return instance;
+  }
+
+  /**
+   * Unregister the metrics instance.
+   */
+  public static synchronized void unRegister() {
+    if (instance != null) {
+      instance = null;
+      DefaultMetricsSystem.instance().unregisterSource(SOURCE_NAME);
+    }
+  }
+
+  public void incrContainersDiscovered(long count) {
+    containersDiscovered.incr(count);
+  }
+
+  public void incrContainersLoaded() {
+    containersLoaded.incr();
+  }
+
+  public void incrContainersFailed() {
+    containersFailed.incr();
+  }
+
+  public void incrContainersChecksumDeferred() {
+    containersChecksumDeferred.incr();
+  }
+
+  public void incrContainersLoadedFromSnapshot() {
+    containersLoadedFromSnapshot.incr();
+  }
+
+  public void incrContainersSnapshotVerified() {
+    containersSnapshotVerified.incr();
+  }
+
+  public void incrContainersSnapshotMismatched() {
+    containersSnapshotMismatched.incr();
+  }
+
+  public void incrVolumesLoaded() {
+    volumesLoaded.incr();
+  }
+
+  public void setLoadTimeMs(long timeMs) {
+    loadTimeMs.set(timeMs);
+  }
+
+  public long getContainersDiscovered() {
+    return containersDiscovered.value();
+  }
+
+  public long getContainersLoaded() {
+    return containersLoaded.value();
+  }
+
+  public long getContainersFailed() {
+    return containersFailed.value();
+  }
+
+  public long getContainersChecksumDeferred() {
+    return containersChecksumDeferred.value();
+  }
+
+  public long getContainersLoadedFromSnapshot() {
+    return containersLoadedFromSnapshot.value();
+  }
+
+  public long getContainersSnapshotVerified() {
+    return containersSnapshotVerified.value();
+  }
+
+  public long getContainersSnapshotMismatched() {
+    return containersSnapshotMismatched.value();
+  }
+
+  public long getVolumesLoaded() {
+    return volumesLoaded.value();
+  }
+
+  public long getLoadTimeMs() {
+    return loadTimeMs.value();
+  }
+}
@@ -20,6 +20,13 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
@@ -30,12 +37,16 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.apache.hadoop.ozone.container.common.utils.ContainerInspectorUtil;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
 
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.CLOSED;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.DELETED;
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.QUASI_CLOSED;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos
     .ContainerDataProto.State.RECOVERING;
 
@@ -66,7 +77,15 @@
  * the {@literal <<dataPath>>} layout for KeyValueContainers is:
  * <p>{@literal ../hdds/<<clusterUuid>>/current/<<containerDir>>/<<KVcontainerID
  * >/chunks/<<chunksFile>>}
- *
+ * <p>
+ * The containers of a volume are loaded by a work-stealing pool of
+ * {@link DatanodeConfiguration#getContainerLoadThreadsPerVolume()} threads.
+ * When the metadata scanner is enabled, the .container file checksum of
+ * closed containers is not verified at load time but left to the scanner,
+ * since closed containers are not modified.
+ * <p>
+ * If enabled, closed containers are loaded from the
+ * {@link ContainerIndexSnapshot} of the volume instead of reading their DB.
  */
 public class ContainerReader implements Runnable {
 
@@ -78,6 +97,14 @@ public class ContainerReader implements Runnable {
   private final File hddsVolumeDir;
   private final MutableVolumeSet volumeSet;
   private final boolean shouldDeleteRecovering;
+  private final int loadThreads;
+  private final boolean deferClosedChecksum;
+  private final boolean snapshotEnabled;
+  private Map<Long, ContainerIndexSnapshot.Entry> snapshot =
+      Collections.emptyMap();
+  private final List<Long> loadedFromSnapshot =
+      Collections.synchronizedList(new ArrayList<>());
+  private final ContainerLoadMetrics metrics;
 
   public ContainerReader(
       MutableVolumeSet volSet, HddsVolume volume, ContainerSet cset,
@@ -89,6 +116,16 @@ public ContainerReader(
     this.config = conf;
     this.volumeSet = volSet;
     this.shouldDeleteRecovering = shouldDeleteRecovering;
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    this.loadThreads = dnConf.getContainerLoadThreadsPerVolume();
+    // Inspectors need the container DB, so do not skip reading it.
+    this.snapshotEnabled = dnConf.isContainerSnapshotEnabled()
+        && !ContainerInspectorUtil.isLoaded();
+    ContainerScannerConfiguration scannerConf =
+        conf.getObject(ContainerScannerConfiguration.class);
+    this.deferClosedChecksum = scannerConf.isEnabled()
+        && scannerConf.isMetadataScanEnabled();
+    this.metrics = ContainerLoadMetrics.create();
   }
 
   @Override
@@ -146,51 +183,107 @@ public void readVolume(File hddsVolumeRootDir) {
 
       LOG.info("Start to verify containers on volume {}", hddsVolumeRootDir);
       File currentDir = new File(idDir, Storage.STORAGE_DIR_CURRENT);
-      File[] containerTopDirs = currentDir.listFiles();
-      if (containerTopDirs != null) {
-        for (File containerTopDir : containerTopDirs) {
-          if (containerTopDir.isDirectory()) {
-            File[] containerDirs = containerTopDir.listFiles();
-            if (containerDirs != null) {
-              for (File containerDir : containerDirs) {
-                try {
-                  File containerFile = ContainerUtils.getContainerFile(
-                      containerDir);
-                  long containerID =
-                      ContainerUtils.getContainerID(containerDir);
-                  if (containerFile.exists()) {
-                    verifyContainerFile(containerID, containerFile);
-                  } else {
-                    LOG.error("Missing .container file for ContainerID: {}",
-                        containerDir.getName());
-                  }
-                } catch (Throwable e) {
-                  LOG.error("Failed to load container from {}",
-                      containerDir.getAbsolutePath(), e);
-                }
-              }
+      List<File> containerDirs = listContainerDirs(currentDir);
+      metrics.incrContainersDiscovered(containerDirs.size());
+      if (snapshotEnabled) {
+        snapshot = ContainerIndexSnapshot.read(hddsVolume);
+      }
+      loadContainers(containerDirs);
+      snapshot = Collections.emptyMap();
+    }
+    metrics.incrVolumesLoaded();
+    LOG.info("Finish verifying containers on volume {}", hddsVolumeRootDir);
+  }
+
+  private static List<File> listContainerDirs(File currentDir) {
+    List<File> containerDirs = new ArrayList<>();
+    File[] containerTopDirs = currentDir.listFiles();
+    if (containerTopDirs != null) {
+      for (File containerTopDir : containerTopDirs) {
+        if (containerTopDir.isDirectory()) {
+          File[] dirs = containerTopDir.listFiles();
+          if (dirs != null) {
+            for (File containerDir : dirs) {
+              containerDirs.add(containerDir);
             }
           }
         }
       }
     }
-    LOG.info("Finish verifying containers on volume {}", hddsVolumeRootDir);
+    return containerDirs;
   }
 
-  private void verifyContainerFile(long containerID,
-                                   File containerFile) {
+  private void loadContainers(List<File> containerDirs) {
+    final int threads = Math.min(loadThreads, containerDirs.size());
+    if (threads <= 1) {
+      containerDirs.forEach(this::loadContainer);
+      return;
+    }
+
+    final String threadNamePrefix = Thread.currentThread().getName() + "-";
+    ForkJoinPool pool = new ForkJoinPool(threads, p -> {
+      ForkJoinWorkerThread thread =
+          ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      thread.setName(threadNamePrefix + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+    try {
+      pool.submit(() -> containerDirs.parallelStream()
+          .forEach(this::loadContainer)).get();
+    } catch (InterruptedException e) {
+      LOG.warn("Interrupted while loading containers from volume {}",
+          hddsVolumeDir, e);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      LOG.error("Failed to load containers from volume {}",
+          hddsVolumeDir, e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private void loadContainer(File containerDir) {
+    try {
+      File containerFile = ContainerUtils.getContainerFile(containerDir);
+      long containerID = ContainerUtils.getContainerID(containerDir);
+      if (containerFile.exists()) {
+        if (verifyContainerFile(containerID, containerFile)) {
+          metrics.incrContainersLoaded();
+          return;
+        }
+      } else {
+        LOG.error("Missing .container file for ContainerID: {}",
+            containerDir.getName());
+      }
+    } catch (Throwable e) {
+      LOG.error("Failed to load container from {}",
+          containerDir.getAbsolutePath(), e);
+    }
+    metrics.incrContainersFailed();
+  }
+
+  private boolean verifyContainerFile(long containerID,
+                                      File containerFile) {
     try {
       ContainerData containerData = ContainerDataYaml.readContainerFile(
           containerFile);
       if (containerID != containerData.getContainerID()) {
         LOG.error("Invalid ContainerID in file {}. " +
             "Skipping loading of this container.", containerFile);
-        return;
+        return false;
+      }
+      final boolean deferChecksum = deferClosedChecksum
+          && (containerData.getState() == CLOSED
+          || containerData.getState() == QUASI_CLOSED);
+      if (deferChecksum) {
+        metrics.incrContainersChecksumDeferred();
       }
-      verifyAndFixupContainerData(containerData);
+      verifyAndFixupContainerData(containerData, !deferChecksum, true);
+      return true;
     } catch (IOException ex) {
       LOG.error("Failed to parse ContainerFile for ContainerID: {}",
           containerID, ex);
+      return false;
     }
   }
 
@@ -203,13 +296,30 @@ private void verifyContainerFile(long containerID,
    */
   public void verifyAndFixupContainerData(ContainerData containerData)
       throws IOException {
+    verifyAndFixupContainerData(containerData, true, false);
+  }
+
+  private void verifyAndFixupContainerData(ContainerData containerData,
+      boolean verifyChecksum, boolean useSnapshot) throws IOException {
     switch (containerData.getContainerType()) {
     case KeyValueContainer:
       if (containerData instanceof KeyValueContainerData) {
         KeyValueContainerData kvContainerData = (KeyValueContainerData)
             containerData;
         containerData.setVolume(hddsVolume);
-        KeyValueContainerUtil.parseKVContainerData(kvContainerData, config);
+        ContainerIndexSnapshot.Entry entry = useSnapshot
+            ? snapshot.get(kvContainerData.getContainerID()) : null;
+        if (entry != null && entry.matches(kvContainerData)) {
+          if (KeyValueContainerUtil.prepareKVContainerData(kvContainerData,
+              config, verifyChecksum)) {
+            entry.applyTo(kvContainerData);
+            loadedFromSnapshot.add(kvContainerData.getContainerID());
+            metrics.incrContainersLoadedFromSnapshot();
+          }
+        } else {
+          KeyValueContainerUtil.parseKVContainerData(kvContainerData, config,
+              verifyChecksum);
+        }
         KeyValueContainer kvContainer = new KeyValueContainer(kvContainerData,
             config);
         if (kvContainer.getContainerState() == RECOVERING) {
@@ -240,6 +350,14 @@ public void verifyAndFixupContainerData(ContainerData containerData)
     }
   }
 
+  /**
+   * @return the IDs of the containers loaded from the volume snapshot,
+   * which are to be verified against their DB.
+   */
+  public List<Long> getContainersLoadedFromSnapshot() {
+    return loadedFromSnapshot;
+  }
+
   private void cleanupContainer(
       HddsVolume volume, KeyValueContainer kvContainer) {
     try {
@@ -56,6 +56,12 @@ public class ContainerScannerConfiguration {
       "hdds.container.scrub.on.demand.volume.bytes.per.second";
   public static final String CONTAINER_SCAN_MIN_GAP =
       "hdds.container.scrub.min.gap";
+  public static final String DATA_SCAN_UNCHANGED_MAX_AGE_KEY =
+      "hdds.container.scrub.data.scan.unchanged.max.age";
+  public static final String DATA_SCAN_VOLUME_LATENCY_THRESHOLD_KEY =
+      "hdds.container.scrub.data.scan.volume.latency.threshold";
+  public static final String DATA_SCAN_CHECKPOINT_INTERVAL_KEY =
+      "hdds.container.scrub.data.scan.checkpoint.interval";
 
   static final long CONTAINER_SCAN_MIN_GAP_DEFAULT =
       Duration.ofMinutes(15).toMillis();
@@ -65,6 +71,13 @@ public class ContainerScannerConfiguration {
   public static final long DATA_SCAN_INTERVAL_DEFAULT =
       Duration.ofDays(7).toMillis();
 
+  public static final long DATA_SCAN_UNCHANGED_MAX_AGE_DEFAULT =
+      Duration.ofDays(30).toMillis();
+  public static final long DATA_SCAN_VOLUME_LATENCY_THRESHOLD_DEFAULT =
+      Duration.ofMillis(100).toMillis();
+  public static final long DATA_SCAN_CHECKPOINT_INTERVAL_DEFAULT =
+      Duration.ofMinutes(1).toMillis();
+
   public static final long BANDWIDTH_PER_VOLUME_DEFAULT = OzoneConsts.MB * 5L;
   public static final long ON_DEMAND_BANDWIDTH_PER_VOLUME_DEFAULT =
       OzoneConsts.MB * 5L;
@@ -138,6 +151,42 @@ public class ContainerScannerConfiguration {
   )
   private long containerScanMinGap = CONTAINER_SCAN_MIN_GAP_DEFAULT;
 
+  @Config(key = "data.scan.unchanged.max.age",
+      type = ConfigType.TIME,
+      defaultValue = "30d",
+      tags = {ConfigTag.STORAGE},
+      description = "The background data scanner skips containers whose data"
+          + " has not changed since their last healthy data scan, until this"
+          + " much time has passed since that scan. 0 disables skipping."
+          + " Unit could be defined with postfix (ns,ms,s,m,h,d).")
+  private long dataScanUnchangedMaxAge = DATA_SCAN_UNCHANGED_MAX_AGE_DEFAULT;
+
+  @Config(key = "data.scan.volume.latency.threshold",
+      type = ConfigType.TIME,
+      defaultValue = "100ms",
+      tags = {ConfigTag.STORAGE},
+      description = "If the average latency of chunk I/O on a volume since the"
+          + " previous iteration of its background data scanner is above this"
+          + " value, the volume is suspected to be failing and the next"
+          + " iteration scans all containers, including unchanged ones."
+          + " 0 disables the check."
+          + " Unit could be defined with postfix (ns,ms,s,m,h,d).")
+  private long dataScanVolumeLatencyThreshold =
+      DATA_SCAN_VOLUME_LATENCY_THRESHOLD_DEFAULT;
+
+  @Config(key = "data.scan.checkpoint.interval",
+      type = ConfigType.TIME,
+      defaultValue = "1m",
+      tags = {ConfigTag.STORAGE},
+      description = "Minimum time between saves of the progress of the"
+          + " background data scanner of a volume after scanned containers."
+          + " The progress is always saved when an iteration starts or"
+          + " completes and when the scanner stops. After a crash, the"
+          + " containers scanned since the last save are scanned again."
+          + " Unit could be defined with postfix (ns,ms,s,m,h,d).")
+  private long dataScanCheckpointInterval =
+      DATA_SCAN_CHECKPOINT_INTERVAL_DEFAULT;
+
   @PostConstruct
   public void validate() {
     if (metadataScanInterval < 0) {
@@ -161,6 +210,29 @@ public void validate() {
       containerScanMinGap = CONTAINER_SCAN_MIN_GAP_DEFAULT;
     }
 
+    if (dataScanUnchangedMaxAge < 0) {
+      LOG.warn(DATA_SCAN_UNCHANGED_MAX_AGE_KEY +
+              " must be >= 0 and was set to {}. Defaulting to {}",
+          dataScanUnchangedMaxAge, DATA_SCAN_UNCHANGED_MAX_AGE_DEFAULT);
+      dataScanUnchangedMaxAge = DATA_SCAN_UNCHANGED_MAX_AGE_DEFAULT;
+    }
+
+    if (dataScanVolumeLatencyThreshold < 0) {
+      LOG.warn(DATA_SCAN_VOLUME_LATENCY_THRESHOLD_KEY +
+              " must be >= 0 and was set to {}. Defaulting to {}",
+          dataScanVolumeLatencyThreshold,
+          DATA_SCAN_VOLUME_LATENCY_THRESHOLD_DEFAULT);
+      dataScanVolumeLatencyThreshold =
+          DATA_SCAN_VOLUME_LATENCY_THRESHOLD_DEFAULT;
+    }
+
+    if (dataScanCheckpointInterval < 0) {
+      LOG.warn(DATA_SCAN_CHECKPOINT_INTERVAL_KEY +
+              " must be >= 0 and was set to {}. Defaulting to {}",
+          dataScanCheckpointInterval, DATA_SCAN_CHECKPOINT_INTERVAL_DEFAULT);
+      dataScanCheckpointInterval = DATA_SCAN_CHECKPOINT_INTERVAL_DEFAULT;
+    }
+
     if (bandwidthPerVolume < 0) {
       LOG.warn(VOLUME_BYTES_PER_SECOND_KEY +
               " must be >= 0 and was set to {}. Defaulting to {}",
@@ -218,4 +290,34 @@ public long getOnDemandBandwidthPerVolume() {
   public long getContainerScanMinGap() {
     return containerScanMinGap;
   }
+
+  public void setContainerScanMinGap(long containerScanMinGap) {
+    this.containerScanMinGap = containerScanMinGap;
+  }
+
+  public long getDataScanUnchangedMaxAge() {
+    return dataScanUnchangedMaxAge;
+  }
+
+  public void setDataScanUnchangedMaxAge(long dataScanUnchangedMaxAge) {
+    this.dataScanUnchangedMaxAge = dataScanUnchangedMaxAge;
+  }
+
+  public long getDataScanVolumeLatencyThreshold() {
+    return dataScanVolumeLatencyThreshold;
+  }
+
+  public void setDataScanVolumeLatencyThreshold(
+      long dataScanVolumeLatencyThreshold) {
+    this.dataScanVolumeLatencyThreshold = dataScanVolumeLatencyThreshold;
+  }
+
+  public long getDataScanCheckpointInterval() {
+    return dataScanCheckpointInterval;
+  }
+
+  public void setDataScanCheckpointInterval(
+      long dataScanCheckpointInterval) {
+    this.dataScanCheckpointInterval = dataScanCheckpointInterval;
+  }
 }
@@ -72,6 +72,8 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -122,6 +124,8 @@ public class OzoneContainer {
 
 
   private final ContainerMetrics metrics;
+  private final List<Long> containersToVerify = new ArrayList<>();
+  private ScheduledExecutorService containerSnapshotExecutor;
 
   enum InitializingStatus {
     UNINITIALIZED, INITIALIZING, INITIALIZED
@@ -290,6 +294,7 @@ private void buildContainerSet() {
     Iterator<StorageVolume> volumeSetIterator = volumeSet.getVolumesList()
         .iterator();
     ArrayList<Thread> volumeThreads = new ArrayList<>();
+    List<ContainerReader> containerReaders = new ArrayList<>();
     long startTime = System.currentTimeMillis();
 
     // Load container inspectors that may be triggered at startup based on
@@ -308,6 +313,7 @@ private void buildContainerSet() {
       Thread thread = threadFactory.newThread(containerReader);
       thread.start();
       volumeThreads.add(thread);
+      containerReaders.add(containerReader);
     }
 
     try {
@@ -322,9 +328,60 @@ private void buildContainerSet() {
     // After all containers have been processed, turn off container
     // inspectors so they are not hit during normal datanode execution.
     ContainerInspectorUtil.unload();
+    for (ContainerReader reader : containerReaders) {
+      containersToVerify.addAll(reader.getContainersLoadedFromSnapshot());
+    }
+
+    final long elapsed = System.currentTimeMillis() - startTime;
+    ContainerLoadMetrics.create().setLoadTimeMs(elapsed);
+    LOG.info("Build ContainerSet costs {}s", elapsed / 1000);
+  }
+
+  /**
+   * Verify the containers loaded from snapshots, and schedule writing the
+   * snapshots if enabled.
+   */
+  private void startContainerSnapshot() {
+    final DatanodeConfiguration dnConf =
+        config.getObject(DatanodeConfiguration.class);
+    if (!dnConf.isContainerSnapshotEnabled() && containersToVerify.isEmpty()) {
+      return;
+    }
+    containerSnapshotExecutor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat(datanodeDetails.threadNamePrefix() +
+                "ContainerSnapshot-%d")
+            .build());
+    if (!containersToVerify.isEmpty()) {
+      final List<Long> ids = new ArrayList<>(containersToVerify);
+      containersToVerify.clear();
+      containerSnapshotExecutor.execute(() -> ContainerIndexSnapshot.verify(
+          containerSet, ids, config, ContainerLoadMetrics.create()));
+    }
+    if (dnConf.isContainerSnapshotEnabled()) {
+      final long interval = dnConf.getContainerSnapshotInterval().toMillis();
+      containerSnapshotExecutor.scheduleWithFixedDelay(
+          () -> ContainerIndexSnapshot.writeAll(containerSet, volumeSet),
+          interval, interval, TimeUnit.MILLISECONDS);
+    }
+  }
 
-    LOG.info("Build ContainerSet costs {}s",
-        (System.currentTimeMillis() - startTime) / 1000);
+  private void stopContainerSnapshot() {
+    if (containerSnapshotExecutor == null) {
+      return;
+    }
+    containerSnapshotExecutor.shutdownNow();
+    try {
+      if (!containerSnapshotExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOG.warn("Container snapshot executor did not terminate in time.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (config.getObject(DatanodeConfiguration.class)
+        .isContainerSnapshotEnabled()) {
+      ContainerIndexSnapshot.writeAll(containerSet, volumeSet);
+    }
   }
 
   /**
@@ -450,6 +507,7 @@ public void start(String clusterId) throws IOException {
     hddsDispatcher.setClusterId(clusterId);
     blockDeletingService.start();
     recoveringContainerScrubbingService.start();
+    startContainerSnapshot();
 
     // mark OzoneContainer as INITIALIZED.
     initializingStatus.set(InitializingStatus.INITIALIZED);
@@ -475,7 +533,9 @@ public void stop() {
     }
     blockDeletingService.shutdown();
     recoveringContainerScrubbingService.shutdown();
+    stopContainerSnapshot();
     ContainerMetrics.remove();
+    ContainerLoadMetrics.unRegister();
   }
 
   public void handleVolumeFailures() {
@@ -18,8 +18,11 @@
 package org.apache.hadoop.ozone.container.replication;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 
@@ -37,4 +40,38 @@ Path getContainerDataFromReplicas(long containerId,
       List<DatanodeDetails> sources, Path downloadDir,
       CopyContainerCompression compression);
 
+  /**
+   * Download the container from the sources, and pass the stream of its raw
+   * data to the consumer as it arrives, without storing it on disk.
+   * Large containers may be split into partitions downloaded from several
+   * sources in parallel: the stream then has partition 0, and the chunk
+   * files of the other partitions are extracted to directories under
+   * downloadDir. If the download or the consumer fails, the next source is
+   * tried with a new stream.
+   *
+   * @return the number of bytes received from the sources
+   * @throws IOException if the container could not be processed from any
+   * of the sources
+   */
+  long streamContainerDataFromReplicas(long containerId,
+      List<DatanodeDetails> sources, Path downloadDir,
+      CopyContainerCompression compression, ContainerStreamConsumer consumer)
+      throws IOException;
+
+  /**
+   * Consumer of a container received by
+   * {@link #streamContainerDataFromReplicas}.
+   */
+  @FunctionalInterface
+  interface ContainerStreamConsumer {
+    /**
+     * @param input raw data of the container, or of its partition 0
+     * @param otherPartitions completed with the directory of the chunk files
+     * of each other partition as it is extracted, empty if the container is
+     * not partitioned
+     */
+    void accept(InputStream input,
+        List<CompletableFuture<Path>> otherPartitions) throws IOException;
+  }
+
 }
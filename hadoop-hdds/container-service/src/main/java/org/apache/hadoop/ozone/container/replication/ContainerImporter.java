@@ -17,14 +17,18 @@
  */
 package org.apache.hadoop.ozone.container.replication;
 
-import java.io.FileInputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.StorageUnit;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
@@ -55,6 +59,10 @@ public class ContainerImporter {
 
   public static final String CONTAINER_COPY_DIR = "container-copy";
   private static final String CONTAINER_COPY_TMP_DIR = "tmp";
+  private static final int IO_BUFFER_SIZE = 64 * 1024;
+  // The descriptor is the first entry of the tarball, read limit of the
+  // decompressor and the tar header included.
+  private static final int DESCRIPTOR_READ_LIMIT = 4 * 1024 * 1024;
   private final ContainerSet containerSet;
   private final ContainerController controller;
   private final MutableVolumeSet volumeSet;
@@ -89,48 +97,97 @@ public boolean isAllowedContainerImport(long containerID) {
   public void importContainer(long containerID, Path tarFilePath,
       HddsVolume hddsVolume, CopyContainerCompression compression)
       throws IOException {
-    if (!importContainerProgress.add(containerID)) {
+    try {
+      startImport(containerID);
+      try (InputStream input = Files.newInputStream(tarFilePath)) {
+        unpackContainer(containerID, input, Collections.emptyList(),
+            hddsVolume, compression);
+      } finally {
+        importContainerProgress.remove(containerID);
+      }
+    } finally {
       deleteFileQuietely(tarFilePath);
+    }
+  }
+
+  /**
+   * Import the container from the stream of its tarball, as it is
+   * downloaded from the source. The descriptor of the container is the
+   * first entry of the tarball, so it is read from the beginning of the
+   * stream, which is then replayed to unpack the whole container. The
+   * stream is not closed.
+   */
+  public void importContainer(long containerID, InputStream input,
+      HddsVolume hddsVolume, CopyContainerCompression compression)
+      throws IOException {
+    importContainer(containerID, input, Collections.emptyList(), hddsVolume,
+        compression);
+  }
+
+  /**
+   * Import the container from the stream of its partition 0, with the
+   * chunk files of the other partitions extracted to the directories the
+   * futures complete with, see {@link ContainerDownloader}.
+   */
+  public void importContainer(long containerID, InputStream input,
+      List<CompletableFuture<Path>> otherPartitions, HddsVolume hddsVolume,
+      CopyContainerCompression compression) throws IOException {
+    startImport(containerID);
+    try {
+      unpackContainer(containerID, input, otherPartitions, hddsVolume,
+          compression);
+    } finally {
+      importContainerProgress.remove(containerID);
+    }
+  }
+
+  private void startImport(long containerID)
+      throws StorageContainerException {
+    if (!importContainerProgress.add(containerID)) {
       LOG.warn("Container import in progress with container Id {}",
           containerID);
       throw new StorageContainerException("Container " +
           "import in progress with container Id " + containerID,
           ContainerProtos.Result.CONTAINER_EXISTS);
     }
+    if (containerSet.getContainer(containerID) != null) {
+      importContainerProgress.remove(containerID);
+      LOG.warn("Container already exists with container Id {}", containerID);
+      throw new StorageContainerException("Container already exists " +
+          "with container Id " + containerID,
+          ContainerProtos.Result.CONTAINER_EXISTS);
+    }
+  }
 
-    try {
-      if (containerSet.getContainer(containerID) != null) {
-        LOG.warn("Container already exists with container Id {}", containerID);
-        throw new StorageContainerException("Container already exists " +
-            "with container Id " + containerID,
-            ContainerProtos.Result.CONTAINER_EXISTS);
-      }
-
-      HddsVolume targetVolume = hddsVolume;
-      if (targetVolume == null) {
-        targetVolume = chooseNextVolume();
-      }
-
-      KeyValueContainerData containerData;
-      TarContainerPacker packer = new TarContainerPacker(compression);
-
-      try (FileInputStream input = new FileInputStream(tarFilePath.toFile())) {
-        byte[] containerDescriptorYaml =
-            packer.unpackContainerDescriptor(input);
-        containerData = (KeyValueContainerData) ContainerDataYaml
-            .readContainer(containerDescriptorYaml);
-      }
-      containerData.setVolume(targetVolume);
+  private void unpackContainer(long containerID, InputStream input,
+      List<CompletableFuture<Path>> otherPartitions, HddsVolume hddsVolume,
+      CopyContainerCompression compression) throws IOException {
+    HddsVolume targetVolume = hddsVolume;
+    if (targetVolume == null) {
+      targetVolume = chooseNextVolume();
+    }
 
-      try (FileInputStream input = new FileInputStream(tarFilePath.toFile())) {
-        Container container = controller.importContainer(
-            containerData, input, packer);
-        containerSet.addContainer(container);
-      }
-    } finally {
-      importContainerProgress.remove(containerID);
-      deleteFileQuietely(tarFilePath);
+    TarContainerPacker packer = otherPartitions.isEmpty()
+        ? new TarContainerPacker(compression)
+        : new TarContainerPacker(compression, otherPartitions);
+    BufferedInputStream buffered = new BufferedInputStream(
+        CloseShieldInputStream.wrap(input), IO_BUFFER_SIZE);
+    buffered.mark(DESCRIPTOR_READ_LIMIT);
+    byte[] containerDescriptorYaml = packer.unpackContainerDescriptor(
+        CloseShieldInputStream.wrap(buffered));
+    try {
+      buffered.reset();
+    } catch (IOException e) {
+      throw new IOException("Descriptor of container " + containerID +
+          " is not at the beginning of the tarball", e);
     }
+    KeyValueContainerData containerData = (KeyValueContainerData)
+        ContainerDataYaml.readContainer(containerDescriptorYaml);
+    containerData.setVolume(targetVolume);
+
+    Container container = controller.importContainer(
+        containerData, buffered, packer);
+    containerSet.addContainer(container);
   }
 
   private static void deleteFileQuietely(Path tarFilePath) {
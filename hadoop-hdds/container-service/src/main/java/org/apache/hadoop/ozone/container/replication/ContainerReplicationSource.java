@@ -48,4 +48,32 @@ void copyData(long containerId, OutputStream destination,
       CopyContainerCompression compression)
       throws IOException;
 
+  /**
+   * Copy one of the partitions of the container data to an output stream,
+   * to download the container from multiple sources in parallel.
+   *
+   * @param containerId Container to replicate
+   * @param destination The destination stream to copy the partition to.
+   * @param compression Compression algorithm.
+   * @param partitionIndex The partition to copy.
+   * @param partitionCount The number of partitions of the container.
+   * @throws IOException
+   */
+  default void copyData(long containerId, OutputStream destination,
+      CopyContainerCompression compression, int partitionIndex,
+      int partitionCount) throws IOException {
+    if (partitionCount != 1) {
+      throw new IOException("Partitioned copy of container " + containerId +
+          " is not supported");
+    }
+    copyData(containerId, destination, compression);
+  }
+
+  /**
+   * @return the bytes used by the container, or -1 if not known.
+   */
+  default long getContainerSize(long containerId) {
+    return -1;
+  }
+
 }
@@ -27,21 +27,30 @@
 class CopyContainerResponseStream
     extends GrpcOutputStream<CopyContainerResponseProto> {
 
+  // Sent in the first response, if known
+  private long containerSize = -1;
+
   CopyContainerResponseStream(
       CallStreamObserver<CopyContainerResponseProto> streamObserver,
       long containerId, int bufferSize) {
     super(streamObserver, containerId, bufferSize);
   }
 
+  void setContainerSize(long containerSize) {
+    this.containerSize = containerSize;
+  }
+
   protected void sendPart(boolean eof, int length, ByteString data) {
-    CopyContainerResponseProto response =
+    CopyContainerResponseProto.Builder response =
         CopyContainerResponseProto.newBuilder()
             .setContainerID(getContainerId())
             .setData(data)
             .setEof(eof)
             .setReadOffset(getWrittenBytes())
-            .setLen(length)
-            .build();
-    getStreamObserver().onNext(response);
+            .setLen(length);
+    if (containerSize >= 0 && getWrittenBytes() == 0) {
+      response.setContainerSize(containerSize);
+    }
+    getStreamObserver().onNext(response.build());
   }
 }
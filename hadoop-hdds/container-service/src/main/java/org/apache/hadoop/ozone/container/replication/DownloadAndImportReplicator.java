@@ -18,8 +18,6 @@
 package org.apache.hadoop.ozone.container.replication;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
@@ -77,21 +75,16 @@ public void replicate(ReplicationTask task) {
       HddsVolume targetVolume = containerImporter.chooseNextVolume();
       // Wait for the download. This thread pool is limiting the parallel
       // downloads, so it's ok to block here and wait for the full download.
-      Path tarFilePath =
-          downloader.getContainerDataFromReplicas(containerID, sourceDatanodes,
-              ContainerImporter.getUntarDirectory(targetVolume), compression);
-      if (tarFilePath == null) {
-        task.setStatus(Status.FAILED);
-        return;
-      }
-      long bytes = Files.size(tarFilePath);
-      LOG.info("Container {} is downloaded with size {}, starting to import.",
-              containerID, bytes);
+      // The container is unpacked as it is received, the tarball is not
+      // stored on disk.
+      long bytes = downloader.streamContainerDataFromReplicas(containerID,
+          sourceDatanodes, ContainerImporter.getUntarDirectory(targetVolume),
+          compression,
+          (input, otherPartitions) -> containerImporter.importContainer(
+              containerID, input, otherPartitions, targetVolume,
+              compression));
       task.setTransferredBytes(bytes);
 
-      containerImporter.importContainer(containerID, tarFilePath, targetVolume,
-          compression);
-
       LOG.info("Container {} is replicated successfully", containerID);
       task.setStatus(Status.DONE);
     } catch (IOException e) {
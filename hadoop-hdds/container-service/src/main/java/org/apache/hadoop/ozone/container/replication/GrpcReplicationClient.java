@@ -20,11 +20,15 @@
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -44,6 +48,8 @@
 import org.apache.ratis.thirdparty.io.grpc.ManagedChannel;
 import org.apache.ratis.thirdparty.io.grpc.netty.GrpcSslContexts;
 import org.apache.ratis.thirdparty.io.grpc.netty.NettyChannelBuilder;
+import org.apache.ratis.thirdparty.io.grpc.stub.ClientCallStreamObserver;
+import org.apache.ratis.thirdparty.io.grpc.stub.ClientResponseObserver;
 import org.apache.ratis.thirdparty.io.grpc.stub.StreamObserver;
 import org.apache.ratis.thirdparty.io.netty.handler.ssl.ClientAuth;
 import org.apache.ratis.thirdparty.io.netty.handler.ssl.SslContextBuilder;
@@ -103,25 +109,52 @@ public GrpcReplicationClient(
   }
 
   public CompletableFuture<Path> download(long containerId, Path dir) {
-    CopyContainerRequestProto request =
-        CopyContainerRequestProto.newBuilder()
-            .setContainerID(containerId)
-            .setLen(-1)
-            .setReadOffset(0)
-            .setCompression(compression.toProto())
-            .build();
-
     CompletableFuture<Path> response = new CompletableFuture<>();
 
     Path destinationPath = dir
         .resolve(ContainerUtils.getContainerTarName(containerId));
 
-    client.download(request,
+    client.download(downloadRequest(containerId).build(),
         new StreamDownloader(containerId, response, destinationPath));
 
     return response;
   }
 
+  /**
+   * Download the container as a stream of the tarball, without writing it
+   * to disk. Data is only requested from the source as the stream is
+   * consumed, so a slow reader slows down the sender instead of buffering
+   * the container in memory. The caller must close the stream.
+   */
+  public DownloadInputStream download(long containerId) {
+    DownloadInputStream stream = new DownloadInputStream(containerId);
+    client.download(downloadRequest(containerId).build(), stream);
+    return stream;
+  }
+
+  /**
+   * Download one of the partitions of the container as a stream, see
+   * {@link org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker}.
+   */
+  public DownloadInputStream download(long containerId, int partitionIndex,
+      int partitionCount) {
+    DownloadInputStream stream = new DownloadInputStream(containerId);
+    client.download(downloadRequest(containerId)
+        .setPartitionIndex(partitionIndex)
+        .setPartitionCount(partitionCount)
+        .build(), stream);
+    return stream;
+  }
+
+  private CopyContainerRequestProto.Builder downloadRequest(
+      long containerId) {
+    return CopyContainerRequestProto.newBuilder()
+        .setContainerID(containerId)
+        .setLen(-1)
+        .setReadOffset(0)
+        .setCompression(compression.toProto());
+  }
+
   public StreamObserver<SendContainerRequest> upload(
       StreamObserver<SendContainerResponse> responseObserver) {
     return client.upload(responseObserver);
@@ -235,4 +268,170 @@ private void deleteOutputOnFailure() {
       }
     }
   }
+
+  /**
+   * Stream of the tarball of a container, fed by the responses of the
+   * download call. Responses are requested from the source only as the
+   * previous ones are consumed, so that at most {@link #WINDOW} of them are
+   * buffered ahead of the reader.
+   */
+  public static class DownloadInputStream extends InputStream
+      implements ClientResponseObserver<CopyContainerRequestProto,
+          CopyContainerResponseProto> {
+
+    // Each response holds up to GrpcReplicationService.BUFFER_SIZE bytes
+    private static final int WINDOW = 4;
+    private static final Object END = new Object();
+
+    private final long containerId;
+    private final BlockingQueue<Object> responses = new LinkedBlockingQueue<>();
+    private volatile ClientCallStreamObserver<CopyContainerRequestProto> call;
+    private InputStream current;
+    private IOException failure;
+    private boolean started;
+    private long containerSize = -1;
+    private boolean done;
+    private boolean closed;
+
+    public DownloadInputStream(long containerId) {
+      this.containerId = containerId;
+    }
+
+    @Override
+    public void beforeStart(
+        ClientCallStreamObserver<CopyContainerRequestProto> requestStream) {
+      call = requestStream;
+      requestStream.disableAutoRequestWithInitial(WINDOW);
+    }
+
+    @Override
+    public void onNext(CopyContainerResponseProto chunk) {
+      responses.add(chunk);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      responses.add(throwable);
+    }
+
+    @Override
+    public void onCompleted() {
+      responses.add(END);
+    }
+
+    @Override
+    public int read() throws IOException {
+      final byte[] b = new byte[1];
+      return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (closed) {
+        throw new IOException("Download stream of container " + containerId
+            + " is closed");
+      }
+      if (len == 0) {
+        return 0;
+      }
+      while (true) {
+        if (current != null) {
+          final int n = current.read(b, off, len);
+          if (n > 0) {
+            return n;
+          }
+          current = null;
+          call.request(1);
+        }
+        if (!nextResponse()) {
+          return -1;
+        }
+      }
+    }
+
+    @Override
+    public int available() throws IOException {
+      return current != null ? current.available() : 0;
+    }
+
+    /**
+     * Wait for the first response of the download.
+     *
+     * @return the size of the container reported by the source for a
+     * partitioned download, or -1 if it was not reported
+     */
+    public long getContainerSize() throws IOException {
+      if (!started && current == null) {
+        nextResponse();
+      }
+      return containerSize;
+    }
+
+    private boolean nextResponse() throws IOException {
+      if (failure != null) {
+        throw failure;
+      }
+      if (done) {
+        return false;
+      }
+      final Object next;
+      try {
+        next = responses.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while downloading " +
+            "container " + containerId);
+      }
+      if (next == END) {
+        done = true;
+        LOG.debug("Container {} is downloaded", containerId);
+        return false;
+      }
+      if (next instanceof Throwable) {
+        done = true;
+        failure = new IOException("Download of container " + containerId
+            + " was unsuccessful", (Throwable) next);
+        throw failure;
+      }
+      final CopyContainerResponseProto response =
+          (CopyContainerResponseProto) next;
+      if (!started) {
+        started = true;
+        if (response.hasContainerSize()) {
+          containerSize = response.getContainerSize();
+        }
+      }
+      current = response.getData().newInput();
+      return true;
+    }
+
+    /**
+     * Cancels the download if the stream was not read to the end.
+     */
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      current = null;
+      if (!done) {
+        done = true;
+        cancel();
+      }
+      responses.clear();
+    }
+
+    /**
+     * Cancels the download, reads of the stream fail afterwards. Unlike
+     * {@link #close()}, may be called from any thread.
+     */
+    public void cancel() {
+      final ClientCallStreamObserver<CopyContainerRequestProto> c = call;
+      if (c != null) {
+        c.cancel("Download of container " + containerId + " cancelled",
+            null);
+      }
+    }
+  }
 }
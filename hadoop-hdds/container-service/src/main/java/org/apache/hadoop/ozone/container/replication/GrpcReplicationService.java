@@ -19,7 +19,6 @@
 package org.apache.hadoop.ozone.container.replication;
 
 import java.io.IOException;
-import java.io.OutputStream;
 
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.CopyContainerRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.CopyContainerResponseProto;
@@ -60,16 +59,36 @@ public void download(CopyContainerRequestProto request,
       StreamObserver<CopyContainerResponseProto> responseObserver) {
     long containerID = request.getContainerID();
     CopyContainerCompression compression = fromProto(request.getCompression());
-    LOG.info("Streaming container data ({}) to other datanode " +
-        "with compression {}", containerID, compression);
-    OutputStream outputStream = null;
+    int partitionCount = request.hasPartitionCount()
+        ? request.getPartitionCount() : 1;
+    int partitionIndex = request.getPartitionIndex();
+    if (partitionCount == 1) {
+      LOG.info("Streaming container data ({}) to other datanode " +
+          "with compression {}", containerID, compression);
+    } else {
+      LOG.info("Streaming partition {} of {} of container data ({}) to " +
+              "other datanode with compression {}", partitionIndex,
+          partitionCount, containerID, compression);
+    }
+    CopyContainerResponseStream outputStream = null;
     try {
+      if (partitionCount < 1 || partitionIndex < 0
+          || partitionIndex >= partitionCount) {
+        throw new IOException("Invalid partition " + partitionIndex +
+            " of " + partitionCount + " for container " + containerID);
+      }
       outputStream = new CopyContainerResponseStream(
           // gRPC runtime always provides implementation of CallStreamObserver
           // that allows flow control.
           (CallStreamObserver<CopyContainerResponseProto>) responseObserver,
           containerID, BUFFER_SIZE);
-      source.copyData(containerID, outputStream, compression);
+      if (partitionCount > 1) {
+        // Lets the client decide whether to download the other partitions
+        // in parallel, or fall back to a single source.
+        outputStream.setContainerSize(source.getContainerSize(containerID));
+      }
+      source.copyData(containerID, outputStream, compression, partitionIndex,
+          partitionCount);
     } catch (IOException e) {
       LOG.warn("Error streaming container {}", containerID, e);
       responseObserver.onError(e);
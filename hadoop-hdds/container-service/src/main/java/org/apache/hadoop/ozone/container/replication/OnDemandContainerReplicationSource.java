@@ -51,6 +51,13 @@ public void prepare(long containerId) {
   public void copyData(long containerId, OutputStream destination,
                        CopyContainerCompression compression)
       throws IOException {
+    copyData(containerId, destination, compression, 0, 1);
+  }
+
+  @Override
+  public void copyData(long containerId, OutputStream destination,
+      CopyContainerCompression compression, int partitionIndex,
+      int partitionCount) throws IOException {
 
     Container container = controller.getContainer(containerId);
 
@@ -61,6 +68,13 @@ public void copyData(long containerId, OutputStream destination,
 
     controller.exportContainer(
         container.getContainerType(), containerId, destination,
-        new TarContainerPacker(compression));
+        new TarContainerPacker(compression, partitionIndex, partitionCount));
+  }
+
+  @Override
+  public long getContainerSize(long containerId) {
+    Container container = controller.getContainer(containerId);
+    return container != null ? container.getContainerData().getBytesUsed()
+        : -1;
   }
 }
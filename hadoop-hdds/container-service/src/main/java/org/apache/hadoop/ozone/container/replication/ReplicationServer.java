@@ -176,6 +176,10 @@ public static final class ReplicationConfig {
     private static final double OUTOFSERVICE_FACTOR_MAX = 10;
     static final String REPLICATION_OUTOFSERVICE_FACTOR_KEY =
         PREFIX + "." + OUTOFSERVICE_FACTOR_KEY;
+    private static final String PARALLEL_SOURCES_KEY = "parallel.sources";
+    static final String REPLICATION_PARALLEL_SOURCES_KEY =
+        PREFIX + "." + PARALLEL_SOURCES_KEY;
+    static final int PARALLEL_SOURCES_DEFAULT = 3;
 
     /**
      * The maximum number of replication commands a single datanode can execute
@@ -218,6 +222,26 @@ public static final class ReplicationConfig {
     )
     private double outOfServiceFactor = OUTOFSERVICE_FACTOR_DEFAULT;
 
+    @Config(key = PARALLEL_SOURCES_KEY,
+        type = ConfigType.INT,
+        defaultValue = "3",
+        tags = {DATANODE},
+        description = "The maximum number of replicas a container is " +
+            "downloaded from in parallel. Each source sends a part of the " +
+            "chunk files of the container. 1 downloads containers from a " +
+            "single source."
+    )
+    private int parallelSources = PARALLEL_SOURCES_DEFAULT;
+
+    @Config(key = "parallel.min.container.size",
+        type = ConfigType.SIZE,
+        defaultValue = "1GB",
+        tags = {DATANODE},
+        description = "Containers smaller than this are downloaded from a " +
+            "single source, even if more replicas are available."
+    )
+    private long parallelMinContainerSize = 1024L * 1024 * 1024;
+
     public double getOutOfServiceFactor() {
       return outOfServiceFactor;
     }
@@ -243,6 +267,22 @@ public void setReplicationMaxStreams(int replicationMaxStreams) {
       this.replicationMaxStreams = replicationMaxStreams;
     }
 
+    public int getParallelSources() {
+      return parallelSources;
+    }
+
+    public void setParallelSources(int parallelSources) {
+      this.parallelSources = parallelSources;
+    }
+
+    public long getParallelMinContainerSize() {
+      return parallelMinContainerSize;
+    }
+
+    public void setParallelMinContainerSize(long size) {
+      this.parallelMinContainerSize = size;
+    }
+
     public int getReplicationQueueLimit() {
       return replicationQueueLimit;
     }
@@ -271,6 +311,13 @@ public void validate() {
             OUTOFSERVICE_FACTOR_DEFAULT);
         outOfServiceFactor = OUTOFSERVICE_FACTOR_DEFAULT;
       }
+
+      if (parallelSources < 1) {
+        LOG.warn("{} must be greater than zero and was set to {}. " +
+                "Defaulting to {}", REPLICATION_PARALLEL_SOURCES_KEY,
+            parallelSources, PARALLEL_SOURCES_DEFAULT);
+        parallelSources = PARALLEL_SOURCES_DEFAULT;
+      }
     }
 
   }
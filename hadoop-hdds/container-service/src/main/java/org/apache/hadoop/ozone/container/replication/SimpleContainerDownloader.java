@@ -18,21 +18,40 @@
 
 package org.apache.hadoop.ozone.container.replication;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails.Port.Name;
 import org.apache.hadoop.hdds.security.SecurityConfig;
 import org.apache.hadoop.hdds.security.x509.certificate.client.CertificateClient;
+import org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker;
+import org.apache.hadoop.ozone.container.replication.GrpcReplicationClient.DownloadInputStream;
+import org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.hadoop.hdds.utils.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,8 +60,9 @@
  * Simple ContainerDownloaderImplementation to download the missing container
  * from the first available datanode.
  * <p>
- * This is not the most effective implementation as it uses only one source
- * for he container download.
+ * When streamed, containers above a size threshold are split into
+ * partitions downloaded from multiple sources in parallel, see
+ * {@link TarContainerPacker}.
  */
 public class SimpleContainerDownloader implements ContainerDownloader {
 
@@ -51,11 +71,23 @@ public class SimpleContainerDownloader implements ContainerDownloader {
 
   private final SecurityConfig securityConfig;
   private final CertificateClient certClient;
+  private final int parallelSources;
+  private final long parallelMinContainerSize;
+  private final ExecutorService partitionExecutor;
 
   public SimpleContainerDownloader(
       ConfigurationSource conf, CertificateClient certClient) {
     securityConfig = new SecurityConfig(conf);
     this.certClient = certClient;
+    ReplicationConfig replicationConfig =
+        conf.getObject(ReplicationConfig.class);
+    parallelSources = replicationConfig.getParallelSources();
+    parallelMinContainerSize = replicationConfig.getParallelMinContainerSize();
+    partitionExecutor = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("ContainerPartitionDownloader-%d")
+            .build());
   }
 
   @Override
@@ -93,6 +125,216 @@ public Path getContainerDataFromReplicas(
     return null;
   }
 
+  @Override
+  public long streamContainerDataFromReplicas(long containerId,
+      List<DatanodeDetails> sourceDatanodes, Path downloadDir,
+      CopyContainerCompression compression,
+      ContainerStreamConsumer consumer) throws IOException {
+
+    final List<DatanodeDetails> shuffledDatanodes =
+        shuffleDatanodes(sourceDatanodes);
+    final int maxPartitions =
+        Math.min(parallelSources, shuffledDatanodes.size());
+
+    Exception lastError = null;
+    boolean singleSource = false;
+    for (int i = 0; i < shuffledDatanodes.size(); i++) {
+      DatanodeDetails datanode = shuffledDatanodes.get(i);
+      GrpcReplicationClient client = null;
+      int partitionCount = 1;
+      try {
+        client = createReplicationClient(datanode, compression);
+        InputStream stream = null;
+        if (maxPartitions > 1 && !singleSource) {
+          // The source reports the size of the container in the first
+          // response. Sources which do not support partitions send the whole
+          // container without reporting it.
+          DownloadInputStream first =
+              streamPartition(client, containerId, 0, maxPartitions);
+          long size;
+          try {
+            size = first.getContainerSize();
+          } catch (IOException e) {
+            first.close();
+            throw e;
+          }
+          if (size >= parallelMinContainerSize) {
+            stream = first;
+            partitionCount = maxPartitions;
+          } else {
+            first.close();
+            LOG.debug("Container {} of size {} is downloaded from a " +
+                "single source", containerId, size);
+          }
+        }
+        if (stream == null) {
+          stream = streamContainer(client, containerId);
+        }
+
+        // Sources which were not tried yet come first
+        List<DatanodeDetails> others = new ArrayList<>(
+            shuffledDatanodes.subList(i + 1, shuffledDatanodes.size()));
+        others.addAll(shuffledDatanodes.subList(0, i));
+        try (CountingInputStream input = new CountingInputStream(stream);
+             PartitionDownloads partitions = new PartitionDownloads(
+                 containerId, partitionCount, datanode, others, downloadDir,
+                 compression)) {
+          consumer.accept(input, partitions.getFutures());
+          // The consumer may stop before the padding at the end of the
+          // archive, which is read to complete the download normally.
+          try {
+            ByteStreams.exhaust(input);
+          } catch (IOException e) {
+            LOG.debug("Failed to read the end of container {} from {}",
+                containerId, datanode, e);
+          }
+          long bytes = input.getCount() + partitions.getBytes();
+          LOG.info("Container {} is downloaded from {} in {} partition(s), " +
+              "{} bytes", containerId, datanode, partitionCount, bytes);
+          return bytes;
+        }
+      } catch (InterruptedIOException e) {
+        logError(e, containerId, datanode, i, shuffledDatanodes.size());
+        Thread.currentThread().interrupt();
+        throw e;
+      } catch (Exception e) {
+        if (partitionCount > 1 && isPartitionMismatch(e)) {
+          // Other replicas do not have the same chunk files as this one,
+          // so download all of them from this one.
+          LOG.warn("Partitions of container {} do not match the replica " +
+              "of {}, downloading it from a single source", containerId,
+              datanode, e);
+          singleSource = true;
+          i--;
+        } else {
+          logError(e, containerId, datanode, i, shuffledDatanodes.size());
+        }
+        lastError = e;
+      } finally {
+        IOUtils.close(LOG, client);
+      }
+    }
+    throw new IOException("Container " + containerId +
+        " could not be downloaded from any datanode", lastError);
+  }
+
+  private static boolean isPartitionMismatch(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof TarContainerPacker.PartitionMismatchException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Downloads of partitions 1 and above of a container in parallel, each
+   * extracted to its own directory. Each partition is downloaded from a
+   * different source first, falling back to the other sources and finally
+   * to the source of partition 0. Closing cancels the downloads still in
+   * progress and removes the directories.
+   */
+  private final class PartitionDownloads implements Closeable {
+    private final long containerId;
+    private final CopyContainerCompression compression;
+    private final List<CompletableFuture<Path>> futures = new ArrayList<>();
+    private final List<Path> dirs = new ArrayList<>();
+    private final Set<DownloadInputStream> active =
+        ConcurrentHashMap.newKeySet();
+    private final AtomicLong bytes = new AtomicLong();
+    private volatile boolean cancelled;
+
+    PartitionDownloads(long containerId, int partitionCount,
+        DatanodeDetails first, List<DatanodeDetails> others, Path downloadDir,
+        CopyContainerCompression compression) {
+      this.containerId = containerId;
+      this.compression = compression;
+      for (int p = 1; p < partitionCount; p++) {
+        List<DatanodeDetails> sources = new ArrayList<>();
+        for (int k = 0; k < others.size(); k++) {
+          sources.add(others.get((p - 1 + k) % others.size()));
+        }
+        sources.add(first);
+        Path dir = downloadDir.resolve(containerId + "-part-" + p);
+        dirs.add(dir);
+        int partition = p;
+        futures.add(CompletableFuture.supplyAsync(
+            () -> download(partition, partitionCount, sources, dir),
+            partitionExecutor));
+      }
+    }
+
+    List<CompletableFuture<Path>> getFutures() {
+      return futures;
+    }
+
+    long getBytes() {
+      return bytes.get();
+    }
+
+    private Path download(int partition, int partitionCount,
+        List<DatanodeDetails> sources, Path dir) {
+      Exception lastError = null;
+      for (DatanodeDetails datanode : sources) {
+        if (cancelled) {
+          break;
+        }
+        GrpcReplicationClient client = null;
+        DownloadInputStream stream = null;
+        try {
+          FileUtils.deleteDirectory(dir.toFile());
+          Files.createDirectories(dir);
+          client = createReplicationClient(datanode, compression);
+          stream = streamPartition(client, containerId, partition,
+              partitionCount);
+          active.add(stream);
+          if (cancelled) {
+            stream.cancel();
+          }
+          try (CountingInputStream input = new CountingInputStream(stream)) {
+            new TarContainerPacker(compression).unpackPartition(input, dir);
+            try {
+              ByteStreams.exhaust(input);
+            } catch (IOException e) {
+              LOG.debug("Failed to read the end of partition {} of " +
+                  "container {} from {}", partition, containerId, datanode, e);
+            }
+            bytes.addAndGet(input.getCount());
+          }
+          LOG.info("Partition {} of container {} is downloaded from {}",
+              partition, containerId, datanode);
+          return dir;
+        } catch (Exception e) {
+          LOG.warn("Failed to download partition {} of container {} from {}",
+              partition, containerId, datanode, e);
+          lastError = e;
+        } finally {
+          if (stream != null) {
+            active.remove(stream);
+          }
+          IOUtils.close(LOG, client);
+        }
+      }
+      throw new CompletionException(new IOException("Partition " + partition
+          + " of container " + containerId +
+          " could not be downloaded from any datanode", lastError));
+    }
+
+    @Override
+    public void close() {
+      cancelled = true;
+      active.forEach(DownloadInputStream::cancel);
+      for (CompletableFuture<Path> future : futures) {
+        try {
+          future.join();
+        } catch (CompletionException | CancellationException e) {
+          // already reported to the consumer
+        }
+      }
+      dirs.forEach(dir -> FileUtils.deleteQuietly(dir.toFile()));
+    }
+  }
+
   private static void logError(Exception e,
       long containerId, DatanodeDetails datanode, int datanodeIndex,
       int shuffledDatanodesSize) {
@@ -135,8 +377,20 @@ protected CompletableFuture<Path> downloadContainer(
     return client.download(containerId, downloadDir);
   }
 
+  @VisibleForTesting
+  protected InputStream streamContainer(GrpcReplicationClient client,
+      long containerId) {
+    return client.download(containerId);
+  }
+
+  @VisibleForTesting
+  protected DownloadInputStream streamPartition(GrpcReplicationClient client,
+      long containerId, int partitionIndex, int partitionCount) {
+    return client.download(containerId, partitionIndex, partitionCount);
+  }
+
   @Override
   public void close() {
-    // noop
+    partitionExecutor.shutdownNow();
   }
 }
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.protocol;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Digests of the replicas of a datanode in ranges of container IDs, sent in
+ * container reports so that SCM only processes the ranges which changed.
+ * <p>
+ * The digest of a range is the sum of the hashes of its replicas, so it does
+ * not depend on their order. A replica is hashed over the fields SCM keeps
+ * for it, leaving out counters like readCount, which change without
+ * affecting the replica in SCM.
+ */
+public final class ContainerRangeDigests {
+
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private ContainerRangeDigests() {
+  }
+
+  public static long getRange(long containerId, long rangeSize) {
+    return containerId / rangeSize;
+  }
+
+  public static long digest(ContainerReplicaProto replica) {
+    final Hasher hasher = HASH.newHasher()
+        .putLong(replica.getContainerID())
+        .putInt(replica.getState().getNumber())
+        .putLong(replica.getSize())
+        .putLong(replica.getUsed())
+        .putLong(replica.getKeyCount())
+        .putLong(replica.getDeleteTransactionId())
+        .putLong(replica.getBlockCommitSequenceId())
+        .putInt(replica.getReplicaIndex())
+        .putBoolean(replica.getIsEmpty());
+    if (replica.hasOriginNodeId()) {
+      hasher.putString(replica.getOriginNodeId(), UTF_8);
+    }
+    return hasher.hash().asLong();
+  }
+
+  /**
+   * @return the digest of each range with replicas, by range
+   */
+  public static Map<Long, Long> compute(
+      Iterable<ContainerReplicaProto> replicas, long rangeSize) {
+    final Map<Long, Long> digests = new TreeMap<>();
+    for (ContainerReplicaProto replica : replicas) {
+      digests.merge(getRange(replica.getContainerID(), rangeSize),
+          digest(replica), Long::sum);
+    }
+    return digests;
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.protocol.commands;
+
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SCMCommandProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SendContainerReportCommandProto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Asks datanode to send a container report including the replicas of the
+ * given ranges of container IDs.
+ */
+public class SendContainerReportCommand
+    extends SCMCommand<SendContainerReportCommandProto> {
+
+  private final List<Long> ranges;
+
+  public SendContainerReportCommand(Collection<Long> ranges) {
+    super();
+    this.ranges = new ArrayList<>(ranges);
+  }
+
+  private SendContainerReportCommand(long cmdId, Collection<Long> ranges) {
+    super(cmdId);
+    this.ranges = new ArrayList<>(ranges);
+  }
+
+  /**
+   * Returns the type of this command.
+   *
+   * @return Type
+   */
+  @Override
+  public SCMCommandProto.Type getType() {
+    return SCMCommandProto.Type.sendContainerReportCommand;
+  }
+
+  @Override
+  public SendContainerReportCommandProto getProto() {
+    return SendContainerReportCommandProto.newBuilder()
+        .setCmdId(getId())
+        .addAllRanges(ranges)
+        .build();
+  }
+
+  public List<Long> getRanges() {
+    return ranges;
+  }
+
+  public static SendContainerReportCommand getFromProtobuf(
+      SendContainerReportCommandProto sendContainerReportProto) {
+    Preconditions.checkNotNull(sendContainerReportProto);
+    return new SendContainerReportCommand(sendContainerReportProto.getCmdId(),
+        sendContainerReportProto.getRangesList());
+  }
+
+  @Override
+  public String toString() {
+    return getType() + ": cmdID: " + getId() + ", ranges: " + ranges.size();
+  }
+}
@@ -667,6 +667,59 @@ public void testBlockDeletion() throws Exception {
     svc.shutdown();
   }
 
+  @Test
+  public void testRangeDeleteOfAdjacentBlocks() throws Exception {
+    Assume.assumeFalse(isSameSchemaVersion(schemaVersion, SCHEMA_V1));
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    dnConf.setBlockDeletionLimit(10);
+    dnConf.setBlockDeletingRangeDeleteThreshold(2);
+    this.blockLimitPerInterval = dnConf.getBlockDeletionLimit();
+    conf.setFromObject(dnConf);
+    ContainerSet containerSet = new ContainerSet(1000);
+    KeyValueContainerData data = createToDeleteBlocks(containerSet, 10, 1);
+    ContainerMetrics metrics = ContainerMetrics.create(conf);
+    KeyValueHandler keyValueHandler =
+        new KeyValueHandler(conf, datanodeUuid, containerSet, volumeSet,
+            metrics, c -> {
+        });
+    BlockDeletingServiceTestImpl svc =
+        getBlockDeletingService(containerSet, conf, keyValueHandler);
+    svc.start();
+    GenericTestUtils.waitFor(svc::isStarted, 100, 3000);
+    BlockDeletingServiceMetrics deletingServiceMetrics = svc.getMetrics();
+    long rangeDeleteCount = deletingServiceMetrics.getRangeDeleteCount();
+    KeyPrefixFilter filter = data.getUnprefixedKeyFilter();
+
+    try (DBHandle meta = BlockUtils.getDB(data, conf)) {
+      // A block not to be deleted, whose key sorts between the 5th and the
+      // 6th of the blocks to delete
+      List<String> keys = new ArrayList<>();
+      try (BlockIterator<BlockData> iterator = meta.getStore()
+          .getBlockIterator(data.getContainerID(), filter)) {
+        while (iterator.hasNext()) {
+          keys.add(data.getBlockKey(iterator.nextBlock().getLocalID()));
+        }
+      }
+      Assert.assertEquals(10, keys.size());
+      long liveLocalID = Long.parseLong(keys.get(4).substring(
+          data.containerPrefix().length())) * 10;
+      meta.getStore().getBlockDataTable().put(data.getBlockKey(liveLocalID),
+          new BlockData(new BlockID(data.getContainerID(), liveLocalID)));
+
+      deleteAndWait(svc, 1);
+      GenericTestUtils.waitFor(() -> data.getBytesUsed() == 0, 100, 3000);
+
+      // Blocks on both sides of the live block are deleted by a range each
+      assertBlockDataTableRecordCount(1, meta, filter, data.getContainerID());
+      Assert.assertNotNull(meta.getStore().getBlockDataTable()
+          .get(data.getBlockKey(liveLocalID)));
+      Assert.assertEquals(2,
+          deletingServiceMetrics.getRangeDeleteCount() - rangeDeleteCount);
+      Assert.assertEquals(0, getUnderDeletionBlocksCount(meta, data));
+    }
+    svc.shutdown();
+  }
+
   @Test
   public void testWithUnrecordedBlocks() throws Exception {
     // Skip schemaV1, when markBlocksForDeletionSchemaV1, the unrecorded blocks
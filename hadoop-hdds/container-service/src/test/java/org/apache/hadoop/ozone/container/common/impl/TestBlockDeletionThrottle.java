@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.impl;
+
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.ozone.test.TestClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests {@link BlockDeletionThrottle}.
+ */
+public class TestBlockDeletionThrottle {
+
+  private static final int LIMIT = 1000;
+
+  private final TestClock clock = TestClock.newInstance();
+  private final DatanodeConfiguration dnConf = new DatanodeConfiguration();
+  private BlockDeletionThrottle throttle;
+  private HddsVolume busy;
+  private HddsVolume idle;
+  private HddsVolume normal;
+  private List<HddsVolume> volumes;
+
+  @BeforeEach
+  public void setup() {
+    dnConf.setBlockDeletingLatencyThreshold(Duration.ofMillis(20));
+    dnConf.setBlockDeletingIdleIops(10);
+    dnConf.setBlockDeletingIdleLimitMultiplier(4);
+    throttle = new BlockDeletionThrottle(dnConf, clock);
+    busy = volume();
+    idle = volume();
+    normal = volume();
+    volumes = Arrays.asList(busy, idle, normal);
+  }
+
+  @Test
+  public void testEvenShareAtFirstInterval() {
+    Map<HddsVolume, Integer> limits = throttle.getVolumeLimits(volumes, LIMIT);
+    for (HddsVolume volume : volumes) {
+      assertEquals(334, limits.get(volume));
+    }
+    assertEquals(0, throttle.getThrottledVolumeCount());
+  }
+
+  @Test
+  public void testShareAdaptsToLoad() {
+    throttle.getVolumeLimits(volumes, LIMIT);
+
+    Map<HddsVolume, Integer> limits = null;
+    for (int i = 0; i < 3; i++) {
+      clock.fastForward(1000);
+      // 100 ops per second at 50ms, 100 ops at 1ms, 1 op
+      addOps(busy, 100, 5000);
+      addOps(normal, 100, 100);
+      addOps(idle, 1, 1);
+      limits = throttle.getVolumeLimits(volumes, LIMIT);
+    }
+    assertEquals(Math.round(334 / 8.0), (long) limits.get(busy));
+    assertEquals(334 * 4, limits.get(idle));
+    assertEquals(334, limits.get(normal));
+    assertEquals(1, throttle.getThrottledVolumeCount());
+
+    // Busy volume recovers gradually once its latency drops
+    clock.fastForward(1000);
+    addOps(busy, 100, 100);
+    addOps(normal, 100, 100);
+    addOps(idle, 100, 100);
+    limits = throttle.getVolumeLimits(volumes, LIMIT);
+    assertTrue(limits.get(busy) > 334 / 8 + 1);
+    assertTrue(limits.get(busy) < 334);
+    assertEquals(334, limits.get(idle));
+  }
+
+  @Test
+  public void testQueuedRequestsSlowDownDeletion() {
+    dnConf.setChunkIOThreadsPerVolume(2);
+    throttle.getVolumeLimits(volumes, LIMIT);
+
+    clock.fastForward(1000);
+    addOps(busy, 100, 100);
+    when(busy.getVolumeIOStats().getChunkIOQueueDepth()).thenReturn(10L);
+    addOps(normal, 100, 100);
+    addOps(idle, 100, 100);
+    Map<HddsVolume, Integer> limits = throttle.getVolumeLimits(volumes, LIMIT);
+    assertEquals(167, limits.get(busy));
+    assertEquals(334, limits.get(normal));
+  }
+
+  @Test
+  public void testRemovedVolumeIsForgotten() {
+    throttle.getVolumeLimits(volumes, LIMIT);
+    clock.fastForward(1000);
+    addOps(busy, 100, 5000);
+    throttle.getVolumeLimits(volumes, LIMIT);
+    assertEquals(1, throttle.getThrottledVolumeCount());
+
+    Map<HddsVolume, Integer> limits = throttle.getVolumeLimits(
+        Arrays.asList(idle, normal), LIMIT);
+    assertEquals(2, limits.size());
+    // Twice the even share of 500, as it was idle
+    assertEquals(1000, limits.get(idle));
+    assertEquals(0, throttle.getThrottledVolumeCount());
+  }
+
+  private static HddsVolume volume() {
+    HddsVolume volume = mock(HddsVolume.class);
+    VolumeIOStats stats = mock(VolumeIOStats.class);
+    when(volume.getVolumeIOStats()).thenReturn(stats);
+    return volume;
+  }
+
+  private static void addOps(HddsVolume volume, long ops, long time) {
+    VolumeIOStats stats = volume.getVolumeIOStats();
+    long readOps = stats.getReadOpCount() + ops;
+    long readTime = stats.getReadTime() + time;
+    when(stats.getReadOpCount()).thenReturn(readOps);
+    when(stats.getReadTime()).thenReturn(readTime);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.container.common.report;
+
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerRangeDigestProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
+import org.apache.ozone.test.TestClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests {@link ContainerReportDigester}.
+ */
+public class TestContainerReportDigester {
+
+  private static final long RANGE_SIZE = 10;
+
+  private final TestClock clock = TestClock.newInstance();
+  private ContainerReportDigester digester;
+
+  @BeforeEach
+  public void setup() {
+    digester = new ContainerReportDigester(RANGE_SIZE, Duration.ofHours(1),
+        clock);
+  }
+
+  @Test
+  public void testOnlyChangedRangesReported() {
+    ContainerReportsProto first = digester.getDelta(
+        report(replica(1, 10), replica(2, 10), replica(15, 10),
+            replica(31, 10)), Collections.emptySet());
+    assertEquals(Arrays.asList(1L, 2L, 15L, 31L), containerIds(first));
+    assertEquals(Arrays.asList(0L, 1L, 3L), reportedRanges(first));
+    assertEquals(3, first.getRangeDigestsCount());
+
+    // Unchanged
+    ContainerReportsProto second = digester.getDelta(
+        report(replica(1, 10), replica(2, 10), replica(15, 10),
+            replica(31, 10)), Collections.emptySet());
+    assertEquals(Collections.emptyList(), containerIds(second));
+    assertEquals(first.getRangeDigestsList().stream()
+            .map(ContainerRangeDigestProto::getDigest)
+            .collect(Collectors.toList()),
+        second.getRangeDigestsList().stream()
+            .map(ContainerRangeDigestProto::getDigest)
+            .collect(Collectors.toList()));
+
+    // Replica 2 changed, 31 deleted and 25 added
+    ContainerReportsProto third = digester.getDelta(
+        report(replica(1, 10), replica(2, 20), replica(15, 10),
+            replica(25, 10)), Collections.emptySet());
+    assertEquals(Arrays.asList(1L, 2L, 25L), containerIds(third));
+    assertEquals(Arrays.asList(0L, 2L), reportedRanges(third));
+    assertEquals(3, third.getRangeDigestsCount());
+  }
+
+  @Test
+  public void testRequestedRangesReported() {
+    ContainerReportsProto report = report(replica(1, 10), replica(15, 10));
+    digester.getDelta(report, Collections.emptySet());
+
+    ContainerReportsProto requested = digester.getDelta(report,
+        Collections.singleton(1L));
+    assertEquals(Collections.singletonList(15L), containerIds(requested));
+  }
+
+  @Test
+  public void testAllRangesReportedAfterCompleteInterval() {
+    ContainerReportsProto report = report(replica(1, 10), replica(15, 10));
+    digester.getDelta(report, Collections.emptySet());
+
+    clock.fastForward(Duration.ofMinutes(59));
+    assertEquals(Collections.emptyList(),
+        containerIds(digester.getDelta(report, Collections.emptySet())));
+
+    clock.fastForward(Duration.ofMinutes(1));
+    assertEquals(Arrays.asList(1L, 15L),
+        containerIds(digester.getDelta(report, Collections.emptySet())));
+    assertEquals(Collections.emptyList(),
+        containerIds(digester.getDelta(report, Collections.emptySet())));
+  }
+
+  @Test
+  public void testCompleteReport() {
+    ContainerReportsProto report = report(replica(1, 10), replica(15, 10));
+    digester.getDelta(report, Collections.emptySet());
+
+    ContainerReportsProto complete = digester.getComplete(report);
+    assertEquals(Arrays.asList(1L, 15L), containerIds(complete));
+    assertEquals(Arrays.asList(0L, 1L), reportedRanges(complete));
+    // The next report is still relative to the previous delta
+    assertEquals(Collections.emptyList(),
+        containerIds(digester.getDelta(report, Collections.emptySet())));
+  }
+
+  private static ContainerReportsProto report(
+      ContainerReplicaProto... replicas) {
+    return ContainerReportsProto.newBuilder()
+        .addAllReports(Arrays.asList(replicas))
+        .build();
+  }
+
+  private static ContainerReplicaProto replica(long containerId, long used) {
+    return ContainerReplicaProto.newBuilder()
+        .setContainerID(containerId)
+        .setState(ContainerReplicaProto.State.CLOSED)
+        .setUsed(used)
+        .setKeyCount(1)
+        .setBlockCommitSequenceId(1)
+        // Not part of the digest
+        .setReadCount(used)
+        .build();
+  }
+
+  private static List<Long> containerIds(ContainerReportsProto report) {
+    return report.getReportsList().stream()
+        .map(ContainerReplicaProto::getContainerID)
+        .collect(Collectors.toList());
+  }
+
+  private static List<Long> reportedRanges(ContainerReportsProto report) {
+    return report.getRangeDigestsList().stream()
+        .filter(ContainerRangeDigestProto::getReported)
+        .map(ContainerRangeDigestProto::getRange)
+        .collect(Collectors.toList());
+  }
+}
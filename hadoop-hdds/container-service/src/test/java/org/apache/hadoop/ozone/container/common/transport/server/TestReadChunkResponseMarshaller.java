@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.transport.server;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ReadChunkVersion;
+import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
+import org.apache.ratis.thirdparty.io.grpc.Drainable;
+import org.apache.ratis.thirdparty.io.grpc.MethodDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.hadoop.hdds.protocol.datanode.proto.XceiverClientProtocolServiceGrpc.getSendMethod;
+import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getReadChunkResponse;
+import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getSuccessResponse;
+import static org.apache.hadoop.ozone.container.ContainerTestHelper.getReadChunkRequest;
+import static org.apache.hadoop.ozone.container.ContainerTestHelper.getTestBlockID;
+import static org.apache.hadoop.ozone.container.ContainerTestHelper.getWriteChunkRequest;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link ReadChunkResponseMarshaller}.
+ */
+public class TestReadChunkResponseMarshaller {
+
+  private static final int BUFFER_SIZE = 100 * 1024;
+  private static final int LEN = 3 * BUFFER_SIZE + 17;
+
+  private final MethodDescriptor.Marshaller<ContainerCommandResponseProto>
+      defaultMarshaller = getSendMethod().getResponseMarshaller();
+  private final ReadChunkResponseMarshaller marshaller =
+      new ReadChunkResponseMarshaller(defaultMarshaller);
+
+  @ParameterizedTest
+  @EnumSource(ReadChunkVersion.class)
+  public void testDrainReadChunkResponse(ReadChunkVersion version)
+      throws Exception {
+    for (boolean direct : new boolean[] {false, true}) {
+      ContainerCommandResponseProto response = readChunkResponse(version,
+          direct);
+
+      InputStream stream = marshaller.stream(response);
+      assertTrue(stream instanceof Drainable);
+      assertEquals(response.getSerializedSize(), stream.available());
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertEquals(response.getSerializedSize(),
+          ((Drainable) stream).drainTo(out));
+      assertEquals(0, stream.available());
+
+      byte[] bytes = out.toByteArray();
+      assertEquals(response.getSerializedSize(), bytes.length);
+      assertEquals(response, ContainerCommandResponseProto.parseFrom(bytes));
+      assertEquals(response, marshaller.parse(
+          defaultMarshaller.stream(response)));
+    }
+  }
+
+  @Test
+  public void testReadWithoutDrain() throws Exception {
+    ContainerCommandResponseProto response =
+        readChunkResponse(ReadChunkVersion.V1, true);
+
+    byte[] bytes = IOUtils.toByteArray(marshaller.stream(response));
+    assertArrayEquals(response.toByteArray(), bytes);
+  }
+
+  @Test
+  public void testOtherResponsesUseDefault() throws Exception {
+    ContainerCommandResponseProto response = getSuccessResponse(
+        readChunkRequest(ReadChunkVersion.V1));
+    InputStream stream = marshaller.stream(response);
+    assertFalse(stream.getClass().getName().startsWith(
+        ReadChunkResponseMarshaller.class.getName()));
+    assertArrayEquals(response.toByteArray(), IOUtils.toByteArray(stream));
+  }
+
+  private static ContainerCommandResponseProto readChunkResponse(
+      ReadChunkVersion version, boolean direct) throws Exception {
+    byte[] data = RandomUtils.nextBytes(LEN);
+    List<ByteBuffer> buffers = new ArrayList<>();
+    for (int pos = 0; pos < LEN; pos += BUFFER_SIZE) {
+      int n = Math.min(BUFFER_SIZE, LEN - pos);
+      ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(n)
+          : ByteBuffer.allocate(n);
+      buffer.put(data, pos, n).flip();
+      buffers.add(buffer);
+    }
+    return getReadChunkResponse(readChunkRequest(version),
+        ChunkBuffer.wrap(buffers), UnsafeByteOperations::unsafeWrap);
+  }
+
+  private static ContainerCommandRequestProto readChunkRequest(
+      ReadChunkVersion version) throws Exception {
+    Pipeline pipeline = MockPipeline.createSingleNodePipeline();
+    BlockID blockID = getTestBlockID(1);
+    ContainerCommandRequestProto request = getReadChunkRequest(pipeline,
+        getWriteChunkRequest(pipeline, blockID, LEN).getWriteChunk());
+    return request.toBuilder()
+        .setReadChunk(request.getReadChunk().toBuilder()
+            .setReadChunkVersion(version))
+        .build();
+  }
+}
@@ -33,6 +33,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
@@ -75,6 +76,8 @@ public class TestTarContainerPacker {
 
   private static final String TEST_DESCRIPTOR_FILE_CONTENT = "descriptor";
 
+  private final CopyContainerCompression compression;
+
   private TarContainerPacker packer;
 
   private static final Path SOURCE_CONTAINER_ROOT =
@@ -98,6 +101,7 @@ public TestTarContainerPacker(ContainerTestVersionInfo versionInfo,
     this.schemaVersion = versionInfo.getSchemaVersion();
     this.conf = new OzoneConfiguration();
     ContainerTestVersionInfo.setTestSchemaVersion(schemaVersion, conf);
+    this.compression = compression;
     packer = new TarContainerPacker(compression);
 
   }
@@ -328,6 +332,203 @@ public void unpackContainerDataWithInvalidRelativeChunkFilePath()
         () -> unpackContainerData(containerFile));
   }
 
+  @Test
+  public void packAndUnpackPartitions() throws Exception {
+    //GIVEN
+    KeyValueContainerData sourceContainerData =
+        createContainer(SOURCE_CONTAINER_ROOT);
+    KeyValueContainer sourceContainer =
+        new KeyValueContainer(sourceContainerData, conf);
+    writeDbFile(sourceContainerData, TEST_DB_FILE_NAME);
+    List<String> chunkFiles = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      String fileName = TEST_CHUNK_FILE_NAME + "_" + i;
+      writeChunkFile(sourceContainerData, fileName);
+      chunkFiles.add(fileName);
+    }
+    writeDescriptor(sourceContainer);
+
+    //WHEN: pack each partition from its own packer
+    int partitionCount = 3;
+    List<Path> archives = new ArrayList<>();
+    for (int i = 0; i < partitionCount; i++) {
+      Path archive = TEMP_DIR.resolve("partition-" + i + ".tar");
+      try (OutputStream output = newOutputStream(archive)) {
+        new TarContainerPacker(compression, i, partitionCount)
+            .pack(sourceContainer, output);
+      }
+      archives.add(archive);
+    }
+
+    //THEN: only partition 0 carries the metadata
+    for (int i = 1; i < partitionCount; i++) {
+      try (InputStream input = newInputStream(archives.get(i))) {
+        assertThrows(IOException.class,
+            () -> packer.unpackContainerDescriptor(input));
+      }
+    }
+
+    List<CompletableFuture<Path>> otherPartitions = new ArrayList<>();
+    for (int i = 1; i < partitionCount; i++) {
+      Path dir = TEMP_DIR.resolve(sourceContainerData.getContainerID()
+          + "-part-" + i);
+      try (InputStream input = newInputStream(archives.get(i))) {
+        packer.unpackPartition(input, dir);
+      }
+      otherPartitions.add(CompletableFuture.completedFuture(dir));
+    }
+
+    KeyValueContainerData dest = createContainer(DEST_CONTAINER_ROOT, false);
+    KeyValueContainer destContainer = new KeyValueContainer(dest, conf);
+    String descriptor;
+    try (InputStream input = newInputStream(archives.get(0))) {
+      descriptor = new String(
+          new TarContainerPacker(compression, otherPartitions)
+              .unpackContainerData(destContainer, input, TEMP_DIR,
+                  DEST_CONTAINER_ROOT.resolve(
+                      String.valueOf(dest.getContainerID()))),
+          UTF_8);
+    }
+
+    Assert.assertEquals(TEST_DESCRIPTOR_FILE_CONTENT, descriptor);
+    assertExampleMetadataDbIsGood(TarContainerPacker.getDbPath(dest),
+        TEST_DB_FILE_NAME);
+    for (String fileName : chunkFiles) {
+      assertExampleChunkFileIsGood(Paths.get(dest.getChunksPath()),
+          fileName);
+    }
+  }
+
+  @Test
+  public void unpackPartitionWithChecksumMismatch() throws Exception {
+    //GIVEN
+    KeyValueContainerData sourceContainerData =
+        createContainer(SOURCE_CONTAINER_ROOT);
+    File file = writeChunkFile(sourceContainerData, TEST_CHUNK_FILE_NAME);
+
+    File targetFile = TEMP_DIR.resolve("partition.tar").toFile();
+    try (FileOutputStream output = new FileOutputStream(targetFile);
+         OutputStream compressed = packer.compress(output);
+         TarArchiveOutputStream archive =
+             new TarArchiveOutputStream(compressed)) {
+      TarContainerPacker.includeFile(file,
+          TarContainerPacker.CHUNKS_DIR_NAME + "/" + TEST_CHUNK_FILE_NAME,
+          archive);
+      byte[] checksums = (TEST_CHUNK_FILE_NAME + " 1234\n").getBytes(UTF_8);
+      TarArchiveEntry entry =
+          new TarArchiveEntry(TarContainerPacker.CHECKSUMS_FILE_NAME);
+      entry.setSize(checksums.length);
+      archive.putArchiveEntry(entry);
+      archive.write(checksums);
+      archive.closeArchiveEntry();
+    }
+
+    //WHEN-THEN
+    Path dir = TEMP_DIR.resolve(sourceContainerData.getContainerID()
+        + "-part-1");
+    try (InputStream input = new FileInputStream(targetFile)) {
+      IOException e = assertThrows(IOException.class,
+          () -> packer.unpackPartition(input, dir));
+      Assert.assertTrue(e.getMessage().contains("Checksum mismatch"));
+    }
+  }
+
+  @Test
+  public void mergePartitionsDeletesChunkFilesNotInPartition0()
+      throws Exception {
+    //GIVEN
+    KeyValueContainerData sourceContainerData =
+        createContainer(SOURCE_CONTAINER_ROOT);
+    KeyValueContainer sourceContainer =
+        new KeyValueContainer(sourceContainerData, conf);
+    writeDbFile(sourceContainerData, TEST_DB_FILE_NAME);
+    writeChunkFile(sourceContainerData, chunkFileOfPartition(1, 2, 0));
+    writeDescriptor(sourceContainer);
+    Path first = packPartition(sourceContainer, 0, 2);
+
+    //WHEN: the source of partition 1 has a chunk file of a block deleted
+    // from the source of partition 0
+    String extra = chunkFileOfPartition(1, 2, 1);
+    writeChunkFile(sourceContainerData, extra);
+    Path second = packPartition(sourceContainer, 1, 2);
+    KeyValueContainerData dest = unpackPartitions(first, second);
+
+    //THEN
+    assertExampleChunkFileIsGood(Paths.get(dest.getChunksPath()),
+        chunkFileOfPartition(1, 2, 0));
+    Assert.assertFalse(
+        Files.exists(Paths.get(dest.getChunksPath()).resolve(extra)));
+  }
+
+  @Test
+  public void mergePartitionsWithMissingChunkFile() throws Exception {
+    //GIVEN
+    KeyValueContainerData sourceContainerData =
+        createContainer(SOURCE_CONTAINER_ROOT);
+    KeyValueContainer sourceContainer =
+        new KeyValueContainer(sourceContainerData, conf);
+    writeDbFile(sourceContainerData, TEST_DB_FILE_NAME);
+    File chunkFile = writeChunkFile(sourceContainerData,
+        chunkFileOfPartition(1, 2, 0));
+    writeDescriptor(sourceContainer);
+    Path first = packPartition(sourceContainer, 0, 2);
+
+    //WHEN: the source of partition 1 does not have a chunk file of
+    // partition 0
+    Files.delete(chunkFile.toPath());
+    Path second = packPartition(sourceContainer, 1, 2);
+
+    //THEN
+    assertThrows(TarContainerPacker.PartitionMismatchException.class,
+        () -> unpackPartitions(first, second));
+  }
+
+  /**
+   * @return the name of the n-th chunk file which belongs to the partition
+   */
+  private static String chunkFileOfPartition(int partition,
+      int partitionCount, int n) {
+    int found = 0;
+    for (int i = 0;; i++) {
+      String fileName = TEST_CHUNK_FILE_NAME + "_" + i;
+      if (TarContainerPacker.getPartition(fileName, partitionCount)
+          == partition && found++ == n) {
+        return fileName;
+      }
+    }
+  }
+
+  private Path packPartition(KeyValueContainer container, int partition,
+      int partitionCount) throws IOException {
+    Path archive = TEMP_DIR.resolve(container.getContainerData()
+        .getContainerID() + "-partition-" + partition + ".tar");
+    try (OutputStream output = newOutputStream(archive)) {
+      new TarContainerPacker(compression, partition, partitionCount)
+          .pack(container, output);
+    }
+    return archive;
+  }
+
+  private KeyValueContainerData unpackPartitions(Path first, Path... others)
+      throws IOException {
+    KeyValueContainerData dest = createContainer(DEST_CONTAINER_ROOT, false);
+    List<CompletableFuture<Path>> otherPartitions = new ArrayList<>();
+    for (int i = 0; i < others.length; i++) {
+      Path dir = TEMP_DIR.resolve(dest.getContainerID() + "-part-" + (i + 1));
+      try (InputStream input = newInputStream(others[i])) {
+        packer.unpackPartition(input, dir);
+      }
+      otherPartitions.add(CompletableFuture.completedFuture(dir));
+    }
+    try (InputStream input = newInputStream(first)) {
+      new TarContainerPacker(compression, otherPartitions)
+          .unpackContainerData(new KeyValueContainer(dest, conf), input,
+              TEMP_DIR, DEST_CONTAINER_ROOT.resolve(
+                  String.valueOf(dest.getContainerID())));
+    }
+    return dest;
+  }
+
   private KeyValueContainerData unpackContainerData(File containerFile)
       throws IOException {
     try (FileInputStream input = new FileInputStream(containerFile)) {
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
+import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext.WriteChunkStage;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.ozone.container.keyvalue.ContainerLayoutTestInfo;
+import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
+import org.apache.ozone.test.GenericTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext.Op.WRITE_STATE_MACHINE_DATA;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ChunkIOEngine}, running the common chunk manager tests
+ * through the per-volume queues.
+ */
+public class TestChunkIOEngine extends CommonChunkManagerTestCases {
+
+  private final List<ChunkManager> engines = new ArrayList<>();
+
+  @Override
+  protected ContainerLayoutTestInfo getStrategy() {
+    return ContainerLayoutTestInfo.FILE_PER_BLOCK;
+  }
+
+  @Override
+  protected ChunkManager createTestSubject() {
+    return track(new ChunkIOEngine(super.createTestSubject(), 2, 4));
+  }
+
+  @AfterEach
+  public void shutdown() {
+    engines.forEach(ChunkManager::shutdown);
+  }
+
+  @Test
+  public void testReadRejectedWhenQueueFull() throws Exception {
+    CountDownLatch blocked = new CountDownLatch(1);
+    ChunkManager delegate = mock(ChunkManager.class);
+    when(delegate.readChunk(any(), any(), any(), any())).thenAnswer(inv -> {
+      blocked.await();
+      return ChunkBuffer.allocate(0);
+    });
+    ChunkIOEngine engine = track(new ChunkIOEngine(delegate, 1, 1));
+    VolumeIOStats stats = getHddsVolume().getVolumeIOStats();
+    long rejected = stats.getChunkIORejected();
+
+    CompletableFuture<ChunkBuffer> first = CompletableFuture.supplyAsync(() -> {
+      try {
+        return engine.readChunk(getKeyValueContainer(), getBlockID(),
+            getChunkInfo(), null);
+      } catch (StorageContainerException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    GenericTestUtils.waitFor(() -> stats.getChunkIOQueueDepth() == 1,
+        10, 10000);
+
+    assertThrows(StorageContainerException.class, () -> engine.readChunk(
+        getKeyValueContainer(), getBlockID(), getChunkInfo(), null));
+    assertEquals(rejected + 1, stats.getChunkIORejected());
+
+    blocked.countDown();
+    first.get();
+    assertEquals(0, stats.getChunkIOQueueDepth());
+    assertEquals(1, engine.getQueueCount());
+    assertTrue(stats.getChunkIOQueueTime() >= 0);
+  }
+
+  @Test
+  public void testAsyncWriteDoesNotBlockCaller() throws Exception {
+    CountDownLatch blocked = new CountDownLatch(1);
+    ChunkManager delegate = mock(ChunkManager.class);
+    doAnswer(inv -> {
+      blocked.await();
+      return null;
+    }).when(delegate).writeChunk(any(), any(), any(), any(), any());
+    ChunkIOEngine engine = track(new ChunkIOEngine(delegate, 1, 1));
+    VolumeIOStats stats = getHddsVolume().getVolumeIOStats();
+
+    // the second write waits for a slot, but neither holds the caller
+    DispatcherContext first = asyncWriteContext();
+    DispatcherContext second = asyncWriteContext();
+    engine.writeChunk(getKeyValueContainer(), getBlockID(), getChunkInfo(),
+        null, first);
+    engine.writeChunk(getKeyValueContainer(), getBlockID(), getChunkInfo(),
+        null, second);
+    assertEquals(2, stats.getChunkIOQueueDepth());
+    assertNotNull(first.getChunkIOFuture());
+    assertFalse(second.getChunkIOFuture().isDone());
+
+    blocked.countDown();
+    second.getChunkIOFuture().get();
+    first.getChunkIOFuture().get();
+    assertEquals(0, stats.getChunkIOQueueDepth());
+  }
+
+  @Test
+  public void testQueueOfFailedVolumeRemoved() throws Exception {
+    ChunkManager delegate = mock(ChunkManager.class);
+    ChunkIOEngine engine = track(new ChunkIOEngine(delegate, 1, 1));
+    engine.readChunk(getKeyValueContainer(), getBlockID(), getChunkInfo(),
+        null);
+    assertEquals(1, engine.getQueueCount());
+
+    getHddsVolume().failVolume();
+    engine.readChunk(getKeyValueContainer(), getBlockID(), getChunkInfo(),
+        null);
+    assertEquals(0, engine.getQueueCount());
+  }
+
+  @Test
+  public void testWritesOfBlockRunInOrder() throws Exception {
+    ChunkManager real = super.createTestSubject();
+    ChunkManager delegate = mock(ChunkManager.class);
+    List<Long> offsets = Collections.synchronizedList(new ArrayList<>());
+    doAnswer(inv -> {
+      ChunkInfo info = inv.getArgument(2);
+      offsets.add(info.getOffset());
+      real.writeChunk(inv.getArgument(0), inv.getArgument(1), info,
+          inv.getArgument(3), inv.getArgument(4));
+      return null;
+    }).when(delegate).writeChunk(any(), any(), any(), any(), any());
+    when(delegate.readChunk(any(), any(), any(), any())).thenAnswer(inv ->
+        real.readChunk(inv.getArgument(0), inv.getArgument(1),
+            inv.getArgument(2), inv.getArgument(3)));
+    // More threads than one, and writes waiting for a slot
+    ChunkIOEngine engine = track(new ChunkIOEngine(delegate, 4, 2));
+    track(real);
+
+    BlockID blockID = getBlockID();
+    int count = 20;
+    int len = 64;
+    byte[] expected = RandomUtils.nextBytes(count * len);
+    List<DispatcherContext> contexts = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ChunkInfo info = new ChunkInfo(String.format("%d.data.%d",
+          blockID.getLocalID(), i), (long) i * len, len);
+      DispatcherContext context = asyncWriteContext();
+      engine.writeChunk(getKeyValueContainer(), blockID, info,
+          ChunkBuffer.wrap(ByteBuffer.wrap(expected, i * len, len)),
+          context);
+      contexts.add(context);
+    }
+    for (DispatcherContext context : contexts) {
+      context.getChunkIOFuture().get();
+    }
+
+    List<Long> expectedOffsets = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      expectedOffsets.add((long) i * len);
+    }
+    assertEquals(expectedOffsets, offsets);
+    ChunkInfo whole = new ChunkInfo(String.format("%d.data.%d",
+        blockID.getLocalID(), 0), 0, (long) count * len);
+    ChunkBuffer read = engine.readChunk(getKeyValueContainer(), blockID,
+        whole, null);
+    assertArrayEquals(expected, read.toByteString().toByteArray());
+  }
+
+  private static DispatcherContext asyncWriteContext() {
+    return DispatcherContext.newBuilder(WRITE_STATE_MACHINE_DATA)
+        .setStage(WriteChunkStage.WRITE_DATA)
+        .setAsyncChunkIO(true)
+        .build();
+  }
+
+  private <T extends ChunkManager> T track(T engine) {
+    engines.add(engine);
+    return engine;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
+import org.apache.hadoop.ozone.common.Checksum;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link ChunkReadCache}.
+ */
+public class TestChunkReadCache {
+
+  private static final int BYTES_PER_CHECKSUM = 256;
+  private static final int LEN = 1024;
+
+  private final ChunkReadCache cache = new ChunkReadCache(4 * LEN, LEN);
+
+  @Test
+  public void testVerifiedChunkIsCached() throws Exception {
+    byte[] data = RandomUtils.nextBytes(LEN);
+    BlockID blockID = new BlockID(1, 1);
+    ChunkInfo info = chunk(data, 0);
+
+    assertNull(cache.get(blockID, info, BYTES_PER_CHECKSUM));
+    assertTrue(cache.put(blockID, info, ChunkBuffer.wrap(
+        ByteBuffer.wrap(data)), cache.getGeneration(blockID)));
+
+    ChunkBuffer cached = cache.get(blockID, info, BYTES_PER_CHECKSUM);
+    assertNotNull(cached);
+    assertEquals(LEN / BYTES_PER_CHECKSUM, cached.asByteBufferList().size());
+    assertArrayEquals(data, cached.toByteString().toByteArray());
+    // Whole chunk in a single buffer, as for old clients
+    assertEquals(1, cache.get(blockID, info, LEN).asByteBufferList().size());
+    assertEquals(2, cache.getStats().hitCount());
+
+    // Different BCSID is a different key
+    BlockID newer = new BlockID(1, 1);
+    newer.setBlockCommitSequenceId(5);
+    assertNull(cache.get(newer, info, LEN));
+  }
+
+  @Test
+  public void testUnverifiedChunkIsNotCached() throws Exception {
+    byte[] data = RandomUtils.nextBytes(LEN);
+    BlockID blockID = new BlockID(1, 1);
+    ChunkInfo info = chunk(data, 0);
+
+    byte[] corrupt = data.clone();
+    corrupt[10]++;
+    assertFalse(cache.put(blockID, info, ChunkBuffer.wrap(
+        ByteBuffer.wrap(corrupt)), cache.getGeneration(blockID)));
+
+    // Partial read of the chunk
+    ChunkInfo partial = new ChunkInfo(info.getChunkName(), 0, LEN / 2);
+    partial.setChecksumData(info.getChecksumData());
+    assertFalse(cache.put(blockID, partial, ChunkBuffer.wrap(
+        ByteBuffer.wrap(data, 0, LEN / 2)), cache.getGeneration(blockID)));
+
+    // Too large
+    byte[] large = RandomUtils.nextBytes(2 * LEN);
+    assertFalse(cache.put(blockID, chunk(large, 0), ChunkBuffer.wrap(
+        ByteBuffer.wrap(large)), cache.getGeneration(blockID)));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testInvalidate() throws Exception {
+    byte[] data = RandomUtils.nextBytes(LEN);
+    ChunkInfo info = chunk(data, 0);
+    BlockID block1 = new BlockID(1, 1);
+    BlockID block2 = new BlockID(1, 2);
+    BlockID block3 = new BlockID(2, 1);
+    for (BlockID blockID : new BlockID[] {block1, block2, block3}) {
+      assertTrue(cache.put(blockID, info, ChunkBuffer.wrap(
+          ByteBuffer.wrap(data)), cache.getGeneration(blockID)));
+    }
+    assertEquals(3, cache.size());
+
+    cache.invalidateBlock(1, 1);
+    assertNull(cache.get(block1, info, LEN));
+    assertNotNull(cache.get(block2, info, LEN));
+
+    cache.invalidateContainer(1);
+    assertNull(cache.get(block2, info, LEN));
+    assertNotNull(cache.get(block3, info, LEN));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testDataReadBeforeInvalidationNotCached() throws Exception {
+    byte[] data = RandomUtils.nextBytes(LEN);
+    ChunkInfo info = chunk(data, 0);
+    BlockID blockID = new BlockID(1, 1);
+
+    long generation = cache.getGeneration(blockID);
+    cache.invalidateBlock(1, 1);
+    assertFalse(cache.put(blockID, info, ChunkBuffer.wrap(
+        ByteBuffer.wrap(data)), generation));
+
+    generation = cache.getGeneration(blockID);
+    cache.invalidateContainer(1);
+    assertFalse(cache.put(blockID, info, ChunkBuffer.wrap(
+        ByteBuffer.wrap(data)), generation));
+    assertEquals(0, cache.size());
+
+    // Invalidating another container does not drop the put
+    generation = cache.getGeneration(blockID);
+    cache.invalidateContainer(2);
+    assertTrue(cache.put(blockID, info, ChunkBuffer.wrap(
+        ByteBuffer.wrap(data)), generation));
+    cache.invalidateBlock(1, 1);
+
+    // Data read after the invalidation is cached
+    assertTrue(cache.put(blockID, info, ChunkBuffer.wrap(
+        ByteBuffer.wrap(data)), cache.getGeneration(blockID)));
+    assertNotNull(cache.get(blockID, info, LEN));
+  }
+
+  private static ChunkInfo chunk(byte[] data, long offset) throws Exception {
+    ChunkInfo info = new ChunkInfo("chunk", offset, data.length);
+    info.setChecksumData(new Checksum(ChecksumType.CRC32, BYTES_PER_CHECKSUM)
+        .computeChecksum(data));
+    return info;
+  }
+}
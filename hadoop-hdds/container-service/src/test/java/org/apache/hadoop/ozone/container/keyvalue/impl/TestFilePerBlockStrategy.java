@@ -25,6 +25,7 @@
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.hadoop.ozone.container.ContainerTestHelper;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
 import org.apache.hadoop.ozone.container.keyvalue.ContainerLayoutTestInfo;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
@@ -32,11 +33,18 @@
 
 import java.nio.ByteBuffer;
 import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.getChunk;
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.setDataChecksum;
 import static org.apache.hadoop.ozone.container.common.ContainerTestUtils.WRITE_STAGE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -106,6 +114,46 @@ public void testMultipleWriteSingleRead() throws Exception {
         Hex.encodeHexString(newSha.digest()));
   }
 
+  @Test
+  public void testGroupCommit() throws Exception {
+    final int datalen = 1024;
+    final int writers = 8;
+    final int chunksPerWriter = 16;
+
+    KeyValueContainer container = getKeyValueContainer();
+    ChunkManager subject = new FilePerBlockStrategy(true, null, null,
+        Duration.ZERO);
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        BlockID blockID = new BlockID(getBlockID().getContainerID(), w);
+        futures.add(executor.submit(() -> {
+          for (int x = 0; x < chunksPerWriter; x++) {
+            ChunkInfo info = getChunk(blockID.getLocalID(), x,
+                (long) x * datalen, datalen);
+            ChunkBuffer data = ContainerTestHelper.getData(datalen);
+            setDataChecksum(info, data);
+            subject.writeChunk(container, blockID, info, data, WRITE_STAGE);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    VolumeIOStats stats = getHddsVolume().getVolumeIOStats();
+    assertEquals(writers * chunksPerWriter, stats.getSyncWriteCount());
+    assertTrue(stats.getSyncBatchCount() > 0);
+    assertTrue(stats.getSyncBatchCount() <= stats.getSyncFileCount());
+    assertTrue(stats.getSyncFileCount() <= stats.getSyncWriteCount());
+    checkChunkFileCount(writers);
+  }
+
   /**
    * Test partial within a single chunk.
    */
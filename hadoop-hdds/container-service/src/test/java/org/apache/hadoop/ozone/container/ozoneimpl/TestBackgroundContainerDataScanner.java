@@ -19,22 +19,36 @@
  */
 package org.apache.hadoop.ozone.container.ozoneimpl;
 
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdfs.util.Canceler;
 import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.Container.ScanResult;
+import org.apache.hadoop.ozone.container.common.utils.StorageVolumeUtil;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
 import org.apache.ozone.test.GenericTestUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.io.File;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.UNHEALTHY;
 import static org.apache.hadoop.ozone.container.common.ContainerTestUtils.getUnhealthyScanResult;
@@ -48,6 +62,7 @@
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.atMostOnce;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 /**
@@ -235,4 +250,219 @@ public void testShutdownDuringScan() throws Exception {
     verifyContainerMarkedUnhealthy(healthy, never());
 
   }
+
+  @Test
+  public void testUnchangedContainerIsSkipped() throws Exception {
+    setContainers(healthy, corruptData, openCorruptMetadata);
+    conf.setContainerScanMinGap(0);
+    restartScanner();
+    trackScanTimestamp(healthy);
+
+    scanner.runIteration();
+    scanner.runIteration();
+    // Unchanged since the first scan
+    Mockito.verify(healthy, times(1)).scanData(any(), any());
+    assertEquals(1, scanner.getMetrics().getNumUnchangedContainersSkipped());
+
+    // New blocks
+    when(healthy.getContainerData().getBlockCount()).thenReturn(10L);
+    scanner.runIteration();
+    Mockito.verify(healthy, times(2)).scanData(any(), any());
+
+    // Read errors
+    when(healthy.getContainerData().getIOErrorCount()).thenReturn(1L);
+    scanner.runIteration();
+    Mockito.verify(healthy, times(3)).scanData(any(), any());
+    // Corrupt container is never skipped
+    Mockito.verify(corruptData, times(4)).scanData(any(), any());
+  }
+
+  @Test
+  public void testOldScanOfUnchangedContainerIsRepeated() throws Exception {
+    setContainers(healthy, corruptData, openCorruptMetadata);
+    conf.setContainerScanMinGap(0);
+    conf.setDataScanUnchangedMaxAge(1);
+    restartScanner();
+    trackScanTimestamp(healthy);
+
+    scanner.runIteration();
+    Thread.sleep(10);
+    scanner.runIteration();
+    Mockito.verify(healthy, times(2)).scanData(any(), any());
+    assertEquals(0, scanner.getMetrics().getNumUnchangedContainersSkipped());
+  }
+
+  @Test
+  public void testIterationResumesAfterRestart(@TempDir File dir)
+      throws Exception {
+    when(vol.getTmpDir()).thenReturn(dir);
+    setContainers(healthy, corruptData, openCorruptMetadata);
+    conf.setContainerScanMinGap(0);
+    conf.setDataScanCheckpointInterval(0);
+    restartScanner();
+    trackScanTimestamp(healthy);
+
+    // Stopped after scanning the first container
+    Iterator<Container<?>> containers = scanner.getContainerIterator();
+    Container<?> first = containers.next();
+    assertEquals(healthy, first);
+    Thread.sleep(10);
+    scanner.scanContainer(first);
+
+    // Resumes with the next container
+    restartScanner();
+    scanner.runIteration();
+    Mockito.verify(healthy, times(1)).scanData(any(), any());
+    Mockito.verify(corruptData, times(1)).scanData(any(), any());
+
+    // Next iteration skips the healthy container, unchanged since its scan
+    restartScanner();
+    scanner.runIteration();
+    Mockito.verify(healthy, times(1)).scanData(any(), any());
+    Mockito.verify(corruptData, times(2)).scanData(any(), any());
+    assertEquals(1, scanner.getMetrics().getNumUnchangedContainersSkipped());
+  }
+
+  @Test
+  public void testCheckpointKeptOutOfVolumeRoot(@TempDir File dir)
+      throws Exception {
+    OzoneConfiguration ozoneConf = new OzoneConfiguration();
+    String clusterId = UUID.randomUUID().toString();
+    HddsVolume volume = new HddsVolume.Builder(dir.getAbsolutePath())
+        .conf(ozoneConf).datanodeUuid(UUID.randomUUID().toString())
+        .clusterID(clusterId).build();
+    assertTrue(StorageVolumeUtil.checkVolume(volume, clusterId, clusterId,
+        ozoneConf, null, null));
+    int rootFiles = volume.getHddsRootDir().list().length;
+
+    ContainerDataScanCheckpoint checkpoint =
+        ContainerDataScanCheckpoint.load(volume, 0);
+    checkpoint.startIteration(System.currentTimeMillis(),
+        Collections.singleton(1L));
+    File file = new File(volume.getTmpDir(),
+        ContainerDataScanCheckpoint.FILE_NAME);
+    assertTrue(file.exists());
+    assertEquals(rootFiles, volume.getHddsRootDir().list().length);
+
+    // The volume is still consistent on restart
+    assertTrue(StorageVolumeUtil.checkVolume(volume, clusterId, clusterId,
+        ozoneConf, null, null));
+    assertTrue(ContainerDataScanCheckpoint.load(volume, 0)
+        .getIterationStart() > 0);    volume.shutdown();
+  }
+
+  @Test
+  public void testCheckpointSavedAfterInterval(@TempDir File dir)
+      throws Exception {
+    when(vol.getTmpDir()).thenReturn(dir);
+    setContainers(healthy, corruptData);
+    conf.setContainerScanMinGap(0);
+    conf.setDataScanCheckpointInterval(Duration.ofHours(1).toMillis());
+    restartScanner();
+    trackScanTimestamp(healthy);
+
+    Iterator<Container<?>> containers = scanner.getContainerIterator();
+    Thread.sleep(10);
+    scanner.scanContainer(containers.next());
+
+    // Killed before the interval passed, the scan is not in the checkpoint
+    restartScanner();
+    scanner.runIteration();
+    restartScanner();
+    scanner.runIteration();
+    Mockito.verify(healthy, times(2)).scanData(any(), any());
+    assertEquals(0, scanner.getMetrics().getNumUnchangedContainersSkipped());
+  }
+
+  @Test
+  public void testCheckpointSavedOnShutdown(@TempDir File dir)
+      throws Exception {
+    when(vol.getTmpDir()).thenReturn(dir);
+    setContainers(healthy, corruptData);
+    conf.setContainerScanMinGap(0);
+    conf.setDataScanCheckpointInterval(Duration.ofHours(1).toMillis());
+    restartScanner();
+    trackScanTimestamp(healthy);
+
+    Iterator<Container<?>> containers = scanner.getContainerIterator();
+    Thread.sleep(10);
+    scanner.scanContainer(containers.next());
+
+    scanner.shutdown();
+    restartScanner();
+    scanner.runIteration();
+    restartScanner();
+    scanner.runIteration();
+    Mockito.verify(healthy, times(1)).scanData(any(), any());
+    assertEquals(1, scanner.getMetrics().getNumUnchangedContainersSkipped());
+  }
+
+  @Test
+  public void testSlowVolumeScansUnchangedContainers() throws Exception {
+    setContainers(healthy, corruptData, openCorruptMetadata);
+    conf.setContainerScanMinGap(0);
+    restartScanner();
+    trackScanTimestamp(healthy);
+    VolumeIOStats stats = Mockito.mock(VolumeIOStats.class);
+    when(vol.getVolumeIOStats()).thenReturn(stats);
+
+    scanner.runIteration();
+    // 1 second per operation
+    when(stats.getReadOpCount()).thenReturn(10L);
+    when(stats.getReadTime()).thenReturn(10000L);
+    scanner.runIteration();
+    Mockito.verify(healthy, times(2)).scanData(any(), any());
+    assertEquals(1, scanner.getMetrics().getNumSlowVolumeIterations());
+
+    // No I/O since the previous iteration
+    scanner.runIteration();
+    Mockito.verify(healthy, times(2)).scanData(any(), any());
+  }
+
+  @Test
+  public void testContainersScannedByRisk() throws Exception {
+    Container<?> recent = healthy;
+    setScannedTimestampOld(healthy);
+    Container<?> neverScanned = corruptData;
+    Container<?> old = mockKeyValueContainer();
+    Container<?> withErrors = mockKeyValueContainer();
+    for (Container<?> c : Arrays.asList(old, withErrors)) {
+      when(c.scanData(any(), any())).thenReturn(ScanResult.healthy());
+    }
+    when(old.getContainerData().lastDataScanTime())
+        .thenReturn(Optional.of(Instant.now().minus(Duration.ofDays(1))));
+    when(withErrors.getContainerData().lastDataScanTime())
+        .thenReturn(Optional.of(Instant.now().minus(Duration.ofHours(1))));
+    when(withErrors.getContainerData().getIOErrorCount()).thenReturn(3L);
+    setContainers(recent, neverScanned, old, withErrors);
+
+    scanner.runIteration();
+
+    InOrder inOrder = Mockito.inOrder(withErrors, neverScanned, old, recent);
+    inOrder.verify(withErrors).scanData(any(), any());
+    inOrder.verify(neverScanned).scanData(any(), any());
+    inOrder.verify(old).scanData(any(), any());
+    inOrder.verify(recent).scanData(any(), any());
+  }
+
+  private void restartScanner() {
+    scanner.getMetrics().unregister();
+    scanner = new BackgroundContainerDataScanner(conf, controller, vol);
+  }
+
+  /**
+   * Make the mock container data return the scan timestamp set by the
+   * scanner.
+   */
+  private void trackScanTimestamp(Container<?> container) throws Exception {
+    ContainerData data = container.getContainerData();
+    long containerID = data.getContainerID();
+    AtomicReference<Instant> timestamp = new AtomicReference<>();
+    when(data.lastDataScanTime())
+        .thenAnswer(i -> Optional.ofNullable(timestamp.get()));
+    Mockito.doAnswer(i -> {
+      timestamp.set(i.getArgument(1));
+      return null;
+    }).when(controller).updateDataScanTimestamp(eq(containerID), any());
+  }
 }
@@ -32,6 +32,7 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.DBHandle;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.utils.ContainerCache;
 import org.apache.hadoop.ozone.container.common.utils.StorageVolumeUtil;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
@@ -55,10 +56,13 @@
 import org.mockito.Mockito;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.CLOSED;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.DELETED;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.RECOVERING;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.UNHEALTHY;
@@ -386,6 +390,130 @@ public void testMultipleContainerReader() throws Exception {
     Assert.assertEquals(0, cache.size());
   }
 
+  @Test
+  public void testParallelContainerLoad() throws Exception {
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    dnConf.setContainerLoadThreadsPerVolume(4);
+    conf.setFromObject(dnConf);
+    ContainerScannerConfiguration scannerConf =
+        conf.getObject(ContainerScannerConfiguration.class);
+    scannerConf.setEnabled(true);
+    conf.setFromObject(scannerConf);
+
+    int closedCount = 0;
+    for (int i = 0; i < 8; i++) {
+      KeyValueContainerData containerData = new KeyValueContainerData(
+          200 + i, layout, (long) StorageUnit.GB.toBytes(5),
+          UUID.randomUUID().toString(), datanodeId.toString());
+      if (i % 2 == 0) {
+        containerData.setState(CLOSED);
+        closedCount++;
+      }
+      new KeyValueContainer(containerData, conf)
+          .create(volumeSet, volumeChoosingPolicy, clusterId);
+    }
+    BlockUtils.shutdownCache(conf);
+
+    ContainerLoadMetrics metrics = ContainerLoadMetrics.create();
+    long loaded = metrics.getContainersLoaded();
+    long deferred = metrics.getContainersChecksumDeferred();
+    long failed = metrics.getContainersFailed();
+
+    new ContainerReader(volumeSet, hddsVolume, containerSet, conf, true).run();
+
+    Assertions.assertEquals(10, containerSet.containerCount());
+    Assertions.assertEquals(loaded + 10, metrics.getContainersLoaded());
+    Assertions.assertEquals(deferred + closedCount,
+        metrics.getContainersChecksumDeferred());
+    Assertions.assertEquals(failed, metrics.getContainersFailed());
+  }
+
+  @Test
+  public void testLoadFromSnapshot() throws Exception {
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    dnConf.setContainerSnapshotEnabled(true);
+    conf.setFromObject(dnConf);
+
+    KeyValueContainerData containerData = new KeyValueContainerData(
+        300, layout, (long) StorageUnit.GB.toBytes(5),
+        UUID.randomUUID().toString(), datanodeId.toString());
+    containerData.setState(CLOSED);
+    KeyValueContainer container = new KeyValueContainer(containerData, conf);
+    container.create(volumeSet, volumeChoosingPolicy, clusterId);
+    addBlocks(container, true);
+    BlockUtils.shutdownCache(conf);
+
+    // The snapshot is stale: a block was deleted after it was written.
+    containerData.setBlockCount(blockCount + 1);
+    containerData.setBytesUsed((blockCount + 1) * blockLen);
+    ContainerIndexSnapshot.write(hddsVolume, Collections.singletonList(
+        ContainerIndexSnapshot.Entry.of(containerData)));
+
+    ContainerLoadMetrics metrics = ContainerLoadMetrics.create();
+    long fromSnapshot = metrics.getContainersLoadedFromSnapshot();
+    long mismatched = metrics.getContainersSnapshotMismatched();
+
+    ContainerReader containerReader = new ContainerReader(volumeSet,
+        hddsVolume, containerSet, conf, true);
+    containerReader.run();
+
+    Assertions.assertEquals(3, containerSet.containerCount());
+    Assertions.assertEquals(Collections.singletonList(300L),
+        containerReader.getContainersLoadedFromSnapshot());
+    Assertions.assertEquals(fromSnapshot + 1,
+        metrics.getContainersLoadedFromSnapshot());
+    KeyValueContainerData loaded = (KeyValueContainerData)
+        containerSet.getContainer(300).getContainerData();
+    Assertions.assertEquals(blockCount + 1, loaded.getBlockCount());
+
+    // Verification corrects the values from the container DB.
+    ContainerIndexSnapshot.verify(containerSet,
+        containerReader.getContainersLoadedFromSnapshot(), conf, metrics);
+    Assertions.assertEquals(blockCount, loaded.getBlockCount());
+    Assertions.assertEquals(blockCount * blockLen, loaded.getBytesUsed());
+    Assertions.assertEquals(mismatched + 1,
+        metrics.getContainersSnapshotMismatched());
+
+    // A snapshot which fails the checksum is ignored.
+    File snapshotFile = ContainerIndexSnapshot.getSnapshotFile(hddsVolume);
+    byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+    bytes[bytes.length - 1]++;
+    Files.write(snapshotFile.toPath(), bytes);
+    Assertions.assertTrue(ContainerIndexSnapshot.read(hddsVolume).isEmpty());
+  }
+
+  @Test
+  public void testRestartWithSnapshot() throws Exception {
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    dnConf.setContainerSnapshotEnabled(true);
+    conf.setFromObject(dnConf);
+
+    KeyValueContainerData containerData = new KeyValueContainerData(
+        301, layout, (long) StorageUnit.GB.toBytes(5),
+        UUID.randomUUID().toString(), datanodeId.toString());
+    containerData.setState(CLOSED);
+    KeyValueContainer container = new KeyValueContainer(containerData, conf);
+    container.create(volumeSet, volumeChoosingPolicy, clusterId);
+    addBlocks(container, true);
+    BlockUtils.shutdownCache(conf);
+    int rootFiles = hddsVolume.getHddsRootDir().list().length;
+    ContainerIndexSnapshot.write(hddsVolume, Collections.singletonList(
+        ContainerIndexSnapshot.Entry.of(containerData)));
+
+    // The snapshot does not change the layout of the volume root, which is
+    // checked again on restart.
+    Assertions.assertEquals(rootFiles,
+        hddsVolume.getHddsRootDir().list().length);
+    Assertions.assertTrue(StorageVolumeUtil.checkVolume(hddsVolume,
+        clusterId, clusterId, conf, null, null));
+
+    ContainerReader containerReader = new ContainerReader(volumeSet,
+        hddsVolume, containerSet, conf, true);
+    containerReader.run();
+    Assertions.assertEquals(Collections.singletonList(301L),
+        containerReader.getContainersLoadedFromSnapshot());
+  }
+
   @Test
   public void testMarkedDeletedContainerCleared() throws Exception {
     KeyValueContainerData containerData = new KeyValueContainerData(
@@ -28,6 +28,10 @@
 import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.CONTAINER_SCAN_MIN_GAP;
 import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.CONTAINER_SCAN_MIN_GAP_DEFAULT;
 import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.DATA_SCAN_INTERVAL_DEFAULT;
+import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.DATA_SCAN_UNCHANGED_MAX_AGE_DEFAULT;
+import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.DATA_SCAN_UNCHANGED_MAX_AGE_KEY;
+import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.DATA_SCAN_VOLUME_LATENCY_THRESHOLD_DEFAULT;
+import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.DATA_SCAN_VOLUME_LATENCY_THRESHOLD_KEY;
 import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.DATA_SCAN_INTERVAL_KEY;
 import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.METADATA_SCAN_INTERVAL_DEFAULT;
 import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.METADATA_SCAN_INTERVAL_KEY;
@@ -60,6 +64,8 @@ public void acceptsValidValues() {
     conf.setLong(CONTAINER_SCAN_MIN_GAP, validInterval);
     conf.setLong(VOLUME_BYTES_PER_SECOND_KEY, validBandwidth);
     conf.setLong(ON_DEMAND_VOLUME_BYTES_PER_SECOND_KEY, validOnDemandBandwidth);
+    conf.setLong(DATA_SCAN_UNCHANGED_MAX_AGE_KEY, validInterval);
+    conf.setLong(DATA_SCAN_VOLUME_LATENCY_THRESHOLD_KEY, 0);
 
     ContainerScannerConfiguration csConf =
         conf.getObject(ContainerScannerConfiguration.class);
@@ -70,6 +76,8 @@ public void acceptsValidValues() {
     assertEquals(validBandwidth, csConf.getBandwidthPerVolume());
     assertEquals(validOnDemandBandwidth,
         csConf.getOnDemandBandwidthPerVolume());
+    assertEquals(validInterval, csConf.getDataScanUnchangedMaxAge());
+    assertEquals(0, csConf.getDataScanVolumeLatencyThreshold());
   }
 
   @Test
@@ -82,6 +90,8 @@ public void overridesInvalidValues() {
     conf.setLong(CONTAINER_SCAN_MIN_GAP, invalidInterval);
     conf.setLong(VOLUME_BYTES_PER_SECOND_KEY, invalidBandwidth);
     conf.setLong(ON_DEMAND_VOLUME_BYTES_PER_SECOND_KEY, invalidBandwidth);
+    conf.setLong(DATA_SCAN_UNCHANGED_MAX_AGE_KEY, invalidInterval);
+    conf.setLong(DATA_SCAN_VOLUME_LATENCY_THRESHOLD_KEY, invalidInterval);
 
     ContainerScannerConfiguration csConf =
         conf.getObject(ContainerScannerConfiguration.class);
@@ -96,6 +106,10 @@ public void overridesInvalidValues() {
         csConf.getBandwidthPerVolume());
     assertEquals(ON_DEMAND_BANDWIDTH_PER_VOLUME_DEFAULT,
         csConf.getOnDemandBandwidthPerVolume());
+    assertEquals(DATA_SCAN_UNCHANGED_MAX_AGE_DEFAULT,
+        csConf.getDataScanUnchangedMaxAge());
+    assertEquals(DATA_SCAN_VOLUME_LATENCY_THRESHOLD_DEFAULT,
+        csConf.getDataScanVolumeLatencyThreshold());
   }
 
   @Test
@@ -114,5 +128,9 @@ public void isCreatedWitDefaultValues() {
         csConf.getOnDemandBandwidthPerVolume());
     assertEquals(CONTAINER_SCAN_MIN_GAP_DEFAULT,
         csConf.getContainerScanMinGap());
+    assertEquals(DATA_SCAN_UNCHANGED_MAX_AGE_DEFAULT,
+        csConf.getDataScanUnchangedMaxAge());
+    assertEquals(DATA_SCAN_VOLUME_LATENCY_THRESHOLD_DEFAULT,
+        csConf.getDataScanVolumeLatencyThreshold());
   }
 }
@@ -17,6 +17,7 @@
  */
 package org.apache.hadoop.ozone.container.replication;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -24,6 +25,7 @@
 import java.nio.file.Files;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
@@ -37,6 +39,7 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
 import org.apache.hadoop.ozone.container.common.impl.ContainerLayoutVersion;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
 import org.apache.hadoop.ozone.container.common.volume.StorageVolume;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
@@ -136,6 +139,53 @@ void importSameContainerWhenFirstInProgress() throws Exception {
     semaphore.release();
   }
 
+  @Test
+  void importContainerFromStream() throws Exception {
+    long containerId = 1;
+    KeyValueContainerData containerData = new KeyValueContainerData(containerId,
+        ContainerLayoutVersion.FILE_PER_BLOCK, 100, "test", "test");
+    KeyValueContainer container = new KeyValueContainer(containerData, conf);
+    File tarFile = containerTarFile(containerId, containerData);
+    byte[] tarBytes = Files.readAllBytes(tarFile.toPath());
+    // the whole stream is passed to the controller after the descriptor
+    ContainerController controllerMock = mock(ContainerController.class);
+    when(controllerMock.importContainer(any(), any(), any()))
+        .thenAnswer(invocation -> {
+          KeyValueContainerData imported = invocation.getArgument(0);
+          Assertions.assertEquals(containerId, imported.getContainerID());
+          InputStream input = invocation.getArgument(1);
+          Assertions.assertArrayEquals(tarBytes, IOUtils.toByteArray(input));
+          return container;
+        });
+    ContainerSet containerSet = new ContainerSet(0);
+    MutableVolumeSet volumeSet = new MutableVolumeSet("test", conf, null,
+        StorageVolume.VolumeType.DATA_VOLUME, null);
+    ContainerImporter containerImporter = new ContainerImporter(conf,
+        containerSet, controllerMock, volumeSet);
+
+    AtomicBoolean closed = new AtomicBoolean();
+    try (InputStream input = new ByteArrayInputStream(tarBytes) {
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    }) {
+      containerImporter.importContainer(containerId, input,
+          mock(HddsVolume.class), NO_COMPRESSION);
+      Assertions.assertFalse(closed.get());
+    }
+    Assertions.assertSame(container, containerSet.getContainer(containerId));
+    Assertions.assertTrue(tarFile.exists());
+
+    // the container is imported only once
+    StorageContainerException ex = Assertions.assertThrows(
+        StorageContainerException.class,
+        () -> containerImporter.importContainer(containerId,
+            new ByteArrayInputStream(tarBytes), null, NO_COMPRESSION));
+    Assertions.assertEquals(ContainerProtos.Result.CONTAINER_EXISTS,
+        ex.getResult());
+  }
+
   private File containerTarFile(
       long containerId, ContainerData containerData) throws IOException {
     TemporaryFolder tempFolder = new TemporaryFolder();
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.replication;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.CopyContainerRequestProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.CopyContainerResponseProto;
+import org.apache.hadoop.ozone.container.replication.GrpcReplicationClient.DownloadInputStream;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.io.grpc.Status;
+import org.apache.ratis.thirdparty.io.grpc.stub.ClientCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests {@link DownloadInputStream} of {@link GrpcReplicationClient}.
+ */
+public class TestGrpcReplicationClient {
+
+  private ClientCallStreamObserver<CopyContainerRequestProto> call;
+  private DownloadInputStream stream;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    call = mock(ClientCallStreamObserver.class);
+    stream = new DownloadInputStream(1L);
+    stream.beforeStart(call);
+  }
+
+  @Test
+  public void testResponsesRequestedAsConsumed() throws Exception {
+    verify(call).disableAutoRequestWithInitial(anyInt());
+    stream.onNext(response("abc"));
+    stream.onNext(response("de"));
+    stream.onCompleted();
+
+    byte[] buffer = new byte[10];
+    assertEquals(3, stream.read(buffer, 0, 10));
+    verify(call, never()).request(anyInt());
+    assertEquals("de", IOUtils.toString(stream, UTF_8));
+    verify(call, times(2)).request(1);
+    assertEquals(-1, stream.read());
+
+    stream.close();
+    verify(call, never()).cancel(any(), any());
+  }
+
+  @Test
+  public void testFailedDownload() throws Exception {
+    stream.onNext(response("abc"));
+    stream.onError(Status.UNAVAILABLE.asRuntimeException());
+
+    byte[] buffer = new byte[10];
+    assertEquals(3, stream.read(buffer, 0, 10));
+    assertThrows(IOException.class, () -> stream.read(buffer, 0, 10));
+    assertThrows(IOException.class, stream::read);
+  }
+
+  @Test
+  public void testCloseCancelsDownload() throws Exception {
+    stream.onNext(response("abc"));
+    assertEquals('a', stream.read());
+
+    stream.close();
+    verify(call).cancel(any(), any());
+    assertThrows(IOException.class, stream::read);
+  }
+
+  @Test
+  public void testContainerSizeFromFirstResponse() throws Exception {
+    stream.onNext(response("abc").toBuilder().setContainerSize(100).build());
+    stream.onNext(response("de"));
+    stream.onCompleted();
+
+    assertEquals(100, stream.getContainerSize());
+    assertEquals("abcde", IOUtils.toString(stream, UTF_8));
+    assertEquals(100, stream.getContainerSize());
+  }
+
+  @Test
+  public void testContainerSizeNotReported() throws Exception {
+    stream.onNext(response("abc"));
+    stream.onCompleted();
+
+    assertEquals(-1, stream.getContainerSize());
+    assertEquals("abc", IOUtils.toString(stream, UTF_8));
+  }
+
+  private static CopyContainerResponseProto response(String data) {
+    return CopyContainerResponseProto.newBuilder()
+        .setContainerID(1L)
+        .setLen(data.length())
+        .setReadOffset(0)
+        .setEof(false)
+        .setData(ByteString.copyFromUtf8(data))
+        .build();
+  }
+}
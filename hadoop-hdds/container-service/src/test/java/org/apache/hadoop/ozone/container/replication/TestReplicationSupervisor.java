@@ -18,11 +18,11 @@
 
 package org.apache.hadoop.ozone.container.replication;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.List;
@@ -294,11 +294,16 @@ public void testDownloadAndImportReplicatorFailure() throws IOException {
     // Mock to fetch an exception in the importContainer method.
     SimpleContainerDownloader moc =
         Mockito.mock(SimpleContainerDownloader.class);
-    Path res = Paths.get("file:/tmp/no-such-file");
     Mockito.when(
-        moc.getContainerDataFromReplicas(Mockito.anyLong(), Mockito.anyList(),
-            Mockito.any(Path.class), Mockito.any()))
-        .thenReturn(res);
+        moc.streamContainerDataFromReplicas(Mockito.anyLong(),
+            Mockito.anyList(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> {
+          ContainerDownloader.ContainerStreamConsumer consumer =
+              invocation.getArgument(4);
+          consumer.accept(new ByteArrayInputStream(new byte[0]),
+              Collections.emptyList());
+          return 0L;
+        });
 
     final String testDir = GenericTestUtils.getTempPath(
         TestReplicationSupervisor.class.getSimpleName() +
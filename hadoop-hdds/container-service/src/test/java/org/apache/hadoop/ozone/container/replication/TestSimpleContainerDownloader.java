@@ -18,23 +18,45 @@
 
 package org.apache.hadoop.ozone.container.replication;
 
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BrokenInputStream;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.CopyContainerResponseProto;
+import org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker;
+import org.apache.hadoop.ozone.container.replication.GrpcReplicationClient.DownloadInputStream;
+import org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.io.grpc.stub.ClientCallStreamObserver;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hadoop.ozone.container.replication.CopyContainerCompression.NO_COMPRESSION;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -44,6 +66,8 @@
  */
 public class TestSimpleContainerDownloader {
 
+  private static final long SIZE_THRESHOLD = 1024;
+
   @TempDir
   private Path tempDir;
 
@@ -108,6 +132,154 @@ public void testGetContainerDataFromReplicasAsyncFailure() throws Exception {
     downloader.verifyAllClientsClosed();
   }
 
+  @Test
+  public void testStreamContainerDataFromReplicas() throws Exception {
+    List<DatanodeDetails> datanodes = createDatanodes();
+    TestingContainerDownloader downloader =
+        TestingContainerDownloader.delayedFailureFor(datanodes.get(0));
+
+    AtomicReference<String> received = new AtomicReference<>();
+    long bytes = downloader.streamContainerDataFromReplicas(1L, datanodes,
+        tempDir, NO_COMPRESSION,
+        (input, partitions) -> received.set(IOUtils.toString(input, UTF_8)));
+
+    //first datanode is failed while reading, second worked
+    Assertions.assertEquals(datanodes.get(1).getUuidString(), received.get());
+    Assertions.assertEquals(received.get().length(), bytes);
+    downloader.verifyAllClientsClosed();
+  }
+
+  @Test
+  public void testStreamContainerDataFromReplicasConsumerFailure()
+      throws Exception {
+    List<DatanodeDetails> datanodes = createDatanodes();
+    TestingContainerDownloader downloader =
+        TestingContainerDownloader.successful();
+
+    AtomicInteger attempts = new AtomicInteger();
+    long bytes = downloader.streamContainerDataFromReplicas(1L, datanodes,
+        tempDir, NO_COMPRESSION, (input, partitions) -> {
+          if (attempts.incrementAndGet() == 1) {
+            throw new IOException("Import failed");
+          }
+        });
+
+    //stream of the second datanode is read to the end by the downloader
+    Assertions.assertEquals(2, attempts.get());
+    Assertions.assertEquals(datanodes.get(1).getUuidString().length(), bytes);
+    downloader.verifyAllClientsClosed();
+  }
+
+  @Test
+  public void testStreamContainerDataFromReplicasAllFailed() throws Exception {
+    List<DatanodeDetails> datanodes = createDatanodes();
+    TestingContainerDownloader downloader =
+        TestingContainerDownloader.immediateFailureFor(
+            datanodes.toArray(new DatanodeDetails[0]));
+
+    Assertions.assertThrows(IOException.class,
+        () -> downloader.streamContainerDataFromReplicas(1L, datanodes,
+            tempDir, NO_COMPRESSION,
+            (input, partitions) -> IOUtils.consume(input)));
+    downloader.verifyAllClientsClosed();
+  }
+
+  @Test
+  public void testStreamContainerDataFromReplicasInParallel()
+      throws Exception {
+    List<DatanodeDetails> datanodes = createDatanodes();
+    TestingContainerDownloader downloader =
+        TestingContainerDownloader.parallel(3);
+
+    AtomicReference<String> received = new AtomicReference<>();
+    List<String> partitionFiles = new ArrayList<>();
+    long bytes = downloader.streamContainerDataFromReplicas(1L, datanodes,
+        tempDir, NO_COMPRESSION, (input, partitions) -> {
+          received.set(IOUtils.toString(input, UTF_8));
+          Assertions.assertEquals(2, partitions.size());
+          for (CompletableFuture<Path> partition : partitions) {
+            partitionFiles.addAll(listFiles(partition.join()));
+          }
+        });
+
+    //partition 0 from the first datanode, the others from the rest
+    Assertions.assertEquals(datanodes.get(0).getUuidString(), received.get());
+    Assertions.assertEquals(Arrays.asList(
+        partitionFile(datanodes.get(1), 1),
+        partitionFile(datanodes.get(2), 2)), partitionFiles);
+    Assertions.assertTrue(bytes > received.get().length());
+    Assertions.assertEquals(0, listFiles(tempDir).size());
+    downloader.verifyAllClientsClosed();
+  }
+
+  @Test
+  public void testStreamPartitionFromOtherSourceOnFailure()
+      throws Exception {
+    List<DatanodeDetails> datanodes = createDatanodes();
+    TestingContainerDownloader downloader =
+        TestingContainerDownloader.parallel(3);
+    downloader.failPartitionsOf(datanodes.get(1));
+
+    List<String> partitionFiles = new ArrayList<>();
+    downloader.streamContainerDataFromReplicas(1L, datanodes,
+        tempDir, NO_COMPRESSION, (input, partitions) -> {
+          IOUtils.consume(input);
+          for (CompletableFuture<Path> partition : partitions) {
+            partitionFiles.addAll(listFiles(partition.join()));
+          }
+        });
+
+    //partition 1 falls back to the third datanode
+    Assertions.assertEquals(Arrays.asList(
+        partitionFile(datanodes.get(2), 1),
+        partitionFile(datanodes.get(2), 2)), partitionFiles);
+    downloader.verifyAllClientsClosed();
+  }
+
+  @Test
+  public void testStreamFromSingleSourceOnPartitionMismatch()
+      throws Exception {
+    List<DatanodeDetails> datanodes = createDatanodes();
+    TestingContainerDownloader downloader =
+        TestingContainerDownloader.parallel(3);
+
+    List<Integer> partitionCounts = new ArrayList<>();
+    AtomicReference<String> received = new AtomicReference<>();
+    downloader.streamContainerDataFromReplicas(1L, datanodes,
+        tempDir, NO_COMPRESSION, (input, partitions) -> {
+          partitionCounts.add(partitions.size());
+          received.set(IOUtils.toString(input, UTF_8));
+          if (!partitions.isEmpty()) {
+            throw new TarContainerPacker.PartitionMismatchException(
+                "Chunk file is missing");
+          }
+        });
+
+    //the source of partition 0 is retried without partitions
+    Assertions.assertEquals(Arrays.asList(2, 0), partitionCounts);
+    Assertions.assertEquals(datanodes.get(0).getUuidString(), received.get());
+    downloader.verifyAllClientsClosed();
+  }
+
+  @Test
+  public void testStreamSmallContainerFromSingleSource() throws Exception {
+    List<DatanodeDetails> datanodes = createDatanodes();
+    TestingContainerDownloader downloader =
+        TestingContainerDownloader.parallel(3);
+    downloader.setContainerSize(SIZE_THRESHOLD - 1);
+
+    AtomicReference<String> received = new AtomicReference<>();
+    long bytes = downloader.streamContainerDataFromReplicas(1L, datanodes,
+        tempDir, NO_COMPRESSION, (input, partitions) -> {
+          received.set(IOUtils.toString(input, UTF_8));
+          Assertions.assertEquals(0, partitions.size());
+        });
+
+    Assertions.assertEquals(datanodes.get(0).getUuidString(), received.get());
+    Assertions.assertEquals(received.get().length(), bytes);
+    downloader.verifyAllClientsClosed();
+  }
+
   /**
    * Test if different datanode is used for each download attempt.
    */
@@ -138,6 +310,19 @@ public void testRandomSelection() throws Exception {
     downloader.verifyAllClientsClosed();
   }
 
+  private static List<String> listFiles(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.map(path -> path.getFileName().toString())
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static String partitionFile(DatanodeDetails datanode,
+      int partition) {
+    return datanode.getUuidString() + "-" + partition;
+  }
+
   private List<DatanodeDetails> createDatanodes() {
     List<DatanodeDetails> datanodes = new ArrayList<>();
     datanodes.add(MockDatanodeDetails.randomDatanodeDetails());
@@ -150,29 +335,34 @@ private List<DatanodeDetails> createDatanodes() {
       extends SimpleContainerDownloader {
 
     private final List<DatanodeDetails> failedDatanodes;
+    private final List<DatanodeDetails> failedPartitionSources =
+        new ArrayList<>();
     private final boolean disableShuffle;
     private final boolean directException;
-    private final List<GrpcReplicationClient> clients = new LinkedList<>();
-
-    private final AtomicReference<DatanodeDetails> datanodeRef =
-        new AtomicReference<>();
+    private final Map<GrpcReplicationClient, DatanodeDetails> clients =
+        new ConcurrentHashMap<>();
+    private long containerSize = SIZE_THRESHOLD;
 
     static TestingContainerDownloader randomOrder() {
-      return new TestingContainerDownloader(false, false);
+      return new TestingContainerDownloader(1, false, false);
     }
 
     static TestingContainerDownloader successful() {
-      return new TestingContainerDownloader(true, false);
+      return new TestingContainerDownloader(1, true, false);
     }
 
     static TestingContainerDownloader immediateFailureFor(
         DatanodeDetails... failedDatanodes) {
-      return new TestingContainerDownloader(true, true, failedDatanodes);
+      return new TestingContainerDownloader(1, true, true, failedDatanodes);
     }
 
     static TestingContainerDownloader delayedFailureFor(
         DatanodeDetails... failedDatanodes) {
-      return new TestingContainerDownloader(true, false, failedDatanodes);
+      return new TestingContainerDownloader(1, true, false, failedDatanodes);
+    }
+
+    static TestingContainerDownloader parallel(int parallelSources) {
+      return new TestingContainerDownloader(parallelSources, true, false);
     }
 
     /**
@@ -181,15 +371,33 @@ static TestingContainerDownloader delayedFailureFor(
      * @param directException if false the exception will be wrapped in the
      *                        returning future.
      */
-    private TestingContainerDownloader(
+    private TestingContainerDownloader(int parallelSources,
         boolean disableShuffle, boolean directException,
         DatanodeDetails... failedDatanodes) {
-      super(new OzoneConfiguration(), null);
+      super(createConf(parallelSources), null);
       this.disableShuffle = disableShuffle;
       this.directException = directException;
       this.failedDatanodes = Arrays.asList(failedDatanodes);
     }
 
+    private static OzoneConfiguration createConf(int parallelSources) {
+      OzoneConfiguration conf = new OzoneConfiguration();
+      ReplicationConfig replicationConfig =
+          conf.getObject(ReplicationConfig.class);
+      replicationConfig.setParallelSources(parallelSources);
+      replicationConfig.setParallelMinContainerSize(SIZE_THRESHOLD);
+      conf.setFromObject(replicationConfig);
+      return conf;
+    }
+
+    void failPartitionsOf(DatanodeDetails datanode) {
+      failedPartitionSources.add(datanode);
+    }
+
+    void setContainerSize(long containerSize) {
+      this.containerSize = containerSize;
+    }
+
     @Override
     protected List<DatanodeDetails> shuffleDatanodes(
         List<DatanodeDetails> sourceDatanodes
@@ -201,9 +409,8 @@ protected List<DatanodeDetails> shuffleDatanodes(
     @Override
     protected GrpcReplicationClient createReplicationClient(
         DatanodeDetails datanode, CopyContainerCompression compression) {
-      datanodeRef.set(datanode);
       GrpcReplicationClient client = mock(GrpcReplicationClient.class);
-      clients.add(client);
+      clients.put(client, datanode);
       return client;
     }
 
@@ -212,7 +419,7 @@ protected CompletableFuture<Path> downloadContainer(
         GrpcReplicationClient client,
         long containerId, Path downloadPath) {
 
-      DatanodeDetails datanode = datanodeRef.get();
+      DatanodeDetails datanode = clients.get(client);
       Assertions.assertNotNull(datanode);
 
       if (failedDatanodes.contains(datanode)) {
@@ -232,8 +439,86 @@ protected CompletableFuture<Path> downloadContainer(
 
     }
 
+    @Override
+    protected InputStream streamContainer(GrpcReplicationClient client,
+        long containerId) {
+      DatanodeDetails datanode = clients.get(client);
+      Assertions.assertNotNull(datanode);
+
+      if (failedDatanodes.contains(datanode)) {
+        if (directException) {
+          throw new RuntimeException("Unavailable datanode");
+        }
+        return new BrokenInputStream(
+            new IOException("Unavailable datanode"));
+      }
+      return new ByteArrayInputStream(
+          datanode.getUuidString().getBytes(UTF_8));
+    }
+
+    /**
+     * Partition 0 holds the id of the datanode, the others an archive with
+     * a single chunk file named after the datanode and the partition.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected DownloadInputStream streamPartition(
+        GrpcReplicationClient client, long containerId, int partitionIndex,
+        int partitionCount) {
+      DatanodeDetails datanode = clients.get(client);
+      Assertions.assertNotNull(datanode);
+
+      DownloadInputStream stream = new DownloadInputStream(containerId);
+      stream.beforeStart(mock(ClientCallStreamObserver.class));
+      if (failedDatanodes.contains(datanode) || (partitionIndex > 0
+          && failedPartitionSources.contains(datanode))) {
+        stream.onError(new IOException("Unavailable datanode"));
+        return stream;
+      }
+      CopyContainerResponseProto.Builder response =
+          CopyContainerResponseProto.newBuilder()
+              .setContainerID(containerId)
+              .setReadOffset(0)
+              .setEof(false);
+      if (partitionIndex == 0) {
+        response.setData(ByteString.copyFromUtf8(datanode.getUuidString()))
+            .setContainerSize(containerSize);
+      } else {
+        response.setData(ByteString.copyFrom(
+            partitionArchive(partitionFile(datanode, partitionIndex))));
+      }
+      stream.onNext(response.setLen(response.getData().size()).build());
+      stream.onCompleted();
+      return stream;
+    }
+
+    private static byte[] partitionArchive(String fileName) {
+      byte[] content = fileName.getBytes(UTF_8);
+      CRC32 crc = new CRC32();
+      crc.update(content);
+      byte[] checksums = (fileName + " " + Long.toHexString(crc.getValue())
+          + "\n").getBytes(UTF_8);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (TarArchiveOutputStream archive = new TarArchiveOutputStream(out)) {
+        addEntry(archive, "chunks/" + fileName, content);
+        addEntry(archive, "chunks.crc32", checksums);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return out.toByteArray();
+    }
+
+    private static void addEntry(TarArchiveOutputStream archive, String name,
+        byte[] content) throws IOException {
+      TarArchiveEntry entry = new TarArchiveEntry(name);
+      entry.setSize(content.length);
+      archive.putArchiveEntry(entry);
+      archive.write(content);
+      archive.closeArchiveEntry();
+    }
+
     private void verifyAllClientsClosed() throws Exception {
-      for (GrpcReplicationClient each : clients) {
+      for (GrpcReplicationClient each : clients.keySet()) {
         verify(each).close();
       }
     }
@@ -29,7 +29,10 @@
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -92,6 +95,25 @@ ByteBuffer asReadOnlyByteBuffer() {
       return buffer.asReadOnlyByteBuffer();
     }
 
+    int length() {
+      return array != null ? array.length : buffer.readableBytes();
+    }
+
+    /** Compare with the given key as unsigned bytes, as RocksDB does. */
+    int compareTo(byte[] other) {
+      final ByteBuffer thisBuf = array != null ?
+          ByteBuffer.wrap(array) : asReadOnlyByteBuffer();
+      final int n = Math.min(thisBuf.remaining(), other.length);
+      for (int i = 0; i < n; i++) {
+        final int c = Byte.toUnsignedInt(thisBuf.get(thisBuf.position() + i))
+            - Byte.toUnsignedInt(other[i]);
+        if (c != 0) {
+          return c;
+        }
+      }
+      return thisBuf.remaining() - other.length;
+    }
+
     @Override
     public boolean equals(Object obj) {
       if (this == obj) {
@@ -122,7 +144,7 @@ public String toString() {
     }
   }
 
-  /** Cache and deduplicate db ops (put/delete). */
+  /** Cache and deduplicate db ops (put/delete/deleteRange). */
   private class OpCache {
     /** A cache for a {@link ColumnFamily}. */
     private class FamilyCache {
@@ -134,6 +156,12 @@ private class FamilyCache {
        * Otherwise, it represents a delete-op (dbValue is {@link Op#DELETE}).
        */
       private final Map<Bytes, Object> ops = new HashMap<>();
+      /**
+       * The (beginKey, endKey) of the range deletes, written before the ops.
+       * Ops on keys in a range are dropped when the range is added, so the
+       * ops left in the cache are all later than the ranges.
+       */
+      private final List<byte[][]> ranges = new ArrayList<>();
       private boolean isCommit;
 
       private long batchSize;
@@ -141,6 +169,7 @@ private class FamilyCache {
       private int discardedCount;
       private int putCount;
       private int delCount;
+      private int rangeDelCount;
 
       FamilyCache(ColumnFamily family) {
         this.family = family;
@@ -150,6 +179,9 @@ private class FamilyCache {
       void prepareBatchWrite() throws IOException {
         Preconditions.checkState(!isCommit, "%s is already committed.", this);
         isCommit = true;
+        for (byte[][] range : ranges) {
+          family.batchDeleteRange(writeBatch, range[0], range[1]);
+        }
         for (Map.Entry<Bytes, Object> op : ops.entrySet()) {
           final Bytes key = op.getKey();
           final Object value = op.getValue();
@@ -170,8 +202,8 @@ void prepareBatchWrite() throws IOException {
       }
 
       private String summary() {
-        return String.format("  %s %s, #put=%s, #del=%s", this,
-            batchSizeDiscardedString(), putCount, delCount);
+        return String.format("  %s %s, #put=%s, #del=%s, #delRange=%s", this,
+            batchSizeDiscardedString(), putCount, delCount, rangeDelCount);
       }
 
       void clear() {
@@ -184,6 +216,7 @@ void clear() {
           }
         }
         ops.clear();
+        ranges.clear();
 
         if (warn) {
           LOG.warn("discarding changes {}", details);
@@ -242,6 +275,39 @@ void delete(byte[] key) {
         putOrDelete(new Bytes(key), key.length, Op.DELETE, 0);
       }
 
+      void deleteRange(byte[] beginKey, byte[] endKey) {
+        Preconditions.checkState(!isCommit, "%s is already committed.", this);
+        rangeDelCount++;
+        batchSize += beginKey.length + endKey.length;
+        for (Iterator<Map.Entry<Bytes, Object>> i = ops.entrySet().iterator();
+             i.hasNext();) {
+          final Map.Entry<Bytes, Object> op = i.next();
+          final Bytes key = op.getKey();
+          if (key.compareTo(beginKey) < 0 || key.compareTo(endKey) >= 0) {
+            continue;
+          }
+          final Object value = op.getValue();
+          final int valLen;
+          if (value instanceof CodecBuffer) {
+            valLen = ((CodecBuffer) value).readableBytes();
+          } else if (value instanceof byte[]) {
+            valLen = ((byte[]) value).length;
+          } else {
+            valLen = 0;
+          }
+          discardedSize += key.length() + valLen;
+          discardedCount++;
+          if (value instanceof CodecBuffer) {
+            ((CodecBuffer) value).release(); // the key will also be released
+          }
+          i.remove();
+        }
+        ranges.add(new byte[][] {beginKey, endKey});
+        debug(() -> String.format("%s delRange(%s, %s), #delRange=%s, %s",
+            this, bytes2String(beginKey), bytes2String(endKey),
+            rangeDelCount, batchSizeDiscardedString()));
+      }
+
       String putString(int keySize, int valueSize) {
         return String.format("put(key: %s, value: %s), #put=%s",
             byteSize2String(keySize), byteSize2String(valueSize), putCount);
@@ -282,6 +348,11 @@ void delete(ColumnFamily family, byte[] key) {
           .delete(key);
     }
 
+    void deleteRange(ColumnFamily family, byte[] beginKey, byte[] endKey) {
+      name2cache.computeIfAbsent(family.getName(), k -> new FamilyCache(family))
+          .deleteRange(beginKey, endKey);
+    }
+
     /** Prepare batch write for the entire cache. */
     Closeable prepareBatchWrite() throws IOException {
       for (Map.Entry<String, FamilyCache> e : name2cache.entrySet()) {
@@ -300,6 +371,7 @@ void clear() {
     String getCommitString() {
       int putCount = 0;
       int delCount = 0;
+      int rangeDelCount = 0;
       int opSize = 0;
       int discardedCount = 0;
       int discardedSize = 0;
@@ -307,15 +379,16 @@ String getCommitString() {
       for (FamilyCache f : name2cache.values()) {
         putCount += f.putCount;
         delCount += f.delCount;
+        rangeDelCount += f.rangeDelCount;
         opSize += f.batchSize;
         discardedCount += f.discardedCount;
         discardedSize += f.discardedSize;
       }
 
-      final int opCount = putCount + delCount;
-      return String.format(
-          "#put=%s, #del=%s, batchSize: %s, discarded: %s, committed: %s",
-          putCount, delCount,
+      final int opCount = putCount + delCount + rangeDelCount;
+      return String.format("#put=%s, #del=%s, #delRange=%s, batchSize: %s, "
+          + "discarded: %s, committed: %s",
+          putCount, delCount, rangeDelCount,
           countSize2String(opCount, opSize),
           countSize2String(discardedCount, discardedSize),
           countSize2String(opCount - discardedCount, opSize - discardedSize));
@@ -369,6 +442,11 @@ public void delete(ColumnFamily family, byte[] key) throws IOException {
     opCache.delete(family, key);
   }
 
+  public void deleteRange(ColumnFamily family, byte[] beginKey, byte[] endKey)
+      throws IOException {
+    opCache.deleteRange(family, beginKey, endKey);
+  }
+
   public void put(ColumnFamily family, CodecBuffer key, CodecBuffer value)
       throws IOException {
     opCache.put(family, key, value);
@@ -50,6 +50,8 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_METADATA_STORE_TABLE_CACHE_WATERMARK_EVICTION;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_METADATA_STORE_TABLE_CACHE_WATERMARK_EVICTION_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConsts.COMPACTION_LOG_TABLE;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_CHECKPOINT_DIR;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
@@ -81,6 +83,7 @@ public class RDBStore implements DBStore {
   private final ManagedDBOptions dbOptions;
   private final ManagedStatistics statistics;
   private final String threadNamePrefix;
+  private final boolean watermarkTableCache;
 
   @SuppressWarnings("parameternumber")
   public RDBStore(File dbFile, ManagedDBOptions dbOptions, ManagedStatistics statistics,
@@ -93,6 +96,9 @@ public RDBStore(File dbFile, ManagedDBOptions dbOptions, ManagedStatistics stati
 
       throws IOException {
     this.threadNamePrefix = threadNamePrefix;
+    this.watermarkTableCache = configuration != null && configuration
+        .getBoolean(OZONE_METADATA_STORE_TABLE_CACHE_WATERMARK_EVICTION,
+            OZONE_METADATA_STORE_TABLE_CACHE_WATERMARK_EVICTION_DEFAULT);
     Preconditions.checkNotNull(dbFile, "DB file location cannot be null");
     Preconditions.checkNotNull(families);
     Preconditions.checkArgument(!families.isEmpty());
@@ -307,7 +313,7 @@ public <K, V> Table<K, V> getTable(String name,
       Class<K> keyType, Class<V> valueType,
       TableCache.CacheType cacheType) throws IOException {
     return new TypedTable<>(getTable(name), codecRegistry, keyType,
-        valueType, cacheType, threadNamePrefix);
+        valueType, cacheType, threadNamePrefix, watermarkTableCache);
   }
 
   @Override
@@ -203,6 +203,16 @@ public void deleteRange(byte[] beginKey, byte[] endKey) throws IOException {
     db.deleteRange(family, beginKey, endKey);
   }
 
+  @Override
+  public void deleteRangeWithBatch(BatchOperation batch, byte[] beginKey,
+      byte[] endKey) throws IOException {
+    if (batch instanceof RDBBatchOperation) {
+      ((RDBBatchOperation) batch).deleteRange(family, beginKey, endKey);
+    } else {
+      throw new IllegalArgumentException("batch should be RDBBatchOperation");
+    }
+  }
+
   @Override
   public void deleteWithBatch(BatchOperation batch, byte[] key)
       throws IOException {
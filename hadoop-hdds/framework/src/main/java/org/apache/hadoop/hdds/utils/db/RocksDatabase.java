@@ -302,6 +302,16 @@ public void batchDelete(ManagedWriteBatch writeBatch, byte[] key)
       }
     }
 
+    public void batchDeleteRange(ManagedWriteBatch writeBatch, byte[] beginKey,
+        byte[] endKey) throws IOException {
+      try (UncheckedAutoCloseable ignored = acquire()) {
+        writeBatch.deleteRange(getHandle(), beginKey, endKey);
+      } catch (RocksDBException e) {
+        throw toIOException(this, "batchDeleteRange " + bytes2String(beginKey)
+            + " - " + bytes2String(endKey), e);
+      }
+    }
+
     public void batchPut(ManagedWriteBatch writeBatch, byte[] key, byte[] value)
         throws IOException {
       if (LOG.isDebugEnabled()) {
@@ -24,6 +24,7 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.hadoop.hdds.annotation.InterfaceStability;
@@ -157,6 +158,22 @@ default VALUE getReadCopy(KEY key) throws IOException {
    */
   void deleteRange(KEY beginKey, KEY endKey) throws IOException;
 
+  /**
+   * Deletes a range of keys from the metadata store as part of a batch
+   * operation. The range deletes the keys of the earlier operations of the
+   * batch, but not those of the later ones.
+   *
+   * @param batch the batch operation
+   * @param beginKey start metadata key, inclusive
+   * @param endKey end metadata key, exclusive
+   * @throws IOException on Failure
+   */
+  default void deleteRangeWithBatch(BatchOperation batch, KEY beginKey,
+      KEY endKey) throws IOException {
+    throw new NotImplementedException(
+        "deleteRangeWithBatch is not implemented");
+  }
+
   /**
    * Returns the iterator for this metadata store.
    *
@@ -211,6 +228,17 @@ default void addCacheEntry(KEY cacheKey, VALUE value, long epoch) {
         CacheValue.get(epoch, value));
   }
 
+  /**
+   * Register a listener which is called, after the table cache has been
+   * updated, with the key and value of every entry added to the table
+   * cache. The value is null when the entry marks a delete.
+   * @param listener
+   */
+  default void addCacheUpdateListener(BiConsumer<KEY, VALUE> listener) {
+    throw new NotImplementedException(
+        "addCacheUpdateListener is not implemented");
+  }
+
   /**
    * Get the cache value from table cache.
    * @param cacheKey
@@ -26,6 +26,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.hadoop.hdds.utils.IOUtils;
@@ -35,9 +37,11 @@
 import org.apache.hadoop.hdds.utils.db.cache.CacheResult;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.hdds.utils.db.cache.FullTableCache;
+import org.apache.hadoop.hdds.utils.db.cache.LongWatermarkTableCache;
 import org.apache.hadoop.hdds.utils.db.cache.PartialTableCache;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache;
+import org.apache.hadoop.hdds.utils.db.cache.WatermarkTableCache;
 import org.apache.ratis.util.Preconditions;
 import org.apache.ratis.util.function.CheckedBiFunction;
 
@@ -68,6 +72,8 @@
   private final CodecBuffer.Capacity bufferCapacity
       = new CodecBuffer.Capacity(this, BUFFER_SIZE_DEFAULT);
   private final TableCache<KEY, VALUE> cache;
+  private final List<BiConsumer<KEY, VALUE>> cacheUpdateListeners =
+      new CopyOnWriteArrayList<>();
 
   /**
    * The same as this(rawTable, codecRegistry, keyType, valueType,
@@ -95,6 +101,28 @@ public TypedTable(RDBTable rawTable,
       CodecRegistry codecRegistry, Class<KEY> keyType,
       Class<VALUE> valueType,
       CacheType cacheType, String threadNamePrefix) throws IOException {
+    this(rawTable, codecRegistry, keyType, valueType, cacheType,
+        threadNamePrefix, false);
+  }
+
+  /**
+   * Create an TypedTable from the raw table with specified cache type.
+   *
+   * @param rawTable The underlying (untyped) table in RocksDB.
+   * @param codecRegistry To look up codecs.
+   * @param keyType The key type.
+   * @param valueType The value type.
+   * @param cacheType How to cache the entries?
+   * @param threadNamePrefix
+   * @param watermarkEviction Whether to use a cache which evicts entries
+   *                          against the flushed epoch watermark, see
+   *                          {@link WatermarkTableCache}.
+   * @throws IOException if failed to iterate the raw table.
+   */
+  public TypedTable(RDBTable rawTable,
+      CodecRegistry codecRegistry, Class<KEY> keyType,
+      Class<VALUE> valueType, CacheType cacheType, String threadNamePrefix,
+      boolean watermarkEviction) throws IOException {
     this.rawTable = Objects.requireNonNull(rawTable, "rawTable==null");
     Objects.requireNonNull(codecRegistry, "codecRegistry == null");
 
@@ -109,8 +137,9 @@ public TypedTable(RDBTable rawTable,
     this.supportCodecBuffer = keyCodec.supportCodecBuffer()
         && valueCodec.supportCodecBuffer();
 
+    cache = newTableCache(keyType, cacheType, threadNamePrefix,
+        watermarkEviction);
     if (cacheType == CacheType.FULL_CACHE) {
-      cache = new FullTableCache<>(threadNamePrefix);
       //fill cache
       try (TableIterator<KEY, ? extends KeyValue<KEY, VALUE>> tableIterator =
               iterator()) {
@@ -125,11 +154,25 @@ public TypedTable(RDBTable rawTable,
               CacheValue.get(EPOCH_DEFAULT, kv.getValue()));
         }
       }
-    } else {
-      cache = new PartialTableCache<>(threadNamePrefix);
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private static <K, V> TableCache<K, V> newTableCache(Class<K> keyType,
+      CacheType cacheType, String threadNamePrefix,
+      boolean watermarkEviction) {
+    if (!watermarkEviction) {
+      return cacheType == CacheType.FULL_CACHE
+          ? new FullTableCache<>(threadNamePrefix)
+          : new PartialTableCache<>(threadNamePrefix);
+    }
+    if (keyType == Long.class) {
+      return (TableCache<K, V>) (TableCache<?, V>)
+          new LongWatermarkTableCache<V>(cacheType, threadNamePrefix);
+    }
+    return new WatermarkTableCache<>(cacheType, threadNamePrefix);
+  }
+
   private CodecBuffer encodeKeyCodecBuffer(KEY key) throws IOException {
     return key == null ? null : keyCodec.toDirectCodecBuffer(key);
   }
@@ -413,6 +456,13 @@ public void deleteRange(KEY beginKey, KEY endKey) throws IOException {
     rawTable.deleteRange(encodeKey(beginKey), encodeKey(endKey));
   }
 
+  @Override
+  public void deleteRangeWithBatch(BatchOperation batch, KEY beginKey,
+      KEY endKey) throws IOException {
+    rawTable.deleteRangeWithBatch(batch, encodeKey(beginKey),
+        encodeKey(endKey));
+  }
+
   @Override
   public Table.KeyValueIterator<KEY, VALUE> iterator() throws IOException {
     return iterator(null);
@@ -468,6 +518,14 @@ public void addCacheEntry(CacheKey<KEY> cacheKey,
       CacheValue<VALUE> cacheValue) {
     // This will override the entry if there is already entry for this key.
     cache.put(cacheKey, cacheValue);
+    for (BiConsumer<KEY, VALUE> listener : cacheUpdateListeners) {
+      listener.accept(cacheKey.getCacheKey(), cacheValue.getCacheValue());
+    }
+  }
+
+  @Override
+  public void addCacheUpdateListener(BiConsumer<KEY, VALUE> listener) {
+    cacheUpdateListeners.add(listener);
   }
 
   @Override
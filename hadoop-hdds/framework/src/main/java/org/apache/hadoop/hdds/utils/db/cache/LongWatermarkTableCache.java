@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.hdds.annotation.InterfaceAudience.Private;
+import org.apache.hadoop.hdds.annotation.InterfaceStability.Evolving;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Variant of {@link WatermarkTableCache} for tables with {@link Long} keys,
+ * such as ID tables. Keys are stored as primitive longs in open addressing
+ * hash segments, so no key or map entry objects are retained per cached
+ * value.
+ * <p>
+ * Each segment is guarded by a {@link StampedLock}; lookups use optimistic
+ * reads and only fall back to the read lock when they race with a writer.
+ * Iteration works on a snapshot of the cache, sorted like {@link CacheKey}
+ * for {@link CacheType#FULL_CACHE}.
+ * @param <VALUE>
+ */
+@Private
+@Evolving
+public class LongWatermarkTableCache<VALUE>
+    implements TableCache<Long, VALUE> {
+
+  public static final Logger LOG =
+      LoggerFactory.getLogger(LongWatermarkTableCache.class);
+
+  private static final int SEGMENTS = 16;
+  private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+  private final Segment<VALUE>[] segments;
+  private final CacheType cacheType;
+  private final AtomicLong flushedWatermark = new AtomicLong(Long.MIN_VALUE);
+  private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+  private final AtomicBoolean hasDeleteMarkers = new AtomicBoolean();
+  private final ExecutorService executorService;
+  private final CacheStatsRecorder statsRecorder;
+
+  @SuppressWarnings("unchecked")
+  public LongWatermarkTableCache(CacheType cacheType,
+      String threadNamePrefix) {
+    this.cacheType = cacheType;
+    segments = new Segment[SEGMENTS];
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment<>();
+    }
+
+    ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat(threadNamePrefix + "LongWatermarkTableCache-Cleanup-%d")
+        .build();
+    executorService = Executors.newSingleThreadExecutor(threadFactory);
+
+    statsRecorder = new CacheStatsRecorder();
+  }
+
+  private static long mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 32);
+  }
+
+  private Segment<VALUE> segmentFor(long hash) {
+    return segments[(int) (hash >>> 60) & (SEGMENTS - 1)];
+  }
+
+  @Override
+  public CacheValue<VALUE> get(CacheKey<Long> cacheKey) {
+    CacheValue<VALUE> value = getValue(cacheKey.getCacheKey());
+    statsRecorder.recordValue(value);
+    return value;
+  }
+
+  private CacheValue<VALUE> getValue(long key) {
+    long hash = mix(key);
+    return segmentFor(hash).get(key, hash);
+  }
+
+  @Override
+  public void loadInitial(CacheKey<Long> cacheKey, CacheValue<VALUE> value) {
+    if (cacheType == CacheType.FULL_CACHE) {
+      put(cacheKey, value);
+    }
+  }
+
+  @Override
+  public void put(CacheKey<Long> cacheKey, CacheValue<VALUE> value) {
+    long key = cacheKey.getCacheKey();
+    long hash = mix(key);
+    segmentFor(hash).put(key, hash, value);
+    if (value.getCacheValue() == null) {
+      hasDeleteMarkers.set(true);
+    }
+  }
+
+  @Override
+  public void cleanup(List<Long> epochs) {
+    advanceWatermark(epochs);
+    if (evictionScheduled.compareAndSet(false, true)) {
+      executorService.execute(() -> {
+        evictionScheduled.set(false);
+        evict(flushedWatermark.get());
+      });
+    }
+  }
+
+  @VisibleForTesting
+  @Override
+  public void evictCache(List<Long> epochs) {
+    advanceWatermark(epochs);
+    evict(flushedWatermark.get());
+  }
+
+  private void advanceWatermark(List<Long> epochs) {
+    if (!epochs.isEmpty()) {
+      flushedWatermark.accumulateAndGet(epochs.get(epochs.size() - 1),
+          Math::max);
+    }
+  }
+
+  private void evict(long watermark) {
+    final boolean full = cacheType == CacheType.FULL_CACHE;
+    if (full && !hasDeleteMarkers.getAndSet(false)) {
+      return;
+    }
+    boolean remaining = false;
+    for (Segment<VALUE> segment : segments) {
+      remaining |= segment.evict(watermark, full);
+    }
+    if (full && remaining) {
+      hasDeleteMarkers.set(true);
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Segment<VALUE> segment : segments) {
+      size += segment.size;
+    }
+    return size;
+  }
+
+  @Override
+  public Iterator<Map.Entry<CacheKey<Long>, CacheValue<VALUE>>> iterator() {
+    statsRecorder.recordIteration();
+    List<Map.Entry<CacheKey<Long>, CacheValue<VALUE>>> entries =
+        new ArrayList<>();
+    for (Segment<VALUE> segment : segments) {
+      segment.addEntriesTo(entries);
+    }
+    if (cacheType == CacheType.FULL_CACHE) {
+      entries.sort(Map.Entry.comparingByKey());
+    }
+    return Collections.unmodifiableList(entries).iterator();
+  }
+
+  @Override
+  public CacheResult<VALUE> lookup(CacheKey<Long> cacheKey) {
+    CacheValue<VALUE> cachevalue = getValue(cacheKey.getCacheKey());
+    statsRecorder.recordValue(cachevalue);
+    return WatermarkTableCache.toCacheResult(cacheType, cachevalue);
+  }
+
+  /**
+   * Epochs are stored inline with the entries, there are no epoch entries.
+   */
+  @VisibleForTesting
+  @Override
+  public NavigableMap<Long, Set<CacheKey<Long>>> getEpochEntries() {
+    return Collections.emptyNavigableMap();
+  }
+
+  @VisibleForTesting
+  public long getFlushedWatermark() {
+    return flushedWatermark.get();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return statsRecorder.snapshot();
+  }
+
+  @Override
+  public CacheType getCacheType() {
+    return cacheType;
+  }
+
+  /**
+   * Open addressing hash table with linear probing. A null value marks a
+   * free slot, the load factor is kept at or below one half.
+   */
+  private static final class Segment<V> {
+    private final StampedLock lock = new StampedLock();
+    private long[] keys = new long[INITIAL_SEGMENT_CAPACITY];
+    private CacheValue<V>[] values = newValues(INITIAL_SEGMENT_CAPACITY);
+    private volatile int size;
+
+    @SuppressWarnings("unchecked")
+    private static <V> CacheValue<V>[] newValues(int capacity) {
+      return new CacheValue[capacity];
+    }
+
+    CacheValue<V> get(long key, long hash) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        long[] k = keys;
+        CacheValue<V>[] v = values;
+        if (k.length == v.length) {
+          CacheValue<V> value = find(k, v, key, hash);
+          if (lock.validate(stamp)) {
+            return value;
+          }
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return find(keys, values, key, hash);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    private static <V> CacheValue<V> find(long[] k, CacheValue<V>[] v,
+        long key, long hash) {
+      int mask = k.length - 1;
+      // Bounded by the table length, so that a racing optimistic read
+      // always terminates.
+      for (int i = (int) hash & mask, n = 0; n < k.length;
+           i = (i + 1) & mask, n++) {
+        CacheValue<V> value = v[i];
+        if (value == null) {
+          return null;
+        }
+        if (k[i] == key) {
+          return value;
+        }
+      }
+      return null;
+    }
+
+    void put(long key, long hash, CacheValue<V> value) {
+      long stamp = lock.writeLock();
+      try {
+        if ((size + 1) * 2 > keys.length) {
+          resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = (int) hash & mask;
+        while (values[i] != null) {
+          if (keys[i] == key) {
+            values[i] = value;
+            return;
+          }
+          i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    private void resize(int capacity) {
+      long[] oldKeys = keys;
+      CacheValue<V>[] oldValues = values;
+      long[] newKeys = new long[capacity];
+      CacheValue<V>[] newValues = newValues(capacity);
+      int mask = capacity - 1;
+      for (int j = 0; j < oldKeys.length; j++) {
+        if (oldValues[j] != null) {
+          int i = (int) mix(oldKeys[j]) & mask;
+          while (newValues[i] != null) {
+            i = (i + 1) & mask;
+          }
+          newKeys[i] = oldKeys[j];
+          newValues[i] = oldValues[j];
+        }
+      }
+      keys = newKeys;
+      values = newValues;
+    }
+
+    /**
+     * Removes flushed entries of this segment.
+     * @return true if delete markers which are not flushed yet remain.
+     */
+    boolean evict(long watermark, boolean onlyDeleteMarkers) {
+      boolean remaining = false;
+      long stamp = lock.writeLock();
+      try {
+        int i = 0;
+        while (i < keys.length) {
+          CacheValue<V> value = values[i];
+          if (value == null
+              || onlyDeleteMarkers && value.getCacheValue() != null) {
+            i++;
+          } else if (value.getEpoch() > watermark) {
+            remaining = true;
+            i++;
+          } else {
+            if (LOG.isDebugEnabled()) {
+              LOG.debug("CacheKey {} with epoch {} is removed from cache",
+                  keys[i], value.getEpoch());
+            }
+            // The slot may be refilled by a shifted entry, check it again.
+            removeAt(i);
+          }
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+      return remaining;
+    }
+
+    /** Backward shift deletion, keeps probe sequences without gaps. */
+    private void removeAt(int slot) {
+      int mask = keys.length - 1;
+      int free = slot;
+      int i = (slot + 1) & mask;
+      while (values[i] != null) {
+        int home = (int) mix(keys[i]) & mask;
+        // Move the entry if its home slot is not in (free, i].
+        if (((i - home) & mask) >= ((i - free) & mask)) {
+          keys[free] = keys[i];
+          values[free] = values[i];
+          free = i;
+        }
+        i = (i + 1) & mask;
+      }
+      values[free] = null;
+      size--;
+    }
+
+    void addEntriesTo(List<Map.Entry<CacheKey<Long>, CacheValue<V>>> out) {
+      long stamp = lock.readLock();
+      try {
+        for (int i = 0; i < keys.length; i++) {
+          if (values[i] != null) {
+            out.add(new AbstractMap.SimpleImmutableEntry<>(
+                new CacheKey<>(keys[i]), values[i]));
+          }
+        }
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+  }
+}
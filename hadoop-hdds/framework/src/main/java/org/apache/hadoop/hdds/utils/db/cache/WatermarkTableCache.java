@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.hdds.annotation.InterfaceAudience.Private;
+import org.apache.hadoop.hdds.annotation.InterfaceStability.Evolving;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Table cache which evicts entries by comparing the epoch stored in each
+ * {@link CacheValue} against a flushed watermark, instead of tracking the
+ * keys of every epoch in a separate map.
+ * <p>
+ * The double buffer flushes transactions in order, so once epoch N has been
+ * flushed every entry with an epoch up to N is persisted in the DB. Cleanup
+ * requests only advance the watermark; consecutive requests are coalesced
+ * into a single scan of the cache. Entries are removed with
+ * {@link ConcurrentMap#remove(Object, Object)}, so a value which is replaced
+ * concurrently by a request is never evicted and no cache level lock is
+ * needed.
+ * <p>
+ * Depending on the {@link CacheType}, the cache either holds the full table
+ * (only delete markers are evicted) or a partial table (every flushed entry
+ * is evicted).
+ * @param <KEY>
+ * @param <VALUE>
+ */
+@Private
+@Evolving
+public class WatermarkTableCache<KEY, VALUE>
+    implements TableCache<KEY, VALUE> {
+
+  public static final Logger LOG =
+      LoggerFactory.getLogger(WatermarkTableCache.class);
+
+  private final ConcurrentMap<CacheKey<KEY>, CacheValue<VALUE>> cache;
+  private final CacheType cacheType;
+  private final AtomicLong flushedWatermark = new AtomicLong(Long.MIN_VALUE);
+  // Set when a cleanup is queued and not started yet, to coalesce cleanups.
+  private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+  // For full cache only delete markers are evicted, skip the scan if none
+  // has been added since the last one.
+  private final AtomicBoolean hasDeleteMarkers = new AtomicBoolean();
+  private final ExecutorService executorService;
+  private final CacheStatsRecorder statsRecorder;
+
+  public WatermarkTableCache(CacheType cacheType, String threadNamePrefix) {
+    this.cacheType = cacheType;
+    // Full table cache needs the entries in sorted order for list
+    // operations, partial table cache is merged with the DB anyway.
+    if (cacheType == CacheType.FULL_CACHE) {
+      cache = new ConcurrentSkipListMap<>();
+    } else {
+      cache = new ConcurrentHashMap<>();
+    }
+
+    ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat(threadNamePrefix + "WatermarkTableCache-Cleanup-%d")
+        .build();
+    executorService = Executors.newSingleThreadExecutor(threadFactory);
+
+    statsRecorder = new CacheStatsRecorder();
+  }
+
+  @Override
+  public CacheValue<VALUE> get(CacheKey<KEY> cachekey) {
+    CacheValue<VALUE> value = cache.get(cachekey);
+    statsRecorder.recordValue(value);
+    return value;
+  }
+
+  @Override
+  public void loadInitial(CacheKey<KEY> key, CacheValue<VALUE> value) {
+    if (cacheType == CacheType.FULL_CACHE) {
+      cache.put(key, value);
+    }
+  }
+
+  @Override
+  public void put(CacheKey<KEY> cacheKey, CacheValue<VALUE> value) {
+    cache.put(cacheKey, value);
+    if (value.getCacheValue() == null) {
+      hasDeleteMarkers.set(true);
+    }
+  }
+
+  @Override
+  public void cleanup(List<Long> epochs) {
+    advanceWatermark(epochs);
+    if (evictionScheduled.compareAndSet(false, true)) {
+      executorService.execute(() -> {
+        evictionScheduled.set(false);
+        evict(flushedWatermark.get());
+      });
+    }
+  }
+
+  @VisibleForTesting
+  @Override
+  public void evictCache(List<Long> epochs) {
+    advanceWatermark(epochs);
+    evict(flushedWatermark.get());
+  }
+
+  private void advanceWatermark(List<Long> epochs) {
+    if (!epochs.isEmpty()) {
+      flushedWatermark.accumulateAndGet(epochs.get(epochs.size() - 1),
+          Math::max);
+    }
+  }
+
+  private void evict(long watermark) {
+    final boolean full = cacheType == CacheType.FULL_CACHE;
+    if (full && !hasDeleteMarkers.getAndSet(false)) {
+      return;
+    }
+    boolean remaining = false;
+    for (Map.Entry<CacheKey<KEY>, CacheValue<VALUE>> entry
+        : cache.entrySet()) {
+      CacheValue<VALUE> value = entry.getValue();
+      if (full && value.getCacheValue() != null) {
+        continue;
+      }
+      if (value.getEpoch() > watermark) {
+        remaining = true;
+      } else if (cache.remove(entry.getKey(), value)) {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("CacheKey {} with epoch {} is removed from cache",
+              entry.getKey().getCacheKey(), value.getEpoch());
+        }
+      }
+    }
+    if (full && remaining) {
+      hasDeleteMarkers.set(true);
+    }
+  }
+
+  @Override
+  public int size() {
+    return cache.size();
+  }
+
+  @Override
+  public Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>> iterator() {
+    statsRecorder.recordIteration();
+    return cache.entrySet().iterator();
+  }
+
+  @Override
+  public CacheResult<VALUE> lookup(CacheKey<KEY> cachekey) {
+    CacheValue<VALUE> cachevalue = cache.get(cachekey);
+    statsRecorder.recordValue(cachevalue);
+    return toCacheResult(cacheType, cachevalue);
+  }
+
+  static <V> CacheResult<V> toCacheResult(CacheType type,
+      CacheValue<V> cachevalue) {
+    if (cachevalue == null) {
+      return new CacheResult<>(type == CacheType.FULL_CACHE ?
+          CacheResult.CacheStatus.NOT_EXIST :
+          CacheResult.CacheStatus.MAY_EXIST, null);
+    } else if (cachevalue.getCacheValue() != null) {
+      return new CacheResult<>(CacheResult.CacheStatus.EXISTS, cachevalue);
+    } else {
+      // When entity is marked for delete, cacheValue will be set to null.
+      return new CacheResult<>(CacheResult.CacheStatus.NOT_EXIST, null);
+    }
+  }
+
+  /**
+   * Epochs are stored inline with the entries, there are no epoch entries.
+   */
+  @VisibleForTesting
+  @Override
+  public NavigableMap<Long, Set<CacheKey<KEY>>> getEpochEntries() {
+    return Collections.emptyNavigableMap();
+  }
+
+  @VisibleForTesting
+  public long getFlushedWatermark() {
+    return flushedWatermark.get();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return statsRecorder.snapshot();
+  }
+
+  @Override
+  public CacheType getCacheType() {
+    return cacheType;
+  }
+}
@@ -309,6 +309,36 @@ public void batchDelete() throws Exception {
     }
   }
 
+  @Test
+  public void batchDeleteRange() throws Exception {
+    try (Table<byte[], byte[]> testTable = rdbStore.getTable("Fifth");
+        BatchOperation batch = rdbStore.initBatchOperation()) {
+
+      //given
+      for (char c = 'a'; c <= 'f'; c++) {
+        testTable.put(new byte[] {(byte) c}, new byte[] {(byte) c});
+      }
+
+      //when
+      // Put before the range is deleted by it, put after it is not
+      testTable.putWithBatch(batch, new byte[] {'g'}, new byte[] {'g'});
+      testTable.putWithBatch(batch, new byte[] {'b'}, new byte[] {'x'});
+      testTable.deleteRangeWithBatch(batch, new byte[] {'b'},
+          new byte[] {'e'});
+      testTable.putWithBatch(batch, new byte[] {'c'}, new byte[] {'y'});
+      rdbStore.commitBatchOperation(batch);
+
+      //then
+      assertNotNull(testTable.get(new byte[] {'a'}));
+      assertNull(testTable.get(new byte[] {'b'}));
+      assertArrayEquals(new byte[] {'y'}, testTable.get(new byte[] {'c'}));
+      assertNull(testTable.get(new byte[] {'d'}));
+      assertNotNull(testTable.get(new byte[] {'e'}));
+      assertNotNull(testTable.get(new byte[] {'f'}));
+      assertNotNull(testTable.get(new byte[] {'g'}));
+    }
+  }
+
   @Test
   public void forEachAndIterator() throws Exception {
     final int iterCount = 100;
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
+import org.apache.ozone.test.GenericTestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link WatermarkTableCache} and {@link LongWatermarkTableCache}.
+ */
+public class TestWatermarkTableCache {
+
+  private static List<TableCache<Long, String>> createCaches(
+      CacheType cacheType) {
+    return Arrays.asList(new WatermarkTableCache<>(cacheType, ""),
+        new LongWatermarkTableCache<>(cacheType, ""));
+  }
+
+  @ParameterizedTest
+  @EnumSource(CacheType.class)
+  public void testEvictByWatermark(CacheType cacheType) {
+    for (TableCache<Long, String> cache : createCaches(cacheType)) {
+      for (long i = 0; i < 10; i++) {
+        cache.put(new CacheKey<>(i), CacheValue.get(i, Long.toString(i)));
+      }
+      // Delete markers.
+      for (long i = 10; i < 20; i++) {
+        cache.put(new CacheKey<>(i), CacheValue.get(i));
+      }
+
+      cache.evictCache(Collections.singletonList(4L));
+      if (cacheType == CacheType.FULL_CACHE) {
+        assertEquals(20, cache.size());
+      } else {
+        assertEquals(15, cache.size());
+        assertNull(cache.get(new CacheKey<>(4L)));
+        assertEquals(CacheResult.CacheStatus.MAY_EXIST,
+            cache.lookup(new CacheKey<>(4L)).getCacheStatus());
+      }
+      assertEquals("5", cache.get(new CacheKey<>(5L)).getCacheValue());
+
+      cache.evictCache(Arrays.asList(12L, 14L));
+      assertEquals(cacheType == CacheType.FULL_CACHE ? 15 : 5, cache.size());
+      assertNull(cache.get(new CacheKey<>(14L)));
+      assertEquals(CacheResult.CacheStatus.NOT_EXIST,
+          cache.lookup(new CacheKey<>(15L)).getCacheStatus());
+
+      // The watermark never goes back.
+      cache.evictCache(Collections.singletonList(1L));
+      assertEquals(cacheType == CacheType.FULL_CACHE ? 15 : 5, cache.size());
+
+      cache.evictCache(Collections.singletonList(19L));
+      assertEquals(cacheType == CacheType.FULL_CACHE ? 10 : 0, cache.size());
+      assertTrue(cache.getEpochEntries().isEmpty());
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(CacheType.class)
+  public void testOverriddenEntryIsNotEvicted(CacheType cacheType) {
+    for (TableCache<Long, String> cache : createCaches(cacheType)) {
+      CacheKey<Long> key = new CacheKey<>(1L);
+      cache.put(key, CacheValue.get(1));
+      cache.put(key, CacheValue.get(5));
+      cache.evictCache(Collections.singletonList(3L));
+      assertEquals(5, cache.get(key).getEpoch());
+
+      CacheValue<String> value = CacheValue.get(7, "value");
+      cache.put(key, value);
+      cache.evictCache(Collections.singletonList(5L));
+      assertSame(value, cache.get(key));
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(CacheType.class)
+  public void testCleanup(CacheType cacheType) throws Exception {
+    for (TableCache<Long, String> cache : createCaches(cacheType)) {
+      List<Long> epochs = new ArrayList<>();
+      for (long i = 0; i < 100; i++) {
+        cache.put(new CacheKey<>(i), CacheValue.get(i));
+        epochs.add(i);
+        if (i % 10 == 9) {
+          cache.cleanup(new ArrayList<>(epochs));
+          epochs.clear();
+        }
+      }
+      GenericTestUtils.waitFor(() -> cache.size() == 0, 10, 10000);
+    }
+  }
+
+  @Test
+  public void testLongCacheWithManyKeys() {
+    LongWatermarkTableCache<String> cache =
+        new LongWatermarkTableCache<>(CacheType.PARTIAL_CACHE, "");
+    Random random = new Random(0);
+    Map<Long, Long> epochs = new HashMap<>();
+    for (int i = 0; i < 10000; i++) {
+      long key = random.nextLong();
+      epochs.put(key, (long) i);
+      cache.put(new CacheKey<>(key), CacheValue.get(i, Long.toString(key)));
+    }
+    assertEquals(epochs.size(), cache.size());
+
+    cache.evictCache(Collections.singletonList(4999L));
+    int remaining = 0;
+    for (Map.Entry<Long, Long> e : epochs.entrySet()) {
+      CacheValue<String> value = cache.get(new CacheKey<>(e.getKey()));
+      if (e.getValue() <= 4999) {
+        assertNull(value);
+      } else {
+        assertEquals(Long.toString(e.getKey()), value.getCacheValue());
+        remaining++;
+      }
+    }
+    assertEquals(remaining, cache.size());
+
+    int iterated = 0;
+    for (Iterator<Map.Entry<CacheKey<Long>, CacheValue<String>>> it =
+         cache.iterator(); it.hasNext(); it.next()) {
+      iterated++;
+    }
+    assertEquals(remaining, iterated);
+  }
+
+  @Test
+  public void testLongFullCacheIteratorOrder() {
+    LongWatermarkTableCache<String> cache =
+        new LongWatermarkTableCache<>(CacheType.FULL_CACHE, "");
+    FullTableCache<Long, String> expected = new FullTableCache<>("");
+    for (long i = 100; i > 0; i--) {
+      cache.loadInitial(new CacheKey<>(i), CacheValue.get(-1, "v"));
+      expected.loadInitial(new CacheKey<>(i), CacheValue.get(-1, "v"));
+    }
+    Iterator<Map.Entry<CacheKey<Long>, CacheValue<String>>> expectedIt =
+        expected.iterator();
+    Iterator<Map.Entry<CacheKey<Long>, CacheValue<String>>> it =
+        cache.iterator();
+    while (expectedIt.hasNext()) {
+      assertEquals(expectedIt.next().getKey(), it.next().getKey());
+    }
+    assertEquals(expectedIt.hasNext(), it.hasNext());
+  }
+}
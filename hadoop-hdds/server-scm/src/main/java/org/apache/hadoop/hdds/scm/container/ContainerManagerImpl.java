@@ -165,7 +165,7 @@ public List<ContainerInfo> getContainers(final ContainerID startID,
 
   @Override
   public int getContainerStateCount(final LifeCycleState state) {
-    return containerStateManager.getContainerIDs(state).size();
+    return containerStateManager.getContainerCount(state);
   }
 
   @Override
@@ -20,12 +20,17 @@
 
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto
+    .StorageContainerDatanodeProtocolProtos.ContainerRangeDigestProto;
 import org.apache.hadoop.hdds.protocol.proto
     .StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.protocol.proto
+    .StorageContainerDatanodeProtocolProtos.ContainerReplicaProto.State;
 import org.apache.hadoop.hdds.protocol.proto
     .StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
 import org.apache.hadoop.hdds.scm.ScmConfig;
 import org.apache.hadoop.hdds.scm.container.report.ContainerReportValidator;
+import org.apache.hadoop.hdds.scm.events.SCMEvents;
 import org.apache.hadoop.hdds.scm.ha.SCMContext;
 import org.apache.hadoop.hdds.scm.node.NodeManager;
 import org.apache.hadoop.hdds.scm.node.states.NodeNotFoundException;
@@ -34,12 +39,24 @@
 import org.apache.hadoop.hdds.server.events.EventHandler;
 import org.apache.hadoop.hdds.server.events.EventPublisher;
 import org.apache.hadoop.ozone.common.statemachine.InvalidStateTransitionException;
+import org.apache.hadoop.ozone.protocol.ContainerRangeDigests;
+import org.apache.hadoop.ozone.protocol.commands.CommandForDatanode;
+import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
+import org.apache.hadoop.ozone.protocol.commands.SendContainerReportCommand;
+import org.apache.ratis.protocol.exceptions.NotLeaderException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -53,7 +70,12 @@ public class ContainerReportHandler extends AbstractContainerReportHandler
 
   private final NodeManager nodeManager;
   private final ContainerManager containerManager;
+  private final SCMContext scmContext;
   private final String unknownContainerHandleAction;
+  // Digests of the container ID ranges of each datanode whose replicas are
+  // known to be the same in SCM, for reports which carry digests.
+  private final Map<UUID, RangeDigests> rangeDigests =
+      new ConcurrentHashMap<>();
 
   /**
    * The action taken by ContainerReportHandler to handle
@@ -77,6 +99,7 @@ public ContainerReportHandler(final NodeManager nodeManager,
     super(containerManager, scmContext, LOG);
     this.nodeManager = nodeManager;
     this.containerManager = containerManager;
+    this.scmContext = scmContext;
 
     if (conf != null) {
       ScmConfig scmConfig = conf.getObject(ScmConfig.class);
@@ -132,6 +155,17 @@ public ContainerReportHandler(final NodeManager nodeManager,
    *  changed to have a command sent to the datanode to delete the replica via
    *  the hdds.scm.unknown-container.action setting.
    *
+   *  A datanode may also send the digests of the replicas in each range of
+   *  container IDs, with only the replicas of the ranges which changed since
+   *  its previous report. The replicas of the other ranges are neither
+   *  processed nor treated as missing. If the digest of such a range differs
+   *  from the one of the last report processed for it, for example after a
+   *  report was lost or SCM restarted, the datanode is asked to send the
+   *  replicas of the range. The digest of a range is also forgotten while
+   *  one of its replicas still needs a follow-up action by a later report,
+   *  for example a container to move to CLOSED or a replica to delete, so
+   *  that the range is requested again with every report until it is done.
+   *
    *  Note that the datanode also sends smaller Incremental Container Reports
    *  more frequently, but the logic is synchronized on the datanode to prevent
    *  full and incremental reports processing in parallel for the same datanode
@@ -165,6 +199,9 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
             containerReport.getReportsList();
         final Set<ContainerID> expectedContainersInDatanode =
             nodeManager.getContainers(datanodeDetails);
+        final Set<Long> unreportedRanges = processRangeDigests(
+            datanodeDetails, containerReport, publisher);
+        final Set<Long> followUpRanges = new HashSet<>();
 
         for (ContainerReplicaProto replica : replicas) {
           ContainerID cid = ContainerID.valueOf(replica.getContainerID());
@@ -193,6 +230,17 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
             processSingleReplica(datanodeDetails, container,
                     replica, publisher);
           }
+          if (containerReport.hasDigestRangeSize()
+              && needsFollowUp(cid, replica)) {
+            followUpRanges.add(ContainerRangeDigests.getRange(
+                replica.getContainerID(), containerReport.getDigestRangeSize()));
+          }
+        }
+        forgetRangeDigests(datanodeDetails, followUpRanges);
+        if (!unreportedRanges.isEmpty()) {
+          final long rangeSize = containerReport.getDigestRangeSize();
+          expectedContainersInDatanode.removeIf(id -> unreportedRanges
+              .contains(ContainerRangeDigests.getRange(id.getId(), rangeSize)));
         }
         // Anything left in expectedContainersInDatanode was not in the full
         // report, so it is now missing on the DN. We need to remove it from the
@@ -208,6 +256,148 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
 
   }
 
+  /**
+   * Compares the digests of the container ID ranges in the report with the
+   * ones of the last report processed for each range, and asks the datanode
+   * to send the replicas of the ranges whose digest differs.
+   *
+   * @return the ranges whose replicas are not included in the report
+   */
+  private Set<Long> processRangeDigests(final DatanodeDetails datanodeDetails,
+      final ContainerReportsProto containerReport,
+      final EventPublisher publisher) {
+    final UUID uuid = datanodeDetails.getUuid();
+    if (!containerReport.hasDigestRangeSize()) {
+      rangeDigests.remove(uuid);
+      return Collections.emptySet();
+    }
+    final long rangeSize = containerReport.getDigestRangeSize();
+    final RangeDigests previous = rangeDigests.get(uuid);
+    final Map<Long, Long> known =
+        previous != null && previous.rangeSize == rangeSize
+            ? previous.digests : Collections.emptyMap();
+    final Map<Long, Long> digests = new HashMap<>();
+    final Set<Long> unreported = new HashSet<>();
+    final List<Long> changed = new ArrayList<>();
+    for (ContainerRangeDigestProto range
+        : containerReport.getRangeDigestsList()) {
+      if (range.getReported()) {
+        digests.put(range.getRange(), range.getDigest());
+        continue;
+      }
+      unreported.add(range.getRange());
+      final Long digest = known.get(range.getRange());
+      if (digest != null && digest == range.getDigest()) {
+        digests.put(range.getRange(), digest);
+      } else {
+        changed.add(range.getRange());
+      }
+    }
+    rangeDigests.put(uuid, new RangeDigests(rangeSize, digests));
+    LOG.debug("Container report from {} includes {} of {} ranges, {} ranges " +
+            "changed", datanodeDetails,
+        containerReport.getRangeDigestsCount() - unreported.size(),
+        containerReport.getRangeDigestsCount(), changed.size());
+    if (!changed.isEmpty()) {
+      requestRanges(datanodeDetails, changed, publisher);
+    }
+    return unreported;
+  }
+
+  /**
+   * @return true if the replica, reported again, would cause another action
+   * on the container or the replica, since the container state in SCM does
+   * not match the replica yet.
+   */
+  private boolean needsFollowUp(final ContainerID id,
+      final ContainerReplicaProto replica) {
+    final ContainerInfo container;
+    try {
+      container = containerManager.getContainer(id);
+    } catch (ContainerNotFoundException e) {
+      return unknownContainerHandleAction.equals(
+          UNKNOWN_CONTAINER_ACTION_DELETE);
+    }
+    final State state = replica.getState();
+    switch (container.getState()) {
+    case OPEN:
+      return state != State.OPEN;
+    case CLOSING:
+      return state == State.QUASI_CLOSED || state == State.CLOSED;
+    case QUASI_CLOSED:
+      return state == State.CLOSED;
+    case DELETING:
+      return state == State.CLOSED && replica.hasIsEmpty()
+          && !replica.getIsEmpty();
+    case DELETED:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * Forgets the digests of the given ranges of a datanode, so that they are
+   * requested with its next report.
+   */
+  private void forgetRangeDigests(final DatanodeDetails datanodeDetails,
+      final Set<Long> ranges) {
+    final RangeDigests known = rangeDigests.get(datanodeDetails.getUuid());
+    if (known != null && !ranges.isEmpty()) {
+      known.digests.keySet().removeAll(ranges);
+    }
+  }
+
+  /**
+   * @return handler of {@link SCMEvents#DEAD_NODE}, which forgets the
+   * digests of the dead datanode. Its replicas are removed from SCM, so all
+   * its ranges must be requested if it comes back.
+   */
+  public EventHandler<DatanodeDetails> getDeadNodeHandler() {
+    return new RangeDigestsCleaner();
+  }
+
+  private void requestRanges(final DatanodeDetails datanodeDetails,
+      final List<Long> ranges, final EventPublisher publisher) {
+    final SCMCommand<?> command = new SendContainerReportCommand(ranges);
+    try {
+      command.setTerm(scmContext.getTermOfLeader());
+    } catch (NotLeaderException nle) {
+      LOG.debug("Skip asking datanode {} for the replicas of {} container " +
+          "ID ranges, since not leader SCM", datanodeDetails, ranges.size());
+      return;
+    }
+    publisher.fireEvent(SCMEvents.DATANODE_COMMAND,
+        new CommandForDatanode<>(datanodeDetails.getUuid(), command));
+    LOG.info("Asking datanode {} for the replicas of {} container ID ranges " +
+        "with changed digest", datanodeDetails, ranges.size());
+  }
+
+  /**
+   * Forgets the digests of dead datanodes.
+   */
+  private final class RangeDigestsCleaner
+      implements EventHandler<DatanodeDetails> {
+    @Override
+    public void onMessage(final DatanodeDetails datanodeDetails,
+        final EventPublisher publisher) {
+      rangeDigests.remove(datanodeDetails.getUuid());
+    }
+  }
+
+  /**
+   * Digests of the container ID ranges of a datanode.
+   */
+  private static final class RangeDigests {
+    private final long rangeSize;
+    private final Map<Long, Long> digests;
+
+    private RangeDigests(long rangeSize, Map<Long, Long> digests) {
+      this.rangeSize = rangeSize;
+      this.digests = digests;
+    }
+  }
+
   /**
    * Processes the ContainerReport.
    * Any unknown container reported by DN and not present in SCM
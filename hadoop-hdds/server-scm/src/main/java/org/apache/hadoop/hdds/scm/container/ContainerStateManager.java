@@ -114,6 +114,12 @@ public interface ContainerStateManager {
    */
   Set<ContainerID> getContainerIDs(LifeCycleState state);
 
+  /**
+   * Returns the number of containers in the given state, without copying
+   * their IDs.
+   */
+  int getContainerCount(LifeCycleState state);
+
   /**
    *
    */
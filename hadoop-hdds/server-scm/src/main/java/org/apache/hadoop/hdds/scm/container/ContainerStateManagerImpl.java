@@ -21,6 +21,7 @@
 import java.lang.reflect.Proxy;
 import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
@@ -30,7 +31,9 @@
 
 import com.google.common.base.Preconditions;
 
-import com.google.common.util.concurrent.Striped;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.conf.StorageUnit;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
@@ -82,14 +85,17 @@
  * Default implementation of ContainerStateManager. This implementation
  * holds the Container States in-memory which is backed by a persistent store.
  * The persistent store is always kept in sync with the in-memory state changes.
- *
- * This class is NOT thread safe. All the calls are idempotent.
+ * <p>
+ * The in-memory state is partitioned into shards by container ID, each with
+ * its own {@link ContainerStateMap} and lock, so that operations on containers
+ * of different shards do not contend. Listing containers reads the shards
+ * one by one without locking: the result contains each container which
+ * existed during the whole listing, while containers added or removed
+ * meanwhile may or may not be included. All the calls are idempotent.
  */
 public final class ContainerStateManagerImpl
     implements ContainerStateManager {
 
-  private final Striped<ReadWriteLock> stripedLock;
-
   /**
    * Logger instance of ContainerStateManagerImpl.
    */
@@ -102,9 +108,15 @@
   private final long containerSize;
 
   /**
-   * In-memory representation of Container States.
+   * Number of shards of the in-memory state.
+   */
+  private final int shardCount;
+
+  /**
+   * In-memory representation of Container States, replaced as a whole on
+   * reinitialize.
    */
-  private ContainerStateMap containers;
+  private volatile List<Shard> shards;
 
   /**
    * Persistent store for Container States.
@@ -139,10 +151,6 @@
   private final Map<LifeCycleEvent, CheckedConsumer<ContainerInfo, IOException>>
       containerStateChangeActions;
 
-  // Protect containers and containerStore against the potential
-  // contentions between RaftServer and ContainerManager.
-  private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
-
   /**
    * constructs ContainerStateManagerImpl instance and loads the containers
    * form the persistent storage.
@@ -161,15 +169,14 @@ private ContainerStateManagerImpl(final Configuration conf,
     this.containerStore = containerStore;
     this.stateMachine = newStateMachine();
     this.containerSize = getConfiguredContainerSize(conf);
-    this.containers = new ContainerStateMap();
     this.lastUsedMap = new ConcurrentHashMap<>();
     this.containerStateChangeActions = getContainerStateChangeActions();
     this.transactionBuffer = buffer;
-    this.stripedLock = Striped.readWriteLock(conf.getInt(
+    this.shardCount = Math.max(1, conf.getInt(
         OZONE_SCM_CONTAINER_LOCK_STRIPE_SIZE,
         OZONE_SCM_CONTAINER_LOCK_STRIPE_SIZE_DEFAULT));
     this.containerReplicaPendingOps = pendingOps;
-    initialize();
+    this.shards = initialize();
   }
 
   /**
@@ -234,11 +241,16 @@ private long getConfiguredContainerSize(final Configuration conf) {
   }
 
   /**
-   * Loads the containers from container store into memory.
+   * Loads the containers from container store into new shards.
    *
+   * @return the shards holding the containers
    * @throws IOException in case of error while loading the containers
    */
-  private void initialize() throws IOException {
+  private List<Shard> initialize() throws IOException {
+    final Shard[] newShards = new Shard[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      newShards[i] = new Shard();
+    }
     try (TableIterator<ContainerID,
         ? extends KeyValue<ContainerID, ContainerInfo>> iterator =
              containerStore.iterator()) {
@@ -246,7 +258,8 @@ private void initialize() throws IOException {
       while (iterator.hasNext()) {
         final ContainerInfo container = iterator.next().getValue();
         Preconditions.checkNotNull(container);
-        containers.addContainer(container);
+        newShards[getShardIndex(container.containerID())].containers
+            .addContainer(container);
         if (container.getState() == LifeCycleState.OPEN) {
           try {
             pipelineManager.addContainerToPipelineSCMStart(
@@ -262,6 +275,7 @@ private void initialize() throws IOException {
         }
       }
     }
+    return ImmutableList.copyOf(newShards);
   }
 
   private Map<LifeCycleEvent, CheckedConsumer<ContainerInfo, IOException>>
@@ -275,22 +289,37 @@ private void initialize() throws IOException {
 
   @Override
   public Set<ContainerID> getContainerIDs() {
-    try (AutoCloseableLock ignored = readLock()) {
-      return containers.getAllContainerIDs();
+    final ImmutableSet.Builder<ContainerID> ids = ImmutableSet.builder();
+    for (Shard shard : shards) {
+      shard.containers.forEachContainerID(ids::add);
     }
+    return ids.build();
   }
 
   @Override
   public Set<ContainerID> getContainerIDs(final LifeCycleState state) {
-    try (AutoCloseableLock ignored = readLock()) {
-      return containers.getContainerIDsByState(state);
+    final ImmutableSortedSet.Builder<ContainerID> ids =
+        ImmutableSortedSet.naturalOrder();
+    for (Shard shard : shards) {
+      shard.containers.forEachContainerID(state, ids::add);
     }
+    return ids.build();
+  }
+
+  @Override
+  public int getContainerCount(final LifeCycleState state) {
+    int count = 0;
+    for (Shard shard : shards) {
+      count += shard.containers.getContainerCount(state);
+    }
+    return count;
   }
 
   @Override
   public ContainerInfo getContainer(final ContainerID id) {
-    try (AutoCloseableLock ignored = readLock(id)) {
-      return containers.getContainerInfo(id);
+    final Shard shard = getShard(id);
+    try (AutoCloseableLock ignored = shard.readLock()) {
+      return shard.containers.getContainerInfo(id);
     }
   }
 
@@ -307,8 +336,9 @@ public void addContainer(final ContainerInfoProto containerInfo)
     final ContainerID containerID = container.containerID();
     final PipelineID pipelineID = container.getPipelineID();
 
-    try (AutoCloseableLock ignoredGlobal = writeLock();
-        AutoCloseableLock ignored = writeLock(containerID)) {
+    final Shard shard = getShard(containerID);
+    try (AutoCloseableLock ignored = shard.writeLock()) {
+      final ContainerStateMap containers = shard.containers;
       if (!containers.contains(containerID)) {
         ExecutionUtil.create(() -> {
           transactionBuffer.addToBuffer(containerStore,
@@ -334,8 +364,9 @@ public void addContainer(final ContainerInfoProto containerInfo)
 
   @Override
   public boolean contains(ContainerID id) {
-    try (AutoCloseableLock ignored = readLock(id)) {
-      return containers.contains(id);
+    final Shard shard = getShard(id);
+    try (AutoCloseableLock ignored = shard.readLock()) {
+      return shard.containers.contains(id);
     }
   }
 
@@ -346,7 +377,9 @@ public void updateContainerState(final HddsProtos.ContainerID containerID,
     // TODO: Remove the protobuf conversion after fixing ContainerStateMap.
     final ContainerID id = ContainerID.getFromProtobuf(containerID);
 
-    try (AutoCloseableLock ignored = writeLock(id)) {
+    final Shard shard = getShard(id);
+    try (AutoCloseableLock ignored = shard.writeLock()) {
+      final ContainerStateMap containers = shard.containers;
       if (containers.contains(id)) {
         final ContainerInfo oldInfo = containers.getContainerInfo(id);
         final LifeCycleState oldState = oldInfo.getState();
@@ -372,7 +405,9 @@ public void updateContainerState(final HddsProtos.ContainerID containerID,
   public void transitionDeletingToClosedState(HddsProtos.ContainerID containerID) throws IOException {
     final ContainerID id = ContainerID.getFromProtobuf(containerID);
 
-    try (AutoCloseableLock ignored = writeLock(id)) {
+    final Shard shard = getShard(id);
+    try (AutoCloseableLock ignored = shard.writeLock()) {
+      final ContainerStateMap containers = shard.containers;
       if (containers.contains(id)) {
         final ContainerInfo oldInfo = containers.getContainerInfo(id);
         final LifeCycleState oldState = oldInfo.getState();
@@ -393,16 +428,18 @@ public void transitionDeletingToClosedState(HddsProtos.ContainerID containerID)
 
   @Override
   public Set<ContainerReplica> getContainerReplicas(final ContainerID id) {
-    try (AutoCloseableLock ignored = readLock(id)) {
-      return containers.getContainerReplicas(id);
+    final Shard shard = getShard(id);
+    try (AutoCloseableLock ignored = shard.readLock()) {
+      return shard.containers.getContainerReplicas(id);
     }
   }
 
   @Override
   public void updateContainerReplica(final ContainerID id,
                                      final ContainerReplica replica) {
-    try (AutoCloseableLock ignored = writeLock(id)) {
-      containers.updateContainerReplica(id, replica);
+    final Shard shard = getShard(id);
+    try (AutoCloseableLock ignored = shard.writeLock()) {
+      shard.containers.updateContainerReplica(id, replica);
       // Clear any pending additions for this replica as we have now seen it.
       containerReplicaPendingOps.completeAddReplica(id,
           replica.getDatanodeDetails(), replica.getReplicaIndex());
@@ -412,8 +449,9 @@ public void updateContainerReplica(final ContainerID id,
   @Override
   public void removeContainerReplica(final ContainerID id,
                                      final ContainerReplica replica) {
-    try (AutoCloseableLock ignored = writeLock(id)) {
-      containers.removeContainerReplica(id, replica);
+    final Shard shard = getShard(id);
+    try (AutoCloseableLock ignored = shard.writeLock()) {
+      shard.containers.removeContainerReplica(id, replica);
       // Remove any pending delete replication operations for the deleted
       // replica.
       containerReplicaPendingOps.completeDeleteReplica(id,
@@ -429,8 +467,9 @@ public void updateDeleteTransactionId(
     for (Map.Entry<ContainerID, Long> transaction :
         deleteTransactionMap.entrySet()) {
       ContainerID containerID = transaction.getKey();
-      try (AutoCloseableLock ignored = writeLock(containerID)) {
-        final ContainerInfo info = containers.getContainerInfo(
+      final Shard shard = getShard(containerID);
+      try (AutoCloseableLock ignored = shard.writeLock()) {
+        final ContainerInfo info = shard.containers.getContainerInfo(
             transaction.getKey());
         if (info == null) {
           LOG.warn("Cannot find container {}, transaction id is {}",
@@ -489,8 +528,10 @@ private ContainerInfo findContainerWithSpace(final long size,
                                                    searchSet) {
       // Get the container with space to meet our request.
     for (ContainerID id : searchSet) {
-      try (AutoCloseableLock ignored = readLock(id)) {
-        final ContainerInfo containerInfo = containers.getContainerInfo(id);
+      final Shard shard = getShard(id);
+      try (AutoCloseableLock ignored = shard.readLock()) {
+        final ContainerInfo containerInfo =
+            shard.containers.getContainerInfo(id);
         if (containerInfo.getUsedBytes() + size <= this.containerSize) {
           containerInfo.updateLastUsedTime();
           return containerInfo;
@@ -504,12 +545,13 @@ private ContainerInfo findContainerWithSpace(final long size,
   public void removeContainer(final HddsProtos.ContainerID id)
       throws IOException {
     final ContainerID cid = ContainerID.getFromProtobuf(id);
-    try (AutoCloseableLock ignoredGlobal = writeLock();
-         AutoCloseableLock ignored = writeLock(cid)) {
-      final ContainerInfo containerInfo = containers.getContainerInfo(cid);
+    final Shard shard = getShard(cid);
+    try (AutoCloseableLock ignored = shard.writeLock()) {
+      final ContainerInfo containerInfo =
+          shard.containers.getContainerInfo(cid);
       ExecutionUtil.create(() -> {
         transactionBuffer.removeFromBuffer(containerStore, cid);
-        containers.removeContainer(cid);
+        shard.containers.removeContainer(cid);
       }).onException(() -> containerStore.put(cid, containerInfo)).execute();
     }
   }
@@ -517,13 +559,10 @@ public void removeContainer(final HddsProtos.ContainerID id)
   @Override
   public void reinitialize(
       Table<ContainerID, ContainerInfo> store) throws IOException {
-    try (AutoCloseableLock ignored = writeLock()) {
-      close();
-      this.containerStore = store;
-      this.containers = new ContainerStateMap();
-      this.lastUsedMap = new ConcurrentHashMap<>();
-      initialize();
-    }
+    close();
+    this.containerStore = store;
+    this.lastUsedMap = new ConcurrentHashMap<>();
+    this.shards = initialize();
   }
 
   @Override
@@ -535,20 +574,28 @@ public void close() throws IOException {
     }
   }
 
-  private AutoCloseableLock readLock() {
-    return AutoCloseableLock.acquire(lock.readLock());
+  private int getShardIndex(ContainerID id) {
+    return (int) Math.floorMod(id.getId(), (long) shardCount);
   }
 
-  private AutoCloseableLock writeLock() {
-    return AutoCloseableLock.acquire(lock.writeLock());
+  private Shard getShard(ContainerID id) {
+    return shards.get(getShardIndex(id));
   }
 
-  private AutoCloseableLock readLock(ContainerID id) {
-    return AutoCloseableLock.acquire(stripedLock.get(id).readLock());
-  }
+  /**
+   * The containers of a shard, and the lock protecting them.
+   */
+  private static final class Shard {
+    private final ContainerStateMap containers = new ContainerStateMap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private AutoCloseableLock readLock() {
+      return AutoCloseableLock.acquire(lock.readLock());
+    }
 
-  private AutoCloseableLock writeLock(ContainerID id) {
-    return AutoCloseableLock.acquire(stripedLock.get(id).writeLock());
+    private AutoCloseableLock writeLock() {
+      return AutoCloseableLock.acquire(lock.writeLock());
+    }
   }
 
   public static Builder newBuilder() {
@@ -25,6 +25,7 @@
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos
     .ContainerReplicaProto;
 import org.apache.hadoop.hdds.scm.container.report.ContainerReportValidator;
+import org.apache.hadoop.hdds.scm.events.SCMEvents;
 import org.apache.hadoop.hdds.scm.exceptions.SCMException;
 import org.apache.hadoop.hdds.scm.ha.SCMContext;
 import org.apache.hadoop.hdds.scm.node.NodeManager;
@@ -98,6 +99,9 @@ public void onMessage(final IncrementalContainerReportFromDatanode report,
           }
           if (ContainerReportValidator.validate(container, dd, replicaProto)) {
             processContainerReplica(dd, container, replicaProto, publisher);
+            if (replicaProto.getState() != ContainerReplicaProto.State.OPEN) {
+              publisher.fireEvent(SCMEvents.CHECK_CONTAINER_REPLICATION, id);
+            }
           }
           success = true;
         } catch (ContainerNotFoundException e) {
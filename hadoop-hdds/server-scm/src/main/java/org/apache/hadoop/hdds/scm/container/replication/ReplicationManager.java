@@ -19,6 +19,7 @@
 package org.apache.hadoop.hdds.scm.container.replication;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hdds.HddsConfigKeys;
 import org.apache.hadoop.hdds.client.ReplicationConfig;
@@ -86,6 +87,10 @@
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
@@ -94,6 +99,7 @@
 
 import static org.apache.hadoop.hdds.conf.ConfigTag.DATANODE;
 import static org.apache.hadoop.hdds.conf.ConfigTag.OZONE;
+import static org.apache.hadoop.hdds.conf.ConfigTag.PERFORMANCE;
 import static org.apache.hadoop.hdds.conf.ConfigTag.SCM;
 import static org.apache.hadoop.hdds.protocol.DatanodeDetails.isDecommission;
 import static org.apache.hadoop.hdds.protocol.DatanodeDetails.isMaintenance;
@@ -105,7 +111,8 @@
  * that the containers are properly replicated. Replication Manager deals only
  * with Quasi Closed / Closed container.
  */
-public class ReplicationManager implements SCMService {
+public class ReplicationManager implements SCMService,
+    ContainerReplicaPendingOpsSubscriber {
 
   public static final Logger LOG =
       LoggerFactory.getLogger(ReplicationManager.class);
@@ -201,6 +208,13 @@ public class ReplicationManager implements SCMService {
   private final HealthCheck containerCheckChain;
   private final ReplicationQueue nullReplicationQueue =
       new NullReplicationQueue();
+  /**
+   * Checks the health of all but the first partition of the containers,
+   * while the replication monitor thread checks the first one. Null if
+   * containers are checked by a single thread. Created when the replication
+   * manager starts, and shut down when it stops.
+   */
+  private ExecutorService healthCheckExecutor;
 
   /**
    * Constructs ReplicationManager instance with the given configuration.
@@ -299,6 +313,14 @@ public synchronized void start() {
         legacyReplicationManager.setMetrics(metrics);
       }
       containerReplicaPendingOps.setReplicationMetrics(metrics);
+      final int healthCheckThreads = rmConf.getHealthCheckThreads();
+      healthCheckExecutor = healthCheckThreads > 1
+          ? Executors.newFixedThreadPool(healthCheckThreads - 1,
+              new ThreadFactoryBuilder().setDaemon(true)
+                  .setNameFormat(scmContext.threadNamePrefix()
+                      + "ReplicationHealthCheck-%d")
+                  .build())
+          : null;
       startSubServices();
     } else {
       LOG.info("Replication Monitor Thread is already running.");
@@ -326,14 +348,16 @@ public boolean isRunning() {
   public synchronized void stop() {
     if (running) {
       LOG.info("Stopping Replication Monitor Thread.");
-      underReplicatedProcessorThread.interrupt();
-      overReplicatedProcessorThread.interrupt();
       running = false;
       if (rmConf.isLegacyEnabled()) {
         legacyReplicationManager.clearInflightActions();
       }
       metrics.unRegister();
-      replicationMonitor.interrupt();
+      if (healthCheckExecutor != null) {
+        healthCheckExecutor.shutdownNow();
+        healthCheckExecutor = null;
+      }
+      stopSubServices();
     } else {
       LOG.info("Replication Monitor Thread is not running.");
     }
@@ -362,9 +386,26 @@ protected void startSubServices() {
     overReplicatedProcessorThread.start();
   }
 
+  /**
+   * Stop Replication Manager sub services started by
+   * {@link #startSubServices()}.
+   */
+  @VisibleForTesting
+  protected void stopSubServices() {
+    underReplicatedProcessorThread.interrupt();
+    overReplicatedProcessorThread.interrupt();
+    replicationMonitor.interrupt();
+  }
+
   /**
    * Process all the containers now, and wait for the processing to complete.
    * This in intended to be used in tests.
+   * <p>
+   * The containers are split into partitions, whose health is checked in
+   * parallel by the health check threads. The new replication queue is used
+   * by the under and over replication processors from the start, so that
+   * containers found to be unhealthy are processed while the remaining ones
+   * are still being checked.
    */
   public synchronized void processAll() {
     if (!shouldRun()) {
@@ -377,28 +418,102 @@ public synchronized void processAll() {
         containerManager.getContainers();
     ReplicationManagerReport report = new ReplicationManagerReport();
     ReplicationQueue newRepQueue = new ReplicationQueue();
+    replicationQueue.set(newRepQueue);
+
+    // LegacyReplicationManager is not safe to use from multiple threads
+    final int partitionCount = healthCheckExecutor == null
+        || rmConf.isLegacyEnabled() ? 1
+        : Math.max(1, Math.min(rmConf.getHealthCheckThreads(),
+            containers.size()));
+    final List<Future<HealthCheckPartition>> futures = new ArrayList<>();
+    for (int i = 1; i < partitionCount; i++) {
+      final List<ContainerInfo> partition =
+          getPartition(containers, i, partitionCount);
+      futures.add(healthCheckExecutor.submit(
+          () -> processPartition(partition, newRepQueue, report)));
+    }
+    final List<HealthCheckPartition> partitions = new ArrayList<>();
+    try {
+      partitions.add(processPartition(
+          getPartition(containers, 0, partitionCount), newRepQueue, report));
+      for (Future<HealthCheckPartition> future : futures) {
+        partitions.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      LOG.info("Replication Monitor Thread interrupted while checking " +
+          "containers");
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      return;
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    report.setComplete();
+    this.containerReport = report;
+    final long elapsed = clock.millis() - start;
+    getMetrics().setHealthCheckPartitions(partitions, elapsed);
+    LOG.info("Replication Monitor Thread took {} milliseconds for" +
+            " processing {} containers in {} partitions.", elapsed,
+        containers.size(), partitionCount);
+  }
+
+  private static List<ContainerInfo> getPartition(
+      List<ContainerInfo> containers, int index, int partitionCount) {
+    final int size = containers.size();
+    return containers.subList(
+        (int) ((long) size * index / partitionCount),
+        (int) ((long) size * (index + 1) / partitionCount));
+  }
+
+  private HealthCheckPartition processPartition(
+      List<ContainerInfo> containers, ReplicationQueue repQueue,
+      ReplicationManagerReport report) {
+    final long start = clock.millis();
+    int processed = 0;
     for (ContainerInfo c : containers) {
       if (!shouldRun()) {
         break;
       }
+      processed++;
       report.increment(c.getState());
       if (rmConf.isLegacyEnabled() && !isEC(c.getReplicationConfig())) {
         legacyReplicationManager.processContainer(c, report);
         continue;
       }
       try {
-        processContainer(c, newRepQueue, report);
+        processContainer(c, repQueue, report);
         // TODO - send any commands contained in the health result
       } catch (ContainerNotFoundException e) {
         LOG.error("Container {} not found", c.getContainerID(), e);
       }
     }
-    report.setComplete();
-    replicationQueue.set(newRepQueue);
-    this.containerReport = report;
-    LOG.info("Replication Monitor Thread took {} milliseconds for" +
-            " processing {} containers.", clock.millis() - start,
-        containers.size());
+    return new HealthCheckPartition(processed, clock.millis() - start);
+  }
+
+  /**
+   * Number of containers checked in a partition of the last run of the
+   * replication monitor, and the time it took.
+   */
+  static final class HealthCheckPartition {
+    private final int containers;
+    private final long time;
+
+    HealthCheckPartition(int containers, long time) {
+      this.containers = containers;
+      this.time = time;
+    }
+
+    int getContainers() {
+      return containers;
+    }
+
+    long getTime() {
+      return time;
+    }
   }
 
   public void sendCloseContainerEvent(ContainerID containerID) {
@@ -882,6 +997,37 @@ protected boolean processContainer(ContainerInfo containerInfo,
     }
   }
 
+  /**
+   * Checks the health of the given container now, rather than at the next
+   * run of the replication monitor. Called for the
+   * {@link SCMEvents#CHECK_CONTAINER_REPLICATION} event, so that the repair
+   * of a container starts as soon as one of its replicas is lost.
+   * <p>
+   * Unhealthy containers are added to the current replication queue, while
+   * the report of the replication monitor is left unchanged. Containers
+   * handled by the LegacyReplicationManager are left to the replication
+   * monitor, as it is not safe to use from multiple threads.
+   *
+   * @param containerID The ID of the container to check
+   */
+  public void checkContainer(ContainerID containerID) {
+    if (!rmConf.isEventCheckEnabled() || !shouldRun()) {
+      return;
+    }
+    try {
+      final ContainerInfo container =
+          containerManager.getContainer(containerID);
+      if (rmConf.isLegacyEnabled() && !isEC(container.getReplicationConfig())) {
+        return;
+      }
+      processContainer(container, replicationQueue.get(),
+          new ReplicationManagerReport());
+      getMetrics().incrEventContainerChecksTotal();
+    } catch (ContainerNotFoundException e) {
+      LOG.debug("Container {} not found, skipping health check", containerID);
+    }
+  }
+
   /**
    * Sends close container command for the given container to the given
    * datanode.
@@ -920,6 +1066,20 @@ public ReplicationManagerReport getContainerReport() {
     return containerReport;
   }
 
+  /**
+   * Requests a health check of the container once one of its pending
+   * replica operations completed or timed out, so that a failed operation
+   * is retried without waiting for the next run of the replication monitor.
+   */
+  @Override
+  public void opCompleted(ContainerReplicaOp op, ContainerID containerID,
+      boolean timedOut) {
+    if (rmConf.isEventCheckEnabled()) {
+      eventPublisher.fireEvent(SCMEvents.CHECK_CONTAINER_REPLICATION,
+          containerID);
+    }
+  }
+
   /**
    * ReplicationMonitor thread runnable. This wakes up at configured
    * interval and processes all the containers in the system.
@@ -1110,6 +1270,49 @@ public void setEnableLegacy(boolean enableLegacy) {
     )
     private Duration interval = Duration.ofSeconds(300);
 
+    /**
+     * The number of threads checking the health of containers.
+     */
+    @Config(key = "health.check.threads",
+        type = ConfigType.INT,
+        defaultValue = "4",
+        tags = {SCM, OZONE, PERFORMANCE},
+        description = "The number of threads the replication monitor uses " +
+            "to check the health of containers. The containers are split " +
+            "into this many partitions, which are checked in parallel. " +
+            "Only used if the LegacyReplicationManager is disabled."
+    )
+    private int healthCheckThreads = 4;
+
+    public int getHealthCheckThreads() {
+      return healthCheckThreads;
+    }
+
+    public void setHealthCheckThreads(int healthCheckThreads) {
+      this.healthCheckThreads = healthCheckThreads;
+    }
+
+    @Config(key = "event.check.enabled",
+        type = ConfigType.BOOLEAN,
+        defaultValue = "true",
+        tags = {SCM, OZONE},
+        description = "If true, the health of a container is checked as " +
+            "soon as its replicas change, for example when a datanode dies, " +
+            "a replica is reported or a replication command completes, " +
+            "instead of at the next run of the replication monitor. " +
+            "Only used if the LegacyReplicationManager is disabled, or for " +
+            "EC containers."
+    )
+    private boolean eventCheckEnabled = true;
+
+    public boolean isEventCheckEnabled() {
+      return eventCheckEnabled;
+    }
+
+    public void setEventCheckEnabled(boolean eventCheckEnabled) {
+      this.eventCheckEnabled = eventCheckEnabled;
+    }
+
     /**
      * The frequency in which the Under Replicated queue is processed.
      */
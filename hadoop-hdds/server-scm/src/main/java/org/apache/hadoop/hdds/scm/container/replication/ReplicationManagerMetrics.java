@@ -35,6 +35,7 @@
 
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
@@ -147,6 +148,12 @@ public final class ReplicationManagerMetrics implements MetricsSource {
   @Metric("Time elapsed for deletion")
   private MutableRate deletionTime;
 
+  @Metric("Time elapsed for checking the health of all containers")
+  private MutableRate healthCheckTime;
+
+  private volatile List<ReplicationManager.HealthCheckPartition>
+      healthCheckPartitions = Collections.emptyList();
+
   @Metric("Number of inflight replication skipped" +
       " due to the configured limit.")
   private MutableCounterLong inflightReplicationSkippedTotal;
@@ -227,6 +234,10 @@ public final class ReplicationManagerMetrics implements MetricsSource {
       + "to the pending commands on all source datanodes")
   private MutableCounterLong replicateContainerCmdsDeferredTotal;
 
+  @Metric("Number of containers checked on an event, outside the runs of " +
+      "the replication monitor.")
+  private MutableCounterLong eventContainerChecksTotal;
+
 
   public ReplicationManagerMetrics(ReplicationManager manager) {
     this.registry = new MetricsRegistry(METRICS_SOURCE_NAME);
@@ -234,6 +245,22 @@ public ReplicationManagerMetrics(ReplicationManager manager) {
     legacyReplicationManager = replicationManager.getConfig().isLegacyEnabled();
   }
 
+  /**
+   * Records the partitions of the last run of the replication monitor.
+   *
+   * @param partitions containers and time of each partition
+   * @param time time in milliseconds taken to check all partitions
+   */
+  void setHealthCheckPartitions(
+      List<ReplicationManager.HealthCheckPartition> partitions, long time) {
+    this.healthCheckPartitions = partitions;
+    healthCheckTime.add(time);
+  }
+
+  List<ReplicationManager.HealthCheckPartition> getHealthCheckPartitions() {
+    return healthCheckPartitions;
+  }
+
   public static ReplicationManagerMetrics create(ReplicationManager manager) {
     ReplicationManagerMetrics replicationManagerMetrics = (ReplicationManagerMetrics)
         DefaultMetricsSystem.instance().getSource(METRICS_SOURCE_NAME);
@@ -283,6 +310,20 @@ public void getMetrics(MetricsCollector collector, boolean all) {
       builder.addGauge(e.getValue(), report.getStat(e.getKey()));
     }
 
+    final List<ReplicationManager.HealthCheckPartition> partitions =
+        healthCheckPartitions;
+    for (int i = 0; i < partitions.size(); i++) {
+      builder.addGauge(Interns.info("HealthCheckPartition" + i + "Containers",
+              "Number of containers checked in partition " + i +
+                  " by the last run of the replication monitor"),
+              partitions.get(i).getContainers())
+          .addGauge(Interns.info("HealthCheckPartition" + i + "Time",
+              "Time in milliseconds taken to check partition " + i +
+                  " by the last run of the replication monitor"),
+              partitions.get(i).getTime());
+    }
+    healthCheckTime.snapshot(builder, all);
+
     replicationCmdsSentTotal.snapshot(builder, all);
     replicasCreatedTotal.snapshot(builder, all);
     replicaCreateTimeoutTotal.snapshot(builder, all);
@@ -317,6 +358,7 @@ public void getMetrics(MetricsCollector collector, boolean all) {
     partialReplicationTotal.snapshot(builder, all);
     ecPartialReplicationForMisReplicationTotal.snapshot(builder, all);
     partialReplicationForMisReplicationTotal.snapshot(builder, all);
+    eventContainerChecksTotal.snapshot(builder, all);
   }
 
   public void unRegister() {
@@ -614,4 +656,11 @@ public long getPartialReplicationForMisReplicationTotal() {
     return this.partialReplicationForMisReplicationTotal.value();
   }
 
+  public void incrEventContainerChecksTotal() {
+    this.eventContainerChecksTotal.incr();
+  }
+
+  public long getEventContainerChecksTotal() {
+    return this.eventContainerChecksTotal.value();
+  }
 }
@@ -17,16 +17,25 @@
  */
 package org.apache.hadoop.hdds.scm.container.replication;
 
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+
 import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.PriorityQueue;
 import java.util.Queue;
-
-import com.google.common.collect.Queues;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 
 /**
  * Object to encapsulate the under and over replication queues used by
- * replicationManager.
+ * replicationManager. The queues are filled by the health check threads
+ * while the under and over replication processors remove containers from
+ * them, so both are concurrent queues.
+ * <p>
+ * A container is queued at most once in each queue: it may be found
+ * unhealthy both by the replication monitor and by a check on a replica
+ * change event, so the IDs of the queued containers are kept to skip the
+ * duplicates.
  */
 public class ReplicationQueue {
 
@@ -34,14 +43,18 @@ public class ReplicationQueue {
       underRepQueue;
   private final Queue<ContainerHealthResult.OverReplicatedHealthResult>
       overRepQueue;
+  private final Set<ContainerID> underRepQueued =
+      ConcurrentHashMap.newKeySet();
+  private final Set<ContainerID> overRepQueued =
+      ConcurrentHashMap.newKeySet();
 
   public ReplicationQueue() {
-    underRepQueue = Queues.synchronizedQueue(new PriorityQueue<>(
+    underRepQueue = new PriorityBlockingQueue<>(11,
         Comparator.comparing(ContainerHealthResult
             .UnderReplicatedHealthResult::getWeightedRedundancy)
         .thenComparing(ContainerHealthResult
-            .UnderReplicatedHealthResult::getRequeueCount)));
-    overRepQueue = Queues.synchronizedQueue(new LinkedList<>());
+            .UnderReplicatedHealthResult::getRequeueCount));
+    overRepQueue = new LinkedBlockingQueue<>();
   }
 
   /**
@@ -49,22 +62,28 @@ public ReplicationQueue() {
    * be processed. Its retry count will be incremented before it is re-queued,
    * reducing its priority.
    * Note that the queue could have been rebuilt and replaced after this
-   * message was removed but before it is added back. This will result in a
-   * duplicate entry on the queue. However, when it is processed again, the
-   * result of the processing will end up with pending replicas scheduled. If
-   * instance 1 is processed and creates the pending replicas, when instance 2
-   * is processed, it will find the pending containers and know it has no work
-   * to do, and be discarded. Additionally, the queue will be refreshed
-   * periodically removing any duplicates.
+   * message was removed but before it is added back. The container is then
+   * already queued, and the message is dropped.
+   * A container already in the queue is not added again.
    */
   public void enqueue(ContainerHealthResult.UnderReplicatedHealthResult
       underReplicatedHealthResult) {
+    if (!underRepQueued.add(containerID(underReplicatedHealthResult))) {
+      return;
+    }
     underReplicatedHealthResult.incrementRequeueCount();
     underRepQueue.add(underReplicatedHealthResult);
   }
 
+  /**
+   * Add an over replicated container to the queue, unless it is already in
+   * the queue.
+   */
   public void enqueue(ContainerHealthResult.OverReplicatedHealthResult
       overReplicatedHealthResult) {
+    if (!overRepQueued.add(containerID(overReplicatedHealthResult))) {
+      return;
+    }
     overRepQueue.add(overReplicatedHealthResult);
   }
 
@@ -76,7 +95,12 @@ public void enqueue(ContainerHealthResult.OverReplicatedHealthResult
    */
   public ContainerHealthResult.UnderReplicatedHealthResult
       dequeueUnderReplicatedContainer() {
-    return underRepQueue.poll();
+    final ContainerHealthResult.UnderReplicatedHealthResult result =
+        underRepQueue.poll();
+    if (result != null) {
+      underRepQueued.remove(containerID(result));
+    }
+    return result;
   }
 
   /**
@@ -87,7 +111,12 @@ public void enqueue(ContainerHealthResult.OverReplicatedHealthResult
    */
   public ContainerHealthResult.OverReplicatedHealthResult
       dequeueOverReplicatedContainer() {
-    return overRepQueue.poll();
+    final ContainerHealthResult.OverReplicatedHealthResult result =
+        overRepQueue.poll();
+    if (result != null) {
+      overRepQueued.remove(containerID(result));
+    }
+    return result;
   }
 
   public int underReplicatedQueueSize() {
@@ -98,4 +127,8 @@ public int overReplicatedQueueSize() {
     return overRepQueue.size();
   }
 
+  private static ContainerID containerID(ContainerHealthResult result) {
+    return result.getContainerInfo().containerID();
+  }
+
 }
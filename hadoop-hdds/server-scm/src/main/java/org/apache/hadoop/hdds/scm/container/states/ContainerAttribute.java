@@ -29,6 +29,7 @@
 import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
 
 import static org.apache.hadoop.hdds.scm.exceptions.SCMException.ResultCodes.FAILED_TO_CHANGE_CONTAINER_STATE;
 
@@ -198,6 +199,33 @@ public NavigableSet<ContainerID> getCollection(T key) {
     return EMPTY_SET;
   }
 
+  /**
+   * Passes the container IDs that map to the given key to the action, in
+   * ascending order, without copying them.
+   *
+   * @param key - Key to the bucket.
+   * @param action - action to perform for each container ID
+   */
+  public void forEach(T key, Consumer<ContainerID> action) {
+    Preconditions.checkNotNull(key);
+    final NavigableSet<ContainerID> set = attributeMap.get(key);
+    if (set != null) {
+      set.forEach(action);
+    }
+  }
+
+  /**
+   * Returns the number of container IDs that map to the given key.
+   *
+   * @param key - Key to the bucket.
+   * @return number of container IDs
+   */
+  public int count(T key) {
+    Preconditions.checkNotNull(key);
+    final NavigableSet<ContainerID> set = attributeMap.get(key);
+    return set == null ? 0 : set.size();
+  }
+
   /**
    * Moves a ContainerID from one bucket to another.
    *
@@ -25,6 +25,7 @@
 import java.util.NavigableSet;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import com.google.common.base.Preconditions;
 
@@ -299,6 +300,32 @@ public Set<ContainerID> getAllContainerIDs() {
     return ImmutableSet.copyOf(containerMap.keySet());
   }
 
+  /**
+   * Passes the ID of each container to the action, without copying them.
+   * Containers added or removed meanwhile may or may not be included.
+   */
+  public void forEachContainerID(final Consumer<ContainerID> action) {
+    containerMap.keySet().forEach(action);
+  }
+
+  /**
+   * Passes the ID of each container in the given state to the action, in
+   * ascending order, without copying them.
+   */
+  public void forEachContainerID(final LifeCycleState state,
+      final Consumer<ContainerID> action) {
+    Preconditions.checkNotNull(state);
+    lifeCycleStateMap.forEach(state, action);
+  }
+
+  /**
+   * Returns the number of containers in the given state.
+   */
+  public int getContainerCount(final LifeCycleState state) {
+    Preconditions.checkNotNull(state);
+    return lifeCycleStateMap.count(state);
+  }
+
   /**
    * Returns A list of containers owned by a name service.
    *
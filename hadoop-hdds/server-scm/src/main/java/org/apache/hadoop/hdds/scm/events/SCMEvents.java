@@ -148,6 +148,15 @@ public final class SCMEvents {
   public static final TypedEvent<ContainerID> CLOSE_CONTAINER =
       new TypedEvent<>(ContainerID.class, "Close_Container");
 
+  /**
+   * This event is triggered when the replicas or pending replica operations
+   * of a container changed, for example because a datanode died, a replica
+   * was reported or a replication command completed. ReplicationManager
+   * checks the health of the container without waiting for its next run.
+   */
+  public static final TypedEvent<ContainerID> CHECK_CONTAINER_REPLICATION =
+      new TypedEvent<>(ContainerID.class, "Check_Container_Replication");
+
   /**
    * This event will be triggered whenever a new datanode is registered with
    * SCM.
@@ -44,6 +44,7 @@
 
 import javax.annotation.Nullable;
 
+import static org.apache.hadoop.hdds.scm.events.SCMEvents.CHECK_CONTAINER_REPLICATION;
 import static org.apache.hadoop.hdds.scm.events.SCMEvents.CLOSE_CONTAINER;
 
 /**
@@ -99,7 +100,7 @@ public void onMessage(final DatanodeDetails datanodeDetails,
       // Remove the container replicas associated with the dead node unless it
       // is IN_MAINTENANCE
       if (!nodeManager.getNodeStatus(datanodeDetails).isInMaintenance()) {
-        removeContainerReplicas(datanodeDetails);
+        removeContainerReplicas(datanodeDetails, publisher);
       }
       
       // remove commands in command queue for the DN
@@ -181,12 +182,15 @@ private void closeContainers(final DatanodeDetails datanodeDetails,
 
   /**
    * Removes the ContainerReplica of the dead datanode from the containers
-   * which are hosted by that datanode.
+   * which are hosted by that datanode, and requests a health check of each
+   * of these containers.
    *
    * @param datanodeDetails DatanodeDetails
+   * @param publisher EventPublisher
    * @throws NodeNotFoundException
    */
-  private void removeContainerReplicas(final DatanodeDetails datanodeDetails)
+  private void removeContainerReplicas(final DatanodeDetails datanodeDetails,
+                                       final EventPublisher publisher)
       throws NodeNotFoundException {
     nodeManager.getContainers(datanodeDetails)
         .forEach(id -> {
@@ -200,6 +204,7 @@ private void removeContainerReplicas(final DatanodeDetails datanodeDetails)
                 .ifPresent(replica -> {
                   try {
                     containerManager.removeContainerReplica(id, replica);
+                    publisher.fireEvent(CHECK_CONTAINER_REPLICATION, id);
                   } catch (ContainerException ex) {
                     LOG.warn("Exception while removing container replica #{} " +
                         "of container {}.", replica, container, ex);
@@ -24,6 +24,10 @@
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
+import org.apache.hadoop.hdds.protocol.proto
+    .StorageContainerDatanodeProtocolProtos.ContainerRangeDigestProto;
+import org.apache.hadoop.hdds.protocol.proto
+    .StorageContainerDatanodeProtocolProtos.SCMCommandProto;
 import org.apache.hadoop.hdds.protocol.proto
     .StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
 import org.apache.hadoop.hdds.protocol.proto
@@ -47,12 +51,15 @@
 import org.apache.hadoop.hdds.utils.db.DBStoreBuilder;
 import org.apache.hadoop.ozone.common.statemachine.InvalidStateTransitionException;
 import org.apache.hadoop.ozone.container.common.SCMTestUtils;
+import org.apache.hadoop.ozone.protocol.ContainerRangeDigests;
 import org.apache.hadoop.ozone.protocol.commands.CommandForDatanode;
+import org.apache.hadoop.ozone.protocol.commands.SendContainerReportCommand;
 import org.apache.ozone.test.GenericTestUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.io.File;
@@ -60,6 +67,8 @@
 import java.time.Clock;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -1096,6 +1105,177 @@ public void testStaleReplicaOfDeletedContainer() throws NodeNotFoundException,
         containerOne.containerID()).size());
   }
 
+  @Test
+  public void testReportWithRangeDigests() throws NodeNotFoundException,
+      IOException, TimeoutException {
+    final ContainerReportHandler reportHandler = new ContainerReportHandler(
+        nodeManager, containerManager);
+    final Iterator<DatanodeDetails> nodeIterator = nodeManager.getNodes(
+        NodeStatus.inServiceHealthy()).iterator();
+    final DatanodeDetails datanodeOne = nodeIterator.next();
+    final DatanodeDetails datanodeTwo = nodeIterator.next();
+    final DatanodeDetails datanodeThree = nodeIterator.next();
+
+    final ContainerInfo containerOne = getContainer(LifeCycleState.CLOSED);
+    final ContainerInfo containerTwo = getContainer(LifeCycleState.CLOSED);
+    final Set<ContainerID> containerIDSet = Stream.of(
+        containerOne.containerID(), containerTwo.containerID())
+        .collect(Collectors.toSet());
+    for (DatanodeDetails dn : Arrays.asList(
+        datanodeOne, datanodeTwo, datanodeThree)) {
+      nodeManager.setContainers(dn, containerIDSet);
+    }
+    for (ContainerInfo container : Arrays.asList(containerOne, containerTwo)) {
+      containerStateManager.addContainer(container.getProtobuf());
+      getReplicas(container.containerID(),
+          ContainerReplicaProto.State.CLOSED,
+          datanodeOne, datanodeTwo, datanodeThree)
+          .forEach(r -> containerStateManager.updateContainerReplica(
+              container.containerID(), r));
+    }
+
+    // With a range size of 1, each container is a range of its own
+    final ContainerReplicaProto replicaOne = getContainerReportsProto(
+        containerOne.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanodeOne.getUuidString()).getReports(0);
+    final ContainerReplicaProto replicaTwo = getContainerReportsProto(
+        containerTwo.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanodeOne.getUuidString()).getReports(0);
+
+    // The range of containerOne is not reported, and SCM has no digest for
+    // it, so it asks for the range without treating containerOne as missing.
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(replicaTwo, replicaOne)), publisher);
+    final ArgumentCaptor<CommandForDatanode> captor =
+        ArgumentCaptor.forClass(CommandForDatanode.class);
+    Mockito.verify(publisher).fireEvent(Mockito.any(), captor.capture());
+    final SendContainerReportCommand command =
+        (SendContainerReportCommand) captor.getValue().getCommand();
+    assertEquals(Collections.singletonList(containerOne.getContainerID()),
+        command.getRanges());
+    assertEquals(3, containerManager.getContainerReplicas(
+        containerOne.containerID()).size());
+
+    // The range of containerTwo has the same digest as in the last report
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(replicaOne, replicaTwo)), publisher);
+    Mockito.verify(publisher, Mockito.times(1))
+        .fireEvent(Mockito.any(), Mockito.any(CommandForDatanode.class));
+    assertEquals(3, containerManager.getContainerReplicas(
+        containerOne.containerID()).size());
+    assertEquals(3, containerManager.getContainerReplicas(
+        containerTwo.containerID()).size());
+
+    // The range of containerOne is no longer in the report, so containerOne
+    // is missing on the datanode.
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(null, replicaTwo)), publisher);
+    Mockito.verify(publisher, Mockito.times(1))
+        .fireEvent(Mockito.any(), Mockito.any(CommandForDatanode.class));
+    assertEquals(2, containerManager.getContainerReplicas(
+        containerOne.containerID()).size());
+    assertEquals(3, containerManager.getContainerReplicas(
+        containerTwo.containerID()).size());
+  }
+
+  @Test
+  public void testRangeNeedingFollowUpRequestedAgain()
+      throws NodeNotFoundException, IOException, TimeoutException {
+    final ContainerReportHandler reportHandler = new ContainerReportHandler(
+        nodeManager, containerManager);
+    final DatanodeDetails datanodeOne = nodeManager.getNodes(
+        NodeStatus.inServiceHealthy()).iterator().next();
+    final ContainerInfo containerOne = getContainer(LifeCycleState.DELETED);
+    nodeManager.setContainers(datanodeOne,
+        Collections.singleton(containerOne.containerID()));
+    containerStateManager.addContainer(containerOne.getProtobuf());
+    final ContainerReplicaProto replicaOne = getContainerReportsProto(
+        containerOne.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanodeOne.getUuidString()).getReports(0);
+
+    // The replica of the deleted container is deleted
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(replicaOne, null)), publisher);
+    final ArgumentCaptor<CommandForDatanode> captor =
+        ArgumentCaptor.forClass(CommandForDatanode.class);
+    Mockito.verify(publisher).fireEvent(Mockito.any(), captor.capture());
+    assertEquals(SCMCommandProto.Type.deleteContainerCommand,
+        captor.getValue().getCommand().getType());
+
+    // The range is not reported with the same digest, but it still needs a
+    // follow-up, so it is requested.
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(null, replicaOne)), publisher);
+    Mockito.verify(publisher, Mockito.times(2))
+        .fireEvent(Mockito.any(), captor.capture());
+    assertEquals(SCMCommandProto.Type.sendContainerReportCommand,
+        captor.getValue().getCommand().getType());
+
+    // The requested range is reported, so the replica is deleted again
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(replicaOne, null)), publisher);
+    Mockito.verify(publisher, Mockito.times(3))
+        .fireEvent(Mockito.any(), captor.capture());
+    assertEquals(SCMCommandProto.Type.deleteContainerCommand,
+        captor.getValue().getCommand().getType());
+  }
+
+  @Test
+  public void testRangeDigestsOfDeadNodeForgotten()
+      throws NodeNotFoundException, IOException, TimeoutException {
+    final ContainerReportHandler reportHandler = new ContainerReportHandler(
+        nodeManager, containerManager);
+    final DatanodeDetails datanodeOne = nodeManager.getNodes(
+        NodeStatus.inServiceHealthy()).iterator().next();
+    final ContainerInfo containerOne = getContainer(LifeCycleState.CLOSED);
+    nodeManager.setContainers(datanodeOne,
+        Collections.singleton(containerOne.containerID()));
+    containerStateManager.addContainer(containerOne.getProtobuf());
+    final ContainerReplicaProto replicaOne = getContainerReportsProto(
+        containerOne.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanodeOne.getUuidString()).getReports(0);
+
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(replicaOne, null)), publisher);
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(null, replicaOne)), publisher);
+    Mockito.verify(publisher, Mockito.never())
+        .fireEvent(Mockito.any(), Mockito.any(CommandForDatanode.class));
+
+    // After the node is dead, the range is requested again
+    reportHandler.getDeadNodeHandler().onMessage(datanodeOne, publisher);
+    reportHandler.onMessage(new ContainerReportFromDatanode(datanodeOne,
+        getDigestReport(null, replicaOne)), publisher);
+    final ArgumentCaptor<CommandForDatanode> captor =
+        ArgumentCaptor.forClass(CommandForDatanode.class);
+    Mockito.verify(publisher).fireEvent(Mockito.any(), captor.capture());
+    assertEquals(SCMCommandProto.Type.sendContainerReportCommand,
+        captor.getValue().getCommand().getType());
+  }
+
+  /**
+   * Report with a range size of 1, including the reported replica, and only
+   * the digest of the unreported one, if any.
+   */
+  private static ContainerReportsProto getDigestReport(
+      ContainerReplicaProto reported, ContainerReplicaProto unreported) {
+    final ContainerReportsProto.Builder builder =
+        ContainerReportsProto.newBuilder().setDigestRangeSize(1);
+    if (reported != null) {
+      builder.addReports(reported)
+          .addRangeDigests(ContainerRangeDigestProto.newBuilder()
+              .setRange(reported.getContainerID())
+              .setDigest(ContainerRangeDigests.digest(reported))
+              .setReported(true));
+    }
+    if (unreported != null) {
+      builder.addRangeDigests(ContainerRangeDigestProto.newBuilder()
+          .setRange(unreported.getContainerID())
+          .setDigest(ContainerRangeDigests.digest(unreported)));
+    }
+    return builder.build();
+  }
+
   private ContainerReportFromDatanode getContainerReportFromDatanode(
       ContainerID containerId, ContainerReplicaProto.State state,
       DatanodeDetails dn, long bytesUsed, long keyCount) {
@@ -22,8 +22,13 @@
 import java.time.Clock;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 
 import org.apache.hadoop.fs.FileUtil;
@@ -37,6 +42,7 @@
 import org.apache.hadoop.hdds.protocol.proto
     .StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
 
+import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.container.common.helpers.InvalidContainerStateException;
 import org.apache.hadoop.hdds.scm.container.replication.ContainerReplicaPendingOps;
 import org.apache.hadoop.hdds.scm.ha.SCMHAManagerStub;
@@ -197,6 +203,120 @@ public void testTransitionDeletingToClosedStateAllowsOnlyDeletingContainer() thr
     }
   }
 
+  @Test
+  public void testListContainersAcrossShards() throws Exception {
+    // More containers than the 4 shards, to have several in each
+    containerStateManager = newContainerStateManager(4);
+    for (long id = 1; id <= 10; id++) {
+      containerStateManager.addContainer(containerProto(id,
+          HddsProtos.LifeCycleState.CLOSED));
+    }
+    containerStateManager.updateContainerState(
+        ContainerID.valueOf(3).getProtobuf(),
+        HddsProtos.LifeCycleEvent.DELETE);
+    containerStateManager.updateContainerState(
+        ContainerID.valueOf(8).getProtobuf(),
+        HddsProtos.LifeCycleEvent.DELETE);
+
+    Assertions.assertEquals(10,
+        containerStateManager.getContainerIDs().size());
+    Set<ContainerID> closed = containerStateManager.getContainerIDs(
+        HddsProtos.LifeCycleState.CLOSED);
+    Assertions.assertEquals(8, closed.size());
+    Assertions.assertEquals(Arrays.asList(ContainerID.valueOf(3),
+            ContainerID.valueOf(8)),
+        new ArrayList<>(containerStateManager.getContainerIDs(
+            HddsProtos.LifeCycleState.DELETING)));
+    Assertions.assertEquals(2, containerStateManager.getContainerCount(
+        HddsProtos.LifeCycleState.DELETING));
+    Assertions.assertEquals(0, containerStateManager.getContainerCount(
+        HddsProtos.LifeCycleState.OPEN));
+
+    containerStateManager.removeContainer(
+        ContainerID.valueOf(8).getProtobuf());
+    Assertions.assertFalse(containerStateManager.contains(
+        ContainerID.valueOf(8)));
+    Assertions.assertEquals(9,
+        containerStateManager.getContainerIDs().size());
+  }
+
+  @Test
+  public void testConcurrentUpdatesOfShards() throws Exception {
+    containerStateManager = newContainerStateManager(4);
+    int threads = 8;
+    int perThread = 50;
+    // Replicated updates are applied by a single thread
+    for (long id = 1; id <= threads * perThread; id++) {
+      containerStateManager.addContainer(containerProto(id,
+          HddsProtos.LifeCycleState.CLOSED));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        long first = t * perThread + 1;
+        futures.add(executor.submit(() -> {
+          for (long id = first; id < first + perThread; id++) {
+            ContainerID cid = ContainerID.valueOf(id);
+            containerStateManager.updateContainerReplica(cid,
+                ContainerReplica.newBuilder()
+                    .setContainerID(cid)
+                    .setContainerState(ContainerReplicaProto.State.CLOSED)
+                    .setDatanodeDetails(
+                        MockDatanodeDetails.randomDatanodeDetails())
+                    .build());
+            // Scans run concurrently with the updates
+            containerStateManager.getContainerIDs(
+                HddsProtos.LifeCycleState.CLOSED);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Set<ContainerID> closed = containerStateManager.getContainerIDs(
+        HddsProtos.LifeCycleState.CLOSED);
+    Assertions.assertEquals(threads * perThread, closed.size());
+    for (ContainerID id : closed) {
+      Assertions.assertEquals(1,
+          containerStateManager.getContainerReplicas(id).size());
+    }
+  }
+
+  private ContainerStateManager newContainerStateManager(int shards)
+      throws IOException {
+    containerStateManager.close();
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setInt(ScmConfigKeys.OZONE_SCM_CONTAINER_LOCK_STRIPE_SIZE, shards);
+    return ContainerStateManagerImpl.newBuilder()
+        .setConfiguration(conf)
+        .setPipelineManager(pipelineManager)
+        .setRatisServer(scmhaManager.getRatisServer())
+        .setContainerStore(SCMDBDefinition.CONTAINERS.getTable(dbStore))
+        .setSCMDBTransactionBuffer(scmhaManager.getDBTransactionBuffer())
+        .setContainerReplicaPendingOps(new ContainerReplicaPendingOps(
+            Clock.system(ZoneId.systemDefault())))
+        .build();
+  }
+
+  private static HddsProtos.ContainerInfoProto containerProto(long id,
+      HddsProtos.LifeCycleState state) {
+    return HddsProtos.ContainerInfoProto.newBuilder()
+        .setContainerID(id)
+        .setState(state)
+        .setUsedBytes(0)
+        .setNumberOfKeys(0)
+        .setOwner("root")
+        .setReplicationType(HddsProtos.ReplicationType.RATIS)
+        .setReplicationFactor(ReplicationFactor.THREE)
+        .build();
+  }
+
   private void addReplica(ContainerInfo cont, DatanodeDetails node) {
     ContainerReplica replica = ContainerReplica.newBuilder()
         .setContainerID(cont.containerID())
@@ -32,6 +32,7 @@
     .StorageContainerDatanodeProtocolProtos.IncrementalContainerReportProto;
 import org.apache.hadoop.hdds.scm.HddsTestUtils;
 import org.apache.hadoop.hdds.scm.container.replication.ContainerReplicaPendingOps;
+import org.apache.hadoop.hdds.scm.events.SCMEvents;
 import org.apache.hadoop.hdds.scm.ha.SCMHAManagerStub;
 import org.apache.hadoop.hdds.scm.ha.SCMContext;
 import org.apache.hadoop.hdds.scm.ha.SCMHAManager;
@@ -235,6 +236,8 @@ public void testClosingToClosed() throws IOException, TimeoutException {
     reportHandler.onMessage(icrFromDatanode, publisher);
     Assertions.assertEquals(LifeCycleState.CLOSED,
         containerManager.getContainer(container.containerID()).getState());
+    Mockito.verify(publisher).fireEvent(
+        SCMEvents.CHECK_CONTAINER_REPLICATION, container.containerID());
   }
 
   /**
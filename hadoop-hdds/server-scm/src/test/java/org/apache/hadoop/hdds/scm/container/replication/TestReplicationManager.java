@@ -53,6 +53,7 @@
 import org.apache.hadoop.ozone.protocol.commands.ReplicateContainerCommand;
 import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
 import org.apache.hadoop.util.Lists;
+import org.apache.ozone.test.GenericTestUtils;
 import org.apache.ozone.test.TestClock;
 import org.apache.ratis.protocol.exceptions.NotLeaderException;
 import org.junit.jupiter.api.AfterEach;
@@ -76,6 +77,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_SCM_WAIT_TIME_AFTER_SAFE_MODE_EXIT;
@@ -91,6 +93,7 @@
 import static org.apache.hadoop.hdds.scm.container.replication.ReplicationTestUtil.createReplicasWithSameOrigin;
 import static org.apache.hadoop.hdds.scm.container.replication.ReplicationTestUtil.getNoNodesTestPlacementPolicy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -187,9 +190,7 @@ public void setup() throws IOException {
 
   @AfterEach
   void cleanup() {
-    if (replicationManager.getMetrics() != null) {
-      replicationManager.getMetrics().unRegister();
-    }
+    replicationManager.stop();
   }
 
   private ReplicationManager createReplicationManager() throws IOException {
@@ -208,6 +209,11 @@ private ReplicationManager createReplicationManager() throws IOException {
       protected void startSubServices() {
         // do not start any threads for processing
       }
+
+      @Override
+      protected void stopSubServices() {
+        // no threads to stop
+      }
     };
   }
 
@@ -1132,6 +1138,93 @@ public void testMisReplicatedECContainerWithUnhealthyReplica()
         ReplicationManagerReport.HealthState.OVER_REPLICATED));
   }
 
+  @Test
+  public void testContainerCheckedOnEvent() throws IOException {
+    ContainerInfo container = createContainerInfo(repConfig, 1,
+        HddsProtos.LifeCycleState.CLOSED);
+    addReplicas(container, ContainerReplicaProto.State.CLOSED, 1, 2, 3, 4);
+    Mockito.when(containerManager.getContainer(container.containerID()))
+        .thenReturn(container);
+
+    // Not checked until the replication manager is ready to run
+    replicationManager.checkContainer(container.containerID());
+    assertEquals(0, replicationManager.getQueue().underReplicatedQueueSize());
+
+    enableProcessAll();
+    replicationManager.checkContainer(container.containerID());
+    assertEquals(1, replicationManager.getQueue().underReplicatedQueueSize());
+    assertEquals(1,
+        replicationManager.getMetrics().getEventContainerChecksTotal());
+    // Not queued again while already in the queue
+    replicationManager.checkContainer(container.containerID());
+    assertEquals(1, replicationManager.getQueue().underReplicatedQueueSize());
+    assertNotNull(
+        replicationManager.getQueue().dequeueUnderReplicatedContainer());
+    replicationManager.checkContainer(container.containerID());
+    assertEquals(1, replicationManager.getQueue().underReplicatedQueueSize());
+    // The report of the replication monitor is not affected
+    assertEquals(0, replicationManager.getContainerReport().getStat(
+        ReplicationManagerReport.HealthState.UNDER_REPLICATED));
+
+    replicationManager.stop();
+    configuration.setBoolean("hdds.scm.replication.event.check.enabled",
+        false);
+    replicationManager = createReplicationManager();
+    enableProcessAll();
+    replicationManager.checkContainer(container.containerID());
+    assertEquals(0, replicationManager.getQueue().underReplicatedQueueSize());
+  }
+
+  @Test
+  public void testCheckRequestedWhenPendingOpCompletes() {
+    containerReplicaPendingOps.registerSubscriber(replicationManager);
+    ContainerID containerID = ContainerID.valueOf(1);
+    DatanodeDetails target = MockDatanodeDetails.randomDatanodeDetails();
+    containerReplicaPendingOps.scheduleAddReplica(containerID, target, 1,
+        clock.millis() + 10000);
+    containerReplicaPendingOps.completeAddReplica(containerID, target, 1);
+
+    Mockito.verify(eventPublisher).fireEvent(
+        SCMEvents.CHECK_CONTAINER_REPLICATION, containerID);
+  }
+
+  @Test
+  public void testContainersCheckedInPartitions()
+      throws IOException, InterruptedException, TimeoutException {
+    replicationManager.stop();
+    configuration.setInt("hdds.scm.replication.health.check.threads", 3);
+    replicationManager = createReplicationManager();
+
+    for (int i = 1; i <= 10; i++) {
+      ContainerInfo container = createContainerInfo(repConfig, i,
+          HddsProtos.LifeCycleState.CLOSED);
+      addReplicas(container, ContainerReplicaProto.State.CLOSED, 1, 2, 3, 4);
+    }
+    enableProcessAll();
+    replicationManager.processAll();
+
+    assertEquals(10, replicationManager.getQueue()
+        .underReplicatedQueueSize());
+    ReplicationManagerReport report = replicationManager.getContainerReport();
+    assertEquals(10, report.getStat(
+        ReplicationManagerReport.HealthState.UNDER_REPLICATED));
+    assertEquals(10, report.getStat(HddsProtos.LifeCycleState.CLOSED));
+
+    List<ReplicationManager.HealthCheckPartition> partitions =
+        replicationManager.getMetrics().getHealthCheckPartitions();
+    assertEquals(3, partitions.size());
+    assertEquals(10, partitions.stream()
+        .mapToInt(ReplicationManager.HealthCheckPartition::getContainers)
+        .sum());
+
+    // The health check threads are stopped with the replication manager
+    replicationManager.stop();
+    GenericTestUtils.waitFor(() -> Thread.getAllStackTraces().keySet()
+        .stream()
+        .noneMatch(t -> t.getName().contains("ReplicationHealthCheck")),
+        100, 5000);
+  }
+
   @Test
   public void testUnderReplicationQueuePopulated() {
     // Make it always return mis-replicated. Only a perfectly replicated
@@ -1726,6 +1819,7 @@ public void testInflightReplicationLimit() throws IOException {
     configuration.setFromObject(config);
     ReplicationManager rm = createReplicationManager();
     assertEquals(0, rm.getReplicationInFlightLimit());
+    rm.stop();
 
     config.setInflightReplicationLimitFactor(1);
     configuration.setFromObject(config);
@@ -1733,6 +1827,7 @@ public void testInflightReplicationLimit() throws IOException {
     assertEquals(
         healthyNodes * config.getDatanodeReplicationLimit(),
         rm.getReplicationInFlightLimit());
+    rm.stop();
 
     config.setInflightReplicationLimitFactor(0.75);
     configuration.setFromObject(config);
@@ -1741,6 +1836,7 @@ public void testInflightReplicationLimit() throws IOException {
         (int) Math.ceil(healthyNodes
             * config.getDatanodeReplicationLimit() * 0.75),
         rm.getReplicationInFlightLimit());
+    rm.stop();
   }
 
   @SafeVarargs
@@ -239,6 +239,8 @@ public void testOnMessage() throws Exception {
 
     Mockito.verify(deletedBlockLog, Mockito.times(0))
         .onDatanodeDead(datanode1.getUuid());
+    Mockito.verify(publisher, Mockito.never()).fireEvent(
+        Mockito.eq(SCMEvents.CHECK_CONTAINER_REPLICATION), Mockito.any());
 
     Set<ContainerReplica> container1Replicas = containerManager
         .getContainerReplicas(ContainerID.valueOf(container1.getContainerID()));
@@ -269,6 +271,10 @@ public void testOnMessage() throws Exception {
 
     Mockito.verify(deletedBlockLog, Mockito.times(1))
         .onDatanodeDead(datanode1.getUuid());
+    Mockito.verify(publisher).fireEvent(
+        SCMEvents.CHECK_CONTAINER_REPLICATION, container1.containerID());
+    Mockito.verify(publisher).fireEvent(
+        SCMEvents.CHECK_CONTAINER_REPLICATION, container2.containerID());
 
     container1Replicas = containerManager
         .getContainerReplicas(ContainerID.valueOf(container1.getContainerID()));
@@ -82,6 +82,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -436,9 +437,12 @@ private EndpointStateMachine registerTaskHelper(InetSocketAddress scmAddress,
         .thenReturn(maxLayoutVersion());
     when(versionManager.getSoftwareLayoutVersion())
         .thenReturn(maxLayoutVersion());
+    StateContext context = mock(StateContext.class);
+    when(context.addContainerReportDigests(any()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
     RegisterEndpointTask endpointTask =
         new RegisterEndpointTask(rpcEndPoint, conf, ozoneContainer,
-            mock(StateContext.class), versionManager);
+            context, versionManager);
     if (!clearDatanodeDetails) {
       DatanodeDetails datanodeDetails = randomDatanodeDetails();
       endpointTask.setDatanodeDetails(datanodeDetails);
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.CodecBuffer;
+import org.apache.hadoop.hdds.utils.db.LongCodec;
+import org.apache.hadoop.hdds.utils.db.StringCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the byte[] and the {@link CodecBuffer} paths of the key codecs
+ * used by the DB tables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+  // Typical length of /volume/bucket/key names.
+  @Param({"64", "256"})
+  private int keyLength;
+
+  private final Codec<String> stringCodec = StringCodec.get();
+  private final Codec<Long> longCodec = LongCodec.get();
+  private String key;
+  private byte[] keyBytes;
+  private final Long id = 0x1234_5678_9ABCL;
+
+  @Setup
+  public void setup() throws IOException {
+    key = "/vol/bucket/" + RandomStringUtils.randomAlphanumeric(keyLength);
+    keyBytes = stringCodec.toPersistedFormat(key);
+  }
+
+  @Benchmark
+  public String stringByteArray() throws IOException {
+    return stringCodec.fromPersistedFormat(stringCodec.toPersistedFormat(key));
+  }
+
+  @Benchmark
+  public String stringDirectCodecBuffer() throws IOException {
+    try (CodecBuffer buffer = stringCodec.toDirectCodecBuffer(key)) {
+      return stringCodec.fromCodecBuffer(buffer);
+    }
+  }
+
+  @Benchmark
+  public String stringHeapCodecBuffer() throws IOException {
+    try (CodecBuffer buffer = stringCodec.toHeapCodecBuffer(key)) {
+      return stringCodec.fromCodecBuffer(buffer);
+    }
+  }
+
+  @Benchmark
+  public String stringWrappedCodecBuffer() throws IOException {
+    try (CodecBuffer buffer = CodecBuffer.wrap(keyBytes)) {
+      return stringCodec.fromCodecBuffer(buffer);
+    }
+  }
+
+  @Benchmark
+  public Long longByteArray() throws IOException {
+    return longCodec.fromPersistedFormat(longCodec.toPersistedFormat(id));
+  }
+
+  @Benchmark
+  public Long longDirectCodecBuffer() throws IOException {
+    try (CodecBuffer buffer = longCodec.toDirectCodecBuffer(id)) {
+      return longCodec.fromCodecBuffer(buffer);
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.client.ECReplicationConfig;
+import org.apache.ozone.erasurecode.rawcoder.RSRawDecoder;
+import org.apache.ozone.erasurecode.rawcoder.RSRawEncoder;
+import org.apache.ozone.erasurecode.rawcoder.RawErasureDecoder;
+import org.apache.ozone.erasurecode.rawcoder.RawErasureEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the pure Java Reed-Solomon coders used by the EC client for
+ * encoding stripes and for reconstructing reads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErasureCodingBenchmark {
+
+  @Param({"3-2", "6-3", "10-4"})
+  private String schema;
+
+  // Default EC chunk size.
+  @Param({"1048576"})
+  private int chunkSize;
+
+  @Param({"false", "true"})
+  private boolean direct;
+
+  private RawErasureEncoder encoder;
+  private RawErasureDecoder decoder;
+  private ByteBuffer[] dataBuffers;
+  private ByteBuffer[] parityBuffers;
+  private ByteBuffer[] decodeInputs;
+  private ByteBuffer[] decodeOutputs;
+  private int[] erasedIndexes;
+
+  @Setup
+  public void setup() throws IOException {
+    String[] units = schema.split("-");
+    ECReplicationConfig config = new ECReplicationConfig(
+        Integer.parseInt(units[0]), Integer.parseInt(units[1]));
+    encoder = new RSRawEncoder(config);
+    decoder = new RSRawDecoder(config);
+    int data = config.getData();
+    int parity = config.getParity();
+
+    dataBuffers = new ByteBuffer[data];
+    byte[] bytes = new byte[chunkSize];
+    for (int i = 0; i < data; i++) {
+      ThreadLocalRandom.current().nextBytes(bytes);
+      dataBuffers[i] = allocate(chunkSize);
+      dataBuffers[i].put(bytes);
+      dataBuffers[i].flip();
+    }
+    parityBuffers = new ByteBuffer[parity];
+    for (int i = 0; i < parity; i++) {
+      parityBuffers[i] = allocate(chunkSize);
+    }
+    encoder.encode(duplicate(dataBuffers), resetAll(parityBuffers));
+
+    // Lose as many data units as there are parity units.
+    erasedIndexes = new int[parity];
+    decodeInputs = new ByteBuffer[data + parity];
+    decodeOutputs = new ByteBuffer[parity];
+    for (int i = 0; i < data; i++) {
+      decodeInputs[i] = i < parity ? null : dataBuffers[i];
+    }
+    for (int i = 0; i < parity; i++) {
+      erasedIndexes[i] = i;
+      decodeInputs[data + i] = parityBuffers[i];
+      decodeOutputs[i] = allocate(chunkSize);
+    }
+  }
+
+  @Benchmark
+  public ByteBuffer[] encode() throws IOException {
+    ByteBuffer[] outputs = resetAll(parityBuffers);
+    encoder.encode(duplicate(dataBuffers), outputs);
+    return outputs;
+  }
+
+  @Benchmark
+  public ByteBuffer[] decode() throws IOException {
+    ByteBuffer[] outputs = resetAll(decodeOutputs);
+    decoder.decode(duplicate(decodeInputs), erasedIndexes, outputs);
+    return outputs;
+  }
+
+  private ByteBuffer allocate(int size) {
+    return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+  }
+
+  private static ByteBuffer[] duplicate(ByteBuffer[] buffers) {
+    ByteBuffer[] copy = new ByteBuffer[buffers.length];
+    for (int i = 0; i < buffers.length; i++) {
+      copy[i] = buffers[i] == null ? null : buffers[i].duplicate();
+    }
+    return copy;
+  }
+
+  private static ByteBuffer[] resetAll(ByteBuffer[] buffers) {
+    for (ByteBuffer buffer : buffers) {
+      buffer.clear();
+    }
+    return buffers;
+  }
+}
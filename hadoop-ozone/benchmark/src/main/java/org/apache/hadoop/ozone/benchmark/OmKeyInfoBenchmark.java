@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.client.RatisReplicationConfig;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.CodecBuffer;
+import org.apache.hadoop.ozone.ClientVersion;
+import org.apache.hadoop.ozone.OzoneAcl;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyInfo;
+import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer.ACLIdentityType;
+import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer.ACLType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link OmKeyInfo} protobuf conversion and its DB codec, which
+ * are on the path of every key lookup and commit in the OM.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OmKeyInfoBenchmark {
+
+  @Param({"1", "16"})
+  private int blocks;
+
+  private final Codec<OmKeyInfo> codec = OmKeyInfo.getCodec(true);
+  private OmKeyInfo keyInfo;
+  private KeyInfo proto;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() throws IOException {
+    keyInfo = createKeyInfo("key", blocks);
+    proto = keyInfo.getProtobuf(true, ClientVersion.CURRENT_VERSION);
+    bytes = codec.toPersistedFormat(keyInfo);
+  }
+
+  @Benchmark
+  public KeyInfo toProtobuf() {
+    return keyInfo.getProtobuf(true, ClientVersion.CURRENT_VERSION);
+  }
+
+  @Benchmark
+  public OmKeyInfo fromProtobuf() throws IOException {
+    return OmKeyInfo.getFromProtobuf(proto);
+  }
+
+  @Benchmark
+  public byte[] encodeByteArray() throws IOException {
+    return codec.toPersistedFormat(keyInfo);
+  }
+
+  @Benchmark
+  public OmKeyInfo decodeByteArray() throws IOException {
+    return codec.fromPersistedFormat(bytes);
+  }
+
+  @Benchmark
+  public int encodeCodecBuffer() throws IOException {
+    try (CodecBuffer buffer = codec.toDirectCodecBuffer(keyInfo)) {
+      return buffer.readableBytes();
+    }
+  }
+
+  @Benchmark
+  public OmKeyInfo roundTripCodecBuffer() throws IOException {
+    try (CodecBuffer buffer = codec.toDirectCodecBuffer(keyInfo)) {
+      return codec.fromCodecBuffer(buffer);
+    }
+  }
+
+  @Benchmark
+  public OmKeyInfo copyObject() {
+    return codec.copyObject(keyInfo);
+  }
+
+  /**
+   * Creates a key with the given number of blocks, similar to what the OM
+   * stores in the key table for a committed key.
+   */
+  static OmKeyInfo createKeyInfo(String keyName, int blocks) {
+    List<OmKeyLocationInfo> locations = new ArrayList<>(blocks);
+    for (int i = 0; i < blocks; i++) {
+      locations.add(new OmKeyLocationInfo.Builder()
+          .setBlockID(new BlockID(i + 1, 100_000L + i))
+          .setLength(256L * 1024 * 1024)
+          .setOffset(0)
+          .build());
+    }
+    long now = System.currentTimeMillis();
+    return new OmKeyInfo.Builder()
+        .setVolumeName("vol")
+        .setBucketName("bucket")
+        .setKeyName(keyName)
+        .setDataSize(256L * 1024 * 1024 * blocks)
+        .setCreationTime(now)
+        .setModificationTime(now)
+        .setReplicationConfig(
+            RatisReplicationConfig.getInstance(ReplicationFactor.THREE))
+        .setOmKeyLocationInfos(Collections.singletonList(
+            new OmKeyLocationInfoGroup(0, locations)))
+        .setAcls(Collections.singletonList(new OzoneAcl(ACLIdentityType.USER,
+            "user", ACLType.ALL, OzoneAcl.AclScope.ACCESS)))
+        .setObjectID(now)
+        .setUpdateID(now)
+        .build();
+  }
+}
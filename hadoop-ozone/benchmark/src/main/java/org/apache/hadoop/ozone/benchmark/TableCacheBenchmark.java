@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheResult;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.hdds.utils.db.cache.FullTableCache;
+import org.apache.hadoop.hdds.utils.db.cache.PartialTableCache;
+import org.apache.hadoop.hdds.utils.db.cache.TableCache;
+import org.apache.hadoop.hdds.utils.db.cache.WatermarkTableCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks lookups and updates of the {@link TableCache} implementations
+ * used by the OM tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableCacheBenchmark {
+
+  @Param({"FULL", "PARTIAL", "WATERMARK_FULL", "WATERMARK_PARTIAL"})
+  private String cacheType;
+
+  @Param({"100000"})
+  private int numKeys;
+
+  private TableCache<String, String> cache;
+  private String[] keys;
+
+  @Setup
+  public void setup() {
+    cache = createCache(cacheType);
+    keys = new String[numKeys];
+    for (int i = 0; i < numKeys; i++) {
+      keys[i] = "/vol/bucket-" + i;
+      cache.put(new CacheKey<>(keys[i]), CacheValue.get(i, keys[i]));
+    }
+  }
+
+  static TableCache<String, String> createCache(String type) {
+    switch (type) {
+    case "FULL":
+      return new FullTableCache<>("");
+    case "PARTIAL":
+      return new PartialTableCache<>("");
+    case "WATERMARK_FULL":
+      return new WatermarkTableCache<>(TableCache.CacheType.FULL_CACHE, "");
+    case "WATERMARK_PARTIAL":
+      return new WatermarkTableCache<>(TableCache.CacheType.PARTIAL_CACHE,
+          "");
+    default:
+      throw new IllegalArgumentException("Unknown cache type " + type);
+    }
+  }
+
+  @Benchmark
+  public CacheResult<String> lookupHit() {
+    return cache.lookup(new CacheKey<>(
+        keys[ThreadLocalRandom.current().nextInt(numKeys)]));
+  }
+
+  @Benchmark
+  public CacheResult<String> lookupMiss() {
+    return cache.lookup(new CacheKey<>("/vol/missing-"
+        + ThreadLocalRandom.current().nextInt(numKeys)));
+  }
+
+  @Benchmark
+  public CacheValue<String> get() {
+    return cache.get(new CacheKey<>(
+        keys[ThreadLocalRandom.current().nextInt(numKeys)]));
+  }
+
+  /**
+   * Puts an entry in a new epoch and evicts it, as the OM does for each
+   * transaction after the double buffer flush.
+   */
+  @State(Scope.Thread)
+  public static class EpochState {
+    private long epoch = Integer.MAX_VALUE;
+  }
+
+  @Benchmark
+  public void putAndEvict(EpochState state) {
+    long epoch = state.epoch++;
+    String key = keys[ThreadLocalRandom.current().nextInt(numKeys)];
+    cache.put(new CacheKey<>(key), CacheValue.get(epoch, key));
+    cache.evictCache(Collections.singletonList(epoch));
+  }
+}
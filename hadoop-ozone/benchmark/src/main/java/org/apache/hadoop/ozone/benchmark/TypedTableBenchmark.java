@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.CodecRegistry;
+import org.apache.hadoop.hdds.utils.db.DBStore;
+import org.apache.hadoop.hdds.utils.db.DBStoreBuilder;
+import org.apache.hadoop.hdds.utils.db.RDBStore;
+import org.apache.hadoop.hdds.utils.db.StringCodec;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TypedTable;
+import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link TypedTable} get and put of {@link OmKeyInfo} values over
+ * a RocksDB backed table in a temporary directory, with the codecs using
+ * either {@link org.apache.hadoop.hdds.utils.db.CodecBuffer} or byte[].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypedTableBenchmark {
+
+  private static final String TABLE = "keyTable";
+
+  @Param({"true", "false"})
+  private boolean codecBuffer;
+
+  @Param({"100000"})
+  private int numKeys;
+
+  @Param({"1"})
+  private int blocks;
+
+  private File dbDir;
+  private DBStore store;
+  private Table<String, OmKeyInfo> table;
+  private OmKeyInfo keyInfo;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dbDir = Files.createTempDirectory("ozone-benchmark").toFile();
+    store = DBStoreBuilder.newBuilder(new OzoneConfiguration())
+        .setName("benchmark.db")
+        .setPath(dbDir.toPath())
+        .addTable(TABLE)
+        .build();
+
+    Codec<String> keyCodec = StringCodec.get();
+    Codec<OmKeyInfo> valueCodec = OmKeyInfo.getCodec(true);
+    if (!codecBuffer) {
+      keyCodec = new ByteArrayOnlyCodec<>(keyCodec);
+      valueCodec = new ByteArrayOnlyCodec<>(valueCodec);
+    }
+    CodecRegistry registry = CodecRegistry.newBuilder()
+        .addCodec(String.class, keyCodec)
+        .addCodec(OmKeyInfo.class, valueCodec)
+        .build();
+    table = new TypedTable<>(((RDBStore) store).getTable(TABLE), registry,
+        String.class, OmKeyInfo.class, CacheType.PARTIAL_CACHE, "");
+
+    keyInfo = OmKeyInfoBenchmark.createKeyInfo("key", blocks);
+    for (int i = 0; i < numKeys; i++) {
+      table.put(key(i), keyInfo);
+    }
+    store.flushDB();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    if (table != null) {
+      table.close();
+    }
+    if (store != null) {
+      store.close();
+    }
+    FileUtils.deleteDirectory(dbDir);
+  }
+
+  @Benchmark
+  public OmKeyInfo get() throws IOException {
+    return table.get(key(ThreadLocalRandom.current().nextInt(numKeys)));
+  }
+
+  @Benchmark
+  public boolean isExist() throws IOException {
+    return table.isExist(key(ThreadLocalRandom.current().nextInt(numKeys)));
+  }
+
+  @Benchmark
+  public void put() throws IOException {
+    table.put(key(ThreadLocalRandom.current().nextInt(numKeys)), keyInfo);
+  }
+
+  private static String key(int i) {
+    return "/vol/bucket/key-" + i;
+  }
+
+  /**
+   * Hides the {@link org.apache.hadoop.hdds.utils.db.CodecBuffer} support of
+   * a codec, so that {@link TypedTable} uses the byte[] path.
+   */
+  private static final class ByteArrayOnlyCodec<T> implements Codec<T> {
+    private final Codec<T> delegate;
+
+    private ByteArrayOnlyCodec(Codec<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public byte[] toPersistedFormat(T object) throws IOException {
+      return delegate.toPersistedFormat(object);
+    }
+
+    @Override
+    public T fromPersistedFormat(byte[] rawData) throws IOException {
+      return delegate.fromPersistedFormat(rawData);
+    }
+
+    @Override
+    public T copyObject(T object) {
+      return delegate.copyObject(object);
+    }
+  }
+}
@@ -32,6 +32,7 @@
 import org.apache.hadoop.hdds.client.ReplicationType;
 import org.apache.hadoop.hdds.scm.client.HddsClientUtils;
 import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.client.io.KeyCommitBatch;
 import org.apache.hadoop.ozone.client.io.OzoneDataStreamOutput;
 import org.apache.hadoop.ozone.client.io.OzoneInputStream;
 import org.apache.hadoop.ozone.client.io.OzoneOutputStream;
@@ -457,6 +458,35 @@ public OzoneOutputStream createKey(String key, long size,
         .createKey(volumeName, name, key, size, replicationConfig, keyMetadata);
   }
 
+  /**
+   * Creates a new key in the bucket, deferring its commit to the given batch.
+   * The key becomes visible once {@link KeyCommitBatch#commit()} is called.
+   *
+   * @param key               Name of the key to be created.
+   * @param size              Size of the data the key will point to.
+   * @param replicationConfig Replication configuration.
+   * @param commitBatch       Batch created by {@link #createKeyCommitBatch()}.
+   * @return OzoneOutputStream to which the data has to be written.
+   * @throws IOException
+   */
+  public OzoneOutputStream createKey(String key, long size,
+      ReplicationConfig replicationConfig,
+      Map<String, String> keyMetadata, KeyCommitBatch commitBatch)
+      throws IOException {
+    return proxy.createKey(volumeName, name, key, size, replicationConfig,
+        keyMetadata, commitBatch);
+  }
+
+  /**
+   * Creates a batch to commit several keys of the bucket in one request.
+   *
+   * @return KeyCommitBatch of this bucket.
+   * @throws IOException
+   */
+  public KeyCommitBatch createKeyCommitBatch() throws IOException {
+    return proxy.createKeyCommitBatch(volumeName, name);
+  }
+
   /**
    * Creates a new key in the bucket, with default replication type RATIS and
    * with replication factor THREE.
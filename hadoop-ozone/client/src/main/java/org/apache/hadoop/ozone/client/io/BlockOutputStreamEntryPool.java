@@ -86,6 +86,7 @@ public class BlockOutputStreamEntryPool implements KeyMetadataAware {
   private final ContainerClientMetrics clientMetrics;
   private final StreamBufferArgs streamBufferArgs;
   private final Supplier<ExecutorService> executorServiceSupplier;
+  private final KeyCommitBatch commitBatch;
 
   public BlockOutputStreamEntryPool(KeyOutputStream.Builder b) {
     this.config = b.getClientConfig();
@@ -113,6 +114,7 @@ public BlockOutputStreamEntryPool(KeyOutputStream.Builder b) {
                 .createByteBufferConversion(b.isUnsafeByteBufferConversionEnabled()));
     this.clientMetrics = b.getClientMetrics();
     this.executorServiceSupplier = b.getExecutorServiceSupplier();
+    this.commitBatch = b.getCommitBatch();
   }
 
   ExcludeList createExcludeList() {
@@ -324,6 +326,8 @@ void commitKey(long offset) throws IOException {
       if (keyArgs.getIsMultipartKey()) {
         commitUploadPartInfo =
             omClient.commitMultipartUploadPart(keyArgs, openID);
+      } else if (commitBatch != null) {
+        commitBatch.add(keyArgs, openID);
       } else {
         omClient.commitKey(keyArgs, openID);
       }
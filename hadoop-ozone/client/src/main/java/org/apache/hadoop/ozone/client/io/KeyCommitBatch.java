@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.client.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.ozone.om.helpers.ErrorInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
+import org.apache.hadoop.ozone.om.protocol.OzoneManagerProtocol;
+
+/**
+ * Collects the commits of keys written to the same bucket, to send them to
+ * the OzoneManager in a single request.
+ * <p>
+ * A key created with a commit batch is not committed when its output stream
+ * is closed, it becomes visible only after {@link #commit()} is called.
+ * This saves one OM round trip and one Ratis transaction per key when
+ * writing many small keys.
+ */
+public class KeyCommitBatch {
+
+  private final OzoneManagerProtocol omClient;
+  private final String volumeName;
+  private final String bucketName;
+  private final List<OmKeyArgs> keyArgsList = new ArrayList<>();
+  private final List<Long> clientIDs = new ArrayList<>();
+
+  public KeyCommitBatch(OzoneManagerProtocol omClient, String volumeName,
+      String bucketName) {
+    this.omClient = omClient;
+    this.volumeName = volumeName;
+    this.bucketName = bucketName;
+  }
+
+  public String getVolumeName() {
+    return volumeName;
+  }
+
+  public String getBucketName() {
+    return bucketName;
+  }
+
+  /**
+   * Adds the commit of a key whose data has been written.
+   */
+  synchronized void add(OmKeyArgs keyArgs, long clientID) {
+    Preconditions.checkArgument(volumeName.equals(keyArgs.getVolumeName())
+            && bucketName.equals(keyArgs.getBucketName()),
+        "Key %s/%s/%s does not belong to the batch of bucket %s/%s",
+        keyArgs.getVolumeName(), keyArgs.getBucketName(),
+        keyArgs.getKeyName(), volumeName, bucketName);
+    keyArgsList.add(keyArgs);
+    clientIDs.add(clientID);
+  }
+
+  /**
+   * @return number of keys waiting to be committed.
+   */
+  public synchronized int size() {
+    return keyArgsList.size();
+  }
+
+  /**
+   * Commits all the keys added so far, and clears the batch.
+   *
+   * @return Map of the keys which could not be committed to the error
+   * @throws IOException if the request failed, in this case none of the
+   * keys are committed and the batch is left unchanged.
+   */
+  public synchronized Map<String, ErrorInfo> commit() throws IOException {
+    if (keyArgsList.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, ErrorInfo> errors = omClient.commitKeys(volumeName,
+        bucketName, keyArgsList, clientIDs);
+    keyArgsList.clear();
+    clientIDs.clear();
+    return errors;
+  }
+}
@@ -589,6 +589,7 @@ public static class Builder {
     private boolean atomicKeyCreation = false;
     private StreamBufferArgs streamBufferArgs;
     private Supplier<ExecutorService> executorServiceSupplier;
+    private KeyCommitBatch commitBatch;
 
     public String getMultipartUploadID() {
       return multipartUploadID;
@@ -711,6 +712,19 @@ public Supplier<ExecutorService> getExecutorServiceSupplier() {
       return executorServiceSupplier;
     }
 
+    /**
+     * Defers the commit of the key to the given batch, instead of committing
+     * it when the stream is closed.
+     */
+    public Builder setCommitBatch(KeyCommitBatch batch) {
+      this.commitBatch = batch;
+      return this;
+    }
+
+    public KeyCommitBatch getCommitBatch() {
+      return commitBatch;
+    }
+
     public KeyOutputStream build() {
       return new KeyOutputStream(this);
     }
@@ -43,6 +43,7 @@
 import org.apache.hadoop.ozone.client.OzoneVolume;
 import org.apache.hadoop.ozone.client.TenantArgs;
 import org.apache.hadoop.ozone.client.VolumeArgs;
+import org.apache.hadoop.ozone.client.io.KeyCommitBatch;
 import org.apache.hadoop.ozone.client.io.OzoneDataStreamOutput;
 import org.apache.hadoop.ozone.client.io.OzoneInputStream;
 import org.apache.hadoop.ozone.client.io.OzoneOutputStream;
@@ -354,6 +355,32 @@ OzoneOutputStream createKey(String volumeName, String bucketName,
       Map<String, String> metadata)
       throws IOException;
 
+  /**
+   * Writes a key in an existing bucket, deferring its commit to the given
+   * batch. The key becomes visible once the batch is committed.
+   * @param volumeName Name of the Volume
+   * @param bucketName Name of the Bucket
+   * @param keyName Name of the Key
+   * @param size Size of the data
+   * @param metadata custom key value metadata
+   * @param commitBatch batch to add the commit of the key to
+   * @return {@link OzoneOutputStream}
+   *
+   */
+  OzoneOutputStream createKey(String volumeName, String bucketName,
+      String keyName, long size, ReplicationConfig replicationConfig,
+      Map<String, String> metadata, KeyCommitBatch commitBatch)
+      throws IOException;
+
+  /**
+   * Creates a batch to commit keys of the given bucket in a single request.
+   * @param volumeName Name of the Volume
+   * @param bucketName Name of the Bucket
+   * @return {@link KeyCommitBatch}
+   */
+  KeyCommitBatch createKeyCommitBatch(String volumeName, String bucketName)
+      throws IOException;
+
   /**
    * Writes a key in an existing bucket.
    * @param volumeName Name of the Volume
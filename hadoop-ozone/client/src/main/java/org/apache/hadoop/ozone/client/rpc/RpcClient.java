@@ -83,6 +83,7 @@
 import org.apache.hadoop.ozone.client.io.BlockInputStreamFactoryImpl;
 import org.apache.hadoop.ozone.client.io.CipherOutputStreamOzone;
 import org.apache.hadoop.ozone.client.io.ECKeyOutputStream;
+import org.apache.hadoop.ozone.client.io.KeyCommitBatch;
 import org.apache.hadoop.ozone.client.io.KeyDataStreamOutput;
 import org.apache.hadoop.ozone.client.io.KeyInputStream;
 import org.apache.hadoop.ozone.client.io.KeyOutputStream;
@@ -136,6 +137,7 @@
 import org.apache.hadoop.ozone.om.protocolPB.OzoneManagerClientProtocol;
 import org.apache.hadoop.ozone.om.protocolPB.OzoneManagerProtocolClientSideTranslatorPB;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRoleInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistency;
 import org.apache.hadoop.ozone.security.GDPRSymmetricKey;
 import org.apache.hadoop.ozone.security.OzoneTokenIdentifier;
 import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer.ACLIdentityType;
@@ -164,6 +166,7 @@
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.Callable;
@@ -200,6 +203,7 @@ public class RpcClient implements ClientProtocol {
   private static final int EC_RECONSTRUCT_STRIPE_READ_POOL_MIN_SIZE = 3;
 
   private static final int WRITE_POOL_MIN_SIZE = 1;
+  private static final int READAHEAD_POOL_MAX_SIZE = 64;
 
   private final ConfigurationSource conf;
   private final OzoneManagerClientProtocol ozoneManagerClient;
@@ -222,6 +226,7 @@ public class RpcClient implements ClientProtocol {
   private final MemoizedSupplier<ExecutorService> ecReconstructExecutor;
   private final ContainerClientMetrics clientMetrics;
   private final MemoizedSupplier<ExecutorService> writeExecutor;
+  private final MemoizedSupplier<ExecutorService> readaheadExecutor;
   private final AtomicBoolean isS3GRequest = new AtomicBoolean(false);
 
   /**
@@ -249,12 +254,21 @@ public RpcClient(ConfigurationSource conf, String omServiceId)
         "ec-reconstruct-reader-TID-%d"));
     this.writeExecutor = MemoizedSupplier.valueOf(() -> createThreadPoolExecutor(
         WRITE_POOL_MIN_SIZE, Integer.MAX_VALUE, "client-write-TID-%d"));
+    // Readahead is best effort: tasks are rejected rather than run by the
+    // reader when the pool is exhausted.
+    this.readaheadExecutor = MemoizedSupplier.valueOf(() ->
+        new ThreadPoolExecutor(0, READAHEAD_POOL_MAX_SIZE,
+            60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("client-readahead-TID-%d")
+                .setDaemon(true).build()));
 
     OmTransport omTransport = createOmTransport(omServiceId);
     OzoneManagerProtocolClientSideTranslatorPB
         ozoneManagerProtocolClientSideTranslatorPB =
         new OzoneManagerProtocolClientSideTranslatorPB(omTransport,
         clientId.toString());
+    ozoneManagerProtocolClientSideTranslatorPB.setReadConsistency(
+        getReadConsistency(conf));
     this.ozoneManagerClient = TracingUtil.createProxy(
         ozoneManagerProtocolClientSideTranslatorPB,
         OzoneManagerClientProtocol.class, conf);
@@ -323,7 +337,8 @@ public void onRemoval(
         }).build();
     this.byteBufferPool = new ElasticByteBufferPool();
     this.blockInputStreamFactory = BlockInputStreamFactoryImpl
-        .getInstance(byteBufferPool, ecReconstructExecutor);
+        .getInstance(byteBufferPool, ecReconstructExecutor,
+            clientConfig.getReadaheadMaxChunks() > 0 ? readaheadExecutor : null);
     this.clientMetrics = ContainerClientMetrics.acquire();
   }
 
@@ -346,6 +361,26 @@ private OzoneManagerVersion getOmVersion(ServiceInfoEx info) {
     return version;
   }
 
+  /**
+   * Returns the configured consistency of OM reads, ignoring case.
+   *
+   * @throws IllegalArgumentException if the configured value is not one of
+   * the {@link ReadConsistency} values
+   */
+  static ReadConsistency getReadConsistency(ConfigurationSource conf) {
+    final String value = conf.getTrimmed(
+        OMConfigKeys.OZONE_CLIENT_OM_READ_CONSISTENCY_KEY,
+        OMConfigKeys.OZONE_CLIENT_OM_READ_CONSISTENCY_DEFAULT);
+    try {
+      return ReadConsistency.valueOf(value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid value '" + value
+          + "' for " + OMConfigKeys.OZONE_CLIENT_OM_READ_CONSISTENCY_KEY
+          + ". Valid values are " + Arrays.toString(ReadConsistency.values()),
+          e);
+    }
+  }
+
   static boolean validateOmVersion(OzoneManagerVersion minimumVersion,
                                    List<ServiceInfo> serviceInfoList) {
     if (minimumVersion == OzoneManagerVersion.FUTURE_VERSION) {
@@ -1340,6 +1375,16 @@ public OzoneOutputStream createKey(
       ReplicationConfig replicationConfig,
       Map<String, String> metadata)
       throws IOException {
+    return createKey(volumeName, bucketName, keyName, size,
+        replicationConfig, metadata, null);
+  }
+
+  @Override
+  public OzoneOutputStream createKey(
+      String volumeName, String bucketName, String keyName, long size,
+      ReplicationConfig replicationConfig,
+      Map<String, String> metadata, KeyCommitBatch commitBatch)
+      throws IOException {
     verifyVolumeName(volumeName);
     verifyBucketName(bucketName);
     if (checkKeyNameEnabled) {
@@ -1379,7 +1424,27 @@ public OzoneOutputStream createKey(
     if (isS3GRequest.get() && size == 0) {
       openKey.getKeyInfo().setDataSize(size);
     }
-    return createOutputStream(openKey);
+    if (commitBatch == null) {
+      return createOutputStream(openKey);
+    }
+    Preconditions.checkArgument(
+        volumeName.equals(commitBatch.getVolumeName())
+            && bucketName.equals(commitBatch.getBucketName()),
+        "Commit batch of bucket %s/%s can not be used for key %s/%s/%s",
+        commitBatch.getVolumeName(), commitBatch.getBucketName(),
+        volumeName, bucketName, keyName);
+    KeyOutputStream keyOutputStream = createKeyOutputStream(openKey)
+        .setCommitBatch(commitBatch)
+        .build();
+    return createOutputStream(openKey, keyOutputStream);
+  }
+
+  @Override
+  public KeyCommitBatch createKeyCommitBatch(String volumeName,
+      String bucketName) throws IOException {
+    verifyVolumeName(volumeName);
+    verifyBucketName(bucketName);
+    return new KeyCommitBatch(ozoneManagerClient, volumeName, bucketName);
   }
 
   @Override
@@ -1766,6 +1831,9 @@ public void close() throws IOException {
     if (writeExecutor.isInitialized()) {
       writeExecutor.get().shutdownNow();
     }
+    if (readaheadExecutor.isInitialized()) {
+      readaheadExecutor.get().shutdownNow();
+    }
     IOUtils.cleanupWithLogger(LOG, ozoneManagerClient, xceiverClientManager);
     keyProviderCache.invalidateAll();
     keyProviderCache.cleanUp();
@@ -19,9 +19,11 @@
 package org.apache.hadoop.ozone.client.rpc;
 
 
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.ozone.OzoneManagerVersion;
 import org.apache.hadoop.ozone.om.helpers.ServiceInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistency;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -29,7 +31,10 @@
 import java.util.LinkedList;
 import java.util.List;
 
+import static org.apache.hadoop.ozone.client.rpc.RpcClient.getReadConsistency;
 import static org.apache.hadoop.ozone.client.rpc.RpcClient.validateOmVersion;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_CLIENT_OM_READ_CONSISTENCY_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -217,4 +222,26 @@ public void testFutureVersionShouldNotBeAnExpectedVersion() {
         IllegalArgumentException.class,
         () -> validateOmVersion(OzoneManagerVersion.FUTURE_VERSION, null));
   }
+
+  @Test
+  public void testReadConsistencyIgnoresCase() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    assertEquals(ReadConsistency.LEADER, getReadConsistency(conf));
+    conf.set(OZONE_CLIENT_OM_READ_CONSISTENCY_KEY, " linearizable ");
+    assertEquals(ReadConsistency.LINEARIZABLE, getReadConsistency(conf));
+    conf.set(OZONE_CLIENT_OM_READ_CONSISTENCY_KEY, "Bounded_Staleness");
+    assertEquals(ReadConsistency.BOUNDED_STALENESS, getReadConsistency(conf));
+  }
+
+  @Test
+  public void testInvalidReadConsistency() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.set(OZONE_CLIENT_OM_READ_CONSISTENCY_KEY, "eventual");
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> getReadConsistency(conf));
+    Assertions.assertTrue(e.getMessage().contains(
+        OZONE_CLIENT_OM_READ_CONSISTENCY_KEY), e.getMessage());
+    Assertions.assertTrue(e.getMessage().contains("LINEARIZABLE"),
+        e.getMessage());
+  }
 }
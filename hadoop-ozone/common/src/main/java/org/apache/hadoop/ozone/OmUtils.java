@@ -286,6 +286,7 @@ public static boolean isReadOnly(
     case DeleteKey:
     case DeleteKeys:
     case CommitKey:
+    case CommitKeys:
     case AllocateBlock:
     case InitiateMultiPartUpload:
     case CommitMultiPartUpload:
@@ -335,6 +336,40 @@ public static boolean isReadOnly(
     }
   }
 
+  /**
+   * Checks if the OM request is a metadata lookup that a follower OM may
+   * serve. Other read-only requests, like admin commands or requests whose
+   * state is local to an OM (e.g. snapshot diff jobs), are always sent to
+   * the leader.
+   * @param cmdType type of the OM request
+   * @return True if a follower may serve the request, false otherwise.
+   */
+  public static boolean isFollowerReadable(
+      OzoneManagerProtocolProtos.Type cmdType) {
+    switch (cmdType) {
+    case InfoVolume:
+    case ListVolume:
+    case InfoBucket:
+    case ListBuckets:
+    case LookupKey:
+    case GetKeyInfo:
+    case ListKeys:
+    case ListKeysLight:
+    case GetFileStatus:
+    case LookupFile:
+    case ListStatus:
+    case ListStatusLight:
+    case GetAcl:
+    case ListMultiPartUploadParts:
+    case ListMultipartUploads:
+    case ListSnapshot:
+    case GetSnapshotInfo:
+      return true;
+    default:
+      return false;
+    }
+  }
+
   public static byte[] getSHADigest() throws IOException {
     try {
       SRAND.nextBytes(randomBytes);
@@ -247,6 +247,25 @@ private OMConfigKeys() {
   public static final boolean
       OZONE_OM_RATIS_SERVER_ELECTION_PRE_VOTE_DEFAULT = true;
 
+  public static final String OZONE_OM_FOLLOWER_READ_ENABLED_KEY =
+      "ozone.om.follower.read.enabled";
+  public static final boolean OZONE_OM_FOLLOWER_READ_ENABLED_DEFAULT = false;
+  public static final String OZONE_OM_FOLLOWER_READ_MAX_STALENESS_KEY =
+      "ozone.om.follower.read.max.staleness";
+  public static final TimeDuration
+      OZONE_OM_FOLLOWER_READ_MAX_STALENESS_DEFAULT =
+      TimeDuration.valueOf(5, TimeUnit.SECONDS);
+
+  public static final String OZONE_CLIENT_OM_READ_CONSISTENCY_KEY =
+      "ozone.client.om.read.consistency";
+  public static final String OZONE_CLIENT_OM_READ_CONSISTENCY_DEFAULT =
+      "LEADER";
+  public static final String OZONE_CLIENT_OM_FOLLOWER_READ_BACKOFF_KEY =
+      "ozone.client.om.follower.read.backoff";
+  public static final TimeDuration
+      OZONE_CLIENT_OM_FOLLOWER_READ_BACKOFF_DEFAULT =
+      TimeDuration.valueOf(30, TimeUnit.SECONDS);
+
   public static final String OZONE_OM_RATIS_SERVER_CLOSE_THRESHOLD_KEY =
       "ozone.om.ratis.server.close.threshold";
   public static final TimeDuration OZONE_OM_RATIS_SERVER_CLOSE_THRESHOLD_DEFAULT =
@@ -335,6 +354,12 @@ private OMConfigKeys() {
   public static final boolean OZONE_OM_ENABLE_FILESYSTEM_PATHS_DEFAULT =
       false;
 
+  // Max number of FSO directory object IDs cached for path resolution, 0
+  // disables the cache.
+  public static final String OZONE_OM_FS_DIRECTORY_PATH_CACHE_SIZE =
+      "ozone.om.fs.directory.path.cache.size";
+  public static final int OZONE_OM_FS_DIRECTORY_PATH_CACHE_SIZE_DEFAULT = 0;
+
   public static final String OZONE_SERVER_DEFAULT_REPLICATION_KEY =
       "ozone.server.default.replication";
   public static final String OZONE_SERVER_DEFAULT_REPLICATION_DEFAULT =
@@ -457,6 +482,31 @@ private OMConfigKeys() {
   public static final int OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT_DEFAULT
       = 10000;
 
+  /**
+   * Number of executors applying Ratis transactions on the OM. With more than
+   * one executor, key requests of different buckets are applied in parallel.
+   */
+  public static final String OZONE_OM_APPLY_TRANSACTION_EXECUTORS =
+      "ozone.om.apply.transaction.executors";
+  public static final int OZONE_OM_APPLY_TRANSACTION_EXECUTORS_DEFAULT = 1;
+
+  /**
+   * Whether the OM double buffer builds, commits and completes batches in
+   * separate pipelined stages.
+   */
+  public static final String OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED =
+      "ozone.om.double.buffer.pipelined.flush.enabled";
+  public static final boolean
+      OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED_DEFAULT = false;
+  public static final String OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE =
+      "ozone.om.double.buffer.max.batch.size";
+  public static final int OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE_DEFAULT =
+      10000;
+  public static final String OZONE_OM_DOUBLE_BUFFER_TARGET_COMMIT_LATENCY =
+      "ozone.om.double.buffer.target.commit.latency";
+  public static final String
+      OZONE_OM_DOUBLE_BUFFER_TARGET_COMMIT_LATENCY_DEFAULT = "50ms";
+
   /**
    * This configuration shall be enabled to utilize the functionality of the
    * fine-grained KEY_PATH_LOCK.
@@ -517,6 +567,21 @@ private OMConfigKeys() {
   public static final TimeDuration OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT
       = TimeDuration.valueOf(360, TimeUnit.MINUTES);
 
+  public static final String OZONE_OM_SCM_BLOCK_LEASE_SIZE
+      = "ozone.om.scm.block.lease.size";
+  public static final int OZONE_OM_SCM_BLOCK_LEASE_SIZE_DEFAULT = 0;
+
+  public static final String OZONE_OM_SCM_BLOCK_LEASE_TIMEOUT
+      = "ozone.om.scm.block.lease.timeout";
+  public static final TimeDuration OZONE_OM_SCM_BLOCK_LEASE_TIMEOUT_DEFAULT
+      = TimeDuration.valueOf(30, TimeUnit.SECONDS);
+
+  public static final String OZONE_OM_SCM_BLOCK_LEASE_CHECK_INTERVAL
+      = "ozone.om.scm.block.lease.check.interval";
+  public static final TimeDuration
+      OZONE_OM_SCM_BLOCK_LEASE_CHECK_INTERVAL_DEFAULT =
+      TimeDuration.valueOf(5, TimeUnit.SECONDS);
+
   public static final String OZONE_OM_ENABLE_OFS_SHARED_TMP_DIR
       = "ozone.om.enable.ofs.shared.tmp.dir";
   public static final boolean OZONE_OM_ENABLE_OFS_SHARED_TMP_DIR_DEFAULT
@@ -162,6 +162,27 @@ public synchronized ProxyInfo<T> getProxy() {
     return currentProxyInfo;
   }
 
+  /**
+   * Get the proxy object of the given OM, without changing the current
+   * proxy. RPC proxy object is initialized lazily.
+   * @param nodeId OM node ID
+   * @return the OM proxy object to invoke methods upon
+   */
+  public synchronized ProxyInfo<T> getOMProxy(String nodeId) {
+    ProxyInfo<T> proxyInfo = getOMProxyMap().get(nodeId);
+    if (proxyInfo == null) {
+      proxyInfo = createOMProxy(nodeId);
+    }
+    return proxyInfo;
+  }
+
+  /**
+   * @return node IDs of all the OMs of the service.
+   */
+  public synchronized List<String> getOMNodeIds() {
+    return new ArrayList<>(getOmNodeIDList());
+  }
+
   /**
    * Creates proxy object.
    */
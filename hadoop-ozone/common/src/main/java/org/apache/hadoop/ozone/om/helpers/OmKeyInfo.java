@@ -42,6 +42,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.FileChecksumProto;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyInfo;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyLocationList;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OzoneAclInfo;
 import org.apache.hadoop.ozone.protocolPB.OMPBHelper;
 import org.apache.hadoop.util.Time;
 
@@ -63,7 +64,7 @@ public final class OmKeyInfo extends WithParentObjectId
   private static Codec<OmKeyInfo> newCodec(boolean ignorePipeline) {
     return new DelegatedCodec<>(
         Proto2Codec.get(KeyInfo.getDefaultInstance()),
-        OmKeyInfo::getFromProtobuf,
+        keyInfo -> getFromProtobuf(keyInfo, ignorePipeline),
         k -> k.getProtobuf(ignorePipeline, ClientVersion.CURRENT_VERSION));
   }
 
@@ -100,6 +101,14 @@ public static Codec<OmKeyInfo> getCodec(boolean ignorePipeline) {
    */
   private List<OzoneAcl> acls;
 
+  /**
+   * Key locations and ACLs of a key read from the DB are kept in their
+   * protobuf form until first used, so that reads which do not need them,
+   * such as listKeys, skip decoding them. Non-null until decoded.
+   */
+  private List<KeyLocationList> keyLocationListProtos;
+  private List<OzoneAclInfo> aclProtos;
+
   @SuppressWarnings("parameternumber")
   OmKeyInfo(String volumeName, String bucketName, String keyName,
       List<OmKeyLocationInfoGroup> versions, long dataSize,
@@ -187,17 +196,39 @@ public long getParentObjectID() {
 
 
   public synchronized OmKeyLocationInfoGroup getLatestVersionLocations() {
-    return keyLocationVersions.size() == 0 ? null :
-        keyLocationVersions.get(keyLocationVersions.size() - 1);
+    final List<OmKeyLocationInfoGroup> versions = keyLocationVersions();
+    return versions.size() == 0 ? null : versions.get(versions.size() - 1);
   }
 
   public List<OmKeyLocationInfoGroup> getKeyLocationVersions() {
-    return keyLocationVersions;
+    return keyLocationVersions();
   }
 
-  public void setKeyLocationVersions(
+  public synchronized void setKeyLocationVersions(
       List<OmKeyLocationInfoGroup> keyLocationVersions) {
     this.keyLocationVersions = keyLocationVersions;
+    this.keyLocationListProtos = null;
+  }
+
+  private synchronized List<OmKeyLocationInfoGroup> keyLocationVersions() {
+    if (keyLocationListProtos != null) {
+      final List<OmKeyLocationInfoGroup> versions =
+          new ArrayList<>(keyLocationListProtos.size());
+      for (KeyLocationList keyLocationList : keyLocationListProtos) {
+        versions.add(OmKeyLocationInfoGroup.getFromProtobuf(keyLocationList));
+      }
+      keyLocationVersions = versions;
+      keyLocationListProtos = null;
+    }
+    return keyLocationVersions;
+  }
+
+  private synchronized List<OzoneAcl> acls() {
+    if (aclProtos != null) {
+      acls = OzoneAclUtil.fromProtobuf(aclProtos);
+      aclProtos = null;
+    }
+    return acls;
   }
 
   public void updateModifcationTime() {
@@ -326,11 +357,12 @@ public List<OmKeyLocationInfo> updateLocationInfoList(
   public synchronized void appendNewBlocks(
       List<OmKeyLocationInfo> newLocationList, boolean updateTime)
       throws IOException {
-    if (keyLocationVersions.size() == 0) {
+    final List<OmKeyLocationInfoGroup> versions = keyLocationVersions();
+    if (versions.size() == 0) {
       throw new IOException("Appending new block, but no version exist");
     }
     OmKeyLocationInfoGroup currentLatestVersion =
-        keyLocationVersions.get(keyLocationVersions.size() - 1);
+        versions.get(versions.size() - 1);
     currentLatestVersion.appendNewBlocks(newLocationList);
     if (updateTime) {
       setModificationTime(Time.now());
@@ -351,27 +383,28 @@ public synchronized long addNewVersion(
       List<OmKeyLocationInfo> newLocationList, boolean updateTime,
       boolean keepOldVersions) {
     long latestVersionNum;
+    final List<OmKeyLocationInfoGroup> versions = keyLocationVersions();
 
     if (!keepOldVersions) {
       // If old versions are cleared, new block version will always start at 0
-      keyLocationVersions.clear();
+      versions.clear();
     }
 
-    if (keyLocationVersions.size() == 0) {
+    if (versions.size() == 0) {
       // no version exist, these blocks are the very first version.
-      keyLocationVersions.add(new OmKeyLocationInfoGroup(0, newLocationList));
+      versions.add(new OmKeyLocationInfoGroup(0, newLocationList));
       latestVersionNum = 0;
     } else {
       // it is important that the new version are always at the tail of the list
       OmKeyLocationInfoGroup currentLatestVersion =
-          keyLocationVersions.get(keyLocationVersions.size() - 1);
+          versions.get(versions.size() - 1);
 
       // Create a new version here. When bucket versioning is enabled,
       // It includes previous block versions. Otherwise, only the blocks
       // of new version is included.
       OmKeyLocationInfoGroup newVersion =
           currentLatestVersion.generateNextVersion(newLocationList);
-      keyLocationVersions.add(newVersion);
+      versions.add(newVersion);
       latestVersionNum = newVersion.getVersion();
     }
 
@@ -398,19 +431,19 @@ public FileEncryptionInfo getFileEncryptionInfo() {
   }
 
   public List<OzoneAcl> getAcls() {
-    return acls;
+    return acls();
   }
 
   public boolean addAcl(OzoneAcl acl) {
-    return OzoneAclUtil.addAcl(acls, acl);
+    return OzoneAclUtil.addAcl(acls(), acl);
   }
 
   public boolean removeAcl(OzoneAcl acl) {
-    return OzoneAclUtil.removeAcl(acls, acl);
+    return OzoneAclUtil.removeAcl(acls(), acl);
   }
 
   public boolean setAcls(List<OzoneAcl> newAcls) {
-    return OzoneAclUtil.setAcl(acls, newAcls);
+    return OzoneAclUtil.setAcl(acls(), newAcls);
   }
 
   public void setParentObjectID(long parentObjectID) {
@@ -432,7 +465,7 @@ public String toString() {
         ", bucketName='" + bucketName + '\'' +
         ", keyName='" + keyName + '\'' +
         ", dataSize=" + dataSize +
-        ", keyLocationVersions=" + keyLocationVersions +
+        ", keyLocationVersions=" + keyLocationVersions() +
         ", creationTime=" + creationTime +
         ", modificationTime=" + modificationTime +
         ", replicationConfig=" + replicationConfig +
@@ -440,7 +473,7 @@ public String toString() {
         ", fileChecksum=" + fileChecksum +
         ", isFile=" + isFile +
         ", fileName='" + fileName + '\'' +
-        ", acls=" + acls +
+        ", acls=" + acls() +
         '}';
   }
 
@@ -641,22 +674,26 @@ public KeyInfo getProtobuf(boolean ignorePipeline, int clientVersion) {
    * @param fullKeyName user given key name
    * @return key info object
    */
-  private KeyInfo getProtobuf(boolean ignorePipeline, String fullKeyName,
-                              int clientVersion, boolean latestVersionBlocks) {
-    long latestVersion = keyLocationVersions.size() == 0 ? -1 :
-        keyLocationVersions.get(keyLocationVersions.size() - 1).getVersion();
-
+  private synchronized KeyInfo getProtobuf(boolean ignorePipeline,
+      String fullKeyName, int clientVersion, boolean latestVersionBlocks) {
+    final long latestVersion;
     List<KeyLocationList> keyLocations = new ArrayList<>();
-    if (!latestVersionBlocks) {
-      for (OmKeyLocationInfoGroup locationInfoGroup : keyLocationVersions) {
-        keyLocations.add(locationInfoGroup.getProtobuf(
-            ignorePipeline, clientVersion));
+    if (ignorePipeline && keyLocationListProtos != null) {
+      // Undecoded locations were persisted without pipeline, reuse them.
+      final int size = keyLocationListProtos.size();
+      latestVersion = size == 0 ? -1
+          : keyLocationListProtos.get(size - 1).getVersion();
+      if (!latestVersionBlocks) {
+        keyLocations = keyLocationListProtos;
+      } else if (latestVersion != -1) {
+        keyLocations.add(keyLocationListProtos.get(size - 1));
       }
     } else {
-      if (latestVersion != -1) {
-        keyLocations.add(keyLocationVersions.get(keyLocationVersions.size() - 1)
-            .getProtobuf(ignorePipeline, clientVersion));
-      }
+      final List<OmKeyLocationInfoGroup> versions = keyLocationVersions();
+      latestVersion = versions.size() == 0 ? -1 :
+          versions.get(versions.size() - 1).getVersion();
+      addKeyLocations(keyLocations, versions, ignorePipeline,
+          clientVersion, latestVersionBlocks);
     }
 
     KeyInfo.Builder kb = KeyInfo.newBuilder()
@@ -675,7 +712,8 @@ private KeyInfo getProtobuf(boolean ignorePipeline, String fullKeyName,
         .setCreationTime(creationTime)
         .setModificationTime(modificationTime)
         .addAllMetadata(KeyValueUtil.toProtobuf(metadata))
-        .addAllAcls(OzoneAclUtil.toProtobuf(acls))
+        .addAllAcls(aclProtos != null ? aclProtos
+            : OzoneAclUtil.toProtobuf(acls))
         .setObjectID(objectID)
         .setUpdateID(updateID)
         .setParentID(parentObjectID);
@@ -696,15 +734,42 @@ private KeyInfo getProtobuf(boolean ignorePipeline, String fullKeyName,
     return kb.build();
   }
 
+  private static void addKeyLocations(List<KeyLocationList> keyLocations,
+      List<OmKeyLocationInfoGroup> versions, boolean ignorePipeline,
+      int clientVersion, boolean latestVersionBlocks) {
+    if (!latestVersionBlocks) {
+      for (OmKeyLocationInfoGroup locationInfoGroup : versions) {
+        keyLocations.add(locationInfoGroup.getProtobuf(
+            ignorePipeline, clientVersion));
+      }
+    } else if (!versions.isEmpty()) {
+      keyLocations.add(versions.get(versions.size() - 1)
+          .getProtobuf(ignorePipeline, clientVersion));
+    }
+  }
+
   public static OmKeyInfo getFromProtobuf(KeyInfo keyInfo) throws IOException {
+    return getFromProtobuf(keyInfo, false);
+  }
+
+  /**
+   * @param lazy if true, keep the key locations and ACLs in their protobuf
+   *             form and decode them on first use. The key locations must
+   *             not contain pipelines, as in the DB.
+   */
+  private static OmKeyInfo getFromProtobuf(KeyInfo keyInfo, boolean lazy)
+      throws IOException {
     if (keyInfo == null) {
       return null;
     }
 
     List<OmKeyLocationInfoGroup> omKeyLocationInfos = new ArrayList<>();
-    for (KeyLocationList keyLocationList : keyInfo.getKeyLocationListList()) {
-      omKeyLocationInfos.add(
-          OmKeyLocationInfoGroup.getFromProtobuf(keyLocationList));
+    if (!lazy) {
+      for (KeyLocationList keyLocationList
+          : keyInfo.getKeyLocationListList()) {
+        omKeyLocationInfos.add(
+            OmKeyLocationInfoGroup.getFromProtobuf(keyLocationList));
+      }
     }
 
     Builder builder = new Builder()
@@ -720,8 +785,10 @@ public static OmKeyInfo getFromProtobuf(KeyInfo keyInfo) throws IOException {
                 keyInfo.getEcReplicationConfig()))
         .addAllMetadata(KeyValueUtil.getFromProtobuf(keyInfo.getMetadataList()))
         .setFileEncryptionInfo(keyInfo.hasFileEncryptionInfo() ?
-            OMPBHelper.convert(keyInfo.getFileEncryptionInfo()) : null)
-        .setAcls(OzoneAclUtil.fromProtobuf(keyInfo.getAclsList()));
+            OMPBHelper.convert(keyInfo.getFileEncryptionInfo()) : null);
+    if (!lazy) {
+      builder.setAcls(OzoneAclUtil.fromProtobuf(keyInfo.getAclsList()));
+    }
     if (keyInfo.hasObjectID()) {
       builder.setObjectID(keyInfo.getObjectID());
     }
@@ -742,7 +809,12 @@ public static OmKeyInfo getFromProtobuf(KeyInfo keyInfo) throws IOException {
 
     // not persisted to DB. FileName will be filtered out from keyName
     builder.setFileName(OzoneFSUtils.getFileName(keyInfo.getKeyName()));
-    return builder.build();
+    final OmKeyInfo omKeyInfo = builder.build();
+    if (lazy) {
+      omKeyInfo.keyLocationListProtos = keyInfo.getKeyLocationListList();
+      omKeyInfo.aclProtos = keyInfo.getAclsList();
+    }
+    return omKeyInfo;
   }
 
   @Override
@@ -771,7 +843,7 @@ public boolean isKeyInfoSame(OmKeyInfo omKeyInfo, boolean checkPath,
         bucketName.equals(omKeyInfo.bucketName) &&
         replicationConfig.equals(omKeyInfo.replicationConfig) &&
         Objects.equals(metadata, omKeyInfo.metadata) &&
-        Objects.equals(acls, omKeyInfo.acls) &&
+        Objects.equals(acls(), omKeyInfo.acls()) &&
         objectID == omKeyInfo.objectID;
 
     if (isEqual && checkUpdateID) {
@@ -789,7 +861,7 @@ public boolean isKeyInfoSame(OmKeyInfo omKeyInfo, boolean checkPath,
 
     if (isEqual && checkKeyLocationVersions) {
       isEqual = Objects
-          .equals(keyLocationVersions, omKeyInfo.keyLocationVersions);
+          .equals(keyLocationVersions(), omKeyInfo.keyLocationVersions());
     }
 
     return isEqual;
@@ -831,13 +903,13 @@ public OmKeyInfo copyObject() {
         .setFileName(fileName)
         .setFile(isFile);
 
-    keyLocationVersions.forEach(keyLocationVersion ->
+    keyLocationVersions().forEach(keyLocationVersion ->
         builder.addOmKeyLocationInfoGroup(
             new OmKeyLocationInfoGroup(keyLocationVersion.getVersion(),
                 keyLocationVersion.getLocationList(),
                 keyLocationVersion.isMultipartKey())));
 
-    acls.forEach(acl -> builder.addAcl(new OzoneAcl(acl.getType(),
+    acls().forEach(acl -> builder.addAcl(new OzoneAcl(acl.getType(),
             acl.getName(), (BitSet) acl.getAclBitSet().clone(),
         acl.getAclScope())));
 
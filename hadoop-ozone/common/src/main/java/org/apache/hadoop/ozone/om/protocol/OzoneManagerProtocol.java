@@ -257,6 +257,25 @@ default void commitKey(OmKeyArgs args, long clientID)
         "this to be implemented, as write requests use a new approach.");
   }
 
+  /**
+   * Commit a batch of keys of the same bucket in a single request. The keys
+   * are committed independently, a key that fails to commit does not affect
+   * the others.
+   *
+   * @param volumeName volume of the keys
+   * @param bucketName bucket of the keys
+   * @param args the keys to commit
+   * @param clientIDs the client identification of each key
+   * @return Map of the keys which could not be committed to the error
+   * @throws IOException
+   */
+  default Map<String, ErrorInfo> commitKeys(String volumeName,
+      String bucketName, List<OmKeyArgs> args, List<Long> clientIDs)
+      throws IOException {
+    throw new UnsupportedOperationException("OzoneManager does not require " +
+        "this to be implemented, as write requests use a new approach.");
+  }
+
   /**
    * Synchronize the key length. This will make the change from the client
    * visible. The client is identified by the clientID.
@@ -18,6 +18,11 @@
 package org.apache.hadoop.ozone.om.protocolPB;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
@@ -26,12 +31,17 @@
 import org.apache.hadoop.ipc.ProtobufHelper;
 import org.apache.hadoop.ipc.ProtobufRpcEngine;
 import org.apache.hadoop.ipc.RPC;
+import org.apache.hadoop.ipc.RemoteException;
+import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
 import org.apache.hadoop.ozone.om.ha.HadoopRpcOMFailoverProxyProvider;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistency;
 import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.hadoop.util.Time;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.RpcController;
@@ -56,6 +66,12 @@ public class Hadoop3OmTransport implements OmTransport {
 
   private final OzoneManagerProtocolPB rpcProxy;
 
+  private final AtomicInteger nextReadNode = new AtomicInteger();
+  private final long followerReadBackoffMs;
+  // OMs which did not serve a follower read, and until when to skip them.
+  private final Map<String, Long> followerReadBackoff =
+      new ConcurrentHashMap<>();
+
   public Hadoop3OmTransport(ConfigurationSource conf,
       UserGroupInformation ugi, String omServiceId) throws IOException {
 
@@ -71,10 +87,20 @@ public Hadoop3OmTransport(ConfigurationSource conf,
         OzoneConfigKeys.OZONE_CLIENT_FAILOVER_MAX_ATTEMPTS_DEFAULT);
 
     this.rpcProxy = createRetryProxy(omFailoverProxyProvider, maxFailovers);
+    this.followerReadBackoffMs = conf.getTimeDuration(
+        OMConfigKeys.OZONE_CLIENT_OM_FOLLOWER_READ_BACKOFF_KEY,
+        OMConfigKeys.OZONE_CLIENT_OM_FOLLOWER_READ_BACKOFF_DEFAULT
+            .toLong(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
   }
 
   @Override
   public OMResponse submitRequest(OMRequest payload) throws IOException {
+    if (canReadFromFollower(payload)) {
+      OMResponse omResponse = submitFollowerRead(payload);
+      if (omResponse != null) {
+        return omResponse;
+      }
+    }
     try {
       OMResponse omResponse =
           rpcProxy.submitRequest(NULL_RPC_CONTROLLER, payload);
@@ -98,6 +124,87 @@ public OMResponse submitRequest(OMRequest payload) throws IOException {
     }
   }
 
+  private boolean canReadFromFollower(OMRequest payload) {
+    return payload.hasReadConsistency() &&
+        payload.getReadConsistency() != ReadConsistency.LEADER &&
+        OmUtils.isFollowerReadable(payload.getCmdType());
+  }
+
+  /**
+   * Sends a read request which may be served by a follower to the next OM,
+   * in round-robin order, to spread reads across the OMs. OMs which recently
+   * failed to serve a follower read are skipped.
+   * @return the response, or null if no OM served the request, in which
+   * case it has to be sent to the leader.
+   * @throws IOException if the OM failed the request for another reason
+   * than not being able to serve it as a follower
+   */
+  private OMResponse submitFollowerRead(OMRequest payload)
+      throws IOException {
+    List<String> omNodeIds = omFailoverProxyProvider.getOMNodeIds();
+    if (omNodeIds.size() <= 1) {
+      return null;
+    }
+    String nodeId = nextFollowerReadNode(omNodeIds);
+    if (nodeId == null) {
+      return null;
+    }
+    OzoneManagerProtocolPB proxy = (OzoneManagerProtocolPB)
+        omFailoverProxyProvider.getOMProxy(nodeId).proxy;
+    try {
+      return proxy.submitRequest(NULL_RPC_CONTROLLER, payload);
+    } catch (ServiceException e) {
+      if (!isFollowerReadFailure(e)) {
+        throw ProtobufHelper.getRemoteException(e);
+      }
+      LOG.debug("OM {} did not serve {} read, sending it to the leader and " +
+          "skipping the OM for {} ms", nodeId, payload.getCmdType(),
+          followerReadBackoffMs, e);
+      followerReadBackoff.put(nodeId,
+          Time.monotonicNow() + followerReadBackoffMs);
+      return null;
+    }
+  }
+
+  /**
+   * @return the next OM in round-robin order which is not backed off, or
+   * null if all of them are.
+   */
+  private String nextFollowerReadNode(List<String> omNodeIds) {
+    long now = Time.monotonicNow();
+    for (int i = 0; i < omNodeIds.size(); i++) {
+      String nodeId = omNodeIds.get(
+          Math.floorMod(nextReadNode.getAndIncrement(), omNodeIds.size()));
+      Long backoffUntil = followerReadBackoff.get(nodeId);
+      if (backoffUntil == null) {
+        return nodeId;
+      }
+      if (backoffUntil <= now) {
+        followerReadBackoff.remove(nodeId, backoffUntil);
+        return nodeId;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * An OM did not serve a follower read if it is not the leader and could
+   * not serve it as a follower (e.g. it is too far behind, or follower reads
+   * are disabled), or if it could not be reached. Other errors are returned
+   * to the caller, like the leader would.
+   */
+  @VisibleForTesting
+  static boolean isFollowerReadFailure(ServiceException e) {
+    if (HadoopRpcOMFailoverProxyProvider.getNotLeaderException(e) != null ||
+        HadoopRpcOMFailoverProxyProvider.getLeaderNotReadyException(e)
+            != null) {
+      return true;
+    }
+    // Errors of the connection are not wrapped in a RemoteException.
+    Throwable cause = e.getCause();
+    return cause instanceof IOException && !(cause instanceof RemoteException);
+  }
+
   @Override
   public Text getDelegationTokenService() {
     return omFailoverProxyProvider.getCurrentProxyDelegationToken();
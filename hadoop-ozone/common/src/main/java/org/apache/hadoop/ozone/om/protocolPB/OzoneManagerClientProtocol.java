@@ -20,6 +20,7 @@
 
 import org.apache.hadoop.ozone.om.protocol.OzoneManagerProtocol;
 import org.apache.hadoop.ozone.om.protocol.S3Auth;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistency;
 
 /**
  * OzoneManagerClientProtocol defines interfaces needed on the client side
@@ -37,4 +38,12 @@ public interface OzoneManagerClientProtocol extends OzoneManagerProtocol {
   void clearThreadLocalS3Auth();
 
   ThreadLocal<S3Auth> getS3CredentialsProvider();
+
+  /**
+   * Sets the consistency of the read requests sent by the current thread,
+   * overriding the default consistency of the client. Reads which are not
+   * LEADER reads may be served by follower OMs.
+   */
+  void setThreadLocalReadConsistency(ReadConsistency readConsistency);
+  void clearThreadLocalReadConsistency();
 }
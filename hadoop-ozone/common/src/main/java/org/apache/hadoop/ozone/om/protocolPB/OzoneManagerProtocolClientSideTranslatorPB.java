@@ -39,6 +39,7 @@
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.ipc.CallerContext;
 import org.apache.hadoop.ozone.ClientVersion;
+import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
@@ -88,7 +89,9 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BucketInfo;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CancelDelegationTokenResponseProto;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CheckVolumeAccessRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyError;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeysRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateBucketRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateDirectoryRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateFileRequest;
@@ -166,6 +169,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PrintCompactionLogDagRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.RangerBGSyncRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.RangerBGSyncResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistency;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.RecoverLeaseRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.RecoverLeaseResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.RecoverTrashRequest;
@@ -256,6 +260,9 @@
   private ThreadLocal<S3Auth> threadLocalS3Auth
       = new ThreadLocal<>();
   private boolean s3AuthCheck;
+  private volatile ReadConsistency readConsistency = ReadConsistency.LEADER;
+  private final ThreadLocal<ReadConsistency> threadLocalReadConsistency
+      = new ThreadLocal<>();
   public OzoneManagerProtocolClientSideTranslatorPB(OmTransport omTransport,
       String clientId) {
     this.clientID = clientId;
@@ -327,6 +334,11 @@ private OMResponse submitRequest(OMRequest omRequest)
         CallerContext.setCurrent(callerContext);
       }
     }
+    ReadConsistency consistency = getReadConsistency();
+    if (consistency != ReadConsistency.LEADER &&
+        OmUtils.isFollowerReadable(omRequest.getCmdType())) {
+      builder.setReadConsistency(consistency);
+    }
     OMResponse response =
         transport.submitRequest(
             builder.setTraceID(TracingUtil.exportCurrentSpan()).build());
@@ -804,6 +816,19 @@ public static void setReplicationConfig(ReplicationConfig replication,
 
   private void updateKey(OmKeyArgs args, long clientId, boolean hsync)
       throws IOException {
+    CommitKeyRequest req = buildCommitKeyRequest(args, clientId, hsync);
+
+    OMRequest omRequest = createOMRequest(Type.CommitKey)
+        .setCommitKeyRequest(req)
+        .build();
+
+    handleError(submitRequest(omRequest));
+
+
+  }
+
+  private static CommitKeyRequest buildCommitKeyRequest(OmKeyArgs args,
+      long clientId, boolean hsync) {
     CommitKeyRequest.Builder req = CommitKeyRequest.newBuilder();
     List<OmKeyLocationInfo> locationInfoList = args.getLocationInfoList();
     Preconditions.checkNotNull(locationInfoList);
@@ -823,15 +848,36 @@ private void updateKey(OmKeyArgs args, long clientId, boolean hsync)
     req.setKeyArgs(keyArgsBuilder.build());
     req.setClientID(clientId);
     req.setHsync(hsync);
+    return req.build();
+  }
 
+  @Override
+  public Map<String, ErrorInfo> commitKeys(String volumeName,
+      String bucketName, List<OmKeyArgs> args, List<Long> clientIds)
+      throws IOException {
+    Preconditions.checkArgument(args.size() == clientIds.size(),
+        "Number of keys (%s) and client IDs (%s) do not match",
+        args.size(), clientIds.size());
+    CommitKeysRequest.Builder req = CommitKeysRequest.newBuilder()
+        .setVolumeName(volumeName)
+        .setBucketName(bucketName);
+    for (int i = 0; i < args.size(); i++) {
+      req.addCommitKeyRequests(
+          buildCommitKeyRequest(args.get(i), clientIds.get(i), false));
+    }
 
-    OMRequest omRequest = createOMRequest(Type.CommitKey)
-        .setCommitKeyRequest(req)
+    OMRequest omRequest = createOMRequest(Type.CommitKeys)
+        .setCommitKeysRequest(req)
         .build();
+    OMResponse omResponse = handleError(submitRequest(omRequest));
 
-    handleError(submitRequest(omRequest));
-
-
+    Map<String, ErrorInfo> keyToErrors = new HashMap<>();
+    for (CommitKeyError error
+        : omResponse.getCommitKeysResponse().getErrorsList()) {
+      keyToErrors.put(error.getKeyName(),
+          new ErrorInfo(error.getStatus().name(), error.getMessage()));
+    }
+    return keyToErrors;
   }
 
   @Override
@@ -1994,6 +2040,28 @@ public void clearThreadLocalS3Auth() {
     this.threadLocalS3Auth.remove();
   }
 
+  /**
+   * Sets the default consistency of read requests.
+   */
+  public void setReadConsistency(ReadConsistency consistency) {
+    this.readConsistency = consistency;
+  }
+
+  @Override
+  public void setThreadLocalReadConsistency(ReadConsistency consistency) {
+    this.threadLocalReadConsistency.set(consistency);
+  }
+
+  @Override
+  public void clearThreadLocalReadConsistency() {
+    this.threadLocalReadConsistency.remove();
+  }
+
+  private ReadConsistency getReadConsistency() {
+    ReadConsistency consistency = threadLocalReadConsistency.get();
+    return consistency != null ? consistency : readConsistency;
+  }
+
   @Override
   public ThreadLocal<S3Auth> getS3CredentialsProvider() {
     return this.threadLocalS3Auth;
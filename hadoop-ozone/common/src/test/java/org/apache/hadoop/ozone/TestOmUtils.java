@@ -20,6 +20,7 @@
 
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -209,5 +210,19 @@ public void testgetOmSocketAddress() {
     assertThat(addr.getHostString(), is("0.0.0.0"));
     assertThat(addr.getPort(), is(OMConfigKeys.OZONE_OM_PORT_DEFAULT));
   }
-}
 
+  @Test
+  public void testFollowerReadableRequests() {
+    assertTrue(OmUtils.isFollowerReadable(Type.LookupKey));
+    assertTrue(OmUtils.isFollowerReadable(Type.ListStatus));
+    // Read-only, but leader-only or local to an OM.
+    assertFalse(OmUtils.isFollowerReadable(Type.SnapshotDiff));
+    assertFalse(OmUtils.isFollowerReadable(Type.ListSnapshotDiffJobs));
+    assertFalse(OmUtils.isFollowerReadable(Type.TransferLeadership));
+    assertFalse(OmUtils.isFollowerReadable(Type.SetSafeMode));
+    assertFalse(OmUtils.isFollowerReadable(Type.DBUpdates));
+    assertFalse(OmUtils.isFollowerReadable(Type.PrepareStatus));
+    assertFalse(OmUtils.isFollowerReadable(Type.ServiceList));
+    assertFalse(OmUtils.isFollowerReadable(Type.CreateKey));
+  }
+}
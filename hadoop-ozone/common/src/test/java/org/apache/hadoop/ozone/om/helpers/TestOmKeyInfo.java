@@ -25,6 +25,8 @@
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.CodecBuffer;
 import org.apache.hadoop.ozone.ClientVersion;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.OzoneConsts;
@@ -123,6 +125,39 @@ private OmKeyInfo createOmKeyInfo(ReplicationConfig replicationConfig) {
         .build();
   }
 
+  @Test
+  public void testLazyDecodeFromCodec() throws IOException {
+    OmKeyInfo key = createOmKeyInfo(
+        RatisReplicationConfig.getInstance(ReplicationFactor.THREE));
+    key.setKeyLocationVersions(new ArrayList<>(
+        Collections.singletonList(createOmKeyLocationInfoGroup(false))));
+    key.addAcl(new OzoneAcl(IAccessAuthorizer.ACLIdentityType.USER, "user1",
+        IAccessAuthorizer.ACLType.WRITE, ACCESS));
+    Codec<OmKeyInfo> codec = OmKeyInfo.getCodec(true);
+    byte[] persisted = codec.toPersistedFormat(key);
+
+    // Undecoded locations and ACLs are written back as they were read.
+    OmKeyInfo lazy;
+    try (CodecBuffer buffer = codec.toDirectCodecBuffer(key)) {
+      lazy = codec.fromCodecBuffer(buffer);
+    }
+    Assertions.assertArrayEquals(persisted, codec.toPersistedFormat(lazy));
+    Assertions.assertEquals(1, lazy.getKeyLocationVersions().size());
+    Assertions.assertEquals(
+        key.getLatestVersionLocations().getBlocksLatestVersionOnly().size(),
+        lazy.getLatestVersionLocations().getBlocksLatestVersionOnly().size());
+    Assertions.assertEquals(key.getAcls(), lazy.getAcls());
+    Assertions.assertArrayEquals(persisted, codec.toPersistedFormat(lazy));
+
+    // Decoded fields can be modified.
+    Assertions.assertTrue(lazy.addAcl(new OzoneAcl(
+        IAccessAuthorizer.ACLIdentityType.USER, "user2",
+        IAccessAuthorizer.ACLType.READ, ACCESS)));
+    Assertions.assertEquals(2,
+        codec.fromPersistedFormat(codec.toPersistedFormat(lazy))
+            .getAcls().size());
+  }
+
   @Test
   public void testCopyObject() {
     createdAndTest(false);
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.apache.hadoop.ozone.om.protocolPB;
+
+import static org.apache.hadoop.ozone.om.protocolPB.Hadoop3OmTransport.isFollowerReadFailure;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.ConnectException;
+
+import org.apache.hadoop.ipc.RemoteException;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.exceptions.OMLeaderNotReadyException;
+import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
+import org.apache.hadoop.security.AccessControlException;
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.ServiceException;
+
+/**
+ * Tests the follower read handling of {@link Hadoop3OmTransport}.
+ */
+public class TestHadoop3OmTransport {
+
+  @Test
+  public void testFollowerReadFailures() {
+    assertTrue(isFollowerReadFailure(remote(
+        new OMNotLeaderException("om1 is not the leader"))));
+    assertTrue(isFollowerReadFailure(remote(
+        new OMLeaderNotReadyException("om1 is not ready"))));
+    assertTrue(isFollowerReadFailure(
+        new ServiceException(new ConnectException("Connection refused"))));
+
+    // Errors which the leader would return as well.
+    assertFalse(isFollowerReadFailure(remote(
+        new AccessControlException("Permission denied"))));
+    assertFalse(isFollowerReadFailure(remote(
+        new OMException("Invalid", OMException.ResultCodes.INVALID_REQUEST))));
+  }
+
+  private static ServiceException remote(Exception e) {
+    return new ServiceException(
+        new RemoteException(e.getClass().getName(), e.getMessage()));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.ozone.om.helpers.OmDirectoryInfo;
+
+/**
+ * Bounded cache of FSO directory object IDs used to resolve key paths.
+ * <p>
+ * Entries are keyed by the directory table key of a directory,
+ * /volumeId/bucketId/parentId/name, so resolving a path walks the
+ * parent-child links from the bucket down, one in-memory lookup per path
+ * component instead of one directory table lookup. Since object IDs are
+ * never reused, renaming or deleting a directory only changes the entry of
+ * that directory; entries below a deleted directory can no longer be
+ * reached and age out of the cache.
+ * <p>
+ * The cache is fed by the directory table cache updates of write requests,
+ * and by directory table reads on cache misses. A read only populates the
+ * cache if no update of the same key stripe happened while it was reading,
+ * so that a value read before a concurrent delete is never cached after it.
+ */
+public class DirectoryPathCache {
+
+  private static final int STRIPES = 64;
+
+  private final Table<String, OmDirectoryInfo> dirTable;
+  private final Cache<String, Long> cache;
+  // Update counters, incremented before applying an update to the cache.
+  private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+  public DirectoryPathCache(Table<String, OmDirectoryInfo> dirTable,
+      long maxSize) {
+    Preconditions.checkArgument(maxSize > 0,
+        "maxSize must be positive, but was %s", maxSize);
+    this.dirTable = dirTable;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+    dirTable.addCacheUpdateListener(this::onDirectoryUpdate);
+  }
+
+  /**
+   * Returns the object ID of the directory with the given directory table
+   * key, or null if there is no such directory.
+   *
+   * @param dbDirKey directory table key
+   * @return object ID of the directory, or null
+   * @throws IOException on DB failure
+   */
+  public Long getObjectID(String dbDirKey) throws IOException {
+    Long objectID = cache.getIfPresent(dbDirKey);
+    if (objectID != null) {
+      return objectID;
+    }
+
+    final int stripe = stripe(dbDirKey);
+    final long version = versions.get(stripe);
+    OmDirectoryInfo dirInfo = dirTable.get(dbDirKey);
+    if (dirInfo == null) {
+      return null;
+    }
+    final long id = dirInfo.getObjectID();
+    cache.asMap().compute(dbDirKey, (key, current) ->
+        current != null || versions.get(stripe) != version ? current : id);
+    return id;
+  }
+
+  private void onDirectoryUpdate(String dbDirKey, OmDirectoryInfo dirInfo) {
+    versions.incrementAndGet(stripe(dbDirKey));
+    if (dirInfo == null) {
+      cache.invalidate(dbDirKey);
+    } else {
+      cache.put(dbDirKey, dirInfo.getObjectID());
+    }
+  }
+
+  private static int stripe(String dbDirKey) {
+    return Math.floorMod(dbDirKey.hashCode(), STRIPES);
+  }
+
+  @VisibleForTesting
+  public long size() {
+    return cache.size();
+  }
+
+  @VisibleForTesting
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+}
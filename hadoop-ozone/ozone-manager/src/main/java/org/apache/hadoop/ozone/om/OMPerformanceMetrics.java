@@ -19,6 +19,7 @@
 import org.apache.hadoop.metrics2.MetricsSystem;
 import org.apache.hadoop.metrics2.annotation.Metric;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
 import org.apache.hadoop.metrics2.lib.MutableRate;
 
 /**
@@ -113,6 +114,12 @@ public static void unregister() {
   @Metric(about = "Ratis local command execution latency in nano seconds")
   private MutableRate validateAndUpdateCacneLatencyNs;
 
+  @Metric(about = "Reads served by a follower from its local state")
+  private MutableCounterLong followerLocalReads;
+
+  @Metric(about = "Follower wait for leader read index in nano seconds")
+  private MutableRate followerReadIndexLatencyNs;
+
   @Metric(about = "ACLs check latency in listKeys")
   private MutableRate listKeysAclCheckLatencyNs;
 
@@ -216,6 +223,14 @@ public MutableRate getValidateAndUpdateCacneLatencyNs() {
     return validateAndUpdateCacneLatencyNs;
   }
 
+  public void incFollowerLocalReads() {
+    followerLocalReads.incr();
+  }
+
+  public MutableRate getFollowerReadIndexLatencyNs() {
+    return followerReadIndexLatencyNs;
+  }
+
   public MutableRate getListKeysAclCheckLatencyNs() {
     return listKeysAclCheckLatencyNs;
   }
@@ -294,6 +294,8 @@ public class OmMetadataManagerImpl implements OMMetadataManager,
   private boolean isRatisEnabled;
   private boolean ignorePipelineinKey;
   private Table deletedDirTable;
+  // Null when disabled, or for snapshot DBs.
+  private DirectoryPathCache directoryPathCache;
 
   // Table-level locks that protects table read/write access. Note:
   // Don't use this lock for tables other than deletedTable and deletedDirTable.
@@ -491,6 +493,13 @@ public Table<String, OmDirectoryInfo> getDirectoryTable() {
     return dirTable;
   }
 
+  /**
+   * Returns the cache used to resolve FSO key paths, or null if disabled.
+   */
+  public DirectoryPathCache getDirectoryPathCache() {
+    return directoryPathCache;
+  }
+
   @Override
   public Table<String, OmMultipartKeyInfo> getMultipartInfoTable() {
     return multipartInfoTable;
@@ -559,6 +568,12 @@ public void start(OzoneConfiguration configuration) throws IOException {
       this.store = loadDB(configuration, metaDir);
 
       initializeOmTables(CacheType.FULL_CACHE, true);
+
+      int pathCacheSize = configuration.getInt(
+          OMConfigKeys.OZONE_OM_FS_DIRECTORY_PATH_CACHE_SIZE,
+          OMConfigKeys.OZONE_OM_FS_DIRECTORY_PATH_CACHE_SIZE_DEFAULT);
+      directoryPathCache = pathCacheSize > 0
+          ? new DirectoryPathCache(dirTable, pathCacheSize) : null;
     }
 
     snapshotChainManager = new SnapshotChainManager(this);
@@ -0,0 +1,412 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.om;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.client.ReplicationConfig;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
+import org.apache.hadoop.hdds.scm.AddSCMRequest;
+import org.apache.hadoop.hdds.scm.ScmInfo;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.apache.hadoop.hdds.scm.container.ContainerInfo;
+import org.apache.hadoop.hdds.scm.container.common.helpers.AllocatedBlock;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ContainerWithPipeline;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
+import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
+import org.apache.hadoop.ozone.common.BlockGroup;
+import org.apache.hadoop.ozone.common.DeleteBlockGroupResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@link ScmBlockLocationProtocol} client which leases pools of blocks
+ * allocated by SCM ahead of time, so that allocating blocks for a key
+ * usually does not wait for an RPC to SCM.
+ * <p>
+ * Blocks are pooled by size, replication config and owner. A pool is
+ * refilled in the background from SCM when half of its blocks are used.
+ * Requests which the pool cannot serve completely are passed to SCM for the
+ * remaining blocks. Leased blocks are handed out at most once, and only
+ * until the lease timeout, after which their container may be full or their
+ * pipeline closed. Blocks in containers, pipelines or on datanodes of the
+ * exclude list of a request are revoked from all pools, since clients add
+ * those after failing to write to them. The containers of the pooled blocks
+ * are also checked with SCM periodically, and blocks are revoked once their
+ * container is no longer open or their pipeline was closed.
+ * <p>
+ * SCM does not reserve space for allocated blocks, so blocks whose lease
+ * expires are simply dropped. Pooled blocks are leased without a client, so
+ * the datanodes of their pipeline are sorted by distance to the client when
+ * handed out, as SCM would do when allocating them for it. Clients write to
+ * the closest node of a pipeline, and to the first node of a Ratis
+ * pipeline.
+ */
+final class ScmBlockLeaseClient implements ScmBlockLocationProtocol {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ScmBlockLeaseClient.class);
+
+  private static final int SORTED_NODES_CACHE_SIZE = 10000;
+
+  private final ScmBlockLocationProtocol delegate;
+  private final StorageContainerLocationProtocol containerClient;
+  private final int leaseSize;
+  private final long leaseTimeout;
+  private final Clock clock;
+  private final ScheduledExecutorService executor;
+  private final Map<PoolKey, Pool> pools = new ConcurrentHashMap<>();
+  // Datanodes of a pipeline sorted by distance to a client
+  private final Cache<Pair<String, PipelineID>, List<DatanodeDetails>>
+      sortedNodes;
+  private final ScmBlockLeaseMetrics metrics;
+
+  ScmBlockLeaseClient(ScmBlockLocationProtocol delegate,
+      StorageContainerLocationProtocol containerClient, int leaseSize,
+      Duration leaseTimeout, Duration checkInterval, Clock clock) {
+    this.delegate = delegate;
+    this.containerClient = containerClient;
+    this.leaseSize = leaseSize;
+    this.leaseTimeout = leaseTimeout.toMillis();
+    this.clock = clock;
+    this.sortedNodes = CacheBuilder.newBuilder()
+        .maximumSize(SORTED_NODES_CACHE_SIZE)
+        .expireAfterWrite(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .build();
+    this.metrics = ScmBlockLeaseMetrics.create();
+    this.executor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("ScmBlockLease-%d")
+            .build());
+    executor.scheduleWithFixedDelay(this::checkLeases,
+        checkInterval.toMillis(), checkInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public List<AllocatedBlock> allocateBlock(long size, int numBlocks,
+      ReplicationConfig replicationConfig, String owner,
+      ExcludeList excludeList, String clientMachine) throws IOException {
+    if (excludeList != null && !excludeList.isEmpty()) {
+      for (Pool pool : pools.values()) {
+        pool.revoke(excludeList);
+      }
+    }
+    final Pool pool = pools.computeIfAbsent(
+        new PoolKey(size, replicationConfig, owner), Pool::new);
+    final List<AllocatedBlock> blocks = pool.take(numBlocks);
+    metrics.incLeasedBlocksUsed(blocks.size());
+    sortNodes(blocks, clientMachine);
+    pool.refillIfLow();
+    if (blocks.size() < numBlocks) {
+      blocks.addAll(delegate.allocateBlock(size, numBlocks - blocks.size(),
+          replicationConfig, owner, excludeList, clientMachine));
+    }
+    return blocks;
+  }
+
+  @Override
+  public List<DeleteBlockGroupResult> deleteKeyBlocks(
+      List<BlockGroup> keyBlocksInfoList) throws IOException {
+    return delegate.deleteKeyBlocks(keyBlocksInfoList);
+  }
+
+  @Override
+  public ScmInfo getScmInfo() throws IOException {
+    return delegate.getScmInfo();
+  }
+
+  @Override
+  public boolean addSCM(AddSCMRequest request) throws IOException {
+    return delegate.addSCM(request);
+  }
+
+  @Override
+  public List<DatanodeDetails> sortDatanodes(List<String> nodes,
+      String clientMachine) throws IOException {
+    return delegate.sortDatanodes(nodes, clientMachine);
+  }
+
+  @Override
+  public void close() throws IOException {
+    shutdown();
+    delegate.close();
+  }
+
+  /**
+   * Stops refilling the pools, without closing the underlying client.
+   */
+  void shutdown() {
+    executor.shutdownNow();
+    metrics.unregister();
+  }
+
+  /**
+   * Sort the datanodes of the pipelines of leased blocks by distance to the
+   * client. The blocks are still usable if sorting fails.
+   */
+  private void sortNodes(List<AllocatedBlock> blocks, String clientMachine) {
+    if (StringUtils.isEmpty(clientMachine)) {
+      return;
+    }
+    for (AllocatedBlock block : blocks) {
+      final Pipeline pipeline = block.getPipeline();
+      try {
+        pipeline.setNodesInOrder(sortedNodes.get(
+            Pair.of(clientMachine, pipeline.getId()),
+            () -> delegate.sortDatanodes(pipeline.getNodes().stream()
+                .map(DatanodeDetails::getUuidString)
+                .collect(toList()), clientMachine)));
+      } catch (ExecutionException | UncheckedExecutionException e) {
+        LOG.warn("Unable to sort datanodes of pipeline {} for client {}",
+            pipeline.getId(), clientMachine, e.getCause());
+      }
+    }
+  }
+
+  /**
+   * Revoke the leased blocks whose container is no longer open, or whose
+   * pipeline was closed, according to SCM.
+   */
+  @VisibleForTesting
+  void checkLeases() {
+    final Set<Long> containerIds = new HashSet<>();
+    for (Pool pool : pools.values()) {
+      pool.addContainerIds(containerIds);
+    }
+    if (containerIds.isEmpty()) {
+      return;
+    }
+    final Map<Long, PipelineID> open = new HashMap<>();
+    try {
+      for (ContainerWithPipeline c
+          : containerClient.getContainerWithPipelineBatch(containerIds)) {
+        final ContainerInfo info = c.getContainerInfo();
+        if (info.getState() == LifeCycleState.OPEN
+            && c.getPipeline() != null && c.getPipeline().isOpen()) {
+          open.put(info.getContainerID(), c.getPipeline().getId());
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to check the containers of leased blocks", e);
+      return;
+    }
+    for (Pool pool : pools.values()) {
+      pool.revoke(block -> !block.getPipeline().getId().equals(
+          open.get(block.getBlockID().getContainerID())), "closed");
+    }
+  }
+
+  /**
+   * @return the number of blocks currently leased in all pools.
+   */
+  int getLeasedBlockCount() {
+    return pools.values().stream().mapToInt(Pool::size).sum();
+  }
+
+  ScmBlockLeaseMetrics getMetrics() {
+    return metrics;
+  }
+
+  private static boolean isExcluded(AllocatedBlock block,
+      ExcludeList excludeList) {
+    if (excludeList.getContainerIds().contains(
+        ContainerID.valueOf(block.getBlockID().getContainerID()))
+        || excludeList.getPipelineIds().contains(
+            block.getPipeline().getId())) {
+      return true;
+    }
+    for (DatanodeDetails dn : block.getPipeline().getNodes()) {
+      if (excludeList.getDatanodes().contains(dn)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Size, replication config and owner of the blocks of a pool.
+   */
+  private static final class PoolKey {
+    private final long size;
+    private final ReplicationConfig replicationConfig;
+    private final String owner;
+
+    private PoolKey(long size, ReplicationConfig replicationConfig,
+        String owner) {
+      this.size = size;
+      this.replicationConfig = replicationConfig;
+      this.owner = owner;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PoolKey)) {
+        return false;
+      }
+      final PoolKey that = (PoolKey) o;
+      return size == that.size
+          && replicationConfig.equals(that.replicationConfig)
+          && Objects.equals(owner, that.owner);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(size, replicationConfig, owner);
+    }
+
+    @Override
+    public String toString() {
+      return replicationConfig + "/" + owner + "/" + size;
+    }
+  }
+
+  /**
+   * A block leased from SCM, with the time it was leased.
+   */
+  private static final class Lease {
+    private final AllocatedBlock block;
+    private final long time;
+
+    private Lease(AllocatedBlock block, long time) {
+      this.block = block;
+      this.time = time;
+    }
+  }
+
+  /**
+   * Leased blocks of a {@link PoolKey}, in the order they were leased.
+   */
+  private final class Pool {
+    private final PoolKey key;
+    private final Deque<Lease> leases = new ArrayDeque<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private Pool(PoolKey key) {
+      this.key = key;
+    }
+
+    private synchronized List<AllocatedBlock> take(int count) {
+      final List<AllocatedBlock> blocks = new ArrayList<>(count);
+      final long now = clock.millis();
+      while (blocks.size() < count && !leases.isEmpty()) {
+        final Lease lease = leases.pollFirst();
+        if (now - lease.time < leaseTimeout) {
+          blocks.add(lease.block);
+        } else {
+          metrics.incLeasedBlocksDropped(1);
+        }
+      }
+      return blocks;
+    }
+
+    private void revoke(ExcludeList excludeList) {
+      revoke(block -> isExcluded(block, excludeList), excludeList);
+    }
+
+    private synchronized void revoke(Predicate<AllocatedBlock> condition,
+        Object reason) {
+      final int before = leases.size();
+      leases.removeIf(lease -> condition.test(lease.block));
+      if (leases.size() < before) {
+        metrics.incLeasedBlocksDropped(before - leases.size());
+        LOG.debug("Revoked {} leased blocks of {}: {}",
+            before - leases.size(), key, reason);
+      }
+    }
+
+    private synchronized void addContainerIds(Set<Long> containerIds) {
+      for (Lease lease : leases) {
+        containerIds.add(lease.block.getBlockID().getContainerID());
+      }
+    }
+
+    private synchronized int size() {
+      return leases.size();
+    }
+
+    private void refillIfLow() {
+      if (size() <= leaseSize / 2 && refilling.compareAndSet(false, true)) {
+        try {
+          executor.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+          refilling.set(false);
+        }
+      }
+    }
+
+    private void refill() {
+      try {
+        final int count = leaseSize - size();
+        if (count > 0) {
+          // Nodes are sorted for the client when the blocks are handed out
+          final List<AllocatedBlock> blocks = delegate.allocateBlock(
+              key.size, count, key.replicationConfig, key.owner,
+              new ExcludeList(), null);
+          final long now = clock.millis();
+          synchronized (this) {
+            for (AllocatedBlock block : blocks) {
+              leases.addLast(new Lease(block, now));
+            }
+          }
+          metrics.incLeasedBlocksAllocated(blocks.size());
+          LOG.debug("Leased {} blocks of {}", blocks.size(), key);
+        }
+      } catch (IOException | RuntimeException e) {
+        metrics.incLeaseFailures();
+        LOG.warn("Failed to lease blocks of {} from SCM", key, e);
+      } finally {
+        refilling.set(false);
+      }
+    }
+  }
+}
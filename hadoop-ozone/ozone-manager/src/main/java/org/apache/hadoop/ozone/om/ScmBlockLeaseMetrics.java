@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.om;
+
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+
+/**
+ * Metrics of the blocks leased by OM from SCM, see
+ * {@link ScmBlockLeaseClient}.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "SCM Block Lease Metrics", context = "ozone")
+public final class ScmBlockLeaseMetrics {
+
+  private static final String SOURCE_NAME =
+      ScmBlockLeaseMetrics.class.getSimpleName();
+
+  @Metric(about = "Number of leased blocks handed out for allocateBlock.")
+  private MutableCounterLong leasedBlocksUsed;
+
+  @Metric(about = "Number of leased blocks dropped because their lease " +
+      "expired, or their container or pipeline was excluded or closed.")
+  private MutableCounterLong leasedBlocksDropped;
+
+  @Metric(about = "Number of blocks leased from SCM.")
+  private MutableCounterLong leasedBlocksAllocated;
+
+  @Metric(about = "Number of failed attempts to lease blocks from SCM.")
+  private MutableCounterLong leaseFailures;
+
+  private ScmBlockLeaseMetrics() {
+  }
+
+  public static ScmBlockLeaseMetrics create() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(SOURCE_NAME, "SCM Block Lease Metrics",
+        new ScmBlockLeaseMetrics());
+  }
+
+  public void unregister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(SOURCE_NAME);
+  }
+
+  void incLeasedBlocksUsed(long count) {
+    leasedBlocksUsed.incr(count);
+  }
+
+  void incLeasedBlocksDropped(long count) {
+    leasedBlocksDropped.incr(count);
+  }
+
+  void incLeasedBlocksAllocated(long count) {
+    leasedBlocksAllocated.incr(count);
+  }
+
+  void incLeaseFailures() {
+    leaseFailures.incr();
+  }
+
+  public long getLeasedBlocksUsed() {
+    return leasedBlocksUsed.value();
+  }
+
+  public long getLeasedBlocksDropped() {
+    return leasedBlocksDropped.value();
+  }
+
+  public long getLeasedBlocksAllocated() {
+    return leasedBlocksAllocated.value();
+  }
+
+  public long getLeaseFailures() {
+    return leaseFailures.value();
+  }
+}
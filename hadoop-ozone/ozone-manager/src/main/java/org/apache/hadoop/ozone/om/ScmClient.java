@@ -32,6 +32,8 @@
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +45,12 @@
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_TTL;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SCM_BLOCK_LEASE_CHECK_INTERVAL;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SCM_BLOCK_LEASE_CHECK_INTERVAL_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SCM_BLOCK_LEASE_SIZE;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SCM_BLOCK_LEASE_SIZE_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SCM_BLOCK_LEASE_TIMEOUT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SCM_BLOCK_LEASE_TIMEOUT_DEFAULT;
 
 /**
  * Wrapper class for Scm protocol clients.
@@ -50,6 +58,7 @@
 public class ScmClient {
 
   private final ScmBlockLocationProtocol blockClient;
+  private final ScmBlockLeaseClient blockLeaseClient;
   private final StorageContainerLocationProtocol containerClient;
   private final LoadingCache<Long, Pipeline> containerLocationCache;
   private final CacheMetrics containerCacheMetrics;
@@ -58,13 +67,38 @@ public class ScmClient {
             StorageContainerLocationProtocol containerClient,
             OzoneConfiguration configuration) {
     this.containerClient = containerClient;
-    this.blockClient = blockClient;
+    this.blockLeaseClient = createBlockLeaseClient(configuration, blockClient,
+        containerClient);
+    this.blockClient = blockLeaseClient != null ? blockLeaseClient
+        : blockClient;
     this.containerLocationCache =
         createContainerLocationCache(configuration, containerClient);
     this.containerCacheMetrics = CacheMetrics.create(containerLocationCache,
         "ContainerInfo");
   }
 
+  static ScmBlockLeaseClient createBlockLeaseClient(
+      OzoneConfiguration configuration, ScmBlockLocationProtocol blockClient,
+      StorageContainerLocationProtocol containerClient) {
+    int leaseSize = configuration.getInt(OZONE_OM_SCM_BLOCK_LEASE_SIZE,
+        OZONE_OM_SCM_BLOCK_LEASE_SIZE_DEFAULT);
+    if (leaseSize <= 0) {
+      return null;
+    }
+    long leaseTimeout = configuration.getTimeDuration(
+        OZONE_OM_SCM_BLOCK_LEASE_TIMEOUT,
+        OZONE_OM_SCM_BLOCK_LEASE_TIMEOUT_DEFAULT.toLong(TimeUnit.MILLISECONDS),
+        TimeUnit.MILLISECONDS);
+    long checkInterval = configuration.getTimeDuration(
+        OZONE_OM_SCM_BLOCK_LEASE_CHECK_INTERVAL,
+        OZONE_OM_SCM_BLOCK_LEASE_CHECK_INTERVAL_DEFAULT.toLong(
+            TimeUnit.MILLISECONDS),
+        TimeUnit.MILLISECONDS);
+    return new ScmBlockLeaseClient(blockClient, containerClient, leaseSize,
+        Duration.ofMillis(leaseTimeout), Duration.ofMillis(checkInterval),
+        Clock.systemUTC());
+  }
+
   static LoadingCache<Long, Pipeline> createContainerLocationCache(
       OzoneConfiguration configuration,
       StorageContainerLocationProtocol containerClient) {
@@ -167,6 +201,9 @@ private <T> T handleCacheExecutionException(ExecutionException e)
 
   public void close() {
     containerCacheMetrics.unregister();
+    if (blockLeaseClient != null) {
+      blockLeaseClient.shutdown();
+    }
   }
 
 }
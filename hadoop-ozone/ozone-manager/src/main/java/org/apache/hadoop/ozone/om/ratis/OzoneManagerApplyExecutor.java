@@ -0,0 +1,269 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.util.concurrent.HadoopExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes OM applyTransaction work on a fixed set of single threaded
+ * executors. Requests which operate on keys of a single bucket are routed to
+ * the executor selected by the (link resolved) bucket, so that transactions
+ * of one bucket are applied in Ratis log order while unrelated buckets
+ * progress in parallel.
+ * <p>
+ * Every other request (volume/bucket create and delete, snapshots, tenant,
+ * prepare, purge requests etc.) is executed as a barrier: it starts only once
+ * all previously submitted transactions have completed, and transactions
+ * submitted after it start only once it has completed.
+ * <p>
+ * {@link #submit} must be called in Ratis log order, which is the case for
+ * {@code StateMachine#applyTransaction}.
+ */
+public class OzoneManagerApplyExecutor {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OzoneManagerApplyExecutor.class);
+
+  private final List<ExecutorService> executors;
+
+  /**
+   * Resolves the given volume and bucket to the bucket whose executor should
+   * run the request, returns null if the request has to run as a barrier.
+   */
+  private final Function<Pair<String, String>, Pair<String, String>>
+      bucketResolver;
+
+  // Last future submitted to each executor. Only accessed while holding
+  // the lock of this object.
+  private final CompletableFuture<?>[] tails;
+  private CompletableFuture<?> lastBarrier =
+      CompletableFuture.completedFuture(null);
+  // Completes once every submitted task has been handed to an executor.
+  // Tasks submitted while a barrier is running are handed over only once it
+  // has completed, see submit.
+  private CompletableFuture<Void> dispatched =
+      CompletableFuture.completedFuture(null);
+
+  public OzoneManagerApplyExecutor(int numExecutors, String threadPrefix,
+      Function<Pair<String, String>, Pair<String, String>> bucketResolver) {
+    Preconditions.checkArgument(numExecutors > 0,
+        "Number of apply transaction executors should be greater than 0");
+    this.bucketResolver = bucketResolver;
+    this.executors = new ArrayList<>(numExecutors);
+    this.tails = new CompletableFuture<?>[numExecutors];
+    for (int i = 0; i < numExecutors; i++) {
+      ThreadFactory build = new ThreadFactoryBuilder().setDaemon(true)
+          .setNameFormat(threadPrefix +
+              "OMStateMachineApplyTransactionThread" + i + " - %d").build();
+      executors.add(HadoopExecutors.newSingleThreadExecutor(build));
+      tails[i] = lastBarrier;
+    }
+  }
+
+  /**
+   * Submits the task which applies the given request. This never waits for
+   * previously submitted tasks.
+   * @return future which completes with the task result.
+   */
+  public synchronized <T> CompletableFuture<T> submit(OMRequest request,
+      Supplier<T> task) {
+    if (executors.size() == 1) {
+      return chain(0, task);
+    }
+    Pair<String, String> bucket = getVolumeAndBucket(request);
+    // Bucket links are only created and deleted by barrier requests, so a
+    // bucket is resolved once the last barrier has completed, for link
+    // resolution to see the same bucket table on every OM. Until then, the
+    // task is queued behind the barrier and handed over in log order.
+    if (dispatched.isDone() && (bucket == null || lastBarrier.isDone())) {
+      return dispatch(bucket, task);
+    }
+    CompletableFuture<T> result = new CompletableFuture<>();
+    dispatched = dispatched
+        .thenCompose(v -> bucket == null
+            ? CompletableFuture.completedFuture(null)
+            : getLastBarrier().handle((r, e) -> null))
+        .thenRun(() -> {
+          synchronized (this) {
+            try {
+              dispatch(bucket, task).whenComplete((r, e) -> {
+                if (e != null) {
+                  result.completeExceptionally(e);
+                } else {
+                  result.complete(r);
+                }
+              });
+            } catch (RuntimeException e) {
+              LOG.error("Failed to submit apply transaction task", e);
+              result.completeExceptionally(e);
+            }
+          }
+        });
+    return result;
+  }
+
+  private synchronized CompletableFuture<?> getLastBarrier() {
+    return lastBarrier;
+  }
+
+  /**
+   * Hands the task over to the executor of its bucket, or runs it as a
+   * barrier if it has none.
+   */
+  private <T> CompletableFuture<T> dispatch(Pair<String, String> bucket,
+      Supplier<T> task) {
+    int index = getExecutorIndex(bucket);
+    if (index < 0) {
+      return barrier(task);
+    }
+    return chain(index, task);
+  }
+
+  private <T> CompletableFuture<T> chain(int index, Supplier<T> task) {
+    CompletableFuture<T> future = tails[index]
+        .handleAsync((r, e) -> task.get(), executors.get(index));
+    tails[index] = future;
+    return future;
+  }
+
+  private <T> CompletableFuture<T> barrier(Supplier<T> task) {
+    CompletableFuture<T> future = CompletableFuture.allOf(
+        Arrays.stream(tails)
+            .map(f -> f.handle((r, e) -> null))
+            .toArray(CompletableFuture[]::new))
+        .thenApplyAsync(v -> task.get(), executors.get(0));
+    Arrays.fill(tails, future);
+    lastBarrier = future;
+    return future;
+  }
+
+  /**
+   * Returns the executor index for the bucket, or -1 if the request needs
+   * to be executed as a barrier.
+   */
+  private int getExecutorIndex(Pair<String, String> bucket) {
+    if (bucket == null) {
+      return -1;
+    }
+    Pair<String, String> resolved = bucketResolver.apply(bucket);
+    if (resolved == null) {
+      return -1;
+    }
+    return Math.floorMod(resolved.hashCode(), executors.size());
+  }
+
+  /**
+   * Returns the volume and bucket of a request which only modifies keys
+   * within that bucket, null for all other requests.
+   */
+  @VisibleForTesting
+  static Pair<String, String> getVolumeAndBucket(OMRequest request) {
+    switch (request.getCmdType()) {
+    case CreateKey:
+      return of(request.getCreateKeyRequest().getKeyArgs());
+    case CommitKey:
+      return of(request.getCommitKeyRequest().getKeyArgs());
+    case AllocateBlock:
+      return of(request.getAllocateBlockRequest().getKeyArgs());
+    case DeleteKey:
+      return of(request.getDeleteKeyRequest().getKeyArgs());
+    case RenameKey:
+      return of(request.getRenameKeyRequest().getKeyArgs());
+    case CreateDirectory:
+      return of(request.getCreateDirectoryRequest().getKeyArgs());
+    case CreateFile:
+      return of(request.getCreateFileRequest().getKeyArgs());
+    case InitiateMultiPartUpload:
+      return of(request.getInitiateMultiPartUploadRequest().getKeyArgs());
+    case CommitMultiPartUpload:
+      return of(request.getCommitMultiPartUploadRequest().getKeyArgs());
+    case CompleteMultiPartUpload:
+      return of(request.getCompleteMultiPartUploadRequest().getKeyArgs());
+    case AbortMultiPartUpload:
+      return of(request.getAbortMultiPartUploadRequest().getKeyArgs());
+    case SetTimes:
+      return of(request.getSetTimesRequest().getKeyArgs());
+    case DeleteKeys:
+      return Pair.of(request.getDeleteKeysRequest().getDeleteKeys()
+              .getVolumeName(),
+          request.getDeleteKeysRequest().getDeleteKeys().getBucketName());
+    case RenameKeys:
+      return Pair.of(request.getRenameKeysRequest().getRenameKeysArgs()
+              .getVolumeName(),
+          request.getRenameKeysRequest().getRenameKeysArgs().getBucketName());
+    case CommitKeys:
+      return Pair.of(request.getCommitKeysRequest().getVolumeName(),
+          request.getCommitKeysRequest().getBucketName());
+    case RecoverLease:
+      return Pair.of(request.getRecoverLeaseRequest().getVolumeName(),
+          request.getRecoverLeaseRequest().getBucketName());
+    default:
+      return null;
+    }
+  }
+
+  private static Pair<String, String> of(KeyArgs keyArgs) {
+    return Pair.of(keyArgs.getVolumeName(), keyArgs.getBucketName());
+  }
+
+  @VisibleForTesting
+  int getNumExecutors() {
+    return executors.size();
+  }
+
+  /**
+   * Waits until all the submitted tasks have completed.
+   */
+  public void awaitCompletion() {
+    CompletableFuture<Void> pending;
+    synchronized (this) {
+      pending = dispatched;
+    }
+    pending.handle((r, e) -> null).join();
+    synchronized (this) {
+      pending = CompletableFuture.allOf(Arrays.stream(tails)
+          .map(f -> f.handle((r, e) -> null))
+          .toArray(CompletableFuture[]::new));
+    }
+    pending.join();
+  }
+
+  public void shutdown() {
+    for (ExecutorService executor : executors) {
+      HadoopExecutors.shutdown(executor, LOG, 5, TimeUnit.SECONDS);
+    }
+  }
+}
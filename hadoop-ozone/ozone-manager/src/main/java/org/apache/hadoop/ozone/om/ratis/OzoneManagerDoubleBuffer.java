@@ -20,10 +20,12 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -32,13 +34,17 @@
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 import org.apache.hadoop.hdds.tracing.TracingUtil;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
@@ -54,6 +60,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
 import org.apache.hadoop.util.Daemon;
 import org.apache.hadoop.util.Time;
+import org.apache.hadoop.util.concurrent.HadoopExecutors;
 import org.apache.ratis.util.ExitUtils;
 import org.apache.ratis.util.function.CheckedRunnable;
 import org.slf4j.Logger;
@@ -70,7 +77,15 @@
  * any entries, it swaps the buffer and creates a batch and commit to DB.
  * Adding OM request to doubleBuffer and swap of buffer are synchronized
  * methods.
- *
+ * <p>
+ * With pipelined flush enabled, flushing a batch is split into three stages
+ * running on separate threads: the flush thread builds the RocksDB batch, a
+ * writer thread commits it, and a completion thread cleans up the table
+ * caches and updates the last applied index. So the next batch is built while
+ * the previous one is written. The number of transactions per batch adapts
+ * to the commit latency, and batches containing responses which read the DB
+ * while being added to the batch wait for all previous batches to be
+ * completed.
  */
 public final class OzoneManagerDoubleBuffer {
 
@@ -118,6 +133,38 @@ public final class OzoneManagerDoubleBuffer {
    */
   private final Function<Long, Long> indexToTerm;
 
+  /**
+   * Highest transaction index up to which all transactions have been added
+   * to the buffer, when transactions are applied out of order. Only entries
+   * with index less than or equal to it are flushed, so that the
+   * TransactionInfo flushed to DB never skips a transaction which is still
+   * being applied. Null when transactions are added in order.
+   */
+  private final LongSupplier flushableIndex;
+
+  // Minimum transaction index in currentBuffer, used with flushableIndex.
+  private long minIndexInCurrentBuffer = Long.MAX_VALUE;
+
+  /**
+   * Minimum limit of transactions in a batch when the batch size is adapted
+   * for pipelined flush.
+   */
+  static final int MIN_BATCH_SIZE = 100;
+
+  private final boolean isPipelinedFlush;
+  // Writer and completion stages, null if pipelined flush is disabled.
+  private final ExecutorService writeExecutor;
+  private final ExecutorService completionExecutor;
+  // Bounds the batches built and not yet completed.
+  private final Semaphore inFlightBatches;
+  private final int maxBatchSize;
+  private final long targetCommitLatencyMs;
+  // Only updated by the writer stage.
+  private volatile int batchSizeLimit;
+  // Completion of the last batch submitted to the pipeline.
+  private volatile CompletableFuture<Void> lastBatchCompletion =
+      CompletableFuture.completedFuture(null);
+
   /**
    *  Builder for creating OzoneManagerDoubleBuffer.
    */
@@ -131,7 +178,10 @@ public static class Builder {
     private FlushNotifier flushNotifier;
     private S3SecretManager s3SecretManager;
     private String threadPrefix = "";
-
+    private LongSupplier flushableIndex;
+    private boolean isPipelinedFlush = false;
+    private int maxBatchSize = Integer.MAX_VALUE;
+    private long targetCommitLatencyMs = Long.MAX_VALUE;
 
     public Builder setOmMetadataManager(OMMetadataManager omm) {
       this.mm = omm;
@@ -179,6 +229,26 @@ public Builder setS3SecretManager(S3SecretManager s3SecretManager) {
       return this;
     }
 
+    public Builder setFlushableIndex(LongSupplier flushableIndexSupplier) {
+      this.flushableIndex = flushableIndexSupplier;
+      return this;
+    }
+
+    public Builder enablePipelinedFlush(boolean enablePipelinedFlush) {
+      this.isPipelinedFlush = enablePipelinedFlush;
+      return this;
+    }
+
+    public Builder setMaxBatchSize(int size) {
+      this.maxBatchSize = size;
+      return this;
+    }
+
+    public Builder setTargetCommitLatencyMs(long latencyMs) {
+      this.targetCommitLatencyMs = latencyMs;
+      return this;
+    }
+
     public OzoneManagerDoubleBuffer build() {
       if (isRatisEnabled) {
         Preconditions.checkNotNull(rs, "When ratis is enabled, " +
@@ -189,13 +259,20 @@ public OzoneManagerDoubleBuffer build() {
             "when ratis is enable, maxUnFlushedTransactions " +
                 "should be bigger than 0");
       }
+      Preconditions.checkState(flushableIndex == null || isRatisEnabled,
+          "flushableIndex can be set only when ratis is enabled");
+      Preconditions.checkState(!isPipelinedFlush || isRatisEnabled,
+          "Pipelined flush can be enabled only when ratis is enabled");
+      Preconditions.checkState(maxBatchSize > 0,
+          "maxBatchSize should be bigger than 0");
       if (flushNotifier == null) {
         flushNotifier = new FlushNotifier();
       }
 
       return new OzoneManagerDoubleBuffer(mm, rs, isRatisEnabled,
           isTracingEnabled, indexToTerm, maxUnFlushedTransactionCount,
-          flushNotifier, s3SecretManager, threadPrefix);
+          flushNotifier, s3SecretManager, threadPrefix, flushableIndex,
+          isPipelinedFlush, maxBatchSize, targetCommitLatencyMs);
     }
   }
 
@@ -205,7 +282,9 @@ private OzoneManagerDoubleBuffer(OMMetadataManager omMetadataManager,
       boolean isRatisEnabled, boolean isTracingEnabled,
       Function<Long, Long> indexToTerm, int maxUnFlushedTransactions,
       FlushNotifier flushNotifier, S3SecretManager s3SecretManager,
-      String threadPrefix) {
+      String threadPrefix, LongSupplier flushableIndex,
+      boolean isPipelinedFlush, int maxBatchSize,
+      long targetCommitLatencyMs) {
     this.currentBuffer = new ConcurrentLinkedQueue<>();
     this.readyBuffer = new ConcurrentLinkedQueue<>();
     this.isRatisEnabled = isRatisEnabled;
@@ -222,6 +301,23 @@ private OzoneManagerDoubleBuffer(OMMetadataManager omMetadataManager,
     this.indexToTerm = indexToTerm;
     this.flushNotifier = flushNotifier;
     this.threadPrefix = threadPrefix;
+    this.flushableIndex = flushableIndex;
+    this.isPipelinedFlush = isPipelinedFlush;
+    this.maxBatchSize = maxBatchSize;
+    this.targetCommitLatencyMs = targetCommitLatencyMs;
+    this.batchSizeLimit = maxBatchSize;
+    if (isPipelinedFlush) {
+      this.writeExecutor = newStageExecutor(threadPrefix
+          + "OMDoubleBufferWriteThread");
+      this.completionExecutor = newStageExecutor(threadPrefix
+          + "OMDoubleBufferCompletionThread");
+      this.inFlightBatches = new Semaphore(2);
+      ozoneManagerDoubleBufferMetrics.setBatchSizeLimit(batchSizeLimit);
+    } else {
+      this.writeExecutor = null;
+      this.completionExecutor = null;
+      this.inFlightBatches = null;
+    }
     isRunning.set(true);
     // Daemon thread which runs in background and flushes transactions to DB.
     daemon = new Daemon(this::flushTransactions);
@@ -230,6 +326,11 @@ private OzoneManagerDoubleBuffer(OMMetadataManager omMetadataManager,
     this.s3SecretManager = s3SecretManager;
   }
 
+  private static ExecutorService newStageExecutor(String name) {
+    return HadoopExecutors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+        .setDaemon(true).setNameFormat(name).build());
+  }
+
   /**
    * Acquires the given number of permits from unFlushedTransactions,
    * blocking until all are available, or the thread is interrupted.
@@ -330,6 +431,11 @@ void flushCurrentBuffer() {
       List<Queue<DoubleBufferEntry<OMClientResponse>>> bufferQueues =
           splitReadyBufferAtCreateSnapshot();
 
+      if (isPipelinedFlush) {
+        submitToPipeline(bufferQueues);
+        return;
+      }
+
       for (Queue<DoubleBufferEntry<OMClientResponse>> buffer : bufferQueues) {
         flushBatch(buffer);
       }
@@ -345,20 +451,132 @@ void flushCurrentBuffer() {
 
   private void flushBatch(Queue<DoubleBufferEntry<OMClientResponse>> buffer)
       throws IOException {
+    completeBatch(commitBatch(buildBatch(buffer)));
+  }
 
-    Map<String, List<Long>> cleanupEpochs = new HashMap<>();
-    List<Long> flushedEpochs;
+  /**
+   * Submits the batches to the pipeline. The batches are built on the
+   * calling thread, then committed on the writer thread and completed on
+   * the completion thread, in order.
+   */
+  private void submitToPipeline(
+      List<Queue<DoubleBufferEntry<OMClientResponse>>> bufferQueues)
+      throws IOException {
+    List<Queue<DoubleBufferEntry<OMClientResponse>>> batches =
+        new ArrayList<>();
+    for (Queue<DoubleBufferEntry<OMClientResponse>> buffer : bufferQueues) {
+      splitByBatchSizeLimit(buffer, batches);
+    }
+    clearReadyBuffer();
+
+    for (int i = 0; i < batches.size(); i++) {
+      Queue<DoubleBufferEntry<OMClientResponse>> buffer = batches.get(i);
+      long startTime = Time.monotonicNow();
+      if (requiresCommittedState(buffer)) {
+        awaitPipeline();
+      }
+      // The pipeline makes progress on its own, stopDaemon waits for it.
+      inFlightBatches.acquireUninterruptibly();
+      ozoneManagerDoubleBufferMetrics.updatePipelineWaitTime(
+          Time.monotonicNow() - startTime);
+
+      PreparedBatch batch = buildBatch(buffer);
+      boolean lastBatch = i == batches.size() - 1;
+      lastBatchCompletion = CompletableFuture
+          .supplyAsync(() -> runStage(() -> commitBatch(batch)),
+              writeExecutor)
+          .thenAcceptAsync(committed -> {
+            runStage(() -> {
+              completeBatch(committed);
+              return null;
+            });
+            if (lastBatch) {
+              flushNotifier.notifyFlush();
+            }
+          }, completionExecutor)
+          .whenComplete((r, e) -> inFlightBatches.release());
+    }
+  }
 
-    try (BatchOperation batchOperation = omMetadataManager.getStore()
-        .initBatchOperation()) {
+  /**
+   * Splits the buffer into batches of at most batchSizeLimit transactions.
+   */
+  private void splitByBatchSizeLimit(
+      Queue<DoubleBufferEntry<OMClientResponse>> buffer,
+      List<Queue<DoubleBufferEntry<OMClientResponse>>> batches) {
+    int limit = batchSizeLimit;
+    if (buffer.size() <= limit) {
+      batches.add(buffer);
+      return;
+    }
+    Queue<DoubleBufferEntry<OMClientResponse>> batch = null;
+    for (DoubleBufferEntry<OMClientResponse> entry : buffer) {
+      if (batch == null || batch.size() >= limit) {
+        batch = new LinkedList<>();
+        batches.add(batch);
+      }
+      batch.add(entry);
+    }
+  }
 
+  private static boolean requiresCommittedState(
+      Queue<DoubleBufferEntry<OMClientResponse>> buffer) {
+    for (DoubleBufferEntry<OMClientResponse> entry : buffer) {
+      if (entry.getResponse().requiresCommittedState()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Waits for all the batches submitted to the pipeline to be completed.
+   */
+  private void awaitPipeline() {
+    try {
+      lastBatchCompletion.join();
+    } catch (CompletionException e) {
+      // The failed stage has already terminated the OM.
+      LOG.debug("Flush of a batch failed", e);
+    }
+  }
+
+  private <T> T runStage(CheckedSupplier<T> stage) {
+    try {
+      return stage.get();
+    } catch (IOException ex) {
+      terminate(ex, 1);
+    } catch (Throwable t) {
+      terminate(t, 2);
+    }
+    return null;
+  }
+
+  /**
+   * Stage of a pipelined flush, which may throw an IOException.
+   */
+  @FunctionalInterface
+  private interface CheckedSupplier<T> {
+    T get() throws IOException;
+  }
+
+  /**
+   * Builds the RocksDB batch for the transactions in the buffer.
+   */
+  private PreparedBatch buildBatch(
+      Queue<DoubleBufferEntry<OMClientResponse>> buffer) throws IOException {
+    long startTime = Time.monotonicNow();
+    Map<String, List<Long>> cleanupEpochs = new HashMap<>();
+    BatchOperation batchOperation = omMetadataManager.getStore()
+        .initBatchOperation();
+    try {
       String lastTraceId = addToBatch(buffer, batchOperation);
 
       buffer.iterator().forEachRemaining(
           entry -> addCleanupEntry(entry, cleanupEpochs));
 
       // Commit transaction info to DB.
-      flushedEpochs = buffer.stream()
+      List<Long> flushedEpochs = buffer.stream()
           .map(DoubleBufferEntry::getTrxLogIndex)
           .sorted()
           .collect(Collectors.toList());
@@ -378,22 +596,65 @@ private void flushBatch(Queue<DoubleBufferEntry<OMClientResponse>> buffer)
                   .setCurrentTerm(term)
                   .build()));
 
+      ozoneManagerDoubleBufferMetrics.updateBatchAssemblyTime(
+          Time.monotonicNow() - startTime);
+      return new PreparedBatch(buffer.size(), batchOperation, cleanupEpochs,
+          flushedEpochs, lastTraceId);
+    } catch (IOException | RuntimeException e) {
+      batchOperation.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Commits the batch to the DB.
+   */
+  private PreparedBatch commitBatch(PreparedBatch batch) throws IOException {
+    try (BatchOperation batchOperation = batch.batchOperation) {
       long startTime = Time.monotonicNow();
-      flushBatchWithTrace(lastTraceId, buffer.size(),
+      flushBatchWithTrace(batch.lastTraceId, batch.size,
           () -> omMetadataManager.getStore()
               .commitBatchOperation(batchOperation));
 
-      ozoneManagerDoubleBufferMetrics.updateFlushTime(
-          Time.monotonicNow() - startTime);
+      long commitTime = Time.monotonicNow() - startTime;
+      ozoneManagerDoubleBufferMetrics.updateFlushTime(commitTime);
+      if (isPipelinedFlush) {
+        adaptBatchSizeLimit(batch.size, commitTime);
+      }
     }
+    return batch;
+  }
 
+  /**
+   * Halves the batch size limit when commits take longer than the target
+   * latency, and doubles it while full batches are committed within it.
+   */
+  private void adaptBatchSizeLimit(int batchSize, long commitTime) {
+    int limit = batchSizeLimit;
+    if (commitTime > targetCommitLatencyMs) {
+      limit = Math.max(Math.min(MIN_BATCH_SIZE, maxBatchSize), limit / 2);
+    } else if (batchSize >= limit) {
+      limit = (int) Math.min(maxBatchSize, 2L * limit);
+    }
+    if (limit != batchSizeLimit) {
+      batchSizeLimit = limit;
+      ozoneManagerDoubleBufferMetrics.setBatchSizeLimit(limit);
+    }
+  }
+
+  /**
+   * Completes the committed batch: releases the waiting handlers, cleans up
+   * the table caches and updates the last applied index.
+   */
+  private void completeBatch(PreparedBatch batch) {
+    long startTime = Time.monotonicNow();
     // Complete futures first and then do other things.
     // So that handler threads will be released.
     if (!isRatisEnabled) {
-      clearReadyFutureQueue(buffer.size());
+      clearReadyFutureQueue(batch.size);
     }
 
-    int flushedTransactionsSize = buffer.size();
+    int flushedTransactionsSize = batch.size;
     flushedTransactionCount.addAndGet(flushedTransactionsSize);
     flushIterations.incrementAndGet();
 
@@ -404,16 +665,40 @@ private void flushBatch(Queue<DoubleBufferEntry<OMClientResponse>> buffer)
     }
 
     // Clean up committed transactions.
-    cleanupCache(cleanupEpochs);
+    cleanupCache(batch.cleanupEpochs);
 
     if (isRatisEnabled) {
       releaseUnFlushedTransactions(flushedTransactionsSize);
     }
     // update the last updated index in OzoneManagerStateMachine.
-    ozoneManagerRatisSnapShot.updateLastAppliedIndex(flushedEpochs);
+    ozoneManagerRatisSnapShot.updateLastAppliedIndex(batch.flushedEpochs);
 
     // set metrics.
     updateMetrics(flushedTransactionsSize);
+    ozoneManagerDoubleBufferMetrics.updateCompletionTime(
+        Time.monotonicNow() - startTime);
+  }
+
+  /**
+   * RocksDB batch built from a buffer, with the information needed after it
+   * has been committed.
+   */
+  private static final class PreparedBatch {
+    private final int size;
+    private final BatchOperation batchOperation;
+    private final Map<String, List<Long>> cleanupEpochs;
+    private final List<Long> flushedEpochs;
+    private final String lastTraceId;
+
+    private PreparedBatch(int size, BatchOperation batchOperation,
+        Map<String, List<Long>> cleanupEpochs, List<Long> flushedEpochs,
+        String lastTraceId) {
+      this.size = size;
+      this.batchOperation = batchOperation;
+      this.cleanupEpochs = cleanupEpochs;
+      this.flushedEpochs = flushedEpochs;
+      this.lastTraceId = lastTraceId;
+    }
   }
 
   private String addToBatch(Queue<DoubleBufferEntry<OMClientResponse>> buffer,
@@ -566,6 +851,10 @@ private void updateMetrics(int flushedTransactionsSize) {
   @SuppressWarnings("squid:S2142")
   public void stop() {
     stopDaemon();
+    if (isPipelinedFlush) {
+      HadoopExecutors.shutdown(writeExecutor, LOG, 5, TimeUnit.SECONDS);
+      HadoopExecutors.shutdown(completionExecutor, LOG, 5, TimeUnit.SECONDS);
+    }
     ozoneManagerDoubleBufferMetrics.unRegister();
   }
 
@@ -577,6 +866,8 @@ public void stopDaemon() {
       try {
         // Wait for daemon thread to exit
         daemon.join();
+        // and for the batches it has submitted to be flushed.
+        awaitPipeline();
       } catch (InterruptedException e) {
         LOG.debug("Interrupted while waiting for daemon to exit.", e);
       }
@@ -621,6 +912,8 @@ public long getFlushIterations() {
   public synchronized CompletableFuture<Void> add(OMClientResponse response,
       long transactionIndex) {
     currentBuffer.add(new DoubleBufferEntry<>(transactionIndex, response));
+    minIndexInCurrentBuffer =
+        Math.min(minIndexInCurrentBuffer, transactionIndex);
     notify();
 
     if (!isRatisEnabled) {
@@ -634,6 +927,21 @@ public synchronized CompletableFuture<Void> add(OMClientResponse response,
     }
   }
 
+  /**
+   * Wakes up the flush thread, to be called when the value returned by
+   * flushableIndex has advanced.
+   */
+  public synchronized void notifyFlushableIndexUpdated() {
+    notify();
+  }
+
+  private boolean hasFlushableEntries() {
+    if (flushableIndex == null) {
+      return currentBuffer.size() > 0;
+    }
+    return minIndexInCurrentBuffer <= flushableIndex.getAsLong();
+  }
+
   /**
    * Check if transactions can be flushed or not. It waits till currentBuffer
    * size is greater than zero. When any item gets added to currentBuffer,
@@ -641,9 +949,21 @@ public synchronized CompletableFuture<Void> add(OMClientResponse response,
    * than zero. In case of any interruption, terminates the OM when daemon is
    * running otherwise returns false.
    */
-  private synchronized boolean canFlush() {
+  private boolean canFlush() {
+    if (isPipelinedFlush && !hasFlushableEntriesSynchronized()) {
+      // Notify flush only once the batches in the pipeline are flushed.
+      awaitPipeline();
+    }
+    return waitForFlushableEntries();
+  }
+
+  private synchronized boolean hasFlushableEntriesSynchronized() {
+    return hasFlushableEntries();
+  }
+
+  private synchronized boolean waitForFlushableEntries() {
     try {
-      while (currentBuffer.size() == 0) {
+      while (!hasFlushableEntries()) {
         // canFlush() only gets called when the readyBuffer is empty.
         // Since both buffers are empty, notify once for each.
         flushNotifier.notifyFlush();
@@ -670,6 +990,10 @@ private synchronized boolean canFlush() {
    * used by sync thread to flush transactions to DB.
    */
   private synchronized void swapCurrentAndReadyBuffer() {
+    if (flushableIndex != null) {
+      moveFlushableEntriesToReadyBuffer();
+      return;
+    }
     Queue<DoubleBufferEntry<OMClientResponse>> temp = currentBuffer;
     currentBuffer = readyBuffer;
     readyBuffer = temp;
@@ -682,6 +1006,30 @@ private synchronized void swapCurrentAndReadyBuffer() {
     }
   }
 
+  /**
+   * Moves entries up to flushableIndex from currentBuffer to readyBuffer in
+   * transaction index order, entries after it stay in currentBuffer.
+   */
+  private void moveFlushableEntriesToReadyBuffer() {
+    long flushable = flushableIndex.getAsLong();
+    List<DoubleBufferEntry<OMClientResponse>> ready = new ArrayList<>();
+    long minRemaining = Long.MAX_VALUE;
+    Iterator<DoubleBufferEntry<OMClientResponse>> iterator =
+        currentBuffer.iterator();
+    while (iterator.hasNext()) {
+      DoubleBufferEntry<OMClientResponse> entry = iterator.next();
+      if (entry.getTrxLogIndex() <= flushable) {
+        ready.add(entry);
+        iterator.remove();
+      } else {
+        minRemaining = Math.min(minRemaining, entry.getTrxLogIndex());
+      }
+    }
+    ready.sort(Comparator.comparingLong(DoubleBufferEntry::getTrxLogIndex));
+    readyBuffer.addAll(ready);
+    minIndexInCurrentBuffer = minRemaining;
+  }
+
   @VisibleForTesting
   public OzoneManagerDoubleBufferMetrics getOzoneManagerDoubleBufferMetrics() {
     return ozoneManagerDoubleBufferMetrics;
@@ -697,6 +1045,11 @@ int getReadyBufferSize() {
     return readyBuffer.size();
   }
 
+  @VisibleForTesting
+  int getBatchSizeLimit() {
+    return batchSizeLimit;
+  }
+
   @VisibleForTesting
   public void resume() {
     isRunning.set(true);
@@ -69,6 +69,7 @@
 import org.apache.ratis.grpc.GrpcConfigKeys;
 import org.apache.ratis.grpc.GrpcTlsConfig;
 import org.apache.ratis.netty.NettyConfigKeys;
+import org.apache.ratis.proto.RaftProtos.RoleInfoProto;
 import org.apache.ratis.protocol.ClientId;
 import org.apache.ratis.protocol.SetConfigurationRequest;
 import org.apache.ratis.protocol.exceptions.LeaderNotReadyException;
@@ -121,6 +122,9 @@ public final class OzoneManagerRatisServer {
   private final OzoneManagerStateMachine omStateMachine;
   private final String ratisStorageDir;
   private final OMPerformanceMetrics perfMetrics;
+  private final boolean followerReadEnabled;
+  private final long followerReadMaxStalenessMs;
+  private final long followerReadApplyTimeoutMs;
 
   private final ClientId clientId = ClientId.randomId();
   private static final AtomicLong CALL_ID_COUNTER = new AtomicLong();
@@ -182,6 +186,17 @@ private OzoneManagerRatisServer(ConfigurationSource conf, OzoneManager om,
         .setOption(RaftStorage.StartupOption.RECOVER)
         .build();
     this.perfMetrics = om.getPerfMetrics();
+    this.followerReadEnabled = conf.getBoolean(
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED_KEY,
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED_DEFAULT);
+    this.followerReadMaxStalenessMs = conf.getTimeDuration(
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_MAX_STALENESS_KEY,
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_MAX_STALENESS_DEFAULT
+            .toLong(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+    this.followerReadApplyTimeoutMs = conf.getTimeDuration(
+        OMConfigKeys.OZONE_OM_RATIS_SERVER_REQUEST_TIMEOUT_KEY,
+        OMConfigKeys.OZONE_OM_RATIS_SERVER_REQUEST_TIMEOUT_DEFAULT
+            .toLong(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
   }
 
   /**
@@ -323,6 +338,107 @@ private RaftClientReply submitRequestToRatisImpl(
     }
   }
 
+  /**
+   * Checks whether this OM, as a follower, can serve a read request with the
+   * given consistency. For a LINEARIZABLE read, or a BOUNDED_STALENESS read
+   * when this follower may be too far behind, this waits until the
+   * transactions committed by the leader when the read was received have
+   * been applied locally (Ratis ReadIndex).
+   *
+   * @param consistency consistency of the read request
+   * @return true if the read request can be served locally
+   * @throws ServiceException if waiting for the read index failed
+   */
+  public boolean prepareFollowerRead(
+      OzoneManagerProtocolProtos.ReadConsistency consistency)
+      throws ServiceException {
+    if (!followerReadEnabled ||
+        consistency == OzoneManagerProtocolProtos.ReadConsistency.LEADER) {
+      return false;
+    }
+    if (consistency ==
+        OzoneManagerProtocolProtos.ReadConsistency.BOUNDED_STALENESS &&
+        isWithinStalenessBound()) {
+      perfMetrics.incFollowerLocalReads();
+      return true;
+    }
+
+    // The state machine answers the empty query once the read index is
+    // applied, see OzoneManagerStateMachine#query.
+    RaftClientRequest readIndexRequest = RaftClientRequest.newBuilder()
+        .setClientId(clientId)
+        .setServerId(server.getId())
+        .setGroupId(raftGroupId)
+        .setCallId(nextCallId())
+        .setMessage(Message.EMPTY)
+        .setType(RaftClientRequest.readRequestType())
+        .build();
+    RaftClientReply reply = captureLatencyNs(
+        perfMetrics.getFollowerReadIndexLatencyNs(),
+        () -> submitRequestToRatisImpl(readIndexRequest));
+    if (!reply.isSuccess()) {
+      LOG.debug("Failed to wait for read index on {}", raftPeerId,
+          reply.getException());
+      return false;
+    }
+    return awaitParallelApply();
+  }
+
+  /**
+   * Ratis releases a read index wait as soon as a transaction at or after
+   * the read index completes. When transactions are applied in parallel they
+   * complete out of order, so this additionally waits until there are no
+   * gaps up to the commit index, which is at least the read index.
+   *
+   * @return true if all the committed transactions have been applied
+   */
+  private boolean awaitParallelApply() throws ServiceException {
+    if (!omStateMachine.isParallelApply()) {
+      return true;
+    }
+    try {
+      long commitIndex = server.getDivision(raftGroupId).getRaftLog()
+          .getLastCommittedIndex();
+      if (!omStateMachine.awaitContiguousAppliedIndex(commitIndex,
+          followerReadApplyTimeoutMs)) {
+        LOG.debug("Timed out waiting for transactions up to {} to be " +
+            "applied on {}", commitIndex, raftPeerId);
+        return false;
+      }
+      return true;
+    } catch (IOException e) {
+      LOG.debug("Failed to get the commit index of {}", raftPeerId, e);
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @return true if this follower heard from the leader within the maximum
+   * staleness and has applied all the transactions it knows to be committed.
+   */
+  private boolean isWithinStalenessBound() {
+    try {
+      RaftServer.Division division = server.getDivision(raftGroupId);
+      RoleInfoProto roleInfo = division.getInfo().getRoleInfoProto();
+      if (!roleInfo.hasFollowerInfo()) {
+        return false;
+      }
+      long sinceLeaderContactMs = roleInfo.getFollowerInfo().getLeaderInfo()
+          .getLastRpcElapsedTimeMs();
+      long commitIndex = division.getRaftLog().getLastCommittedIndex();
+      return sinceLeaderContactMs <= followerReadMaxStalenessMs &&
+          division.getInfo().getLastAppliedIndex() >= commitIndex &&
+          (!omStateMachine.isParallelApply() ||
+              omStateMachine.getContiguousAppliedIndex() >= commitIndex);
+    } catch (IOException e) {
+      LOG.debug("Failed to get the follower state of {}", raftPeerId, e);
+      return false;
+    }
+  }
+
   /**
    * Add new OM to the Ratis ring.
    */
@@ -639,6 +755,13 @@ public static RaftProperties newRaftProperties(ConfigurationSource conf,
 
     setRaftCloseThreshold(properties, conf);
 
+    // Followers need the leader's read index to serve linearizable reads.
+    if (conf.getBoolean(OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED_KEY,
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED_DEFAULT)) {
+      RaftServerConfigKeys.Read.setOption(properties,
+          RaftServerConfigKeys.Read.Option.LINEARIZABLE);
+    }
+
     getOMHAConfigs(conf).forEach(properties::set);
     return properties;
   }
@@ -24,16 +24,21 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.ozone.common.ha.ratis.RatisSnapshotInfo;
@@ -41,6 +46,7 @@
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.OzoneManagerPrepareState;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OMRatisHelper;
 import org.apache.hadoop.ozone.om.ratis.metrics.OzoneManagerStateMachineMetrics;
 import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
@@ -55,6 +61,7 @@
 import org.apache.hadoop.ozone.protocolPB.OzoneManagerRequestHandler;
 import org.apache.hadoop.ozone.protocolPB.RequestHandler;
 import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.hadoop.util.Time;
 import org.apache.hadoop.util.concurrent.HadoopExecutors;
 import org.apache.ratis.proto.RaftProtos;
 import org.apache.ratis.proto.RaftProtos.StateMachineLogEntryProto;
@@ -99,7 +106,8 @@ public class OzoneManagerStateMachine extends BaseStateMachine {
   private RaftGroupId raftGroupId;
   private OzoneManagerDoubleBuffer ozoneManagerDoubleBuffer;
   private final RatisSnapshotInfo snapshotInfo;
-  private final ExecutorService executorService;
+  private final OzoneManagerApplyExecutor applyExecutor;
+  private final boolean isParallelApply;
   private final ExecutorService installSnapshotExecutor;
   private final boolean isTracingEnabled;
   private final AtomicInteger statePausedCount = new AtomicInteger(0);
@@ -114,6 +122,18 @@ public class OzoneManagerStateMachine extends BaseStateMachine {
   // conf/metadata entries which are received through notifyIndexUpdate.
   private ConcurrentMap<Long, Long> ratisTransactionMap =
       new ConcurrentSkipListMap<>();
+
+  // Indexes of transactions submitted to applyExecutor which are not yet
+  // applied, used only when transactions are applied in parallel.
+  private final ConcurrentSkipListSet<Long> pendingApplyIndexes =
+      new ConcurrentSkipListSet<>();
+  // Highest log index handed to this state machine, through
+  // applyTransaction or notifyTermIndexUpdated.
+  private volatile long lastSubmittedIndex = -1;
+  // Notified when transactions applied in parallel complete, for readers
+  // waiting in awaitContiguousAppliedIndex.
+  private final Object appliedMonitor = new Object();
+  private final AtomicInteger appliedWaiters = new AtomicInteger();
   private OzoneManagerStateMachineMetrics metrics;
 
 
@@ -126,16 +146,18 @@ public OzoneManagerStateMachine(OzoneManagerRatisServer ratisServer,
     this.snapshotInfo = ozoneManager.getSnapshotInfo();
     loadSnapshotInfoFromDB();
     this.threadPrefix = ozoneManager.getThreadNamePrefix();
+    int numApplyExecutors = ozoneManager.getConfiguration().getInt(
+        OMConfigKeys.OZONE_OM_APPLY_TRANSACTION_EXECUTORS,
+        OMConfigKeys.OZONE_OM_APPLY_TRANSACTION_EXECUTORS_DEFAULT);
+    this.isParallelApply = numApplyExecutors > 1;
 
     this.ozoneManagerDoubleBuffer = buildDoubleBufferForRatis();
 
     this.handler = new OzoneManagerRequestHandler(ozoneManager,
         ozoneManagerDoubleBuffer);
 
-    ThreadFactory build = new ThreadFactoryBuilder().setDaemon(true)
-        .setNameFormat(threadPrefix +
-            "OMStateMachineApplyTransactionThread - %d").build();
-    this.executorService = HadoopExecutors.newSingleThreadExecutor(build);
+    this.applyExecutor = new OzoneManagerApplyExecutor(
+        Math.max(numApplyExecutors, 1), threadPrefix, this::resolveBucket);
 
     ThreadFactory installSnapshotThreadFactory = new ThreadFactoryBuilder()
         .setNameFormat(threadPrefix + "InstallSnapshotThread").build();
@@ -201,6 +223,8 @@ public void notifyTermIndexUpdated(long currentTerm, long index) {
     // with some information like its peers and termIndex). So, calling
     // updateLastApplied updates lastAppliedTermIndex.
     computeAndUpdateLastAppliedIndex(index, currentTerm, null, false);
+    lastSubmittedIndex = index;
+    notifyAppliedWaiters();
   }
 
   /**
@@ -333,33 +357,33 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
           : OMRatisHelper.convertByteStringToOMRequest(
           trx.getStateMachineLogEntry().getLogData());
       long trxLogIndex = trx.getLogEntry().getIndex();
-      // In the current approach we have one single global thread executor.
-      // with single thread. Right now this is being done for correctness, as
-      // applyTransaction will be run on multiple OM's we want to execute the
-      // transactions in the same order on all OM's, otherwise there is a
-      // chance that OM replica's can be out of sync.
-      // TODO: In this way we are making all applyTransactions in
-      // OM serial order. Revisit this in future to use multiple executors for
-      // volume/bucket.
-
-      // Reason for not immediately implementing executor per volume is, if
-      // one executor operations are slow, we cannot update the
-      // lastAppliedIndex in OzoneManager StateMachine, even if other
+      // By default there is one single global executor with single thread.
+      // This is being done for correctness, as applyTransaction will be run
+      // on multiple OM's we want to execute the transactions in the same
+      // order on all OM's, otherwise there is a chance that OM replica's can
+      // be out of sync.
+
+      // When more than one apply executor is configured, key requests are
+      // run on an executor chosen by bucket, which keeps the order of
+      // transactions within a bucket, and all other requests run as a
+      // barrier across all executors. See OzoneManagerApplyExecutor.
+
+      // In that case if one executor operations are slow, we cannot update
+      // the lastAppliedIndex in OzoneManager StateMachine, even if other
       // executor has completed the transactions with id more.
 
-      // We have 300 transactions, And for each volume we have transactions
-      // of 150. Volume1 transactions 0 - 149 and Volume2 transactions 150 -
+      // We have 300 transactions, And for each bucket we have transactions
+      // of 150. Bucket1 transactions 0 - 149 and Bucket2 transactions 150 -
       // 299.
-      // Example: Executor1 - Volume1 - 100 (current completed transaction)
-      // Example: Executor2 - Volume2 - 299 (current completed transaction)
+      // Example: Executor1 - Bucket1 - 100 (current completed transaction)
+      // Example: Executor2 - Bucket2 - 299 (current completed transaction)
 
       // Now we have applied transactions of 0 - 100 and 149 - 299. We
       // cannot update lastAppliedIndex to 299. We need to update it to 100,
       // since 101 - 149 are not applied. When OM restarts it will
-      // applyTransactions from lastAppliedIndex.
-      // We can update the lastAppliedIndex to 100, and update it to 299,
-      // only after completing 101 - 149. In initial stage, we are starting
-      // with single global executor. Will revisit this when needed.
+      // applyTransactions from lastAppliedIndex. So the double buffer only
+      // flushes transactions up to getFlushableIndex(), i.e. 100, and
+      // flushes 101 - 299 only after completing 101 - 149.
 
       // Add the term index and transaction log index to applyTransaction map
       // . This map will be used to update lastAppliedIndex.
@@ -371,8 +395,19 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
       //if there are too many pending requests, wait for doubleBuffer flushing
       ozoneManagerDoubleBuffer.acquireUnFlushedTransactions(1);
 
-      CompletableFuture<OMResponse> future = CompletableFuture.supplyAsync(
-          () -> runCommand(request, trxLogIndex), executorService);
+      if (isParallelApply) {
+        pendingApplyIndexes.add(trxLogIndex);
+      }
+      lastSubmittedIndex = trxLogIndex;
+      CompletableFuture<OMResponse> future = applyExecutor.submit(request,
+          () -> runCommand(request, trxLogIndex));
+      if (isParallelApply) {
+        future.whenComplete((r, e) -> {
+          pendingApplyIndexes.remove(trxLogIndex);
+          ozoneManagerDoubleBuffer.notifyFlushableIndexUpdated();
+          notifyAppliedWaiters();
+        });
+      }
       future.thenApply(omResponse -> {
         if (!omResponse.getSuccess()) {
           // When INTERNAL_ERROR or METADATA_ERROR it is considered as
@@ -426,6 +461,11 @@ private void terminate(OMResponse omResponse,
    */
   @Override
   public CompletableFuture<Message> query(Message request) {
+    // An empty query is sent by a follower to wait for the read index,
+    // the read itself is then served by the OM RPC handler.
+    if (request.getContent().isEmpty()) {
+      return CompletableFuture.completedFuture(Message.EMPTY);
+    }
     try {
       OMRequest omRequest = OMRatisHelper.convertByteStringToOMRequest(
           request.getContent());
@@ -448,6 +488,11 @@ public synchronized void pause() {
       getLifeCycle().transition(LifeCycle.State.PAUSED);
     }
 
+    // Let the transactions in flight complete before the DB is replaced.
+    // Their indexes are covered by the state being installed, so they must
+    // not hold back the flushable index afterwards.
+    applyExecutor.awaitCompletion();
+    pendingApplyIndexes.clear();
     ozoneManagerDoubleBuffer.stop();
   }
 
@@ -465,15 +510,34 @@ public synchronized void unpause(long newLastAppliedSnaphsotIndex,
         handler.updateDoubleBuffer(ozoneManagerDoubleBuffer);
         this.setLastAppliedTermIndex(TermIndex.valueOf(
             newLastAppliedSnapShotTermIndex, newLastAppliedSnaphsotIndex));
+        this.lastSubmittedIndex = newLastAppliedSnaphsotIndex;
       });
     }
   }
 
   public OzoneManagerDoubleBuffer buildDoubleBufferForRatis() {
-    int maxUnflushedTransactionSize = ozoneManager.getConfiguration()
+    OzoneConfiguration conf = ozoneManager.getConfiguration();
+    int maxUnflushedTransactionSize = conf
         .getInt(OMConfigKeys.OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT,
             OMConfigKeys.OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT_DEFAULT);
-    return new OzoneManagerDoubleBuffer.Builder()
+    OzoneManagerDoubleBuffer.Builder builder =
+        new OzoneManagerDoubleBuffer.Builder()
+            .enablePipelinedFlush(conf.getBoolean(
+                OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED,
+                OMConfigKeys
+                    .OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED_DEFAULT))
+            .setMaxBatchSize(conf.getInt(
+                OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE,
+                OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_MAX_BATCH_SIZE_DEFAULT))
+            .setTargetCommitLatencyMs(conf.getTimeDuration(
+                OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_TARGET_COMMIT_LATENCY,
+                OMConfigKeys
+                    .OZONE_OM_DOUBLE_BUFFER_TARGET_COMMIT_LATENCY_DEFAULT,
+                TimeUnit.MILLISECONDS));
+    if (isParallelApply) {
+      builder.setFlushableIndex(this::getFlushableIndex);
+    }
+    return builder
         .setOmMetadataManager(ozoneManager.getMetadataManager())
         .setOzoneManagerRatisSnapShot(this::updateLastAppliedIndex)
         .setmaxUnFlushedTransactionCount(maxUnflushedTransactionSize)
@@ -484,6 +548,105 @@ public OzoneManagerDoubleBuffer buildDoubleBufferForRatis() {
         .build();
   }
 
+  /**
+   * Returns the highest transaction index such that all transactions up to
+   * it submitted through applyTransaction have been applied.
+   */
+  private long getFlushableIndex() {
+    // applyTransaction is called in log order, so a transaction added to
+    // the double buffer is always preceded by lower pending indexes.
+    Long firstPending = pendingApplyIndexes.ceiling(Long.MIN_VALUE);
+    return firstPending == null ? Long.MAX_VALUE : firstPending - 1;
+  }
+
+  /**
+   * @return true if transactions of different buckets are applied in
+   * parallel, so they may complete out of log order.
+   */
+  public boolean isParallelApply() {
+    return isParallelApply;
+  }
+
+  /**
+   * Returns the highest log index such that all the transactions up to it
+   * have been applied to the OM state, i.e. the applied index without the
+   * gaps left by transactions still running on other apply executors.
+   */
+  public long getContiguousAppliedIndex() {
+    // Read lastSubmittedIndex first: every index up to it has been added to
+    // pendingApplyIndexes already, so none of them can be missed below.
+    long lastSubmitted = lastSubmittedIndex;
+    Long firstPending = pendingApplyIndexes.ceiling(Long.MIN_VALUE);
+    return firstPending == null ? lastSubmitted
+        : Math.min(firstPending - 1, lastSubmitted);
+  }
+
+  /**
+   * Waits until all the transactions up to the given index have been
+   * applied, see {@link #getContiguousAppliedIndex()}.
+   *
+   * @return true if they were applied within the timeout
+   */
+  public boolean awaitContiguousAppliedIndex(long index, long timeoutMs)
+      throws InterruptedException {
+    if (getContiguousAppliedIndex() >= index) {
+      return true;
+    }
+    long deadline = Time.monotonicNow() + timeoutMs;
+    appliedWaiters.incrementAndGet();
+    try {
+      synchronized (appliedMonitor) {
+        while (getContiguousAppliedIndex() < index) {
+          long remaining = deadline - Time.monotonicNow();
+          if (remaining <= 0) {
+            return false;
+          }
+          appliedMonitor.wait(remaining);
+        }
+        return true;
+      }
+    } finally {
+      appliedWaiters.decrementAndGet();
+    }
+  }
+
+  private void notifyAppliedWaiters() {
+    if (appliedWaiters.get() > 0) {
+      synchronized (appliedMonitor) {
+        appliedMonitor.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Resolves bucket links for choosing the apply executor of a request.
+   * Returns null, to apply the request as a barrier, if the bucket cannot be
+   * resolved.
+   */
+  private Pair<String, String> resolveBucket(Pair<String, String> bucket) {
+    Pair<String, String> resolved = bucket;
+    Set<Pair<String, String>> visited = new HashSet<>();
+    try {
+      while (visited.add(resolved)) {
+        OmBucketInfo bucketInfo = ozoneManager.getMetadataManager()
+            .getBucketTable().get(ozoneManager.getMetadataManager()
+                .getBucketKey(resolved.getLeft(), resolved.getRight()));
+        if (bucketInfo == null || !bucketInfo.isLink()) {
+          return resolved;
+        }
+        resolved = Pair.of(bucketInfo.getSourceVolume(),
+            bucketInfo.getSourceBucket());
+      }
+      // Link loops are detected and reported by the request itself.
+      LOG.debug("Detected loop in bucket links of {}, applying request as " +
+          "barrier", bucket);
+    } catch (IOException e) {
+      LOG.warn("Failed to resolve bucket {}, applying request as barrier",
+          bucket, e);
+    }
+    return null;
+  }
+
   /**
    * Take OM Ratis snapshot is a dummy operation as when double buffer
    * flushes the lastAppliedIndex is flushed to DB and that is used as
@@ -715,6 +878,7 @@ public void loadSnapshotInfoFromDB() throws IOException {
           transactionInfo.getTransactionIndex()));
       snapshotInfo.updateTermIndex(transactionInfo.getTerm(),
           transactionInfo.getTransactionIndex());
+      lastSubmittedIndex = transactionInfo.getTransactionIndex();
     }
     LOG.info("LastAppliedIndex is set from TransactionInfo from OM DB as {}",
         getLastAppliedTermIndex());
@@ -759,7 +923,7 @@ public OzoneManagerStateMachineMetrics getMetrics() {
 
   public void stop() {
     ozoneManagerDoubleBuffer.stop();
-    HadoopExecutors.shutdown(executorService, LOG, 5, TimeUnit.SECONDS);
+    applyExecutor.shutdown();
     HadoopExecutors.shutdown(installSnapshotExecutor, LOG, 5, TimeUnit.SECONDS);
     LOG.info("applyTransactionMap size {} ", applyTransactionMap.size());
     if (LOG.isDebugEnabled()) {
@@ -25,6 +25,7 @@
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
 import org.apache.hadoop.metrics2.lib.MutableGaugeFloat;
+import org.apache.hadoop.metrics2.lib.MutableGaugeInt;
 import org.apache.hadoop.metrics2.lib.MutableRate;
 import org.apache.hadoop.metrics2.lib.MutableStat;
 
@@ -62,6 +63,22 @@ public class OzoneManagerDoubleBufferMetrics {
   @Metric(about = "DoubleBuffer queue size.", valueName = "Size")
   private MutableStat queueSize;
 
+  @Metric(about = "Time taken to add the transactions of a flush iteration " +
+      "to the rocksdb batch.")
+  private MutableRate batchAssemblyTime;
+
+  @Metric(about = "Time taken to complete a flush iteration after the batch " +
+      "commit, this includes the table cache cleanup.")
+  private MutableRate completionTime;
+
+  @Metric(about = "Time the flush thread waited for the flush pipeline " +
+      "before building a batch.")
+  private MutableRate pipelineWaitTime;
+
+  @Metric(about = "Current limit of transactions in a single batch with " +
+      "pipelined flush.")
+  private MutableGaugeInt batchSizeLimit;
+
   public static synchronized OzoneManagerDoubleBufferMetrics create() {
     if (instance != null) {
       return instance;
@@ -136,6 +153,41 @@ public MutableStat getQueueSize() {
     return queueSize;
   }
 
+  public void updateBatchAssemblyTime(long time) {
+    batchAssemblyTime.add(time);
+  }
+
+  @VisibleForTesting
+  public MutableRate getBatchAssemblyTime() {
+    return batchAssemblyTime;
+  }
+
+  public void updateCompletionTime(long time) {
+    completionTime.add(time);
+  }
+
+  @VisibleForTesting
+  public MutableRate getCompletionTime() {
+    return completionTime;
+  }
+
+  public void updatePipelineWaitTime(long time) {
+    pipelineWaitTime.add(time);
+  }
+
+  @VisibleForTesting
+  public MutableRate getPipelineWaitTime() {
+    return pipelineWaitTime;
+  }
+
+  public void setBatchSizeLimit(int limit) {
+    batchSizeLimit.set(limit);
+  }
+
+  public int getBatchSizeLimit() {
+    return batchSizeLimit.value();
+  }
+
   public void unRegister() {
     MetricsSystem ms = DefaultMetricsSystem.instance();
     ms.unregisterSource(SOURCE_NAME);
@@ -277,6 +277,10 @@ public static OMClientRequest createClientRequest(OMRequest omRequest,
       volumeName = keyArgs.getVolumeName();
       bucketName = keyArgs.getBucketName();
       break;
+    case CommitKeys:
+      volumeName = omRequest.getCommitKeysRequest().getVolumeName();
+      bucketName = omRequest.getCommitKeysRequest().getBucketName();
+      break;
     case DeleteKey:
       keyArgs = omRequest.getDeleteKeyRequest().getKeyArgs();
       volumeName = keyArgs.getVolumeName();
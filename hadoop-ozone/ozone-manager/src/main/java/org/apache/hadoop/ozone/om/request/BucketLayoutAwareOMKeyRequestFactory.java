@@ -38,6 +38,7 @@
 import org.apache.hadoop.ozone.om.request.key.OMKeyCommitRequestWithFSO;
 import org.apache.hadoop.ozone.om.request.key.OMKeySetTimesRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeySetTimesRequestWithFSO;
+import org.apache.hadoop.ozone.om.request.key.OMKeysCommitRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeysDeleteRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeysRenameRequest;
 import org.apache.hadoop.ozone.om.request.key.OmKeysDeleteRequestWithFSO;
@@ -122,6 +123,16 @@ public final class BucketLayoutAwareOMKeyRequestFactory {
         BucketLayout.FILE_SYSTEM_OPTIMIZED
     );
 
+    // CommitKeys
+    addRequestClass(Type.CommitKeys,
+        OMKeysCommitRequest.class,
+        BucketLayout.OBJECT_STORE
+    );
+    addRequestClass(Type.CommitKeys,
+        OMKeysCommitRequest.class,
+        BucketLayout.FILE_SYSTEM_OPTIMIZED
+    );
+
     // DeleteKey
     addRequestClass(Type.DeleteKey,
         OMKeyDeleteRequest.class,
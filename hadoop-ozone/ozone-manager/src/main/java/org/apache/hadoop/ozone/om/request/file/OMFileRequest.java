@@ -41,7 +41,9 @@
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.om.DirectoryPathCache;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
@@ -201,6 +203,9 @@ public static OMPathInfoWithFSO verifyDirectoryKeysInPath(
     List<OzoneAcl> acls = omBucketInfo.getAcls();
 
     long lastKnownParentId = omBucketInfo.getObjectID();
+    // DB key of lastKnownParentId, if its acls are still to be looked up.
+    String lastKnownParentKey = null;
+    DirectoryPathCache pathCache = getDirectoryPathCache(omMetadataManager);
     String dbDirName = ""; // absolute path for trace logs
     // for better logging
     StringBuilder fullKeyPath = new StringBuilder(bucketKey);
@@ -225,14 +230,24 @@ public static OMPathInfoWithFSO verifyDirectoryKeysInPath(
       // 3. Add 'sub-dir' to missing parents list
       String dbNodeName = omMetadataManager.getOzonePathKey(volumeId, bucketId,
               lastKnownParentId, fileName);
-      OmDirectoryInfo omDirInfo = omMetadataManager.getDirectoryTable().
-              get(dbNodeName);
-      if (omDirInfo != null) {
-        dbDirName += omDirInfo.getName() + OzoneConsts.OZONE_URI_DELIMITER;
+      Long dirObjectID;
+      if (pathCache != null) {
+        // Acls of the last existing parent are looked up after the loop.
+        dirObjectID = pathCache.getObjectID(dbNodeName);
+      } else {
+        OmDirectoryInfo omDirInfo = omMetadataManager.getDirectoryTable().
+                get(dbNodeName);
+        dirObjectID = omDirInfo != null ? omDirInfo.getObjectID() : null;
+        if (omDirInfo != null && elements.hasNext()) {
+          acls = omDirInfo.getAcls();
+        }
+      }
+      if (dirObjectID != null) {
+        dbDirName += fileName + OzoneConsts.OZONE_URI_DELIMITER;
         if (elements.hasNext()) {
           result = OMDirectoryResult.DIRECTORY_EXISTS_IN_GIVENPATH;
-          lastKnownParentId = omDirInfo.getObjectID();
-          acls = omDirInfo.getAcls();
+          lastKnownParentId = dirObjectID;
+          lastKnownParentKey = pathCache != null ? dbNodeName : null;
           continue;
         } else {
           // Checked all the sub-dirs till the leaf node.
@@ -263,6 +278,14 @@ public static OMPathInfoWithFSO verifyDirectoryKeysInPath(
       }
     }
 
+    if (lastKnownParentKey != null) {
+      OmDirectoryInfo parentDirInfo =
+          omMetadataManager.getDirectoryTable().get(lastKnownParentKey);
+      if (parentDirInfo != null) {
+        acls = parentDirInfo.getAcls();
+      }
+    }
+
     LOG.trace("verifyFiles/Directories in Path : /{}/{}/{} : {}",
         volumeName, bucketName, keyName, result);
 
@@ -675,6 +698,7 @@ public static OzoneFileStatus getOMKeyInfoIfExists(
             omMetadataMgr.getBucketTable().get(bucketKey);
 
     long lastKnownParentId = omBucketInfo.getObjectID();
+    DirectoryPathCache pathCache = getDirectoryPathCache(omMetadataMgr);
     OmDirectoryInfo omDirInfo = null;
     while (elements.hasNext()) {
       String fileName = elements.next().toString();
@@ -687,6 +711,15 @@ public static OzoneFileStatus getOMKeyInfoIfExists(
       String dbNodeName = omMetadataMgr.getOzonePathKey(
               volumeId, omBucketInfo.getObjectID(),
               lastKnownParentId, fileName);
+      if (pathCache != null && elements.hasNext()) {
+        // Only the object ID of intermediate directories is needed.
+        Long dirObjectID = pathCache.getObjectID(dbNodeName);
+        if (dirObjectID == null) {
+          return null;
+        }
+        lastKnownParentId = dirObjectID;
+        continue;
+      }
       omDirInfo = omMetadataMgr.getDirectoryTable().get(dbNodeName);
 
       if (omDirInfo != null) {
@@ -1013,7 +1046,6 @@ public static long getParentID(long volumeId, long bucketId,
     if (StringUtils.isBlank(errMsg)) {
       errMsg = "Failed to find parent directory of " + keyName;
     }
-    OmDirectoryInfo omDirectoryInfo;
     while (pathComponents.hasNext()) {
       String nodeName = pathComponents.next().toString();
       boolean reachedLastPathComponent = !pathComponents.hasNext();
@@ -1022,15 +1054,15 @@ public static long getParentID(long volumeId, long bucketId,
                       lastKnownParentId, nodeName);
 
 
-      omDirectoryInfo = omMetadataManager.
-              getDirectoryTable().get(dbNodeName);
-      if (omDirectoryInfo != null) {
+      Long dirObjectID =
+          getDirectoryObjectID(omMetadataManager, dbNodeName);
+      if (dirObjectID != null) {
         if (reachedLastPathComponent) {
           throw new OMException("Can not create file: " + keyName +
                   " as there is already directory in the given path",
                   NOT_A_FILE);
         }
-        lastKnownParentId = omDirectoryInfo.getObjectID();
+        lastKnownParentId = dirObjectID;
       } else {
         // One of the sub-dir doesn't exists in DB. Immediate parent should
         // exists for committing the key, otherwise will fail the operation.
@@ -1045,6 +1077,35 @@ public static long getParentID(long volumeId, long bucketId,
     return lastKnownParentId;
   }
 
+  /**
+   * Returns the object ID of the directory with the given directory table
+   * key, or null if there is no such directory.
+   *
+   * @param omMetadataManager om metadata manager
+   * @param dbDirKey          directory table key
+   * @return object ID of the directory, or null
+   * @throws IOException DB failure
+   */
+  private static Long getDirectoryObjectID(
+      OMMetadataManager omMetadataManager, String dbDirKey)
+      throws IOException {
+    DirectoryPathCache pathCache = getDirectoryPathCache(omMetadataManager);
+    if (pathCache != null) {
+      return pathCache.getObjectID(dbDirKey);
+    }
+    OmDirectoryInfo omDirInfo =
+        omMetadataManager.getDirectoryTable().get(dbDirKey);
+    return omDirInfo != null ? omDirInfo.getObjectID() : null;
+  }
+
+  @Nullable
+  private static DirectoryPathCache getDirectoryPathCache(
+      OMMetadataManager omMetadataManager) {
+    return omMetadataManager instanceof OmMetadataManagerImpl
+        ? ((OmMetadataManagerImpl) omMetadataManager).getDirectoryPathCache()
+        : null;
+  }
+
   /**
    * Get parent ID for the user given keyName.
    *
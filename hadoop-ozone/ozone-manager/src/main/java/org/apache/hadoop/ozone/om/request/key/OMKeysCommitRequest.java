@@ -0,0 +1,246 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
+import org.apache.hadoop.ozone.om.request.validation.RequestFeatureValidator;
+import org.apache.hadoop.ozone.om.request.validation.RequestProcessingPhase;
+import org.apache.hadoop.ozone.om.request.validation.ValidationCondition;
+import org.apache.hadoop.ozone.om.request.validation.ValidationContext;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMKeysCommitResponse;
+import org.apache.hadoop.ozone.om.upgrade.DisallowedUntilLayoutVersion;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyError;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeysResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.INVALID_REQUEST;
+import static org.apache.hadoop.ozone.om.upgrade.OMLayoutFeature.COMMIT_KEYS;
+import static org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status.OK;
+
+/**
+ * Handles CommitKeys request.
+ * <p>
+ * Commits a batch of keys of the same bucket in a single Ratis transaction.
+ * Each key is committed by the {@link OMKeyCommitRequest} of the bucket
+ * layout, in the order of the batch, so a failed commit only fails its own
+ * key. The results of the failed commits are returned as
+ * {@link CommitKeyError}s, the successful ones are written to the DB in the
+ * same batch.
+ */
+public class OMKeysCommitRequest extends OMKeyRequest {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMKeysCommitRequest.class);
+
+  public OMKeysCommitRequest(OMRequest omRequest, BucketLayout bucketLayout) {
+    super(omRequest, bucketLayout);
+  }
+
+  @Override
+  @DisallowedUntilLayoutVersion(COMMIT_KEYS)
+  public OMRequest preExecute(OzoneManager ozoneManager) throws IOException {
+    OMRequest request = super.preExecute(ozoneManager);
+    CommitKeysRequest commitKeysRequest = request.getCommitKeysRequest();
+    Preconditions.checkNotNull(commitKeysRequest);
+
+    String volumeName = commitKeysRequest.getVolumeName();
+    String bucketName = commitKeysRequest.getBucketName();
+    Set<String> keyNames = new HashSet<>();
+    CommitKeysRequest.Builder newCommitKeysRequest =
+        commitKeysRequest.toBuilder().clearCommitKeyRequests();
+
+    for (CommitKeyRequest commitKeyRequest
+        : commitKeysRequest.getCommitKeyRequestsList()) {
+      KeyArgs keyArgs = commitKeyRequest.getKeyArgs();
+      if (!volumeName.equals(keyArgs.getVolumeName()) ||
+          !bucketName.equals(keyArgs.getBucketName())) {
+        throw new OMException("All keys of a CommitKeys request must be in " +
+            "bucket " + volumeName + "/" + bucketName + ", but " +
+            keyArgs.getKeyName() + " is in " + keyArgs.getVolumeName() + "/" +
+            keyArgs.getBucketName(), INVALID_REQUEST);
+      }
+      if (commitKeyRequest.hasHsync() && commitKeyRequest.getHsync()) {
+        throw new OMException("Hsync is not supported by CommitKeys, key: " +
+            keyArgs.getKeyName(), INVALID_REQUEST);
+      }
+      if (!keyNames.add(keyArgs.getKeyName())) {
+        throw new OMException("Duplicate key in CommitKeys request: " +
+            keyArgs.getKeyName(), INVALID_REQUEST);
+      }
+
+      OMRequest subRequest = createSubRequest(request, commitKeyRequest)
+          .preExecute(ozoneManager);
+      newCommitKeysRequest.addCommitKeyRequests(
+          subRequest.getCommitKeyRequest());
+    }
+
+    return request.toBuilder()
+        .setCommitKeysRequest(newCommitKeysRequest).build();
+  }
+
+  @Override
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      long trxnLogIndex) {
+    OMRequest omRequest = getOmRequest();
+    CommitKeysRequest commitKeysRequest = omRequest.getCommitKeysRequest();
+
+    List<OMClientResponse> commitResponses = new ArrayList<>();
+    CommitKeysResponse.Builder commitKeysResponse =
+        CommitKeysResponse.newBuilder();
+
+    // The individual commits take the bucket lock and audit themselves.
+    for (CommitKeyRequest commitKeyRequest
+        : commitKeysRequest.getCommitKeyRequestsList()) {
+      OMClientResponse response = createSubRequest(omRequest, commitKeyRequest)
+          .validateAndUpdateCache(ozoneManager, trxnLogIndex);
+      commitResponses.add(response);
+
+      OMResponse subResponse = response.getOMResponse();
+      if (subResponse.getStatus() != OK) {
+        CommitKeyError.Builder error = CommitKeyError.newBuilder()
+            .setKeyName(commitKeyRequest.getKeyArgs().getKeyName())
+            .setStatus(subResponse.getStatus());
+        if (subResponse.hasMessage()) {
+          error.setMessage(subResponse.getMessage());
+        }
+        commitKeysResponse.addErrors(error);
+      }
+    }
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Committed {} of {} keys in bucket {}/{}",
+          commitResponses.size() - commitKeysResponse.getErrorsCount(),
+          commitResponses.size(), commitKeysRequest.getVolumeName(),
+          commitKeysRequest.getBucketName());
+    }
+
+    OMResponse.Builder omResponse =
+        OmResponseUtil.getOMResponseBuilder(omRequest)
+            .setCommitKeysResponse(commitKeysResponse);
+    return new OMKeysCommitResponse(omResponse.build(), commitResponses,
+        getBucketLayout());
+  }
+
+  /**
+   * Creates the CommitKey request of a single key of the batch, for the
+   * layout of the bucket.
+   */
+  private OMKeyRequest createSubRequest(OMRequest request,
+      CommitKeyRequest commitKeyRequest) {
+    OMRequest subRequest = toCommitKeyRequest(request, commitKeyRequest);
+    BucketLayout bucketLayout = getBucketLayout();
+    if (bucketLayout.isFileSystemOptimized()) {
+      return new OMKeyCommitRequestWithFSO(subRequest, bucketLayout);
+    }
+    return new OMKeyCommitRequest(subRequest, bucketLayout);
+  }
+
+  private static OMRequest toCommitKeyRequest(OMRequest request,
+      CommitKeyRequest commitKeyRequest) {
+    return request.toBuilder()
+        .clearCommitKeysRequest()
+        .setCmdType(Type.CommitKey)
+        .setCommitKeyRequest(commitKeyRequest)
+        .build();
+  }
+
+  /**
+   * Applies a CommitKey validator of {@link OMKeyCommitRequest} to every key
+   * of the batch, so a batch cannot be used to bypass it.
+   */
+  private static OMRequest validateEachKey(OMRequest req,
+      ValidationContext ctx, CommitKeyValidator validator) throws IOException {
+    CommitKeysRequest commitKeysRequest = req.getCommitKeysRequest();
+    CommitKeysRequest.Builder validated =
+        commitKeysRequest.toBuilder().clearCommitKeyRequests();
+    for (CommitKeyRequest commitKeyRequest
+        : commitKeysRequest.getCommitKeyRequestsList()) {
+      validated.addCommitKeyRequests(validator.validate(
+          toCommitKeyRequest(req, commitKeyRequest), ctx)
+          .getCommitKeyRequest());
+    }
+    return req.toBuilder().setCommitKeysRequest(validated).build();
+  }
+
+  @FunctionalInterface
+  private interface CommitKeyValidator {
+    OMRequest validate(OMRequest req, ValidationContext ctx)
+        throws IOException;
+  }
+
+  @RequestFeatureValidator(
+      conditions = ValidationCondition.CLUSTER_NEEDS_FINALIZATION,
+      processingPhase = RequestProcessingPhase.PRE_PROCESS,
+      requestType = Type.CommitKeys
+  )
+  public static OMRequest disallowCommitKeysWithECReplicationConfig(
+      OMRequest req, ValidationContext ctx) throws IOException {
+    return validateEachKey(req, ctx,
+        OMKeyCommitRequest::disallowCommitKeyWithECReplicationConfig);
+  }
+
+  /**
+   * Validates key commit batches.
+   * We do not want to allow older clients to commit keys associated with
+   * buckets which use non LEGACY layouts.
+   *
+   * @param req - the request to validate
+   * @param ctx - the validation context
+   * @return the validated request
+   * @throws OMException if the request is invalid
+   */
+  @RequestFeatureValidator(
+      conditions = ValidationCondition.OLDER_CLIENT_REQUESTS,
+      processingPhase = RequestProcessingPhase.PRE_PROCESS,
+      requestType = Type.CommitKeys
+  )
+  public static OMRequest blockCommitKeysWithBucketLayoutFromOldClient(
+      OMRequest req, ValidationContext ctx) throws IOException {
+    return validateEachKey(req, ctx,
+        OMKeyCommitRequest::blockCommitKeyWithBucketLayoutFromOldClient);
+  }
+
+  @RequestFeatureValidator(
+      conditions = ValidationCondition.CLUSTER_NEEDS_FINALIZATION,
+      processingPhase = RequestProcessingPhase.PRE_PROCESS,
+      requestType = Type.CommitKeys
+  )
+  public static OMRequest disallowCommitKeysHsync(
+      OMRequest req, ValidationContext ctx) throws IOException {
+    return validateEachKey(req, ctx, OMKeyCommitRequest::disallowHsync);
+  }
+}
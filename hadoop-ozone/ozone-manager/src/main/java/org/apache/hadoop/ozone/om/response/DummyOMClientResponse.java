@@ -35,6 +35,11 @@ public DummyOMClientResponse(@Nonnull OMResponse omResponse) {
     super(omResponse);
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
@@ -86,6 +86,17 @@ public void checkAndUpdateDB(OMMetadataManager omMetadataManager,
   protected abstract void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException;
 
+  /**
+   * Returns true if {@link #addToDBBatch} reads from the DB, or depends on
+   * all previous transactions being committed otherwise. Such a response is
+   * only added to a batch once all the previous batches have been committed.
+   * Responses which only write their own state to the batch override this
+   * to return false.
+   */
+  public boolean requiresCommittedState() {
+    return true;
+  }
+
   /**
    * Return OMResponse.
    * @return OMResponse
@@ -69,6 +69,11 @@ public OMBucketCreateResponse(@Nonnull OMResponse omResponse) {
     omVolumeArgs = null;
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
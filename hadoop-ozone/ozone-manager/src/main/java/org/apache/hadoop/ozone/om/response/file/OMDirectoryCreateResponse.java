@@ -72,6 +72,11 @@ public OMDirectoryCreateResponse(@Nonnull OMResponse omResponse,
     this.result = result;
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   protected void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
@@ -76,6 +76,11 @@ public OMDirectoryCreateResponseWithFSO(@Nonnull OMResponse omResponse,
     this.result = result;
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   protected void addToDBBatch(OMMetadataManager omMetadataManager,
                               BatchOperation batchOperation)
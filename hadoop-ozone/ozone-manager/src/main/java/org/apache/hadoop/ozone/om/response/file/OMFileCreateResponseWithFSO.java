@@ -66,6 +66,11 @@ public OMFileCreateResponseWithFSO(@Nonnull OMResponse omResponse,
     super(omResponse, bucketLayout);
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataMgr,
                               BatchOperation batchOp) throws IOException {
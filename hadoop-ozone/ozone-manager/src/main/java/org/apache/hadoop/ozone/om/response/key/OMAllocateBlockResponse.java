@@ -59,6 +59,11 @@ public OMAllocateBlockResponse(@Nonnull OMResponse omResponse,
     checkStatusNotOK();
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
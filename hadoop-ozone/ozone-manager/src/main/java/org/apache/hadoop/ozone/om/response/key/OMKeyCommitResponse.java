@@ -77,6 +77,11 @@ public OMKeyCommitResponse(@Nonnull OMResponse omResponse, @Nonnull
     checkStatusNotOK();
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
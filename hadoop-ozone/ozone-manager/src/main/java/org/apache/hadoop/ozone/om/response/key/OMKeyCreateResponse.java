@@ -70,6 +70,11 @@ public OMKeyCreateResponse(@Nonnull OMResponse omResponse, @Nonnull
     checkStatusNotOK();
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   public void addToDBBatch(OMMetadataManager omMetadataManager,
       BatchOperation batchOperation) throws IOException {
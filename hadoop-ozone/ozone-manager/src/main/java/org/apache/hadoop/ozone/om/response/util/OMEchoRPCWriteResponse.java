@@ -36,6 +36,11 @@ public OMEchoRPCWriteResponse(OMResponse omResponse) {
     super(omResponse);
   }
 
+  @Override
+  public boolean requiresCommittedState() {
+    return false;
+  }
+
   @Override
   protected void addToDBBatch(OMMetadataManager omMetadataManager,
                               BatchOperation batchOperation)
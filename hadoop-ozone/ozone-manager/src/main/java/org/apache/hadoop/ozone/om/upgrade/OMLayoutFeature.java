@@ -44,7 +44,9 @@ public enum OMLayoutFeature implements LayoutFeature {
 
   FILESYSTEM_SNAPSHOT(5, "Ozone version supporting snapshot"),
 
-  QUOTA(6, "Ozone quota re-calculate");
+  QUOTA(6, "Ozone quota re-calculate"),
+
+  COMMIT_KEYS(7, "Support committing a batch of keys in one request");
 
   ///////////////////////////////  /////////////////////////////
   //    Example OM Layout Feature with Actions
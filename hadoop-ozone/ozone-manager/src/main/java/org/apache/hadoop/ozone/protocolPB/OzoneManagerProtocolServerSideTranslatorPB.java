@@ -272,6 +272,11 @@ private OMResponse submitReadRequestToOM(OMRequest request)
     if (raftServerStatus == LEADER_AND_READY ||
         request.getCmdType().equals(PrepareStatus)) {
       return handler.handleReadRequest(request);
+    } else if (raftServerStatus == NOT_LEADER &&
+        request.hasReadConsistency() &&
+        OmUtils.isFollowerReadable(request.getCmdType()) &&
+        omRatisServer.prepareFollowerRead(request.getReadConsistency())) {
+      return handler.handleReadRequest(request);
     } else {
       throw createLeaderErrorException(raftServerStatus);
     }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmDirectoryInfo;
+import org.apache.hadoop.ozone.om.request.OMRequestTestUtils;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_DB_DIRS;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_FS_DIRECTORY_PATH_CACHE_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests {@link DirectoryPathCache}.
+ */
+public class TestDirectoryPathCache {
+
+  private OmMetadataManagerImpl omMetadataManager;
+  private DirectoryPathCache pathCache;
+  private String volumeName;
+  private String bucketName;
+  private long volumeId;
+  private long bucketId;
+  @TempDir
+  private File folder;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.set(OZONE_OM_DB_DIRS, folder.getAbsolutePath());
+    conf.setInt(OZONE_OM_FS_DIRECTORY_PATH_CACHE_SIZE, 100);
+    omMetadataManager = new OmMetadataManagerImpl(conf, null);
+    pathCache = omMetadataManager.getDirectoryPathCache();
+    assertNotNull(pathCache);
+
+    volumeName = UUID.randomUUID().toString();
+    bucketName = UUID.randomUUID().toString();
+    OMRequestTestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager, BucketLayout.FILE_SYSTEM_OPTIMIZED);
+    volumeId = omMetadataManager.getVolumeId(volumeName);
+    bucketId = omMetadataManager.getBucketId(volumeName, bucketName);
+  }
+
+  @AfterEach
+  public void stop() throws Exception {
+    omMetadataManager.stop();
+  }
+
+  @Test
+  public void testPathResolvedFromCacheUpdates() throws Exception {
+    long dirA = addDirectory("a", 1001, bucketId, true);
+    long dirB = addDirectory("b", 1002, dirA, true);
+    long dirC = addDirectory("c", 1003, dirB, true);
+    assertEquals(3, pathCache.size());
+
+    assertEquals(dirC, OMFileRequest.getParentID(volumeId, bucketId,
+        Paths.get("a/b/c/file").iterator(), "a/b/c/file", omMetadataManager));
+    assertEquals(3, pathCache.getStats().hitCount());
+  }
+
+  @Test
+  public void testPopulatedOnMiss() throws Exception {
+    long dirA = addDirectory("a", 1001, bucketId, false);
+    assertEquals(0, pathCache.size());
+
+    String dbKey = omMetadataManager.getOzonePathKey(volumeId, bucketId,
+        bucketId, "a");
+    assertEquals(dirA, pathCache.getObjectID(dbKey));
+    assertEquals(1, pathCache.size());
+    assertEquals(dirA, pathCache.getObjectID(dbKey));
+    assertEquals(1, pathCache.getStats().hitCount());
+  }
+
+  @Test
+  public void testDeleteInvalidates() throws Exception {
+    addDirectory("a", 1001, bucketId, true);
+    String dbKey = omMetadataManager.getOzonePathKey(volumeId, bucketId,
+        bucketId, "a");
+
+    omMetadataManager.getDirectoryTable().addCacheEntry(dbKey, 2L);
+    assertEquals(0, pathCache.size());
+    assertNull(pathCache.getObjectID(dbKey));
+    assertEquals(0, pathCache.size());
+  }
+
+  @Test
+  public void testRenameKeepsSubtree() throws Exception {
+    long dirA = addDirectory("a", 1001, bucketId, true);
+    long dirB = addDirectory("b", 1002, dirA, true);
+
+    // Rename a to x, the subtree is still linked by the object ID of a.
+    String oldKey = omMetadataManager.getOzonePathKey(volumeId, bucketId,
+        bucketId, "a");
+    omMetadataManager.getDirectoryTable().addCacheEntry(oldKey, 2L);
+    addDirectory("x", dirA, bucketId, true);
+
+    assertEquals(dirB, OMFileRequest.getParentID(volumeId, bucketId,
+        Paths.get("x/b/file").iterator(), "x/b/file", omMetadataManager));
+    assertNull(OMFileRequest.getOMKeyInfoIfExists(omMetadataManager,
+        volumeName, bucketName, "a/b", 0, null));
+  }
+
+  private long addDirectory(String name, long objectID, long parentID,
+      boolean addToCache) throws Exception {
+    OmDirectoryInfo dirInfo =
+        OMRequestTestUtils.createOmDirectoryInfo(name, objectID, parentID);
+    OMRequestTestUtils.addDirKeyToDirTable(addToCache, dirInfo, volumeName,
+        bucketName, 1L, omMetadataManager);
+    return objectID;
+  }
+}
@@ -0,0 +1,244 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.om;
+
+import org.apache.hadoop.hdds.client.RatisReplicationConfig;
+import org.apache.hadoop.hdds.client.ReplicationConfig;
+import org.apache.hadoop.hdds.client.ContainerBlockID;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.apache.hadoop.hdds.scm.container.ContainerInfo;
+import org.apache.hadoop.hdds.scm.container.common.helpers.AllocatedBlock;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ContainerWithPipeline;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
+import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
+import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
+import org.apache.ozone.test.GenericTestUtils;
+import org.apache.ozone.test.TestClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests {@link ScmBlockLeaseClient}.
+ */
+public class TestScmBlockLeaseClient {
+
+  private static final int LEASE_SIZE = 4;
+  private static final long BLOCK_SIZE = 256;
+  private static final long CONTAINER_ID = 1;
+  private static final String OWNER = "om";
+
+  private final ReplicationConfig replication =
+      RatisReplicationConfig.getInstance(ReplicationFactor.THREE);
+  private final TestClock clock = TestClock.newInstance();
+  private final AtomicLong localId = new AtomicLong();
+  private Pipeline pipeline;
+  private ScmBlockLocationProtocol scm;
+  private StorageContainerLocationProtocol containerClient;
+  private ScmBlockLeaseClient client;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    pipeline = MockPipeline.createPipeline(3);
+    scm = mock(ScmBlockLocationProtocol.class);
+    when(scm.allocateBlock(anyLong(), anyInt(), any(ReplicationConfig.class),
+        any(), any(), any())).thenAnswer(invocation -> {
+          int count = invocation.getArgument(1);
+          List<AllocatedBlock> blocks = new ArrayList<>();
+          for (int i = 0; i < count; i++) {
+            blocks.add(new AllocatedBlock.Builder()
+                .setContainerBlockID(new ContainerBlockID(CONTAINER_ID,
+                    localId.incrementAndGet()))
+                .setPipeline(pipeline)
+                .build());
+          }
+          return blocks;
+        });
+    containerClient = mock(StorageContainerLocationProtocol.class);
+    // Leases are checked explicitly by the tests
+    client = new ScmBlockLeaseClient(scm, containerClient, LEASE_SIZE,
+        Duration.ofSeconds(30), Duration.ofHours(1), clock);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    client.shutdown();
+  }
+
+  @Test
+  public void testBlocksServedFromLease() throws Exception {
+    // Nothing leased yet
+    assertEquals(1, allocate(1, new ExcludeList()).size());
+    verify(scm).allocateBlock(eq(BLOCK_SIZE), eq(1), eq(replication),
+        eq(OWNER), any(ExcludeList.class), eq("client"));
+    waitForLeasedBlocks(LEASE_SIZE);
+    verify(scm).allocateBlock(eq(BLOCK_SIZE), eq(LEASE_SIZE),
+        eq(replication), eq(OWNER), any(ExcludeList.class), isNull());
+
+    List<AllocatedBlock> blocks = allocate(2, new ExcludeList());
+    assertEquals(2, blocks.size());
+    assertEquals(2, client.getMetrics().getLeasedBlocksUsed());
+    // Refilled once half of the blocks are used
+    waitForLeasedBlocks(LEASE_SIZE);
+    verify(scm, times(3)).allocateBlock(anyLong(), anyInt(),
+        any(ReplicationConfig.class), any(), any(), any());
+    verify(scm).allocateBlock(eq(BLOCK_SIZE), eq(2),
+        eq(replication), eq(OWNER), any(ExcludeList.class), isNull());
+
+    // Another replication config has its own pool
+    client.allocateBlock(BLOCK_SIZE, 1,
+        RatisReplicationConfig.getInstance(ReplicationFactor.ONE), OWNER,
+        new ExcludeList(), null);
+    assertEquals(2, client.getMetrics().getLeasedBlocksUsed());
+  }
+
+  @Test
+  public void testExpiredLeasesDropped() throws Exception {
+    allocate(1, new ExcludeList());
+    waitForLeasedBlocks(LEASE_SIZE);
+
+    clock.fastForward(Duration.ofSeconds(30));
+    assertEquals(2, allocate(2, new ExcludeList()).size());
+    assertEquals(0, client.getMetrics().getLeasedBlocksUsed());
+    assertEquals(LEASE_SIZE, client.getMetrics().getLeasedBlocksDropped());
+    verify(scm).allocateBlock(eq(BLOCK_SIZE), eq(2), eq(replication),
+        eq(OWNER), any(ExcludeList.class), eq("client"));
+  }
+
+  @Test
+  public void testExcludedBlocksRevoked() throws Exception {
+    allocate(1, new ExcludeList());
+    waitForLeasedBlocks(LEASE_SIZE);
+
+    ExcludeList excludeList = new ExcludeList();
+    excludeList.addConatinerId(ContainerID.valueOf(CONTAINER_ID));
+    assertEquals(1, allocate(1, excludeList).size());
+    assertEquals(0, client.getMetrics().getLeasedBlocksUsed());
+    assertEquals(LEASE_SIZE, client.getMetrics().getLeasedBlocksDropped());
+    verify(scm).allocateBlock(BLOCK_SIZE, 1, replication, OWNER,
+        excludeList, "client");
+
+    waitForLeasedBlocks(LEASE_SIZE);
+    excludeList = new ExcludeList();
+    excludeList.addDatanode(pipeline.getNodes().get(1));
+    allocate(1, excludeList);
+    assertEquals(0, client.getMetrics().getLeasedBlocksUsed());
+    assertEquals(2 * LEASE_SIZE, client.getMetrics().getLeasedBlocksDropped());
+  }
+
+  @Test
+  public void testClosedContainersRevoked() throws Exception {
+    allocate(1, new ExcludeList());
+    waitForLeasedBlocks(LEASE_SIZE);
+
+    // Nothing is revoked while the container and its pipeline are open
+    when(containerClient.getContainerWithPipelineBatch(any()))
+        .thenReturn(singletonList(containerWithPipeline(
+            LifeCycleState.OPEN, pipeline)));
+    client.checkLeases();
+    assertEquals(LEASE_SIZE, client.getLeasedBlockCount());
+
+    when(containerClient.getContainerWithPipelineBatch(any()))
+        .thenReturn(singletonList(containerWithPipeline(
+            LifeCycleState.CLOSING, pipeline)));
+    client.checkLeases();
+    assertEquals(0, client.getLeasedBlockCount());
+    assertEquals(LEASE_SIZE, client.getMetrics().getLeasedBlocksDropped());
+
+    allocate(1, new ExcludeList());
+    waitForLeasedBlocks(LEASE_SIZE);
+    Pipeline closed = Pipeline.newBuilder(pipeline)
+        .setState(Pipeline.PipelineState.CLOSED)
+        .build();
+    when(containerClient.getContainerWithPipelineBatch(any()))
+        .thenReturn(singletonList(containerWithPipeline(
+            LifeCycleState.OPEN, closed)));
+    client.checkLeases();
+    assertEquals(0, client.getLeasedBlockCount());
+    assertEquals(2 * LEASE_SIZE,
+        client.getMetrics().getLeasedBlocksDropped());
+  }
+
+  @Test
+  public void testNodesSortedForClient() throws Exception {
+    List<DatanodeDetails> sorted = new ArrayList<>(pipeline.getNodes());
+    Collections.reverse(sorted);
+    when(scm.sortDatanodes(anyList(), eq("client"))).thenReturn(sorted);
+    allocate(1, new ExcludeList());
+    waitForLeasedBlocks(LEASE_SIZE);
+
+    List<AllocatedBlock> blocks = allocate(2, new ExcludeList());
+    for (AllocatedBlock block : blocks) {
+      assertEquals(sorted, block.getPipeline().getNodesInOrder());
+    }
+    // Sorted once for the pipeline and client
+    verify(scm).sortDatanodes(anyList(), eq("client"));
+
+    // Not sorted without a client
+    pipeline.setNodesInOrder(null);
+    blocks = client.allocateBlock(BLOCK_SIZE, 1, replication, OWNER,
+        new ExcludeList(), null);
+    assertEquals(pipeline.getNodes(),
+        blocks.get(0).getPipeline().getNodesInOrder());
+    verify(scm).sortDatanodes(anyList(), any());
+  }
+
+  private ContainerWithPipeline containerWithPipeline(LifeCycleState state,
+      Pipeline containerPipeline) {
+    return new ContainerWithPipeline(new ContainerInfo.Builder()
+        .setContainerID(CONTAINER_ID)
+        .setState(state)
+        .setPipelineID(containerPipeline.getId())
+        .setReplicationConfig(replication)
+        .build(), containerPipeline);
+  }
+
+  private List<AllocatedBlock> allocate(int count, ExcludeList excludeList)
+      throws Exception {
+    return client.allocateBlock(BLOCK_SIZE, count, replication, OWNER,
+        excludeList, "client");
+  }
+
+  private void waitForLeasedBlocks(int count) throws Exception {
+    GenericTestUtils.waitFor(() -> client.getLeasedBlockCount() == count,
+        10, 5000);
+  }
+}
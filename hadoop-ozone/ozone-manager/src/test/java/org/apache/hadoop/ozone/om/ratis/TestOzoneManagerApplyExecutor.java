@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link OzoneManagerApplyExecutor}.
+ */
+@Timeout(60)
+public class TestOzoneManagerApplyExecutor {
+
+  private static final String VOLUME = "vol1";
+  private static final int NUM_EXECUTORS = 2;
+
+  private OzoneManagerApplyExecutor executor;
+
+  @BeforeEach
+  public void setup() {
+    executor = new OzoneManagerApplyExecutor(NUM_EXECUTORS, "",
+        Function.identity());
+  }
+
+  @AfterEach
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testVolumeAndBucket() {
+    assertEquals(Pair.of(VOLUME, "bucket1"),
+        OzoneManagerApplyExecutor.getVolumeAndBucket(
+            createKeyRequest("bucket1")));
+    assertNull(OzoneManagerApplyExecutor.getVolumeAndBucket(
+        createBucketRequest()));
+  }
+
+  @Test
+  public void testBucketsAppliedInParallelAndInOrder() throws Exception {
+    String bucket1 = "bucket0";
+    String bucket2 = bucketOnOtherExecutor(bucket1);
+    List<Integer> applied = new CopyOnWriteArrayList<>();
+    CountDownLatch blockBucket1 = new CountDownLatch(1);
+
+    CompletableFuture<Integer> first = executor.submit(
+        createKeyRequest(bucket1), () -> {
+          await(blockBucket1);
+          applied.add(1);
+          return 1;
+        });
+    CompletableFuture<Integer> second = executor.submit(
+        createKeyRequest(bucket1), () -> {
+          applied.add(2);
+          return 2;
+        });
+    CompletableFuture<Integer> other = executor.submit(
+        createKeyRequest(bucket2), () -> {
+          applied.add(3);
+          return 3;
+        });
+
+    // The other bucket is not blocked by the slow bucket.
+    assertEquals(3, other.get(10, TimeUnit.SECONDS));
+    assertFalse(second.isDone());
+
+    blockBucket1.countDown();
+    assertEquals(2, second.get(10, TimeUnit.SECONDS));
+    assertEquals(1, first.get());
+    assertEquals(asList(3, 1, 2), applied);
+  }
+
+  @Test
+  public void testBarrier() throws Exception {
+    String bucket1 = "bucket0";
+    String bucket2 = bucketOnOtherExecutor(bucket1);
+    List<Integer> applied = new CopyOnWriteArrayList<>();
+    // Number of tasks applied when a bucket of key request is resolved.
+    List<Integer> appliedWhenResolved = new CopyOnWriteArrayList<>();
+    executor.shutdown();
+    executor = new OzoneManagerApplyExecutor(NUM_EXECUTORS, "", bucket -> {
+      appliedWhenResolved.add(applied.size());
+      return bucket;
+    });
+    CountDownLatch blockBucket1 = new CountDownLatch(1);
+
+    executor.submit(createKeyRequest(bucket1), () -> {
+      await(blockBucket1);
+      applied.add(1);
+      return 1;
+    });
+    CompletableFuture<Integer> barrier = executor.submit(
+        createBucketRequest(), () -> {
+          applied.add(2);
+          return 2;
+        });
+    // Submitting a key request does not wait for the barrier, its bucket
+    // is resolved once the barrier has completed.
+    CompletableFuture<Integer> after = executor.submit(
+        createKeyRequest(bucket2), () -> {
+          applied.add(3);
+          return 3;
+        });
+
+    assertFalse(barrier.isDone());
+    assertFalse(after.isDone());
+    assertEquals(asList(0), appliedWhenResolved);
+
+    blockBucket1.countDown();
+    assertEquals(3, after.get(10, TimeUnit.SECONDS));
+    assertEquals(2, barrier.get());
+    assertEquals(asList(1, 2, 3), applied);
+    assertEquals(asList(0, 2), appliedWhenResolved);
+  }
+
+  @Test
+  public void testAwaitCompletion() throws Exception {
+    CountDownLatch blockBucket = new CountDownLatch(1);
+    CompletableFuture<Integer> slow = executor.submit(
+        createKeyRequest("bucket0"), () -> {
+          await(blockBucket);
+          return 1;
+        });
+    CompletableFuture<Integer> barrier = executor.submit(
+        createBucketRequest(), () -> 2);
+    CompletableFuture<Integer> queued = executor.submit(
+        createKeyRequest("bucket1"), () -> 3);
+
+    CompletableFuture<Void> drained =
+        CompletableFuture.runAsync(executor::awaitCompletion);
+    assertFalse(drained.isDone());
+
+    blockBucket.countDown();
+    drained.get(10, TimeUnit.SECONDS);
+    assertTrue(slow.isDone());
+    assertTrue(barrier.isDone());
+    assertTrue(queued.isDone());
+  }
+
+  private static String bucketOnOtherExecutor(String bucket) {
+    int index = executorIndex(bucket);
+    for (int i = 1;; i++) {
+      String other = "bucket" + i;
+      if (executorIndex(other) != index) {
+        return other;
+      }
+    }
+  }
+
+  private static int executorIndex(String bucket) {
+    return Math.floorMod(Pair.of(VOLUME, bucket).hashCode(), NUM_EXECUTORS);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static OMRequest createKeyRequest(String bucket) {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.CreateKey)
+        .setClientId(UUID.randomUUID().toString())
+        .setCreateKeyRequest(CreateKeyRequest.newBuilder()
+            .setKeyArgs(KeyArgs.newBuilder()
+                .setVolumeName(VOLUME)
+                .setBucketName(bucket)
+                .setKeyName("key")))
+        .build();
+  }
+
+  private static OMRequest createBucketRequest() {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.CreateBucket)
+        .setClientId(UUID.randomUUID().toString())
+        .build();
+  }
+}
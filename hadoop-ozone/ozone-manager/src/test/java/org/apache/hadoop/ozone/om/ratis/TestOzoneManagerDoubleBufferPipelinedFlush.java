@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.ratis.metrics.OzoneManagerDoubleBufferMetrics;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateBucketResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.util.Time;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.apache.hadoop.hdds.HddsConfigKeys.OZONE_METADATA_DIRS;
+import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.BUCKET_TABLE;
+import static org.apache.ozone.test.GenericTestUtils.waitFor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests OzoneManagerDoubleBuffer with pipelined flush.
+ */
+@Timeout(300)
+public class TestOzoneManagerDoubleBufferPipelinedFlush {
+
+  private static final int MAX_BATCH_SIZE = 10;
+
+  private OMMetadataManager omMetadataManager;
+  private OzoneManagerDoubleBuffer doubleBuffer;
+  private final AtomicLong trxId = new AtomicLong(0);
+  private volatile long lastAppliedIndex;
+  private long term = 1L;
+  @TempDir
+  private Path folder;
+
+  @BeforeEach
+  public void setup() throws IOException {
+    OzoneConfiguration configuration = new OzoneConfiguration();
+    configuration.set(OZONE_METADATA_DIRS,
+        folder.toAbsolutePath().toString());
+    omMetadataManager =
+        new OmMetadataManagerImpl(configuration, null);
+    doubleBuffer = new OzoneManagerDoubleBuffer.Builder()
+        .setOmMetadataManager(omMetadataManager)
+        .setOzoneManagerRatisSnapShot(index ->
+            lastAppliedIndex = index.get(index.size() - 1))
+        .setmaxUnFlushedTransactionCount(10000)
+        .enableRatis(true)
+        .setIndexToTerm((val) -> term)
+        .enablePipelinedFlush(true)
+        .setMaxBatchSize(MAX_BATCH_SIZE)
+        .build();
+  }
+
+  @AfterEach
+  public void stop() {
+    doubleBuffer.stop();
+  }
+
+  /**
+   * Tests that all transactions are flushed in order, in batches not larger
+   * than the max batch size.
+   */
+  @Test
+  public void testPipelinedFlush() throws Exception {
+    OzoneManagerDoubleBufferMetrics metrics =
+        doubleBuffer.getOzoneManagerDoubleBufferMetrics();
+    String volumeName = UUID.randomUUID().toString();
+    int bucketCount = 100;
+
+    for (int i = 0; i < bucketCount; i++) {
+      doubleBuffer.add(createBucketResponse(volumeName),
+          trxId.incrementAndGet());
+    }
+    waitFor(() -> lastAppliedIndex == bucketCount, 100, 60000);
+
+    assertEquals(bucketCount, doubleBuffer.getFlushedTransactionCount());
+    assertTrue(doubleBuffer.getFlushIterations()
+        >= bucketCount / MAX_BATCH_SIZE);
+    assertTrue(doubleBuffer.getBatchSizeLimit() <= MAX_BATCH_SIZE);
+    assertEquals(bucketCount, omMetadataManager.countRowsInTable(
+        omMetadataManager.getBucketTable()));
+    assertEquals(bucketCount, omMetadataManager.getTransactionInfoTable()
+        .get(TRANSACTION_INFO_KEY).getTransactionIndex());
+    assertTrue(metrics.getBatchAssemblyTime().lastStat().numSamples() > 0);
+    assertTrue(metrics.getCompletionTime().lastStat().numSamples() > 0);
+  }
+
+  /**
+   * Tests that a response which does not opt out of
+   * {@link OMClientResponse#requiresCommittedState()} is added to a batch
+   * only once all the previous transactions have been committed.
+   */
+  @Test
+  public void testResponseRequiringCommittedState() throws Exception {
+    String volumeName = UUID.randomUUID().toString();
+    List<OMDummyCountBucketsResponse> counts = new ArrayList<>();
+    int bucketCount = 0;
+
+    for (int i = 0; i < 5; i++) {
+      for (int j = 0; j < MAX_BATCH_SIZE + 3; j++) {
+        doubleBuffer.add(createBucketResponse(volumeName),
+            trxId.incrementAndGet());
+        bucketCount++;
+      }
+      OMDummyCountBucketsResponse count =
+          new OMDummyCountBucketsResponse(bucketCount, okResponse());
+      counts.add(count);
+      doubleBuffer.add(count, trxId.incrementAndGet());
+    }
+    waitFor(() -> lastAppliedIndex == trxId.get(), 100, 60000);
+
+    for (OMDummyCountBucketsResponse count : counts) {
+      assertEquals(count.expected, count.counted);
+    }
+  }
+
+  private OMDummyCreateBucketResponse createBucketResponse(
+      String volumeName) {
+    OmBucketInfo omBucketInfo =
+        OmBucketInfo.newBuilder()
+            .setVolumeName(volumeName)
+            .setBucketName(UUID.randomUUID().toString())
+            .setCreationTime(Time.now())
+            .build();
+    return new OMDummyCreateBucketResponse(omBucketInfo, okResponse());
+  }
+
+  private static OMResponse okResponse() {
+    return OMResponse.newBuilder()
+        .setCmdType(OzoneManagerProtocolProtos.Type.CreateBucket)
+        .setStatus(OzoneManagerProtocolProtos.Status.OK)
+        .setCreateBucketResponse(CreateBucketResponse.newBuilder().build())
+        .build();
+  }
+
+  /**
+   * Response which only writes a bucket to the batch.
+   */
+  @CleanupTableInfo(cleanupTables = {BUCKET_TABLE})
+  private static class OMDummyCreateBucketResponse extends OMClientResponse {
+    private final OmBucketInfo omBucketInfo;
+
+    OMDummyCreateBucketResponse(OmBucketInfo omBucketInfo,
+        OMResponse omResponse) {
+      super(omResponse);
+      this.omBucketInfo = omBucketInfo;
+    }
+
+    @Override
+    public boolean requiresCommittedState() {
+      return false;
+    }
+
+    @Override
+    public void addToDBBatch(OMMetadataManager omMetadataManager,
+        BatchOperation batchOperation) throws IOException {
+      String dbBucketKey =
+          omMetadataManager.getBucketKey(omBucketInfo.getVolumeName(),
+              omBucketInfo.getBucketName());
+      omMetadataManager.getBucketTable().putWithBatch(batchOperation,
+          dbBucketKey, omBucketInfo);
+    }
+  }
+
+  /**
+   * Response which reads the number of buckets committed to the DB.
+   */
+  @CleanupTableInfo(cleanupTables = {BUCKET_TABLE})
+  private static class OMDummyCountBucketsResponse extends OMClientResponse {
+    private final long expected;
+    private volatile long counted = -1;
+
+    OMDummyCountBucketsResponse(long expected, OMResponse omResponse) {
+      super(omResponse);
+      this.expected = expected;
+    }
+
+    @Override
+    public void addToDBBatch(OMMetadataManager omMetadataManager,
+        BatchOperation batchOperation) throws IOException {
+      counted = omMetadataManager.countRowsInTable(
+          omMetadataManager.getBucketTable());
+    }
+  }
+}
@@ -147,6 +147,49 @@ public void testDoubleBufferWithDummyResponse() throws Exception {
     Assertions.assertEquals(term, transactionInfo.getTerm());
   }
 
+  /**
+   * Tests that with a flushable index, transactions added out of order are
+   * flushed only once all previous transactions have been added.
+   */
+  @Test
+  public void testDoubleBufferWithFlushableIndex() throws Exception {
+    doubleBuffer.stop();
+    AtomicLong flushableIndex = new AtomicLong(0);
+    doubleBuffer = new OzoneManagerDoubleBuffer.Builder()
+        .setOmMetadataManager(omMetadataManager)
+        .setOzoneManagerRatisSnapShot(index ->
+            lastAppliedIndex = index.get(index.size() - 1))
+        .setmaxUnFlushedTransactionCount(10000)
+        .enableRatis(true)
+        .setIndexToTerm((val) -> term)
+        .setFlushableIndex(flushableIndex::get)
+        .build();
+    String volumeName = UUID.randomUUID().toString();
+
+    // Transaction 1 is still being applied.
+    doubleBuffer.add(createDummyBucketResponse(volumeName), 3);
+    doubleBuffer.add(createDummyBucketResponse(volumeName), 2);
+    assertEquals(0, doubleBuffer.getFlushedTransactionCount());
+
+    doubleBuffer.add(createDummyBucketResponse(volumeName), 1);
+    flushableIndex.set(2);
+    doubleBuffer.notifyFlushableIndexUpdated();
+    waitFor(() -> doubleBuffer.getFlushedTransactionCount() == 2,
+        100, 60000);
+    assertEquals(2, lastAppliedIndex);
+    assertEquals(1, doubleBuffer.getCurrentBufferSize());
+    assertEquals(2, omMetadataManager.getTransactionInfoTable()
+        .get(TRANSACTION_INFO_KEY).getTransactionIndex());
+
+    flushableIndex.set(Long.MAX_VALUE);
+    doubleBuffer.notifyFlushableIndexUpdated();
+    waitFor(() -> doubleBuffer.getFlushedTransactionCount() == 3,
+        100, 60000);
+    assertEquals(3, lastAppliedIndex);
+    assertEquals(3, omMetadataManager.countRowsInTable(
+        omMetadataManager.getBucketTable()));
+  }
+
   /**
    * Create DummyBucketCreate response.
    */
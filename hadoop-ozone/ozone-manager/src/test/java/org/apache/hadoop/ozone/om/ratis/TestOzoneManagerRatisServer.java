@@ -39,12 +39,14 @@
 import org.apache.hadoop.ozone.common.ha.ratis.RatisSnapshotInfo;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMPerformanceMetrics;
 import org.apache.hadoop.ozone.om.helpers.OMNodeDetails;
 import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos
     .OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistency;
 import org.apache.ozone.test.GenericTestUtils;
 import org.apache.ratis.protocol.RaftGroupId;
 import org.apache.ratis.server.protocol.TermIndex;
@@ -63,6 +65,7 @@
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -257,5 +260,35 @@ public void verifyRaftGroupIdGenerationWithCustomOmServiceId() throws
     newOmRatisServer.stop();
   }
 
+  @Test
+  public void testPrepareFollowerRead() throws Exception {
+    // Follower reads are disabled by default.
+    assertFalse(omRatisServer.prepareFollowerRead(
+        ReadConsistency.LINEARIZABLE));
+    omRatisServer.stop();
+
+    conf.setBoolean(OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED_KEY, true);
+    OMPerformanceMetrics perfMetrics = OMPerformanceMetrics.register();
+    try {
+      when(ozoneManager.getPerfMetrics()).thenReturn(perfMetrics);
+      omRatisServer = OzoneManagerRatisServer.newOMRatisServer(conf,
+          ozoneManager, omNodeDetails, Collections.emptyMap(), secConfig,
+          certClient, false);
+      omRatisServer.start();
+      GenericTestUtils.waitFor(() -> omRatisServer.checkLeaderStatus() ==
+          OzoneManagerRatisServer.RaftServerStatus.LEADER_AND_READY,
+          100, 10000);
 
+      assertFalse(omRatisServer.prepareFollowerRead(ReadConsistency.LEADER));
+      // This OM is not a follower, so both wait for the read index.
+      assertTrue(omRatisServer.prepareFollowerRead(
+          ReadConsistency.LINEARIZABLE));
+      assertTrue(omRatisServer.prepareFollowerRead(
+          ReadConsistency.BOUNDED_STALENESS));
+      Assertions.assertEquals(2,
+          perfMetrics.getFollowerReadIndexLatencyNs().lastStat().numSamples());
+    } finally {
+      OMPerformanceMetrics.unregister();
+    }
+  }
 }
@@ -258,6 +258,24 @@ public void testLastAppliedIndexWithMultipleExecutors() {
         ozoneManagerStateMachine.getLastAppliedTermIndex().getIndex());
   }
 
+  @Test
+  public void testAwaitContiguousAppliedIndex() throws Exception {
+    ozoneManagerStateMachine.notifyTermIndexUpdated(0, 1);
+    Assertions.assertEquals(1L,
+        ozoneManagerStateMachine.getContiguousAppliedIndex());
+    Assertions.assertTrue(
+        ozoneManagerStateMachine.awaitContiguousAppliedIndex(1L, 0));
+    Assertions.assertFalse(
+        ozoneManagerStateMachine.awaitContiguousAppliedIndex(2L, 10));
+
+    Thread notifier = new Thread(
+        () -> ozoneManagerStateMachine.notifyTermIndexUpdated(0, 2));
+    notifier.start();
+    Assertions.assertTrue(
+        ozoneManagerStateMachine.awaitContiguousAppliedIndex(2L, 60_000));
+    notifier.join();
+  }
+
   @Test
   public void testPreAppendTransaction() throws Exception {
     // Submit write request.
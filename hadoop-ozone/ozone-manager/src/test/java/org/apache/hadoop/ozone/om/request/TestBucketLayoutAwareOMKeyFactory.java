@@ -109,9 +109,9 @@ public void testGetRequestInstanceFromMap() {
           LOG.info("Validated request class instantiation for cmdType " + k);
         });
 
-    Assertions.assertEquals(13, omKeyReqsFSO.size());
-    Assertions.assertEquals(14, omKeyReqsLegacy.size());
-    Assertions.assertEquals(14, omKeyReqsOBS.size());
+    Assertions.assertEquals(14, omKeyReqsFSO.size());
+    Assertions.assertEquals(15, omKeyReqsLegacy.size());
+    Assertions.assertEquals(15, omKeyReqsOBS.size());
     // Check if the number of instantiated OMKeyRequest classes is equal to
     // the number of keys in the mapping.
     Assertions.assertEquals(
@@ -0,0 +1,230 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.apache.hadoop.hdds.client.ECReplicationConfig;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.request.OMRequestTestUtils;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.request.validation.ValidationContext;
+import org.apache.hadoop.ozone.om.response.key.OMKeysCommitResponse;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutFeature;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutVersionManager;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyError;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyLocation;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class tests OMKeysCommitRequest class.
+ */
+public class TestOMKeysCommitRequest extends TestOMKeyRequest {
+
+  @Test
+  public void testPreExecute() throws Exception {
+    List<String> keys = Arrays.asList("key1", "key2", "key3");
+    OMRequest modifiedOmRequest = getKeysCommitRequest(
+        createCommitKeysRequest(volumeName, keys)).preExecute(ozoneManager);
+
+    CommitKeysRequest commitKeysRequest =
+        modifiedOmRequest.getCommitKeysRequest();
+    assertEquals(keys.size(), commitKeysRequest.getCommitKeyRequestsCount());
+    for (CommitKeyRequest commitKeyRequest
+        : commitKeysRequest.getCommitKeyRequestsList()) {
+      assertTrue(commitKeyRequest.getKeyArgs().getModificationTime() > 0);
+    }
+  }
+
+  @Test
+  public void testPreExecuteRejectsInvalidBatch() {
+    OMException ex = assertThrows(OMException.class, () ->
+        getKeysCommitRequest(createCommitKeysRequest(volumeName,
+            Arrays.asList("key1", "key1"))).preExecute(ozoneManager));
+    assertEquals(OMException.ResultCodes.INVALID_REQUEST, ex.getResult());
+
+    ex = assertThrows(OMException.class, () ->
+        getKeysCommitRequest(createCommitKeysRequest("otherVolume",
+            Collections.singletonList("key1"))).preExecute(ozoneManager));
+    assertEquals(OMException.ResultCodes.INVALID_REQUEST, ex.getResult());
+  }
+
+  @Test
+  public void testPreExecuteRejectedBeforeFinalization() {
+    OMLayoutVersionManager lvm = mock(OMLayoutVersionManager.class);
+    when(lvm.isAllowed(anyString())).thenReturn(true);
+    when(lvm.isAllowed(OMLayoutFeature.COMMIT_KEYS.name())).thenReturn(false);
+    when(lvm.getFeature(OMLayoutFeature.COMMIT_KEYS.name()))
+        .thenReturn(OMLayoutFeature.COMMIT_KEYS);
+    when(ozoneManager.getVersionManager()).thenReturn(lvm);
+
+    OMException ex = assertThrows(OMException.class, () ->
+        getKeysCommitRequest(createCommitKeysRequest(volumeName,
+            Collections.singletonList("key1"))).preExecute(ozoneManager));
+    assertEquals(
+        OMException.ResultCodes.NOT_SUPPORTED_OPERATION_PRIOR_FINALIZATION,
+        ex.getResult());
+  }
+
+  @Test
+  public void testECKeysRejectedBeforeFinalization() throws Exception {
+    OMLayoutVersionManager lvm = mock(OMLayoutVersionManager.class);
+    when(lvm.isAllowed(OMLayoutFeature.ERASURE_CODED_STORAGE_SUPPORT))
+        .thenReturn(false);
+    ValidationContext ctx = ValidationContext.of(lvm, omMetadataManager);
+
+    OMRequest request = createCommitKeysRequest(volumeName,
+        Arrays.asList("key1", "key2"));
+    assertEquals(request,
+        OMKeysCommitRequest.disallowCommitKeysWithECReplicationConfig(
+            request, ctx));
+
+    // A single EC key rejects the whole batch.
+    CommitKeysRequest.Builder commitKeysRequest =
+        request.getCommitKeysRequest().toBuilder();
+    commitKeysRequest.getCommitKeyRequestsBuilder(1).getKeyArgsBuilder()
+        .setEcReplicationConfig(
+            new ECReplicationConfig(3, 2).toProto());
+    OMRequest ecRequest = request.toBuilder()
+        .setCommitKeysRequest(commitKeysRequest).build();
+    OMException ex = assertThrows(OMException.class, () ->
+        OMKeysCommitRequest.disallowCommitKeysWithECReplicationConfig(
+            ecRequest, ctx));
+    assertEquals(
+        OMException.ResultCodes.NOT_SUPPORTED_OPERATION_PRIOR_FINALIZATION,
+        ex.getResult());
+  }
+
+  @Test
+  public void testValidateAndUpdateCache() throws Exception {
+    OMRequestTestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager, getBucketLayout());
+
+    // key3 was never opened, so its commit fails.
+    List<String> keys = Arrays.asList("key1", "key2", "key3");
+    for (String key : keys.subList(0, 2)) {
+      OMRequestTestUtils.addKeyToTable(true, volumeName, bucketName, key,
+          clientID, replicationType, replicationFactor, omMetadataManager,
+          getKeyLocations(key).stream()
+              .map(OmKeyLocationInfo::getFromProtobuf)
+              .collect(Collectors.toList()), version);
+    }
+
+    OMKeysCommitRequest omKeysCommitRequest = getKeysCommitRequest(
+        getKeysCommitRequest(createCommitKeysRequest(volumeName, keys))
+            .preExecute(ozoneManager));
+    OMClientResponse omClientResponse =
+        omKeysCommitRequest.validateAndUpdateCache(ozoneManager, 100L);
+
+    assertEquals(Status.OK, omClientResponse.getOMResponse().getStatus());
+    List<CommitKeyError> errors = omClientResponse.getOMResponse()
+        .getCommitKeysResponse().getErrorsList();
+    assertEquals(1, errors.size());
+    assertEquals("key3", errors.get(0).getKeyName());
+    assertEquals(Status.KEY_NOT_FOUND, errors.get(0).getStatus());
+    assertEquals(keys.size(), ((OMKeysCommitResponse) omClientResponse)
+        .getCommitResponses().size());
+
+    // Write the batch and check the committed keys.
+    BatchOperation batchOperation =
+        omMetadataManager.getStore().initBatchOperation();
+    omClientResponse.checkAndUpdateDB(omMetadataManager, batchOperation);
+    omMetadataManager.getStore().commitBatchOperation(batchOperation);
+
+    long usedBytes = 0;
+    for (String key : keys.subList(0, 2)) {
+      assertNull(omMetadataManager.getOpenKeyTable(getBucketLayout())
+          .getSkipCache(omMetadataManager.getOpenKey(volumeName, bucketName,
+              key, clientID)));
+      OmKeyInfo omKeyInfo = omMetadataManager.getKeyTable(getBucketLayout())
+          .getSkipCache(omMetadataManager.getOzoneKey(volumeName, bucketName,
+              key));
+      assertNotNull(omKeyInfo);
+      assertEquals(getKeyLocations(key).size(),
+          omKeyInfo.getLatestVersionLocations().getLocationList().size());
+      usedBytes += omKeyInfo.getReplicatedSize();
+    }
+    assertNull(omMetadataManager.getKeyTable(getBucketLayout())
+        .getSkipCache(omMetadataManager.getOzoneKey(volumeName, bucketName,
+            "key3")));
+    assertEquals(usedBytes, omMetadataManager.getBucketTable()
+        .get(omMetadataManager.getBucketKey(volumeName, bucketName))
+        .getUsedBytes());
+  }
+
+  private OMKeysCommitRequest getKeysCommitRequest(OMRequest omRequest) {
+    return new OMKeysCommitRequest(omRequest, getBucketLayout());
+  }
+
+  private OMRequest createCommitKeysRequest(String volume, List<String> keys) {
+    CommitKeysRequest.Builder commitKeysRequest = CommitKeysRequest.newBuilder()
+        .setVolumeName(volumeName).setBucketName(bucketName);
+    for (String key : keys) {
+      KeyArgs keyArgs = KeyArgs.newBuilder()
+          .setVolumeName(volume).setBucketName(bucketName).setKeyName(key)
+          .setDataSize(dataSize)
+          .setType(replicationType).setFactor(replicationFactor)
+          .addAllKeyLocations(getKeyLocations(key)).build();
+      commitKeysRequest.addCommitKeyRequests(CommitKeyRequest.newBuilder()
+          .setKeyArgs(keyArgs).setClientID(clientID));
+    }
+
+    return OMRequest.newBuilder()
+        .setCmdType(Type.CommitKeys)
+        .setCommitKeysRequest(commitKeysRequest)
+        .setClientId(UUID.randomUUID().toString()).build();
+  }
+
+  private List<KeyLocation> getKeyLocations(String key) {
+    List<KeyLocation> keyLocations = new ArrayList<>();
+    long localID = Math.abs(key.hashCode()) % 1000L;
+    for (int i = 0; i < 2; i++) {
+      keyLocations.add(KeyLocation.newBuilder()
+          .setBlockID(HddsProtos.BlockID.newBuilder()
+              .setContainerBlockID(HddsProtos.ContainerBlockID.newBuilder()
+                  .setContainerID(i + 1000).setLocalID(localID + i)))
+          .setOffset(0).setLength(200).setCreateVersion(version).build());
+    }
+    return keyLocations;
+  }
+}
@@ -17,14 +17,48 @@
  */
 package org.apache.hadoop.fs.ozone;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.fs.ByteBufferPositionedReadable;
+import org.apache.hadoop.fs.FileRange;
 import org.apache.hadoop.fs.FileSystem.Statistics;
 import org.apache.hadoop.fs.StreamCapabilities;
+import org.apache.hadoop.fs.VectoredReadUtils;
+import org.apache.hadoop.fs.impl.CombinedFileRange;
 import org.apache.hadoop.util.StringUtils;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
 
+/**
+ * {@link OzoneFSInputStream} with the interfaces which are not available in
+ * Hadoop 2: stream capabilities, positioned ByteBuffer reads and vectored
+ * reads.
+ * <p>
+ * Vectored reads merge ranges which are close to each other (see
+ * {@link #minSeekForVectorReads()}) and read the merged ranges in parallel.
+ * Reads of different blocks of the key proceed concurrently, reads within
+ * the same block are serialized by the block stream.
+ */
 final class CapableOzoneFSInputStream extends OzoneFSInputStream
-    implements StreamCapabilities {
+    implements StreamCapabilities, ByteBufferPositionedReadable {
+
+  private static final int VECTORED_READ_POOL_LIMIT = 32;
+
+  // Shared by all streams. Idle threads time out, so no shutdown is needed.
+  private static final ExecutorService VECTORED_READ_EXECUTOR =
+      new ThreadPoolExecutor(0, VECTORED_READ_POOL_LIMIT,
+          60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+          new ThreadFactoryBuilder().setNameFormat("ozone-vectored-read-%d")
+              .setDaemon(true).build(),
+          new ThreadPoolExecutor.CallerRunsPolicy());
 
   CapableOzoneFSInputStream(InputStream inputStream, Statistics statistics) {
     super(inputStream, statistics);
@@ -35,9 +69,49 @@ public boolean hasCapability(String capability) {
     switch (StringUtils.toLowerCase(capability)) {
     case StreamCapabilities.READBYTEBUFFER:
     case StreamCapabilities.UNBUFFER:
+    case StreamCapabilities.PREADBYTEBUFFER:
+    case StreamCapabilities.VECTOREDIO:
       return true;
     default:
       return false;
     }
   }
+
+  @Override
+  public void readVectored(List<? extends FileRange> ranges,
+      IntFunction<ByteBuffer> allocate) throws IOException {
+    List<? extends FileRange> sortedRanges =
+        VectoredReadUtils.validateNonOverlappingAndReturnSortedRanges(ranges);
+    for (FileRange range : ranges) {
+      VectoredReadUtils.validateRangeRequest(range);
+      range.setData(new CompletableFuture<>());
+    }
+    List<CombinedFileRange> combinedRanges =
+        VectoredReadUtils.mergeSortedRanges(sortedRanges, 1,
+            minSeekForVectorReads(), maxReadSizeForVectorReads());
+    for (CombinedFileRange combinedRange : combinedRanges) {
+      VECTORED_READ_EXECUTOR.execute(
+          () -> readCombinedRange(combinedRange, allocate));
+    }
+  }
+
+  private void readCombinedRange(CombinedFileRange combinedRange,
+      IntFunction<ByteBuffer> allocate) {
+    try {
+      final int length = combinedRange.getLength();
+      // A pooled allocator may return a larger buffer
+      ByteBuffer buffer = allocate.apply(length);
+      buffer.limit(length);
+      readFully(combinedRange.getOffset(), buffer);
+      buffer.flip();
+      for (FileRange range : combinedRange.getUnderlying()) {
+        range.getData().complete(VectoredReadUtils.sliceTo(buffer,
+            combinedRange.getOffset(), range));
+      }
+    } catch (Exception e) {
+      for (FileRange range : combinedRange.getUnderlying()) {
+        range.getData().completeExceptionally(e);
+      }
+    }
+  }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.hadoop.fs.ozone;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
@@ -27,9 +28,11 @@
 import org.apache.hadoop.hdds.annotation.InterfaceAudience;
 import org.apache.hadoop.hdds.annotation.InterfaceStability;
 import org.apache.hadoop.fs.ByteBufferReadable;
+import org.apache.hadoop.fs.FSExceptionMessages;
 import org.apache.hadoop.fs.FSInputStream;
 import org.apache.hadoop.fs.FileSystem.Statistics;
 import org.apache.hadoop.fs.Seekable;
+import org.apache.hadoop.hdds.scm.storage.MultipartInputStream;
 
 /**
  * The input stream for Ozone file system.
@@ -131,6 +134,73 @@ public int read(ByteBuffer buf) throws IOException {
     return bytesRead;
   }
 
+  /**
+   * Positioned read which does not change the position of the stream. Reads
+   * of a key are served by the underlying {@link MultipartInputStream}, so
+   * that concurrent positioned reads of different blocks do not block each
+   * other.
+   */
+  @Override
+  public int read(long position, byte[] buffer, int offset, int length)
+      throws IOException {
+    if (!(inputStream instanceof MultipartInputStream)) {
+      return super.read(position, buffer, offset, length);
+    }
+    return read(position, ByteBuffer.wrap(buffer, offset, length));
+  }
+
+  /**
+   * Reads up to {@code buf.remaining()} bytes starting at the given position,
+   * without changing the position of the stream.
+   *
+   * @return the number of bytes read, possibly zero, or -1 if the position
+   *         is at or beyond the end of the stream
+   */
+  public int read(long position, ByteBuffer buf) throws IOException {
+    if (buf.isReadOnly()) {
+      throw new ReadOnlyBufferException();
+    }
+
+    int bytesRead;
+    if (inputStream instanceof MultipartInputStream) {
+      bytesRead = ((MultipartInputStream) inputStream).read(position, buf);
+      if (statistics != null && bytesRead >= 0) {
+        statistics.incrementBytesRead(bytesRead);
+      }
+    } else if (buf.hasArray()) {
+      int pos = buf.position();
+      bytesRead = super.read(position, buf.array(),
+          buf.arrayOffset() + pos, buf.remaining());
+      if (bytesRead > 0) {
+        buf.position(pos + bytesRead);
+      }
+    } else {
+      byte[] readData = new byte[buf.remaining()];
+      bytesRead = super.read(position, readData, 0, readData.length);
+      if (bytesRead > 0) {
+        buf.put(readData, 0, bytesRead);
+      }
+    }
+    return bytesRead;
+  }
+
+  /**
+   * Reads {@code buf.remaining()} bytes starting at the given position,
+   * without changing the position of the stream.
+   *
+   * @throws EOFException if the end of the stream is reached before the
+   *         buffer is filled
+   */
+  public void readFully(long position, ByteBuffer buf) throws IOException {
+    while (buf.hasRemaining()) {
+      int bytesRead = read(position, buf);
+      if (bytesRead < 0) {
+        throw new EOFException(FSExceptionMessages.EOF_IN_READ_FULLY);
+      }
+      position += bytesRead;
+    }
+  }
+
   @Override
   public void unbuffer() {
     if (inputStream instanceof CanUnbuffer) {
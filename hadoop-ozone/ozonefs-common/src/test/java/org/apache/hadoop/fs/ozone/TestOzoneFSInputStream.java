@@ -24,23 +24,32 @@
 import org.apache.hadoop.crypto.CryptoCodec;
 import org.apache.hadoop.crypto.CryptoInputStream;
 import org.apache.hadoop.crypto.Decryptor;
+import org.apache.hadoop.fs.FileRange;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.StreamCapabilities;
+import org.apache.hadoop.hdds.scm.storage.ByteReaderStrategy;
+import org.apache.hadoop.hdds.scm.storage.ExtendedInputStream;
+import org.apache.hadoop.hdds.scm.storage.MultipartInputStream;
+import org.apache.hadoop.hdds.scm.storage.PartInputStream;
 import org.apache.hadoop.ozone.client.io.KeyInputStream;
 
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.IntFunction;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -138,6 +147,10 @@ public void testStreamCapability() throws IOException {
 
       assertTrue(capableOzoneFSInputStream.
           hasCapability(StreamCapabilities.READBYTEBUFFER));
+      assertTrue(capableOzoneFSInputStream.
+          hasCapability(StreamCapabilities.PREADBYTEBUFFER));
+      assertTrue(capableOzoneFSInputStream.
+          hasCapability(StreamCapabilities.VECTOREDIO));
     } finally {
       if (capableOzoneFSInputStream != null) {
         capableOzoneFSInputStream.close();
@@ -145,6 +158,67 @@ public void testStreamCapability() throws IOException {
     }
   }
 
+  @Test
+  public void positionedReadToByteBuffer() throws IOException {
+    final byte[] source = RandomUtils.nextBytes(1000);
+    for (IntFunction<ByteBuffer> constructor : BUFFER_CONSTRUCTORS) {
+      try (CapableOzoneFSInputStream subject =
+               createMultipartTestSubject(source, 100)) {
+        subject.seek(10);
+
+        // Spans three parts.
+        final ByteBuffer buf = constructor.apply(250);
+        subject.readFully(150, buf);
+
+        buf.flip();
+        final byte[] content = new byte[buf.remaining()];
+        buf.get(content);
+        assertArrayEquals(Arrays.copyOfRange(source, 150, 400), content);
+        assertEquals(10, subject.getPos());
+
+        final byte[] array = new byte[20];
+        assertEquals(10, subject.read(990, array, 5, 15));
+        assertArrayEquals(Arrays.copyOfRange(source, 990, 1000),
+            Arrays.copyOfRange(array, 5, 15));
+
+        assertEquals(-1, subject.read(1000, constructor.apply(1)));
+        assertThrows(EOFException.class,
+            () -> subject.readFully(900, constructor.apply(200)));
+        assertEquals(10, subject.getPos());
+      }
+    }
+  }
+
+  @Test
+  public void readVectored() throws Exception {
+    final byte[] source = RandomUtils.nextBytes(1000);
+    final List<IntFunction<ByteBuffer>> constructors =
+        new ArrayList<>(BUFFER_CONSTRUCTORS);
+    // Like a pooled allocator returning a buffer larger than requested.
+    constructors.add(length -> ByteBuffer.allocate(length + 64));
+    for (IntFunction<ByteBuffer> constructor : constructors) {
+      final List<FileRange> ranges = new ArrayList<>();
+      ranges.add(FileRange.createFileRange(900, 100));
+      ranges.add(FileRange.createFileRange(0, 10));
+      ranges.add(FileRange.createFileRange(12, 100));
+      ranges.add(FileRange.createFileRange(450, 120));
+      try (CapableOzoneFSInputStream subject =
+               createMultipartTestSubject(source, 100)) {
+        subject.readVectored(ranges, constructor);
+
+        for (FileRange range : ranges) {
+          final ByteBuffer data = range.getData().get(10, TimeUnit.SECONDS);
+          final byte[] content = new byte[data.remaining()];
+          data.get(content);
+          final int offset = (int) range.getOffset();
+          assertArrayEquals(Arrays.copyOfRange(source, offset,
+              offset + range.getLength()), content);
+        }
+        assertEquals(0, subject.getPos());
+      }
+    }
+  }
+
   @Test
   public void testCryptoStreamUnbuffer()
       throws IOException, GeneralSecurityException {
@@ -171,6 +245,18 @@ private static OzoneFSInputStream createTestSubject(InputStream input) {
         new FileSystem.Statistics("test"));
   }
 
+  private static CapableOzoneFSInputStream createMultipartTestSubject(
+      byte[] source, int partLength) {
+    final List<ByteArrayPartStream> parts = new ArrayList<>();
+    for (int offset = 0; offset < source.length; offset += partLength) {
+      parts.add(new ByteArrayPartStream(source, offset,
+          Math.min(partLength, source.length - offset)));
+    }
+    return new CapableOzoneFSInputStream(
+        new MultipartInputStream("key", parts),
+        new FileSystem.Statistics("test"));
+  }
+
   private static InputStream emptyStream() {
     return new ByteArrayInputStream(new byte[0]);
   }
@@ -189,4 +275,66 @@ public int read() {
     };
   }
 
+  /**
+   * Part of a {@link MultipartInputStream} backed by a byte array.
+   */
+  private static final class ByteArrayPartStream extends ExtendedInputStream
+      implements PartInputStream {
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+    private int pos;
+
+    ByteArrayPartStream(byte[] data, int offset, int length) {
+      this.data = data;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public long getLength() {
+      return length;
+    }
+
+    @Override
+    public synchronized void seek(long newPos) {
+      pos = (int) newPos;
+    }
+
+    @Override
+    public synchronized long getPos() {
+      return pos;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) {
+      if (pos >= length) {
+        return EOF;
+      }
+      int readLen = Math.min(len, length - pos);
+      System.arraycopy(data, offset + pos, b, off, readLen);
+      pos += readLen;
+      return readLen;
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer buf) {
+      if (pos >= length) {
+        return EOF;
+      }
+      int readLen = Math.min(buf.remaining(), length - pos);
+      buf.put(data, offset + pos, readLen);
+      pos += readLen;
+      return readLen;
+    }
+
+    @Override
+    protected int readWithStrategy(ByteReaderStrategy strategy) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void unbuffer() {
+    }
+  }
 }
@@ -347,6 +347,9 @@ public ReconStorageContainerManagerFacade(OzoneConfiguration conf,
     eventQueue.addHandler(SCMEvents.PIPELINE_ACTIONS, pipelineActionHandler);
     eventQueue.addHandler(SCMEvents.STALE_NODE, staleNodeHandler);
     eventQueue.addHandler(SCMEvents.DEAD_NODE, deadNodeHandler);
+    // Recon does not replicate containers, so there is nothing to check
+    eventQueue.addHandler(SCMEvents.CHECK_CONTAINER_REPLICATION,
+        (containerID, publisher) -> { });
     eventQueue.addHandler(SCMEvents.CONTAINER_ACTIONS, actionsHandler);
     eventQueue.addHandler(SCMEvents.CLOSE_CONTAINER, closeContainerHandler);
     eventQueue.addHandler(SCMEvents.NEW_NODE, newNodeHandler);
@@ -28,6 +28,7 @@
 import org.apache.hadoop.hdds.protocol.StorageType;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.ozone.OzoneAcl;
+import org.apache.hadoop.ozone.client.io.KeyCommitBatch;
 import org.apache.hadoop.ozone.client.io.OzoneDataStreamOutput;
 import org.apache.hadoop.ozone.client.io.OzoneInputStream;
 import org.apache.hadoop.ozone.client.io.OzoneOutputStream;
@@ -229,6 +230,23 @@ public OzoneOutputStream createKey(String volumeName, String bucketName,
         .createKey(keyName, size, replicationConfig, metadata);
   }
 
+  @Override
+  public OzoneOutputStream createKey(String volumeName, String bucketName,
+                                     String keyName, long size,
+                                     ReplicationConfig replicationConfig,
+                                     Map<String, String> metadata,
+                                     KeyCommitBatch commitBatch)
+      throws IOException {
+    return null;
+  }
+
+  @Override
+  public KeyCommitBatch createKeyCommitBatch(String volumeName,
+                                             String bucketName)
+      throws IOException {
+    return null;
+  }
+
   @Override
   public OzoneInputStream getKey(String volumeName, String bucketName,
                                  String keyName) throws IOException {